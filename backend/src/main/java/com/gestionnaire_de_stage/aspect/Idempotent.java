@@ -0,0 +1,16 @@
+package com.gestionnaire_de_stage.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Honors the Idempotency-Key header on the annotated controller method, which must return a ResponseEntity.
+ * A request repeating a key gets the successful response of the first one without running the method again,
+ * and waits for it while it is still running, on this instance or another one. Requests without the header are not affected.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
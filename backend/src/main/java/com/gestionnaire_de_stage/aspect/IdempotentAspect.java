@@ -0,0 +1,66 @@
+package com.gestionnaire_de_stage.aspect;
+
+import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.exception.IdempotencyKeyReusedException;
+import com.gestionnaire_de_stage.service.IdempotencyService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+
+@Aspect
+@Component
+public class IdempotentAspect {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotentAspect(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Around("@annotation(com.gestionnaire_de_stage.aspect.Idempotent)")
+    public Object replayIfDuplicate(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        String key = attributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) attributes).getRequest().getHeader(HEADER)
+                : null;
+        if (key == null)
+            return joinPoint.proceed();
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH)
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage("La clé d'idempotence est invalide"));
+
+        String scope = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        try {
+            return idempotencyService.execute(scope, key, Arrays.deepHashCode(joinPoint.getArgs()), () -> proceed(joinPoint));
+        } catch (IdempotencyKeyReusedException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        } catch (UndeclaredThrowableException e) {
+            throw e.getUndeclaredThrowable();
+        }
+    }
+
+    private ResponseEntity<?> proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return (ResponseEntity<?>) joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.gestionnaire_de_stage.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated scheduled method on the instance holding the lease only.
+ * The lease is renewed on each run and taken over by another instance once it expires,
+ * so leaseFor must be longer than both the interval and the run itself. A longer run renews it
+ * with LeaseService.tryAcquire under the same name.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LeaderLease {
+
+    /**
+     * Defaults to the class and method names.
+     */
+    String name() default "";
+
+    /**
+     * A duration such as "30s" or "PT5M", property placeholders are resolved.
+     */
+    String leaseFor();
+}
@@ -0,0 +1,41 @@
+package com.gestionnaire_de_stage.aspect;
+
+import com.gestionnaire_de_stage.service.LeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Aspect
+@Component
+@Slf4j(topic = "LeaderLeaseAspect")
+public class LeaderLeaseAspect {
+
+    private final LeaseService leaseService;
+
+    private final Environment environment;
+
+    public LeaderLeaseAspect(LeaseService leaseService, Environment environment) {
+        this.leaseService = leaseService;
+        this.environment = environment;
+    }
+
+    @Around("@annotation(leaderLease)")
+    public Object runIfLeader(ProceedingJoinPoint joinPoint, LeaderLease leaderLease) throws Throwable {
+        String name = leaderLease.name().isEmpty()
+                ? joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName()
+                : leaderLease.name();
+        Duration duration = DurationStyle.detectAndParse(environment.resolveRequiredPlaceholders(leaderLease.leaseFor()));
+
+        if (!leaseService.tryAcquire(name, duration)) {
+            log.debug("Skipping {}, the lease is held by another instance", name);
+            return null;
+        }
+        return joinPoint.proceed();
+    }
+}
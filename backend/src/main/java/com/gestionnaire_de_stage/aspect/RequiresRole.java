@@ -0,0 +1,26 @@
+package com.gestionnaire_de_stage.aspect;
+
+import com.gestionnaire_de_stage.enums.TypeUser;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restricts the annotated controller method to the users of the given roles. A method returning a ResponseEntity
+ * answers the refusal with a ResponseMessage, any other, as an event stream, throws a ResponseStatusException.
+ * The role is read from the claims of the bearer token, the user is not loaded.
+ * selfId and selfEmail name a path variable or a request parameter that must be the id or the email of the
+ * user, so they only reach their own data; the manager, who administers every account, is not restricted.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresRole {
+
+    TypeUser[] value();
+
+    String selfId() default "";
+
+    String selfEmail() default "";
+}
@@ -0,0 +1,76 @@
+package com.gestionnaire_de_stage.aspect;
+
+import com.gestionnaire_de_stage.config.JwtAuthenticationFilter;
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
+import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.enums.TypeUser;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Arrays;
+import java.util.Map;
+
+// Ordered before the other aspects, which run last by default, an @Idempotent response is never replayed to another user
+@Aspect
+@Component
+@Order(0)
+public class RequiresRoleAspect {
+
+    @Around("@annotation(requiresRole)")
+    public Object checkRole(ProceedingJoinPoint joinPoint, RequiresRole requiresRole) throws Throwable {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object user = attributes == null
+                ? null
+                : attributes.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER, RequestAttributes.SCOPE_REQUEST);
+        if (!(user instanceof AuthenticatedUserDTO)) {
+            Object invalidToken = attributes == null
+                    ? null
+                    : attributes.getAttribute(JwtAuthenticationFilter.INVALID_TOKEN, RequestAttributes.SCOPE_REQUEST);
+            return refuse(joinPoint, HttpStatus.UNAUTHORIZED, invalidToken == null ? "Vous devez être connecté" : invalidToken.toString());
+        }
+        AuthenticatedUserDTO authenticatedUser = (AuthenticatedUserDTO) user;
+        if (Arrays.stream(requiresRole.value()).noneMatch(role -> role == authenticatedUser.getRole())
+                || !isSelf(attributes, requiresRole, authenticatedUser))
+            return refuse(joinPoint, HttpStatus.FORBIDDEN, "Vous n'avez pas accès à cette ressource");
+        return joinPoint.proceed();
+    }
+
+    private Object refuse(ProceedingJoinPoint joinPoint, HttpStatus status, String message) {
+        if (ResponseEntity.class.isAssignableFrom(((MethodSignature) joinPoint.getSignature()).getReturnType()))
+            return ResponseEntity
+                    .status(status)
+                    .body(new ResponseMessage(message));
+        throw new ResponseStatusException(status, message);
+    }
+
+    private boolean isSelf(RequestAttributes attributes, RequiresRole requiresRole, AuthenticatedUserDTO user) {
+        if (user.getRole() == TypeUser.MANAGER)
+            return true;
+        if (!requiresRole.selfId().isEmpty()
+                && !String.valueOf(user.getId()).equals(valueOf(attributes, requiresRole.selfId())))
+            return false;
+        return requiresRole.selfEmail().isEmpty()
+                || user.getEmail() != null && user.getEmail().equalsIgnoreCase(valueOf(attributes, requiresRole.selfEmail()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private String valueOf(RequestAttributes attributes, String name) {
+        Object variables = attributes.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (variables instanceof Map && ((Map<String, String>) variables).containsKey(name))
+            return ((Map<String, String>) variables).get(name);
+        return attributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) attributes).getRequest().getParameter(name)
+                : null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.gestionnaire_de_stage.config;
+
+import com.gestionnaire_de_stage.service.DatabaseDocumentStore;
+import com.gestionnaire_de_stage.service.DocumentStore;
+import com.gestionnaire_de_stage.service.LocalDocumentStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DocumentStoreConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "document.store.type", havingValue = "database", matchIfMissing = true)
+    public DocumentStore databaseDocumentStore(DataSource dataSource) {
+        return new DatabaseDocumentStore(dataSource);
+    }
+
+    // Every instance must see the same files, the root is a mount shared by all of them
+    @Bean
+    @ConditionalOnProperty(name = "document.store.type", havingValue = "local")
+    public DocumentStore localDocumentStore(@Value("${document.store.root:documents}") String root,
+                                            @Value("${document.store.shared:false}") boolean shared) {
+        Assert.isTrue(shared, "Le dossier des documents (document.store.root) doit être partagé par toutes les instances, " +
+                "il faut le confirmer avec document.store.shared=true");
+        return new LocalDocumentStore(root);
+    }
+}
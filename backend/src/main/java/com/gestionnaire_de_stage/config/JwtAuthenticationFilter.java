@@ -0,0 +1,58 @@
+package com.gestionnaire_de_stage.config;
+
+import com.gestionnaire_de_stage.exception.InvalidTokenException;
+import com.gestionnaire_de_stage.service.JwtService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Validates the bearer token of the request and exposes its user in the AUTHENTICATED_USER attribute.
+ * Requests without a valid token go through anonymously, the endpoints decide with @RequiresRole;
+ * the reason an expired or invalid token was ignored is kept in the INVALID_TOKEN attribute.
+ * An EventSource cannot send headers, the notification stream may carry a short-lived stream ticket in the
+ * access_token parameter; a URL ends up in logs and history, so the bearer token is never read from there.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    // Constant expressions, the controllers read the user with @RequestAttribute
+    public static final String AUTHENTICATED_USER = "com.gestionnaire_de_stage.config.JwtAuthenticationFilter.AUTHENTICATED_USER";
+
+    public static final String INVALID_TOKEN = "com.gestionnaire_de_stage.config.JwtAuthenticationFilter.INVALID_TOKEN";
+
+    private static final String BEARER = "Bearer ";
+
+    private static final String ACCESS_TOKEN = "access_token";
+
+    private static final String STREAM_PATH = "/notification/stream/";
+
+    private final JwtService jwtService;
+
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String ticket = isStream(request) ? request.getParameter(ACCESS_TOKEN) : null;
+        try {
+            if (header != null && header.startsWith(BEARER))
+                request.setAttribute(AUTHENTICATED_USER, jwtService.parse(header.substring(BEARER.length()).trim()));
+            else if (ticket != null)
+                request.setAttribute(AUTHENTICATED_USER, jwtService.parseStreamTicket(ticket));
+        } catch (InvalidTokenException e) {
+            request.setAttribute(INVALID_TOKEN, e.getMessage());
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean isStream(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + STREAM_PATH);
+    }
+}
@@ -0,0 +1,17 @@
+package com.gestionnaire_de_stage.config;
+
+import com.gestionnaire_de_stage.service.JwtService;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SecurityConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilter(JwtService jwtService) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(new JwtAuthenticationFilter(jwtService));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,26 @@
+package com.gestionnaire_de_stage.config;
+
+import com.gestionnaire_de_stage.converter.StoredDocumentHttpMessageConverter;
+import com.gestionnaire_de_stage.converter.StoredDocumentRegionHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> {
+            if (converter.getClass() == ResourceHttpMessageConverter.class)
+                return new StoredDocumentHttpMessageConverter();
+            if (converter.getClass() == ResourceRegionHttpMessageConverter.class)
+                return new StoredDocumentRegionHttpMessageConverter();
+            return converter;
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.gestionnaire_de_stage.controller;
+
+import com.gestionnaire_de_stage.dto.LoginDTO;
+import com.gestionnaire_de_stage.dto.LoginResponseDTO;
+import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
+import com.gestionnaire_de_stage.model.User;
+import com.gestionnaire_de_stage.service.JwtService;
+import com.gestionnaire_de_stage.service.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/auth")
+public class AuthController {
+
+    private final UserService userService;
+
+    private final JwtService jwtService;
+
+    public AuthController(UserService userService, JwtService jwtService) {
+        this.userService = userService;
+        this.jwtService = jwtService;
+    }
+
+    @PostMapping("/login")
+    public ResponseEntity<?> login(@RequestBody LoginDTO loginDTO) {
+        try {
+            User user = userService.getOneByEmailAndPassword(loginDTO.getEmail(), loginDTO.getPassword());
+            // The type is optional, when it is given the account must have this role
+            if (loginDTO.getType() != null && loginDTO.getType() != user.getRole())
+                throw new EmailAndPasswordDoesNotExistException("Courriel ou mot de passe invalide");
+            return ResponseEntity.ok(new LoginResponseDTO(jwtService.issue(user.getId(), user.getRole(), user.getEmail()), user));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+    }
+}
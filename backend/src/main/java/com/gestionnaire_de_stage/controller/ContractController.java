@@ -1,23 +1,26 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.aspect.Idempotent;
+import com.gestionnaire_de_stage.aspect.RequiresRole;
+import com.gestionnaire_de_stage.config.JwtAuthenticationFilter;
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
 import com.gestionnaire_de_stage.dto.ContractStarterDto;
+import com.gestionnaire_de_stage.dto.ContractSummaryDTO;
+import com.gestionnaire_de_stage.dto.DocumentDTO;
 import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.enums.DocumentType;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.model.Contract;
 import com.gestionnaire_de_stage.model.Stage;
 import com.gestionnaire_de_stage.model.Student;
+import com.gestionnaire_de_stage.service.ContractRenderingService;
 import com.gestionnaire_de_stage.service.ContractService;
+import com.gestionnaire_de_stage.service.DocumentService;
 import com.gestionnaire_de_stage.service.StageService;
-import com.itextpdf.html2pdf.HtmlConverter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.WebContext;
 
-import javax.servlet.ServletContext;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
-import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 @RestController
@@ -25,38 +28,34 @@ import java.util.List;
 @RequestMapping("/contracts")
 public class ContractController {
 
-    private final ServletContext servletContext;
-
     private final ContractService contractService;
 
-    private final TemplateEngine templateEngine;
+    private final ContractRenderingService contractRenderingService;
 
     private final StageService stageService;
 
-    public ContractController(ContractService contractService, TemplateEngine templateEngine, ServletContext servletContext, StageService stageService) {
-        this.servletContext = servletContext;
+    private final DocumentService documentService;
+
+    public ContractController(ContractService contractService, ContractRenderingService contractRenderingService, StageService stageService, DocumentService documentService) {
         this.contractService = contractService;
-        this.templateEngine = templateEngine;
+        this.contractRenderingService = contractRenderingService;
         this.stageService = stageService;
+        this.documentService = documentService;
     }
 
     @GetMapping("/ready_to_sign")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> contractsNeedSignature() {
-        List<Contract> contractList = contractService.getAllUnsignedContracts();
+        List<ContractSummaryDTO> contractList = contractService.getAllUnsignedContracts();
         return ResponseEntity.ok(contractList);
     }
 
     @PutMapping("/managerSign/{managerSignature}/{contract_id}")
-    public ResponseEntity<?> managerSignContract(HttpServletRequest request, HttpServletResponse response, @PathVariable String managerSignature, @PathVariable Long contract_id) {
+    @RequiresRole(TypeUser.MANAGER)
+    public ResponseEntity<?> managerSignContract(@PathVariable String managerSignature, @PathVariable Long contract_id) {
         try {
             Contract contract = contractService.addManagerSignature(managerSignature, contract_id);
-            WebContext context = new WebContext(request, response, servletContext);
-            context.setVariable("contract", contract);
-            String contractHtml = templateEngine.process("contractTemplate", context);
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            HtmlConverter.convertToPdf(contractHtml, baos);
-            contractService.fillPDF(contract, baos);
+            contractRenderingService.queueRendering(contract.getId());
         } catch (Exception e) {
             return ResponseEntity
                     .badRequest()
@@ -67,20 +66,14 @@ public class ContractController {
                 .body(new ResponseMessage("Contrat signé"));
     }
 
+    @Idempotent
     @PostMapping("/start")
-    public ResponseEntity<?> createContract(HttpServletRequest request, HttpServletResponse response, @RequestBody ContractStarterDto contractStarterDto) {
+    @RequiresRole(TypeUser.MANAGER)
+    public ResponseEntity<?> createContract(@RequestBody ContractStarterDto contractStarterDto) {
         try {
             Contract contract = new Contract();
             contract = contractService.gsStartContract(contract, contractStarterDto);
-
-            WebContext context = new WebContext(request, response, servletContext);
-            context.setVariable("contract", contract);
-
-            String contractHtml = templateEngine.process("contractTemplate", context);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            HtmlConverter.convertToPdf(contractHtml, baos);
-            contract.setContractPDF(baos.toByteArray());
-            contractService.updateContract(contract);
+            contractRenderingService.queueRendering(contract.getId());
         } catch (Exception e) {
             return ResponseEntity
                     .badRequest()
@@ -90,8 +83,9 @@ public class ContractController {
     }
 
     @GetMapping("/monitor/{monitor_id}")
+    @RequiresRole(value = TypeUser.MONITOR, selfId = "monitor_id")
     public ResponseEntity<?> ContractNeedsMonitorSignature(@PathVariable Long monitor_id) {
-        List<Contract> contractList;
+        List<ContractSummaryDTO> contractList;
         try {
             contractList = contractService.getAllUnsignedContractForMonitor(monitor_id);
         } catch (Exception e) {
@@ -104,16 +98,14 @@ public class ContractController {
     }
 
     @PutMapping("/monitorSign/{monitorSignature}/{contract_id}")
-    public ResponseEntity<?> monitorSignContract(HttpServletRequest request, HttpServletResponse response, @PathVariable String monitorSignature, @PathVariable Long contract_id) {
+    @RequiresRole(TypeUser.MONITOR)
+    public ResponseEntity<?> monitorSignContract(@PathVariable String monitorSignature, @PathVariable Long contract_id,
+                                                 @RequestAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUserDTO user) {
         try {
+            if (!Ownership.isOwner(contractService.getOneById(contract_id).getMonitor(), user))
+                return Ownership.forbidden();
             Contract contract = contractService.addMonitorSignature(monitorSignature, contract_id);
-            WebContext context = new WebContext(request, response, servletContext);
-            context.setVariable("contract", contract);
-            String contractHtml = templateEngine.process("contractTemplate", context);
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            HtmlConverter.convertToPdf(contractHtml, baos);
-            contractService.fillPDF(contract, baos);
+            contractRenderingService.queueRendering(contract.getId());
         } catch (Exception e) {
             return ResponseEntity
                     .badRequest()
@@ -125,6 +117,7 @@ public class ContractController {
     }
 
     @GetMapping("/student/{student_id}")
+    @RequiresRole(value = TypeUser.STUDENT, selfId = "student_id")
     public ResponseEntity<?> ContractNeedsStudentSignature(@PathVariable Long student_id) {
         Contract contract;
         try {
@@ -138,17 +131,15 @@ public class ContractController {
     }
 
     @PutMapping("/studentSign/{studentSignature}/{contract_id}")
-    public ResponseEntity<?> studentSignContract(HttpServletRequest request, HttpServletResponse response, @PathVariable String studentSignature, @PathVariable Long contract_id) {
+    @RequiresRole(TypeUser.STUDENT)
+    public ResponseEntity<?> studentSignContract(@PathVariable String studentSignature, @PathVariable Long contract_id,
+                                                 @RequestAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUserDTO user) {
         Stage stage = new Stage();
         try {
+            if (!Ownership.isOwner(contractService.getOneById(contract_id).getStudent(), user))
+                return Ownership.forbidden();
             Contract contract = contractService.addStudentSignature(studentSignature, contract_id);
-            WebContext context = new WebContext(request, response, servletContext);
-            context.setVariable("contract", contract);
-            String contractHtml = templateEngine.process("contractTemplate", context);
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            HtmlConverter.convertToPdf(contractHtml, baos);
-            contract = contractService.fillPDF(contract, baos);
+            contractRenderingService.queueRendering(contract.getId());
             Student student = contract.getStudent();
             stage.setContract(contract);
             stageService.create(stage, student.getMatricule());
@@ -162,19 +153,46 @@ public class ContractController {
                 .body(new ResponseMessage("Contrat signé"));
     }
 
+    @GetMapping("/pdf/{contract_id}")
+    @RequiresRole({TypeUser.STUDENT, TypeUser.MONITOR, TypeUser.MANAGER})
+    public ResponseEntity<?> getContractPDF(@PathVariable Long contract_id,
+                                            @RequestAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUserDTO user) {
+        DocumentDTO contractPDF;
+        try {
+            Contract contract = contractService.getOneById(contract_id);
+            if (!Ownership.isOwner(user.getRole() == TypeUser.MONITOR ? contract.getMonitor() : contract.getStudent(), user))
+                return Ownership.forbidden();
+            contractPDF = documentService.getDocument(DocumentType.CONTRACT, contract_id);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+        return DocumentResponses.of(contractPDF, "Le PDF du contrat n'est pas encore généré");
+    }
+
+    @GetMapping("/rendering/stats")
+    @RequiresRole(TypeUser.MANAGER)
+    public ResponseEntity<?> getRenderingStats() {
+        return ResponseEntity.ok(contractRenderingService.getStats());
+    }
+
     @GetMapping("/manager/signed/{managerId}")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> getAllSignedContractsByManager(@PathVariable Long managerId) {
-        List<Contract> signedContractsByManager = contractService.getAllSignedContractsByManager(managerId);
+        List<ContractSummaryDTO> signedContractsByManager = contractService.getAllSignedContractsByManager(managerId);
         return ResponseEntity.ok(signedContractsByManager);
     }
 
     @GetMapping("/monitor/signed/{monitor_id}")
+    @RequiresRole(value = TypeUser.MONITOR, selfId = "monitor_id")
     public ResponseEntity<?> getAllSignedContractsByMonitor(@PathVariable Long monitor_id) {
-        List<Contract> allSignedContractsByMonitor = contractService.getAllSignedContractsByMonitor(monitor_id);
+        List<ContractSummaryDTO> allSignedContractsByMonitor = contractService.getAllSignedContractsByMonitor(monitor_id);
         return ResponseEntity.ok(allSignedContractsByMonitor);
     }
 
     @GetMapping("/student/signed/{student_id}")
+    @RequiresRole(value = TypeUser.STUDENT, selfId = "student_id")
     public ResponseEntity<?> getSignedContractByStudent(@PathVariable Long student_id) {
         Contract studentContract;
         try {
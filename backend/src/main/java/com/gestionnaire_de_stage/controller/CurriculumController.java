@@ -1,15 +1,26 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.aspect.RequiresRole;
+import com.gestionnaire_de_stage.config.JwtAuthenticationFilter;
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
+import com.gestionnaire_de_stage.dto.CurriculumSummaryDTO;
+import com.gestionnaire_de_stage.dto.DocumentDTO;
 import com.gestionnaire_de_stage.dto.ResponseMessage;
 import com.gestionnaire_de_stage.dto.StudentCurriculumsDTO;
 import com.gestionnaire_de_stage.dto.ValidationCurriculum;
+import com.gestionnaire_de_stage.enums.DocumentType;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.model.Curriculum;
 import com.gestionnaire_de_stage.model.Student;
+import com.gestionnaire_de_stage.service.CurriculumSearchService;
 import com.gestionnaire_de_stage.service.CurriculumService;
+import com.gestionnaire_de_stage.service.DocumentService;
+import com.gestionnaire_de_stage.service.OfferApplicationService;
 import com.gestionnaire_de_stage.service.StudentService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -24,12 +35,23 @@ public class CurriculumController {
 
     private final StudentService studentService;
 
-    public CurriculumController(CurriculumService curriculumService, StudentService studentService) {
+    private final DocumentService documentService;
+
+    private final CurriculumSearchService curriculumSearchService;
+
+    private final OfferApplicationService offerApplicationService;
+
+    public CurriculumController(CurriculumService curriculumService, StudentService studentService, DocumentService documentService,
+                                CurriculumSearchService curriculumSearchService, OfferApplicationService offerApplicationService) {
         this.curriculumService = curriculumService;
         this.studentService = studentService;
+        this.documentService = documentService;
+        this.curriculumSearchService = curriculumSearchService;
+        this.offerApplicationService = offerApplicationService;
     }
 
     @PostMapping("/upload")
+    @RequiresRole(value = TypeUser.STUDENT, selfId = "id")
     public ResponseEntity<ResponseMessage> uploadCurriculum(@RequestParam("file") MultipartFile file,
                                                             @RequestParam("id") Long studentId) {
         Curriculum curriculum;
@@ -50,9 +72,18 @@ public class CurriculumController {
                 .body(new ResponseMessage("Le curriculum a été téléversé avec succès"));
     }
 
+    // Multipart parsing is lazy, so an oversized part is rejected here before it reaches the service
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ResponseMessage> handleMaxUploadSizeExceeded(MaxUploadSizeExceededException e) {
+        return ResponseEntity
+                .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(new ResponseMessage("Le fichier dépasse la taille maximale permise"));
+    }
+
     @GetMapping("/student/{id}")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> getAllCurriculumByStudentId(@PathVariable Long id) {
-        List<Curriculum> curriculumList;
+        List<CurriculumSummaryDTO> curriculumList;
         try {
             curriculumList = curriculumService.findAllByStudentId(id);
         } catch (Exception e) {
@@ -64,6 +95,7 @@ public class CurriculumController {
     }
 
     @GetMapping("/all_student/{studentID}")
+    @RequiresRole(value = TypeUser.STUDENT, selfId = "studentID")
     public ResponseEntity<?> allCurriculumsByStudentAsStudentCurriculumsDTO(@PathVariable long studentID) {
         try {
             Student student = studentService.getOneByID(studentID);
@@ -76,7 +108,58 @@ public class CurriculumController {
         }
     }
 
+    @GetMapping("/document/{curriculumId}")
+    @RequiresRole({TypeUser.STUDENT, TypeUser.MONITOR, TypeUser.MANAGER})
+    public ResponseEntity<?> getCurriculumDocument(@PathVariable Long curriculumId,
+                                                   @RequestAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUserDTO user) {
+        DocumentDTO document;
+        try {
+            // A monitor only reads the curriculums sent with an application to one of their offers
+            boolean allowed = user.getRole() == TypeUser.MONITOR
+                    ? offerApplicationService.isCurriculumSentToMonitor(curriculumId, user.getId())
+                    : Ownership.isOwner(curriculumService.getOneById(curriculumId).getStudent(), user);
+            if (!allowed)
+                return Ownership.forbidden();
+            document = documentService.getDocument(DocumentType.CURRICULUM, curriculumId);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+        return DocumentResponses.of(document, "Ce curriculum n'a pas de contenu");
+    }
+
+    @GetMapping("/search")
+    @RequiresRole(TypeUser.MANAGER)
+    public ResponseEntity<?> searchCurriculums(@RequestParam(required = false) String q,
+                                               @RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(curriculumSearchService.search(q, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search/monitor/{email}")
+    @RequiresRole(value = TypeUser.MONITOR, selfEmail = "email")
+    public ResponseEntity<?> searchApplicantCurriculums(@PathVariable String email,
+                                                        @RequestParam(required = false) String q,
+                                                        @RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(curriculumSearchService.searchApplicantsOf(email, q, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+    }
+
     @PostMapping("/validate")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> validate(@RequestBody ValidationCurriculum validationCurriculum) {
         try {
             curriculumService.validate(validationCurriculum);
@@ -90,8 +173,12 @@ public class CurriculumController {
     }
 
     @DeleteMapping("/delete/{curriculumId}")
-    public ResponseEntity<?> deleteOneById(@PathVariable long curriculumId) {
+    @RequiresRole(TypeUser.STUDENT)
+    public ResponseEntity<?> deleteOneById(@PathVariable long curriculumId,
+                                           @RequestAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUserDTO user) {
         try {
+            if (!Ownership.isOwner(curriculumService.getOneById(curriculumId).getStudent(), user))
+                return Ownership.forbidden();
             curriculumService.deleteOneById(curriculumId);
         } catch (Exception e) {
             return ResponseEntity
@@ -0,0 +1,31 @@
+package com.gestionnaire_de_stage.controller;
+
+import com.gestionnaire_de_stage.dto.DocumentDTO;
+import com.gestionnaire_de_stage.dto.ResponseMessage;
+import org.springframework.http.*;
+
+import java.nio.charset.StandardCharsets;
+
+final class DocumentResponses {
+
+    private DocumentResponses() {
+    }
+
+    static ResponseEntity<?> of(DocumentDTO document, String missingMessage) {
+        if (document == null)
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(new ResponseMessage(missingMessage));
+        // Range requests and If-None-Match are resolved by Spring MVC from the Resource body and the ETag
+        return ResponseEntity
+                .ok()
+                .eTag(document.getHash())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.parseMediaType(document.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(document.getFileName(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .body(document.getContent());
+    }
+}
@@ -1,8 +1,12 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.aspect.RequiresRole;
 import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.model.Manager;
+import com.gestionnaire_de_stage.service.MailQueueService;
 import com.gestionnaire_de_stage.service.ManagerService;
+import com.gestionnaire_de_stage.service.OutboxService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,24 +17,30 @@ public class ManagerController {
 
     private final ManagerService managerService;
 
-    public ManagerController(ManagerService managerService) {
-        this.managerService = managerService;
-    }
+    private final MailQueueService mailQueueService;
 
-    @GetMapping("/{email}/{password}")
-    public ResponseEntity<?> login(@PathVariable String email, @PathVariable String password) {
-        try {
-            Manager manager = managerService.getOneByEmailAndPassword(email, password);
-            return ResponseEntity.ok(manager);
-        } catch (Exception e) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(new ResponseMessage(e.getMessage()));
-        }
+    private final OutboxService outboxService;
+
+    public ManagerController(ManagerService managerService, MailQueueService mailQueueService, OutboxService outboxService) {
+        this.managerService = managerService;
+        this.mailQueueService = mailQueueService;
+        this.outboxService = outboxService;
     }
 
     @GetMapping("/email/{email}")
     public ResponseEntity<?> checkValidEmail(@PathVariable String email) {
         return ResponseEntity.ok(managerService.isEmailInvalid(email));
     }
+
+    @GetMapping("/mail_queue/stats")
+    @RequiresRole(TypeUser.MANAGER)
+    public ResponseEntity<?> getMailQueueStats() {
+        return ResponseEntity.ok(mailQueueService.getStats());
+    }
+
+    @GetMapping("/outbox/stats")
+    @RequiresRole(TypeUser.MANAGER)
+    public ResponseEntity<?> getOutboxStats() {
+        return ResponseEntity.ok(outboxService.getStats());
+    }
 }
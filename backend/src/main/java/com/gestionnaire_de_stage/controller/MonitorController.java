@@ -1,6 +1,8 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.aspect.RequiresRole;
 import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.model.Monitor;
 import com.gestionnaire_de_stage.service.MonitorService;
 import org.springframework.http.HttpStatus;
@@ -39,20 +41,8 @@ public class MonitorController {
         return ResponseEntity.ok(monitorService.isEmailInvalid(email));
     }
 
-    @GetMapping("/{email}/{password}")
-    public ResponseEntity<?> login(@PathVariable String email, @PathVariable String password) {
-
-        try {
-            Monitor monitor = monitorService.getOneByEmailAndPassword(email, password);
-            return ResponseEntity.ok(monitor);
-        } catch (Exception e) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(new ResponseMessage(e.getMessage()));
-        }
-    }
-
     @PutMapping("/change_password/{id}")
+    @RequiresRole(value = TypeUser.MONITOR, selfId = "id")
     public ResponseEntity<?> updatePassword(@PathVariable Long id, @RequestBody String password) {
         try {
             monitorService.changePassword(id, password);
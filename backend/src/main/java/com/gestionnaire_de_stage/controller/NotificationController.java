@@ -1,11 +1,23 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.aspect.RequiresRole;
+import com.gestionnaire_de_stage.config.JwtAuthenticationFilter;
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
+import com.gestionnaire_de_stage.dto.NotificationDTO;
 import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.dto.StreamTicketDTO;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.model.Notification;
 import com.gestionnaire_de_stage.service.NotificationService;
+import com.gestionnaire_de_stage.service.JwtService;
+import com.gestionnaire_de_stage.service.NotificationStreamService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -15,11 +27,35 @@ public class NotificationController {
 
     private final NotificationService notificationService;
 
-    public NotificationController(NotificationService notificationService) {
+    private final NotificationStreamService notificationStreamService;
+
+    private final JwtService jwtService;
+
+    public NotificationController(NotificationService notificationService, NotificationStreamService notificationStreamService,
+                                  JwtService jwtService) {
         this.notificationService = notificationService;
+        this.notificationStreamService = notificationStreamService;
+        this.jwtService = jwtService;
+    }
+
+    // The EventSource opens the stream with this ticket, it cannot send the bearer token
+    @PostMapping("/stream_ticket")
+    @RequiresRole({TypeUser.STUDENT, TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER})
+    public ResponseEntity<?> getStreamTicket(@RequestAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUserDTO user) {
+        return ResponseEntity.ok(new StreamTicketDTO(jwtService.issueStreamTicket(user)));
+    }
+
+    // A new EventSource, opened with a new ticket, passes the last event id in the URL instead of the header
+    @GetMapping(value = "/stream/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequiresRole(value = {TypeUser.STUDENT, TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER}, selfId = "userId")
+    public SseEmitter streamByUser(@PathVariable long userId,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                   @RequestParam(value = "lastEventId", required = false) Long lastEventIdParameter) {
+        return notificationStreamService.subscribe(userId, lastEventId != null ? lastEventId : lastEventIdParameter);
     }
 
     @GetMapping("/all/{userId}")
+    @RequiresRole(value = {TypeUser.STUDENT, TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER}, selfId = "userId")
     public ResponseEntity<?> getAllByUser(@PathVariable long userId) {
         try {
             List<Notification> notifications = notificationService.getAllByUserId(userId);
@@ -32,9 +68,57 @@ public class NotificationController {
         }
     }
 
+    @GetMapping("/history/{userId}")
+    @RequiresRole(value = {TypeUser.STUDENT, TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER}, selfId = "userId")
+    public ResponseEntity<?> getHistoryByUser(@PathVariable long userId,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeDate,
+                                              @RequestParam(required = false) Long beforeId,
+                                              @RequestParam(defaultValue = "20") int size) {
+        try {
+            List<NotificationDTO> notifications = notificationService.getHistoryByUserId(userId, beforeDate, beforeId, size);
+            return ResponseEntity
+                    .ok(notifications);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/unread_count/{userId}")
+    @RequiresRole(value = {TypeUser.STUDENT, TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER}, selfId = "userId")
+    public ResponseEntity<?> getUnreadCountByUser(@PathVariable long userId) {
+        try {
+            return ResponseEntity
+                    .ok(notificationService.getUnreadCount(userId));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+    }
+
+    @PutMapping("/set_all_seen/{userId}")
+    @RequiresRole(value = {TypeUser.STUDENT, TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER}, selfId = "userId")
+    public ResponseEntity<?> updateAllSeen(@PathVariable long userId) {
+        try {
+            int updated = notificationService.updateAllSeen(userId);
+            return ResponseEntity
+                    .ok(new ResponseMessage(updated + " notification(s) mise(s) à vue"));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+    }
+
     @GetMapping("/set_seen/{notificationId}")
-    public ResponseEntity<?> updateSeen(@PathVariable long notificationId) {
+    @RequiresRole({TypeUser.STUDENT, TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER})
+    public ResponseEntity<?> updateSeen(@PathVariable long notificationId,
+                                        @RequestAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUserDTO user) {
         try {
+            if (!Ownership.isOwner(notificationService.getOneById(notificationId).getTargetedUser(), user))
+                return Ownership.forbidden();
             Notification notification = notificationService.updateSeen(notificationId);
             return ResponseEntity
                     .ok(notification);
@@ -1,12 +1,21 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.aspect.Idempotent;
+import com.gestionnaire_de_stage.aspect.RequiresRole;
+import com.gestionnaire_de_stage.config.JwtAuthenticationFilter;
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
 import com.gestionnaire_de_stage.dto.OfferAppDTO;
+import com.gestionnaire_de_stage.dto.PlacementPlanDTO;
 import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.dto.UpdateRankDTO;
 import com.gestionnaire_de_stage.dto.UpdateStatusDTO;
 import com.gestionnaire_de_stage.enums.Status;
+import com.gestionnaire_de_stage.enums.TypeUser;
+import com.gestionnaire_de_stage.exception.NotOwnerException;
 import com.gestionnaire_de_stage.model.OfferApplication;
 import com.gestionnaire_de_stage.model.Student;
 import com.gestionnaire_de_stage.service.OfferApplicationService;
+import com.gestionnaire_de_stage.service.PlacementService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,12 +29,16 @@ import static org.springframework.http.HttpStatus.CREATED;
 @CrossOrigin
 public class OfferApplicationController {
     private final OfferApplicationService offerApplicationService;
+    private final PlacementService placementService;
 
-    public OfferApplicationController(OfferApplicationService offerApplicationService) {
+    public OfferApplicationController(OfferApplicationService offerApplicationService, PlacementService placementService) {
         this.offerApplicationService = offerApplicationService;
+        this.placementService = placementService;
     }
 
+    @Idempotent
     @PostMapping("/apply")
+    @RequiresRole(TypeUser.STUDENT)
     public ResponseEntity<?> studentApplyToOffer(@RequestBody OfferAppDTO offerAppDTO) {
         try {
             offerApplicationService.create(offerAppDTO.getIdOffer(), offerAppDTO.getIdStudent());
@@ -40,6 +53,7 @@ public class OfferApplicationController {
     }
 
     @GetMapping("/applicants/{email}")
+    @RequiresRole(value = TypeUser.MONITOR, selfEmail = "email")
     public ResponseEntity<?> viewApplicantList(@PathVariable String email) {
         List<OfferApplication> offerApplicationList;
         try {
@@ -54,6 +68,7 @@ public class OfferApplicationController {
 
 
     @GetMapping("/applicants/manager/{id}")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> getOffersApplicationsStageTrouver(@PathVariable Long id) {
         List<OfferApplication> offerApplicationList;
         try {
@@ -67,8 +82,12 @@ public class OfferApplicationController {
     }
 
     @PostMapping("/setdate/{offerAppID}")
-    public ResponseEntity<?> setInterviewDate(@PathVariable Long offerAppID, @RequestBody LocalDateTime date) {
+    @RequiresRole(TypeUser.STUDENT)
+    public ResponseEntity<?> setInterviewDate(@PathVariable Long offerAppID, @RequestBody LocalDateTime date,
+                                              @RequestAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUserDTO user) {
         try {
+            if (!Ownership.isOwner(offerApplicationService.getOneById(offerAppID).getCurriculum().getStudent(), user))
+                return Ownership.forbidden();
             OfferApplication offerApplication = offerApplicationService.setInterviewDate(offerAppID, date);
             return ResponseEntity.ok(offerApplication);
         } catch (Exception e) {
@@ -79,6 +98,7 @@ public class OfferApplicationController {
     }
 
     @GetMapping("/applicants/cv_sent/{id}")
+    @RequiresRole(value = TypeUser.STUDENT, selfId = "id")
     public ResponseEntity<?> getAllByOfferStatusAndStudentID(@PathVariable Long id) {
         try {
             List<OfferApplication> offerApplicationList = offerApplicationService.getAllByOfferStatusAndStudentID(Status.CV_ENVOYE, id);
@@ -91,6 +111,7 @@ public class OfferApplicationController {
     }
 
     @GetMapping("/applicants/supervisor")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> getOffersApplicationsStageTrouverForSupervisor() {
         List<Student> studentList = offerApplicationService.getOffersApplicationsStageTrouver();
 
@@ -98,9 +119,13 @@ public class OfferApplicationController {
     }
 
     @PostMapping("/student/update_status")
-    public ResponseEntity<?> updateStatus(@RequestBody UpdateStatusDTO updateStatusDTO) {
+    @RequiresRole(TypeUser.STUDENT)
+    public ResponseEntity<?> updateStatus(@RequestBody UpdateStatusDTO updateStatusDTO,
+                                          @RequestAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUserDTO user) {
         String message;
         try {
+            if (!Ownership.isOwner(offerApplicationService.getOneById(updateStatusDTO.getIdOfferApplied()).getCurriculum().getStudent(), user))
+                return Ownership.forbidden();
             message = offerApplicationService.updateStatus(updateStatusDTO);
         } catch (Exception e) {
             return ResponseEntity
@@ -110,7 +135,64 @@ public class OfferApplicationController {
         return ResponseEntity.ok(new ResponseMessage(message));
     }
 
+    @PostMapping("/student/update_rank")
+    @RequiresRole(TypeUser.STUDENT)
+    public ResponseEntity<?> updateStudentRank(@RequestBody UpdateRankDTO updateRankDTO,
+                                               @RequestAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUserDTO user) {
+        try {
+            return ResponseEntity.ok(offerApplicationService.updateStudentRank(updateRankDTO, user.getId()));
+        } catch (NotOwnerException e) {
+            return Ownership.forbidden();
+        } catch (Exception e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/monitor/update_rank")
+    @RequiresRole(TypeUser.MONITOR)
+    public ResponseEntity<?> updateMonitorRank(@RequestBody UpdateRankDTO updateRankDTO,
+                                               @RequestAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUserDTO user) {
+        try {
+            return ResponseEntity.ok(offerApplicationService.updateMonitorRank(updateRankDTO, user.getId()));
+        } catch (NotOwnerException e) {
+            return Ownership.forbidden();
+        } catch (Exception e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/placement/{sessionId}")
+    @RequiresRole(TypeUser.MANAGER)
+    public ResponseEntity<?> proposePlacement(@PathVariable Long sessionId) {
+        try {
+            return ResponseEntity.ok(placementService.propose(sessionId));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/placement/{sessionId}")
+    @RequiresRole(TypeUser.MANAGER)
+    public ResponseEntity<?> applyPlacement(@PathVariable Long sessionId, @RequestBody PlacementPlanDTO plan) {
+        int updated;
+        try {
+            updated = placementService.apply(sessionId, plan);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+        return ResponseEntity.ok(new ResponseMessage(updated + " candidatures mises à jour"));
+    }
+
     @GetMapping("/applicants/offerApp/student/{id}")
+    @RequiresRole(value = {TypeUser.STUDENT, TypeUser.MANAGER}, selfId = "id")
     public ResponseEntity<?> getAllOffersApplied(@PathVariable Long id) {
         List<OfferApplication> offerApplicationList;
         try {
@@ -124,6 +206,7 @@ public class OfferApplicationController {
     }
 
     @GetMapping
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> getAllOffersApplication() {
         return ResponseEntity.ok(offerApplicationService.getAllOffersApplication());
     }
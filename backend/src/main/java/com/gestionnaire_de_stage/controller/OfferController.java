@@ -1,12 +1,19 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.aspect.RequiresRole;
 import com.gestionnaire_de_stage.dto.OfferDTO;
+import com.gestionnaire_de_stage.dto.OfferSearchDTO;
 import com.gestionnaire_de_stage.dto.ResponseMessage;
 import com.gestionnaire_de_stage.dto.ValidationOffer;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.service.OfferCatalogService;
+import com.gestionnaire_de_stage.service.OfferRecommendationService;
+import com.gestionnaire_de_stage.service.OfferSearchService;
 import com.gestionnaire_de_stage.service.OfferService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,12 +26,23 @@ public class OfferController {
 
     private final OfferService offerService;
 
-    public OfferController(OfferService offerService) {
+    private final OfferCatalogService offerCatalogService;
+
+    private final OfferSearchService offerSearchService;
+
+    private final OfferRecommendationService offerRecommendationService;
+
+    public OfferController(OfferService offerService, OfferCatalogService offerCatalogService, OfferSearchService offerSearchService,
+                           OfferRecommendationService offerRecommendationService) {
         this.offerService = offerService;
+        this.offerCatalogService = offerCatalogService;
+        this.offerSearchService = offerSearchService;
+        this.offerRecommendationService = offerRecommendationService;
     }
 
 
     @PostMapping("/add")
+    @RequiresRole({TypeUser.MONITOR, TypeUser.MANAGER})
     public ResponseEntity<?> addOffer(@RequestBody OfferDTO dto) {
         Offer offer;
         try {
@@ -39,12 +57,40 @@ public class OfferController {
                 .body(offer);
     }
 
+    @GetMapping("/search")
+    @RequiresRole({TypeUser.STUDENT, TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER})
+    public ResponseEntity<?> searchOffers(OfferSearchDTO criteria) {
+        try {
+            return ResponseEntity.ok(offerSearchService.search(criteria));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/recommendations/{studentId}")
+    @RequiresRole(value = TypeUser.STUDENT, selfId = "studentId")
+    public ResponseEntity<?> getRecommendedOffers(@PathVariable Long studentId) {
+        try {
+            return ResponseEntity.ok(offerRecommendationService.getRecommendations(studentId));
+        } catch (IdDoesNotExistException | IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+    }
+
     @GetMapping({"/{studentId}"})
-    public ResponseEntity<?> getListOffersNotYetApplied(@PathVariable Long studentId) {
+    @RequiresRole(value = TypeUser.STUDENT, selfId = "studentId")
+    public ResponseEntity<?> getListOffersNotYetApplied(@PathVariable Long studentId,
+                                                        @RequestParam(required = false) Long sessionId,
+                                                        @RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "20") int size) {
         List<Offer> offers;
         try {
-            offers = offerService.getOffersNotYetApplied(studentId);
-        } catch (IdDoesNotExistException e) {
+            offers = offerService.getOffersNotYetApplied(studentId, sessionId, page, size);
+        } catch (IdDoesNotExistException | IllegalArgumentException e) {
             return ResponseEntity
                     .badRequest()
                     .body(new ResponseMessage(e.getMessage()));
@@ -54,6 +100,7 @@ public class OfferController {
     }
 
     @PostMapping("/validate")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> validateOffer(@RequestBody ValidationOffer validationOffer) {
         try {
             Offer offer = offerService.validation(validationOffer);
@@ -66,12 +113,15 @@ public class OfferController {
     }
 
     @GetMapping("/valid")
+    @RequiresRole({TypeUser.STUDENT, TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER})
     public ResponseEntity<?> getValidOffers() {
-        List<Offer> offers = offerService.getValidOffers();
-        return ResponseEntity.ok(offers);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(offerCatalogService.getValidOffersJson());
     }
 
     @GetMapping("/not_validated")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> getNotValidatedOffers() {
         List<Offer> offers = offerService.getNotValidatedOffers();
         return ResponseEntity.ok(offers);
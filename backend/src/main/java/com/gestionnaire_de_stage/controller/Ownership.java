@@ -0,0 +1,26 @@
+package com.gestionnaire_de_stage.controller;
+
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
+import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.enums.TypeUser;
+import com.gestionnaire_de_stage.model.User;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+// @RequiresRole checks the ids in the path, the resources reached by their own id are checked with their owner
+final class Ownership {
+
+    private Ownership() {
+    }
+
+    // The manager administers every account, as with @RequiresRole selfId
+    static boolean isOwner(User owner, AuthenticatedUserDTO user) {
+        return user.getRole() == TypeUser.MANAGER || owner != null && user.getId().equals(owner.getId());
+    }
+
+    static ResponseEntity<ResponseMessage> forbidden() {
+        return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .body(new ResponseMessage("Vous n'avez pas accès à cette ressource"));
+    }
+}
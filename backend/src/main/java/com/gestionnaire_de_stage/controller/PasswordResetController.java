@@ -30,6 +30,8 @@ public class PasswordResetController {
                 case STUDENT:
                     passwordResetService.forgotPasswordStudent(email);
                     break;
+                default:
+                    throw new IllegalArgumentException("Ce type d'utilisateur ne peut pas réinitialiser son mot de passe");
             }
         } catch (Exception e) {
             return ResponseEntity
@@ -1,6 +1,8 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.aspect.RequiresRole;
 import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.model.Session;
 import com.gestionnaire_de_stage.service.SessionService;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +20,7 @@ public class SessionController {
 
 
     @PostMapping
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> createSession(@RequestBody Session session) {
         try {
             sessionService.createSession(session);
@@ -31,6 +34,7 @@ public class SessionController {
     }
 
     @GetMapping
+    @RequiresRole({TypeUser.STUDENT, TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER})
     public ResponseEntity<?> getActualAndFutureSessions() {
         return ResponseEntity.ok(sessionService.getActualAndFutureSessions());
     }
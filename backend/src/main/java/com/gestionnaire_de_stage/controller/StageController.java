@@ -1,24 +1,27 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.aspect.Idempotent;
+import com.gestionnaire_de_stage.aspect.RequiresRole;
+import com.gestionnaire_de_stage.dto.DocumentDTO;
 import com.gestionnaire_de_stage.dto.EvalMilieuStageDTO;
 import com.gestionnaire_de_stage.dto.EvalStagiaireDTO;
 import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.dto.StageSummaryDTO;
+import com.gestionnaire_de_stage.enums.DocumentType;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.model.Stage;
 import com.gestionnaire_de_stage.service.ContractService;
+import com.gestionnaire_de_stage.service.DocumentService;
+import com.gestionnaire_de_stage.service.PdfRenderingEngine;
 import com.gestionnaire_de_stage.service.StageService;
-import com.itextpdf.html2pdf.HtmlConverter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.WebContext;
 
-import javax.servlet.ServletContext;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
 import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/stages")
@@ -29,33 +32,31 @@ public class StageController {
 
     private final ContractService contractService;
 
-    private final ServletContext servletContext;
+    private final PdfRenderingEngine pdfRenderingEngine;
 
-    private final TemplateEngine templateEngine;
+    private final DocumentService documentService;
 
     public StageController(StageService stageService,
                            ContractService contractService,
-                           TemplateEngine templateEngine,
-                           ServletContext servletContext) {
+                           PdfRenderingEngine pdfRenderingEngine,
+                           DocumentService documentService) {
         this.stageService = stageService;
         this.contractService = contractService;
-        this.templateEngine = templateEngine;
-        this.servletContext = servletContext;
+        this.pdfRenderingEngine = pdfRenderingEngine;
+        this.documentService = documentService;
     }
 
+    @Idempotent
     @PostMapping("/supervisor/fill_form")
-    public ResponseEntity<?> fillEvalMilieuStagePDF(@RequestBody EvalMilieuStageDTO evalMilieuStageDTO, HttpServletRequest request, HttpServletResponse response) {
+    @RequiresRole(TypeUser.SUPERVISOR)
+    public ResponseEntity<?> fillEvalMilieuStagePDF(@RequestBody EvalMilieuStageDTO evalMilieuStageDTO) {
         Stage stage = new Stage();
         evalMilieuStageDTO.setSignatureDate(LocalDate.now());
         try {
             stage.setContract(contractService.getContractByStudentMatricule(evalMilieuStageDTO.getStudentMatricule()));
             stage = stageService.create(stage, evalMilieuStageDTO.getStudentMatricule());
-            WebContext context = new WebContext(request, response, servletContext);
-            context.setVariable("formInfo", evalMilieuStageDTO);
-            String evalMilieuStageHtml = templateEngine.process("evalMilieuStage", context);
-
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            HtmlConverter.convertToPdf(evalMilieuStageHtml, baos);
+            pdfRenderingEngine.renderToPdf("evalMilieuStage", Map.of("formInfo", evalMilieuStageDTO), baos);
             stageService.addEvalMilieuStage(stage, baos);
         } catch (Exception e) {
             return ResponseEntity
@@ -67,18 +68,15 @@ public class StageController {
                 .body(new ResponseMessage("Évaluation remplie!"));
     }
 
+    @Idempotent
     @PostMapping("/monitor/fill_form")
-    public ResponseEntity<?> fillEvalStagiairePDF(@RequestBody EvalStagiaireDTO evalStagiaireDTO, HttpServletRequest request, HttpServletResponse response) {
+    @RequiresRole(TypeUser.MONITOR)
+    public ResponseEntity<?> fillEvalStagiairePDF(@RequestBody EvalStagiaireDTO evalStagiaireDTO) {
         Stage stage;
         try {
             stage = stageService.getStageByStudentEmail(evalStagiaireDTO.getStudentEmail());
-            WebContext context = new WebContext(request, response, servletContext);
-            context.setVariable("formInfo", evalStagiaireDTO);
-            String contractHtml = templateEngine.process("evalStagiaire", context);
-
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            HtmlConverter.convertToPdf(contractHtml, baos);
-
+            pdfRenderingEngine.renderToPdf("evalStagiaire", Map.of("formInfo", evalStagiaireDTO), baos);
             stageService.addEvalStagiaire(stage, baos);
         } catch (Exception e) {
             return ResponseEntity
@@ -91,9 +89,10 @@ public class StageController {
     }
 
     @GetMapping("/supervisor/{idSupervisor}")
+    @RequiresRole(value = TypeUser.SUPERVISOR, selfId = "idSupervisor")
     public ResponseEntity<?> getAllEvaluationsForSupervisor(@PathVariable Long idSupervisor) {
         try {
-            List<Stage> stages = stageService.getAllEvaluationsForSupervisor(idSupervisor);
+            List<StageSummaryDTO> stages = stageService.getAllEvaluationsForSupervisor(idSupervisor);
             return ResponseEntity.ok(stages);
         } catch (Exception e) {
             return ResponseEntity
@@ -103,7 +102,32 @@ public class StageController {
     }
 
     @GetMapping("/monitor/{idMonitor}")
-    public List<Stage> getAllEvaluationsForMonitor(@PathVariable Long idMonitor) {
-        return stageService.getAllEvaluationsForMonitor(idMonitor);
+    @RequiresRole(value = TypeUser.MONITOR, selfId = "idMonitor")
+    public ResponseEntity<?> getAllEvaluationsForMonitor(@PathVariable Long idMonitor) {
+        return ResponseEntity.ok(stageService.getAllEvaluationsForMonitor(idMonitor));
+    }
+
+    @GetMapping("/eval_milieu_stage/{idStage}")
+    @RequiresRole({TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER})
+    public ResponseEntity<?> getEvalMilieuStagePDF(@PathVariable Long idStage) {
+        return toPdfResponse(DocumentType.EVAL_MILIEU_STAGE, idStage);
+    }
+
+    @GetMapping("/eval_stagiaire/{idStage}")
+    @RequiresRole({TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.MANAGER})
+    public ResponseEntity<?> getEvalStagiairePDF(@PathVariable Long idStage) {
+        return toPdfResponse(DocumentType.EVAL_STAGIAIRE, idStage);
+    }
+
+    private ResponseEntity<?> toPdfResponse(DocumentType type, Long idStage) {
+        DocumentDTO evaluation;
+        try {
+            evaluation = documentService.getDocument(type, idStage);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ResponseMessage(e.getMessage()));
+        }
+        return DocumentResponses.of(evaluation, "Cette évaluation n'a pas encore été remplie");
     }
 }
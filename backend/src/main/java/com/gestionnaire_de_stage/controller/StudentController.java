@@ -1,7 +1,9 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.aspect.RequiresRole;
 import com.gestionnaire_de_stage.dto.ResponseMessage;
 import com.gestionnaire_de_stage.dto.StudentMonitorOfferDTO;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.model.Stage;
 import com.gestionnaire_de_stage.model.Student;
 import com.gestionnaire_de_stage.service.ContractService;
@@ -53,20 +55,8 @@ public class StudentController {
         return ResponseEntity.ok(studentService.isEmailInvalid(email));
     }
 
-    @GetMapping("/{email}/{password}")
-    public ResponseEntity<?> login(@PathVariable String email, @PathVariable String password) {
-        Student student;
-        try {
-            student = studentService.getOneByEmailAndPassword(email, password);
-        } catch (Exception e) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(new ResponseMessage(e.getMessage()));
-        }
-        return ResponseEntity.ok(student);
-    }
-
     @GetMapping("/set_principal/{studentID}/{curriculumID}")
+    @RequiresRole(value = TypeUser.STUDENT, selfId = "studentID")
     public ResponseEntity<?> setPrincipalCurriculum(@PathVariable long studentID, @PathVariable long curriculumID) {
         try {
             Student student = studentService.getOneByID(studentID);
@@ -80,17 +70,20 @@ public class StudentController {
     }
 
     @GetMapping
-    public List<Student> getAllStudents() {
-        return studentService.getAll();
+    @RequiresRole(TypeUser.MANAGER)
+    public ResponseEntity<?> getAllStudents() {
+        return ResponseEntity.ok(studentService.getAll());
     }
 
     @GetMapping("/needAssignement")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> getAllStudentsNotAssigned() {
         List<Student> studentList = studentService.getAllUnassignedStudents();
         return ResponseEntity.ok(studentList);
     }
 
     @GetMapping("/not_evaluated")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> getAllStudentsNotYetEvaluatedAsStudentMonitorOfferDTO() {
         try {
             List<Stage> stageList = stageService.getAllWithNoEvalStagiaire();
@@ -107,6 +100,7 @@ public class StudentController {
     }
 
     @GetMapping("/company_not_evaluated")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> getAllStudentsWithCompanyNotYetEvaluatedAsStudentMonitorOfferDTO() {
         try {
             List<Stage> stageList = stageService.getAllWithNoEvalMilieu();
@@ -123,6 +117,7 @@ public class StudentController {
     }
 
     @PutMapping("/change_password/{id}")
+    @RequiresRole(value = TypeUser.STUDENT, selfId = "id")
     public ResponseEntity<?> updatePassword(@PathVariable Long id, @RequestBody String password) {
         try {
             studentService.changePassword(id, password);
@@ -1,7 +1,9 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.aspect.RequiresRole;
 import com.gestionnaire_de_stage.dto.AssignDto;
 import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.model.OfferApplication;
 import com.gestionnaire_de_stage.model.Student;
 import com.gestionnaire_de_stage.model.Supervisor;
@@ -49,25 +51,14 @@ public class SupervisorController {
         return ResponseEntity.ok(supervisorService.isEmailInvalid(email));
     }
 
-    @GetMapping("/{email}/{password}")
-    public ResponseEntity<?> login(@PathVariable String email, @PathVariable String password) {
-        Supervisor supervisor;
-        try {
-            supervisor = supervisorService.getOneByEmailAndPassword(email, password);
-        } catch (Exception e) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(new ResponseMessage(e.getMessage()));
-        }
-        return ResponseEntity.ok(supervisor);
-    }
-
     @GetMapping
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> getAllSupervisor() {
         return ResponseEntity.ok(supervisorService.getAll());
     }
 
     @PostMapping("/assign/student")
+    @RequiresRole(TypeUser.MANAGER)
     public ResponseEntity<?> AssignSupervisor(@RequestBody AssignDto assignDto) {
         Student student;
         Supervisor supervisor;
@@ -89,6 +80,7 @@ public class SupervisorController {
     }
 
     @GetMapping("/students_status/{supervisor_id}")
+    @RequiresRole(value = TypeUser.SUPERVISOR, selfId = "supervisor_id")
     public ResponseEntity<?> getAllStudentsStatus(@PathVariable Long supervisor_id) {
         List<OfferApplication> offerApplicationList;
         try {
@@ -103,6 +95,7 @@ public class SupervisorController {
     }
 
     @PutMapping("/change_password/{id}")
+    @RequiresRole(value = TypeUser.SUPERVISOR, selfId = "id")
     public ResponseEntity<?> updatePassword(@PathVariable Long id, @RequestBody String password) {
         try {
             supervisorService.changePassword(id, password);
@@ -0,0 +1,26 @@
+package com.gestionnaire_de_stage.converter;
+
+import com.gestionnaire_de_stage.service.StoredDocumentResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+
+public class StoredDocumentHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!(resource instanceof StoredDocumentResource)) {
+            super.writeContent(resource, outputMessage);
+            return;
+        }
+        OutputStream body = outputMessage.getBody();
+        ((StoredDocumentResource) resource).transferTo(0, resource.contentLength(), Channels.newChannel(body));
+        body.flush();
+    }
+}
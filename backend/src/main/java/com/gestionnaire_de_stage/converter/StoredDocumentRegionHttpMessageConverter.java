@@ -0,0 +1,32 @@
+package com.gestionnaire_de_stage.converter;
+
+import com.gestionnaire_de_stage.service.StoredDocumentResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+
+public class StoredDocumentRegionHttpMessageConverter extends ResourceRegionHttpMessageConverter {
+
+    @Override
+    protected void writeResourceRegion(ResourceRegion region, HttpOutputMessage outputMessage) throws IOException {
+        if (!(region.getResource() instanceof StoredDocumentResource)) {
+            super.writeResourceRegion(region, outputMessage);
+            return;
+        }
+        StoredDocumentResource resource = (StoredDocumentResource) region.getResource();
+        long start = region.getPosition();
+        long end = Math.min(start + region.getCount(), resource.contentLength()) - 1;
+        long rangeLength = end - start + 1;
+        outputMessage.getHeaders().add(HttpHeaders.CONTENT_RANGE, "bytes " + start + '-' + end + '/' + resource.contentLength());
+        outputMessage.getHeaders().setContentLength(rangeLength);
+
+        OutputStream body = outputMessage.getBody();
+        resource.transferTo(start, rangeLength, Channels.newChannel(body));
+        body.flush();
+    }
+}
@@ -0,0 +1,17 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppliedOfferDTO {
+
+    private Long studentId;
+
+    private Long offerId;
+
+    private Long sessionId;
+}
@@ -0,0 +1,15 @@
+package com.gestionnaire_de_stage.dto;
+
+import com.gestionnaire_de_stage.enums.TypeUser;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthenticatedUserDTO {
+    private Long id;
+    private TypeUser role;
+    private String email;
+}
@@ -0,0 +1,25 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ContractRenderingStatsDTO {
+
+    private int queueDepth;
+
+    private int activeRenders;
+
+    private long completedRenders;
+
+    private long failedRenders;
+
+    private long rejectedRenders;
+
+    private long lastLatencyMs;
+
+    private long averageLatencyMs;
+
+    private long maxLatencyMs;
+}
@@ -0,0 +1,66 @@
+package com.gestionnaire_de_stage.dto;
+
+import com.gestionnaire_de_stage.enums.PdfStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class ContractSummaryDTO {
+
+    private Long id;
+
+    private LocalDate managerSignDate;
+
+    private LocalDate monitorSignDate;
+
+    private LocalDate studentSignDate;
+
+    private String managerSignature;
+
+    private String monitorSignature;
+
+    private String studentSignature;
+
+    private PdfStatus pdfStatus;
+
+    private Long contractPDFSize;
+
+    private String contractPDFHash;
+
+    private Long offerId;
+
+    private String offerTitle;
+
+    private UserSummaryDTO student;
+
+    private UserSummaryDTO monitor;
+
+    private UserSummaryDTO manager;
+
+    public ContractSummaryDTO(Long id, LocalDate managerSignDate, LocalDate monitorSignDate, LocalDate studentSignDate,
+                              String managerSignature, String monitorSignature, String studentSignature,
+                              PdfStatus pdfStatus, Long contractPDFSize, String contractPDFHash,
+                              Long offerId, String offerTitle,
+                              Long studentId, String studentFirstName, String studentLastName, String studentEmail,
+                              Long monitorId, String monitorFirstName, String monitorLastName, String monitorEmail,
+                              Long managerId, String managerFirstName, String managerLastName, String managerEmail) {
+        this.id = id;
+        this.managerSignDate = managerSignDate;
+        this.monitorSignDate = monitorSignDate;
+        this.studentSignDate = studentSignDate;
+        this.managerSignature = managerSignature;
+        this.monitorSignature = monitorSignature;
+        this.studentSignature = studentSignature;
+        this.pdfStatus = pdfStatus;
+        this.contractPDFSize = contractPDFSize;
+        this.contractPDFHash = contractPDFHash;
+        this.offerId = offerId;
+        this.offerTitle = offerTitle;
+        this.student = UserSummaryDTO.of(studentId, studentFirstName, studentLastName, studentEmail);
+        this.monitor = UserSummaryDTO.of(monitorId, monitorFirstName, monitorLastName, monitorEmail);
+        this.manager = UserSummaryDTO.of(managerId, managerFirstName, managerLastName, managerEmail);
+    }
+}
@@ -0,0 +1,20 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurriculumSearchHitDTO {
+
+    private CurriculumSummaryDTO curriculum;
+
+    private double score;
+
+    // Passages of the curriculum around the words found, HTML escaped with the words within <mark>
+    private List<String> snippets;
+}
@@ -0,0 +1,17 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurriculumSearchResultDTO {
+
+    private List<CurriculumSearchHitDTO> curriculums;
+
+    private int total;
+}
@@ -0,0 +1,34 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class CurriculumSummaryDTO {
+
+    private Long id;
+
+    private String name;
+
+    private String type;
+
+    private Boolean isValid;
+
+    private Long dataSize;
+
+    private String dataHash;
+
+    private UserSummaryDTO student;
+
+    public CurriculumSummaryDTO(Long id, String name, String type, Boolean isValid, Long dataSize, String dataHash,
+                                Long studentId, String studentFirstName, String studentLastName, String studentEmail) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.isValid = isValid;
+        this.dataSize = dataSize;
+        this.dataHash = dataHash;
+        this.student = UserSummaryDTO.of(studentId, studentFirstName, studentLastName, studentEmail);
+    }
+}
@@ -0,0 +1,22 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.io.Resource;
+
+@Getter
+@AllArgsConstructor
+public class DocumentDTO {
+
+    private Long id;
+
+    private long size;
+
+    private String hash;
+
+    private String contentType;
+
+    private String fileName;
+
+    private Resource content;
+}
@@ -0,0 +1,15 @@
+package com.gestionnaire_de_stage.dto;
+
+import com.gestionnaire_de_stage.enums.TypeUser;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginDTO {
+    private String email;
+    private String password;
+    private TypeUser type;
+}
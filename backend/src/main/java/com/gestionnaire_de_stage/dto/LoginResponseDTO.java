@@ -0,0 +1,14 @@
+package com.gestionnaire_de_stage.dto;
+
+import com.gestionnaire_de_stage.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResponseDTO {
+    private String token;
+    private User user;
+}
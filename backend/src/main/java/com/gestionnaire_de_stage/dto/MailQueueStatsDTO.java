@@ -0,0 +1,21 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MailQueueStatsDTO {
+
+    private long pendingMails;
+
+    private long abandonedMails;
+
+    private long sentMails;
+
+    private long failedAttempts;
+
+    private long connections;
+
+    private long lastBatchLatencyMs;
+}
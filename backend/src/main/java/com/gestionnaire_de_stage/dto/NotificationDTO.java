@@ -0,0 +1,23 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDTO {
+
+    private Long id;
+
+    private Long userId;
+
+    private String message;
+
+    private boolean seen;
+
+    private LocalDateTime createdDate;
+}
@@ -45,5 +45,8 @@ public class OfferDTO {
     @NotBlank(message = "Le nombre d'heure par semaine est vide")
     private String nbHeureSemaine;
 
+    @Min(value = 1, message = "Le nombre de places doit être positif.")
+    private Integer capacity;
+
     private Long idSession;
 }
\ No newline at end of file
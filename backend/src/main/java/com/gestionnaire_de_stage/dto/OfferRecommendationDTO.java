@@ -0,0 +1,26 @@
+package com.gestionnaire_de_stage.dto;
+
+import com.gestionnaire_de_stage.model.Offer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OfferRecommendationDTO {
+
+    private Offer offer;
+
+    private double score;
+
+    private boolean departmentMatch;
+
+    // Cosine between the principal curriculum and the offer, 0 without a curriculum
+    private double curriculumSimilarity;
+
+    private boolean sessionFit;
+
+    // Share of the co-applicants of the student, the students who applied to the same offers, who applied to this one
+    private double coApplication;
+}
@@ -0,0 +1,32 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class OfferSearchDTO {
+
+    private String q;
+
+    private String department;
+
+    private Long sessionId;
+
+    private Double minSalary;
+
+    private Double maxSalary;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startsAfter;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate endsBefore;
+
+    private int page = 0;
+
+    private int size = 20;
+}
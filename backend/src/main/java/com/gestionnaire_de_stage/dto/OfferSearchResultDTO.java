@@ -0,0 +1,25 @@
+package com.gestionnaire_de_stage.dto;
+
+import com.gestionnaire_de_stage.model.Offer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OfferSearchResultDTO {
+
+    private List<Offer> offers;
+
+    private int total;
+
+    private Map<String, Long> departments;
+
+    private Map<Long, Long> sessions;
+
+    private Map<String, Long> salaryRanges;
+}
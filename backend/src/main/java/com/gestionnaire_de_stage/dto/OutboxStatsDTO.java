@@ -0,0 +1,14 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OutboxStatsDTO {
+
+    private long pendingEvents;
+
+    // Failed max-attempts times, kept in the outbox until someone looks at them
+    private long abandonedEvents;
+}
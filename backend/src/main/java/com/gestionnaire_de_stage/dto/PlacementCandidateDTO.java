@@ -0,0 +1,26 @@
+package com.gestionnaire_de_stage.dto;
+
+import com.gestionnaire_de_stage.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlacementCandidateDTO {
+
+    private Long offerApplicationId;
+
+    private Long studentId;
+
+    private Long offerId;
+
+    private Integer capacity;
+
+    private Status status;
+
+    private Integer studentRank;
+
+    private Integer monitorRank;
+}
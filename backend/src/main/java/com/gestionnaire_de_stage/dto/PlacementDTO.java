@@ -0,0 +1,23 @@
+package com.gestionnaire_de_stage.dto;
+
+import com.gestionnaire_de_stage.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlacementDTO {
+
+    private Long offerApplicationId;
+
+    private Long studentId;
+
+    private Long offerId;
+
+    // Checked when the plan is applied, the application must not have changed since
+    private Status currentStatus;
+
+    private Status status;
+}
@@ -0,0 +1,21 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlacementPlanDTO {
+
+    private Long sessionId;
+
+    private List<PlacementDTO> placements;
+
+    private int placedStudents;
+
+    private int unplacedStudents;
+}
@@ -0,0 +1,17 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledInterviewDTO {
+
+    private Long offerApplicationId;
+
+    private LocalDateTime interviewDate;
+}
@@ -0,0 +1,44 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class StageSummaryDTO {
+
+    private Long id;
+
+    private Long contractId;
+
+    private Long evalMilieuStageSize;
+
+    private String evalMilieuStageHash;
+
+    private Long evalStagiaireSize;
+
+    private String evalStagiaireHash;
+
+    private UserSummaryDTO student;
+
+    private UserSummaryDTO monitor;
+
+    private UserSummaryDTO supervisor;
+
+    public StageSummaryDTO(Long id, Long contractId,
+                           Long evalMilieuStageSize, String evalMilieuStageHash,
+                           Long evalStagiaireSize, String evalStagiaireHash,
+                           Long studentId, String studentFirstName, String studentLastName, String studentEmail,
+                           Long monitorId, String monitorFirstName, String monitorLastName, String monitorEmail,
+                           Long supervisorId, String supervisorFirstName, String supervisorLastName, String supervisorEmail) {
+        this.id = id;
+        this.contractId = contractId;
+        this.evalMilieuStageSize = evalMilieuStageSize;
+        this.evalMilieuStageHash = evalMilieuStageHash;
+        this.evalStagiaireSize = evalStagiaireSize;
+        this.evalStagiaireHash = evalStagiaireHash;
+        this.student = UserSummaryDTO.of(studentId, studentFirstName, studentLastName, studentEmail);
+        this.monitor = UserSummaryDTO.of(monitorId, monitorFirstName, monitorLastName, monitorEmail);
+        this.supervisor = UserSummaryDTO.of(supervisorId, supervisorFirstName, supervisorLastName, supervisorEmail);
+    }
+}
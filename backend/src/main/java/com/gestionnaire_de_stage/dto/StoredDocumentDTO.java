@@ -0,0 +1,13 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StoredDocumentDTO {
+
+    private String key;
+
+    private long size;
+}
@@ -1,6 +1,5 @@
 package com.gestionnaire_de_stage.dto;
 
-import com.gestionnaire_de_stage.model.Curriculum;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -10,11 +9,11 @@ import java.util.List;
 @NoArgsConstructor
 public class StudentCurriculumsDTO {
 
-    private Curriculum principal;
+    private CurriculumSummaryDTO principal;
 
-    private List<Curriculum> curriculumList;
+    private List<CurriculumSummaryDTO> curriculumList;
 
-    public StudentCurriculumsDTO(Curriculum principal, List<Curriculum> curriculumDTOS) {
+    public StudentCurriculumsDTO(CurriculumSummaryDTO principal, List<CurriculumSummaryDTO> curriculumDTOS) {
         this.principal = principal;
         this.curriculumList = curriculumDTOS;
     }
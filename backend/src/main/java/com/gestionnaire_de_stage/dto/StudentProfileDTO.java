@@ -0,0 +1,17 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentProfileDTO {
+
+    private Long studentId;
+
+    private String department;
+
+    private Long principalCurriculumId;
+}
@@ -0,0 +1,16 @@
+package com.gestionnaire_de_stage.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UpdateRankDTO {
+    private Long idOfferApplied;
+    // 1 for the first choice, empty to remove the preference
+    private Integer rank;
+}
@@ -0,0 +1,23 @@
+package com.gestionnaire_de_stage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    static UserSummaryDTO of(Long id, String firstName, String lastName, String email) {
+        return id == null ? null : new UserSummaryDTO(id, firstName, lastName, email);
+    }
+}
@@ -0,0 +1,27 @@
+package com.gestionnaire_de_stage.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum DocumentType {
+    CONTRACT("contract", "contractpdf", "contractpdfsize", "contractpdfhash",
+            "Aucun contrat ne correspond à cet identifiant"),
+    CURRICULUM("curriculum", "data", "data_size", "data_hash",
+            "Il n'y a pas de curriculum associé à cet identifiant"),
+    EVAL_MILIEU_STAGE("stage", "eval_milieu_stage", "eval_milieu_stage_size", "eval_milieu_stage_hash",
+            "Il n'y a pas de stage associé à cet identifiant"),
+    EVAL_STAGIAIRE("stage", "eval_stagiaire", "eval_stagiaire_size", "eval_stagiaire_hash",
+            "Il n'y a pas de stage associé à cet identifiant");
+
+    private final String table;
+
+    private final String contentColumn;
+
+    private final String sizeColumn;
+
+    private final String hashColumn;
+
+    private final String notFoundMessage;
+}
@@ -0,0 +1,13 @@
+package com.gestionnaire_de_stage.enums;
+
+public enum OutboxEventType {
+    CURRICULUM_VALIDATED,
+    OFFER_CREATED,
+    OFFER_VALIDATED,
+    OFFER_APPLICATION_CREATED,
+    OFFER_APPLICATION_STAGE_TROUVE,
+    OFFER_APPLICATION_INTERVIEW_SET,
+    OFFER_APPLICATION_INTERVIEW_PASSED,
+    CONTRACT_SIGNED_BY_MANAGER,
+    CONTRACT_SIGNED_BY_MONITOR
+}
@@ -0,0 +1,7 @@
+package com.gestionnaire_de_stage.enums;
+
+public enum PdfStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -6,5 +6,6 @@ import lombok.ToString;
 public enum TypeUser {
     MONITOR,
     STUDENT,
-    SUPERVISOR
+    SUPERVISOR,
+    MANAGER
 }
@@ -0,0 +1,8 @@
+package com.gestionnaire_de_stage.enums;
+
+public enum UserIdentifier {
+    // Unique among all the users, whatever their role
+    EMAIL,
+    STUDENT_MATRICULE,
+    SUPERVISOR_MATRICULE
+}
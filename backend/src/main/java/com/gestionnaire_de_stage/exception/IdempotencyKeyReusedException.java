@@ -0,0 +1,8 @@
+package com.gestionnaire_de_stage.exception;
+
+public class IdempotencyKeyReusedException extends Exception {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.gestionnaire_de_stage.exception;
+
+public class InvalidTokenException extends Exception {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.gestionnaire_de_stage.exception;
+
+public class NotOwnerException extends Exception {
+
+    public NotOwnerException(String message) {
+        super(message);
+    }
+
+}
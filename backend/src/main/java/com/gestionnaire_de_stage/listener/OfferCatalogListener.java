@@ -0,0 +1,72 @@
+package com.gestionnaire_de_stage.listener;
+
+import com.gestionnaire_de_stage.model.Monitor;
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.Session;
+import com.gestionnaire_de_stage.service.OfferCatalogService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+@Component
+public class OfferCatalogListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final OfferCatalogService offerCatalogService;
+
+    public OfferCatalogListener(EntityManagerFactory entityManagerFactory, OfferCatalogService offerCatalogService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.offerCatalogService = offerCatalogService;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // A new offer waits for its validation, it is not in the catalog yet
+        if (event.getEntity() instanceof Offer && Boolean.TRUE.equals(((Offer) event.getEntity()).getValid()))
+            offerCatalogService.evictAll();
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        // The catalog holds the serialized offers with their session and creator
+        if (entity instanceof Offer && (inCatalog(event.getOldState(), event) || inCatalog(event.getState(), event)))
+            offerCatalogService.evictAll();
+        else if (entity instanceof Session || entity instanceof Monitor)
+            offerCatalogService.evictAll();
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Offer || event.getEntity() instanceof Session)
+            offerCatalogService.evictAll();
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private boolean inCatalog(Object[] state, PostUpdateEvent event) {
+        if (state == null)
+            return true;
+        int index = event.getPersister().getEntityMetamodel().getPropertyIndex("valid");
+        return Boolean.TRUE.equals(state[index]);
+    }
+}
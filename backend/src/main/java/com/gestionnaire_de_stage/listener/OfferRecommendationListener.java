@@ -0,0 +1,97 @@
+package com.gestionnaire_de_stage.listener;
+
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.OfferApplication;
+import com.gestionnaire_de_stage.model.Session;
+import com.gestionnaire_de_stage.model.Student;
+import com.gestionnaire_de_stage.service.OfferRecommendationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+@Component
+public class OfferRecommendationListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final OfferRecommendationService offerRecommendationService;
+
+    public OfferRecommendationListener(EntityManagerFactory entityManagerFactory, OfferRecommendationService offerRecommendationService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.offerRecommendationService = offerRecommendationService;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Student)
+            offerRecommendationService.rescoreStudent((Long) event.getId());
+        else if (entity instanceof OfferApplication && ((OfferApplication) entity).getCurriculum() != null)
+            offerRecommendationService.rescoreStudent(((OfferApplication) entity).getCurriculum().getStudent().getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        // A validated offer is scored alone, any other change of the catalog waits for the next run over every student
+        if (entity instanceof Offer) {
+            boolean wasValid = isValid(event.getOldState(), event);
+            boolean valid = isValid(event.getState(), event);
+            if (valid && !wasValid)
+                offerRecommendationService.rescoreOffer((Offer) entity);
+            else if (valid || wasValid)
+                offerRecommendationService.markStale();
+        } else if (entity instanceof Session) {
+            offerRecommendationService.markStale();
+        } else if (entity instanceof Student && (isDirty(event, "principalCurriculum") || isDirty(event, "department"))) {
+            offerRecommendationService.rescoreStudent((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Offer || entity instanceof Session || entity instanceof OfferApplication)
+            offerRecommendationService.markStale();
+        else if (entity instanceof Student)
+            offerRecommendationService.rescoreStudent((Long) event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private boolean isValid(Object[] state, PostUpdateEvent event) {
+        if (state == null)
+            return false;
+        int index = event.getPersister().getEntityMetamodel().getPropertyIndex("valid");
+        return Boolean.TRUE.equals(state[index]);
+    }
+
+    private boolean isDirty(PostUpdateEvent event, String property) {
+        // Without the old state, as after a merge of a detached student, the property may have changed
+        if (event.getDirtyProperties() == null)
+            return true;
+        int index = event.getPersister().getEntityMetamodel().getPropertyIndex(property);
+        for (int dirty : event.getDirtyProperties())
+            if (dirty == index)
+                return true;
+        return false;
+    }
+}
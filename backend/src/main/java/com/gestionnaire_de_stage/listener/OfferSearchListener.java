@@ -0,0 +1,61 @@
+package com.gestionnaire_de_stage.listener;
+
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.Session;
+import com.gestionnaire_de_stage.service.OfferSearchService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+@Component
+public class OfferSearchListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final OfferSearchService offerSearchService;
+
+    public OfferSearchListener(EntityManagerFactory entityManagerFactory, OfferSearchService offerSearchService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.offerSearchService = offerSearchService;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Offer)
+            offerSearchService.index((Offer) event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Offer)
+            offerSearchService.index((Offer) event.getEntity());
+        else if (event.getEntity() instanceof Session)
+            offerSearchService.updateSession((Session) event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Offer)
+            offerSearchService.remove((Long) event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+}
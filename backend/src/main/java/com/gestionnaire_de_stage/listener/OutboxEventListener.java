@@ -0,0 +1,101 @@
+package com.gestionnaire_de_stage.listener;
+
+import com.gestionnaire_de_stage.enums.OutboxEventType;
+import com.gestionnaire_de_stage.enums.Status;
+import com.gestionnaire_de_stage.model.*;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Component
+@Slf4j(topic = "OutboxEventListener")
+public class OutboxEventListener implements PostInsertEventListener, PostUpdateEventListener {
+
+    private static final String INSERT_EVENT = "INSERT INTO outbox_event (type, aggregate_id, attempts, created_date) VALUES (?, ?, 0, ?)";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public OutboxEventListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Offer)
+            record(event.getSession(), OutboxEventType.OFFER_CREATED, event.getId());
+        else if (entity instanceof OfferApplication)
+            record(event.getSession(), OutboxEventType.OFFER_APPLICATION_CREATED, event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Curriculum) {
+            if (changed(event, "isValid"))
+                record(event.getSession(), OutboxEventType.CURRICULUM_VALIDATED, event.getId());
+        } else if (entity instanceof Offer) {
+            if (changed(event, "valid"))
+                record(event.getSession(), OutboxEventType.OFFER_VALIDATED, event.getId());
+        } else if (entity instanceof OfferApplication) {
+            OfferApplication offerApplication = (OfferApplication) entity;
+            if (changed(event, "status") && offerApplication.getStatus() == Status.STAGE_TROUVE)
+                record(event.getSession(), OutboxEventType.OFFER_APPLICATION_STAGE_TROUVE, event.getId());
+            if (changed(event, "status") && offerApplication.getStatus() == Status.EN_ATTENTE_REPONSE)
+                record(event.getSession(), OutboxEventType.OFFER_APPLICATION_INTERVIEW_PASSED, event.getId());
+            if (changed(event, "interviewDate") && offerApplication.getInterviewDate() != null)
+                record(event.getSession(), OutboxEventType.OFFER_APPLICATION_INTERVIEW_SET, event.getId());
+        } else if (entity instanceof Contract) {
+            if (changed(event, "managerSignature"))
+                record(event.getSession(), OutboxEventType.CONTRACT_SIGNED_BY_MANAGER, event.getId());
+            if (changed(event, "monitorSignature"))
+                record(event.getSession(), OutboxEventType.CONTRACT_SIGNED_BY_MONITOR, event.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private boolean changed(PostUpdateEvent event, String property) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null)
+            return true;
+        int index = event.getPersister().getEntityMetamodel().getPropertyIndex(property);
+        return !Objects.equals(oldState[index], event.getState()[index]);
+    }
+
+    private void record(EventSource session, OutboxEventType type, Serializable aggregateId) {
+        // Written on the connection of the flush, the event commits or rolls back with the change itself
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_EVENT)) {
+                statement.setString(1, type.name());
+                statement.setLong(2, (Long) aggregateId);
+                statement.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                statement.executeUpdate();
+            }
+        });
+        log.debug("Recorded {} for {}", type, aggregateId);
+    }
+}
@@ -1,20 +1,28 @@
 package com.gestionnaire_de_stage.model;
 
-import com.gestionnaire_de_stage.listener.ContractListener;
+import com.gestionnaire_de_stage.enums.PdfStatus;
 import lombok.Data;
 
 import javax.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Entity
-@EntityListeners(ContractListener.class)
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = Contract.UK_STUDENT_SESSION, columnNames = {"student_id", "session_id"})
+})
 public class Contract {
+    public static final String UK_STUDENT_SESSION = "uk_contract_student_session";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     private LocalDate managerSignDate;
 
     private LocalDate monitorSignDate;
@@ -39,8 +47,16 @@ public class Contract {
     @OneToOne
     private Manager manager;
 
-    @Lob
-    private byte[] contractPDF;
+    private Long contractPDFSize;
+
+    @Column(length = 64)
+    private String contractPDFHash;
+
+    @Enumerated(EnumType.STRING)
+    private PdfStatus pdfStatus;
+
+    // When the pending render was last requested, the sweep only takes over the stale ones
+    private LocalDateTime pdfRequestedAt;
 
     @OneToOne
     private Session session;
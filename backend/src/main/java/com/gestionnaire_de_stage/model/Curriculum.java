@@ -1,7 +1,6 @@
 package com.gestionnaire_de_stage.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.gestionnaire_de_stage.listener.CurriculumListener;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -15,7 +14,6 @@ import java.util.Objects;
 @Getter
 @Setter
 @Entity
-@EntityListeners(CurriculumListener.class)
 @NoArgsConstructor
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Curriculum implements Serializable {
@@ -27,8 +25,10 @@ public class Curriculum implements Serializable {
 
     private String type;
 
-    @Lob
-    private byte[] data;
+    private Long dataSize;
+
+    @Column(length = 64)
+    private String dataHash;
 
     @NotNull
     @OneToOne(fetch = FetchType.LAZY)
@@ -36,10 +36,11 @@ public class Curriculum implements Serializable {
 
     private Boolean isValid;
 
-    public Curriculum(String name, String type, byte[] data, Student student) {
+    public Curriculum(String name, String type, String dataHash, Long dataSize, Student student) {
         this.name = name;
         this.type = type;
-        this.data = data;
+        this.dataHash = dataHash;
+        this.dataSize = dataSize;
         this.student = student;
         this.isValid = null;
     }
@@ -0,0 +1,37 @@
+package com.gestionnaire_de_stage.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "idempotency_key",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_key_scope", columnNames = {"scope", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_key_expires_at", columnList = "expiresAt"))
+public class IdempotencyKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 128)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false, length = 128)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private int fingerprint;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Empty while the first request runs
+    private Integer status;
+
+    @Lob
+    private byte[] body;
+}
@@ -1,12 +1,20 @@
 package com.gestionnaire_de_stage.model;
 
+import com.gestionnaire_de_stage.enums.TypeUser;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@DiscriminatorValue("MANAGER")
 @Data
 public class Manager extends User {
-}
\ No newline at end of file
+
+    @Override
+    public TypeUser getRole() {
+        return TypeUser.MANAGER;
+    }
+}
@@ -1,14 +1,17 @@
 package com.gestionnaire_de_stage.model;
 
+import com.gestionnaire_de_stage.enums.TypeUser;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 import javax.validation.constraints.NotNull;
 
 @EqualsAndHashCode(callSuper = true)
 @Data
 @Entity
+@DiscriminatorValue("MONITOR")
 public class Monitor extends User {
 
     @NotNull
@@ -19,4 +22,9 @@ public class Monitor extends User {
     private String city;
 
     private String postalCode;
+
+    @Override
+    public TypeUser getRole() {
+        return TypeUser.MONITOR;
+    }
 }
@@ -9,6 +9,10 @@ import java.time.LocalDateTime;
 @Data
 @Entity
 @NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_notification_user_seen_date", columnList = "targeted_user_id, seen, createdDate"),
+        @Index(name = "idx_notification_user_date", columnList = "targeted_user_id, createdDate, id")
+})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,7 +1,7 @@
 package com.gestionnaire_de_stage.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.gestionnaire_de_stage.listener.OfferListener;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,12 +11,13 @@ import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Date;
 
 @Entity
-@EntityListeners(OfferListener.class)
 @Data
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(indexes = @Index(name = "idx_offer_modified", columnList = "modified"))
 public class Offer {
 
     @Id
@@ -61,9 +62,17 @@ public class Offer {
 
     private String nbHeureSemaine;
 
+    // Students the monitor can take, one when not given
+    @Min(value = 1, message = "L'offre doit avoir au moins une place.")
+    private Integer capacity;
+
     @ManyToOne
     private Session session;
 
+    // Read by the search index of the other instances to catch up with the offers changed here, set by OfferService
+    @JsonIgnore
+    private LocalDateTime modified;
+
     @Transient
     public String creatorEmail() {
         if (creator == null)
@@ -1,7 +1,6 @@
 package com.gestionnaire_de_stage.model;
 
 import com.gestionnaire_de_stage.enums.Status;
-import com.gestionnaire_de_stage.listener.OfferApplicationListener;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -9,14 +8,24 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@EntityListeners(OfferApplicationListener.class)
 @Getter
 @Setter
+@Table(indexes = {
+        @Index(name = "idx_offer_application_status_interview", columnList = "status, interviewDate")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = OfferApplication.UK_OFFER_CURRICULUM, columnNames = {"offer_id", "curriculum_id"})
+})
 public class OfferApplication {
+    public static final String UK_OFFER_CURRICULUM = "uk_offer_application_offer_curriculum";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @Enumerated(EnumType.STRING)
     private Status status;
 
@@ -28,6 +37,11 @@ public class OfferApplication {
 
     private LocalDateTime interviewDate;
 
+    // Preferences for the placement, 1 for the first choice, none after the ranked applications
+    private Integer studentRank;
+
+    private Integer monitorRank;
+
     @OneToOne
     private Session session;
 
@@ -0,0 +1,33 @@
+package com.gestionnaire_de_stage.model;
+
+import com.gestionnaire_de_stage.enums.OutboxEventType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 64)
+    private OutboxEventType type;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    private int attempts;
+
+    private LocalDateTime createdDate = LocalDateTime.now();
+
+    public OutboxEvent(OutboxEventType type, Long aggregateId) {
+        this.type = type;
+        this.aggregateId = aggregateId;
+    }
+}
@@ -0,0 +1,44 @@
+package com.gestionnaire_de_stage.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_outgoing_mail_next_attempt", columnList = "nextAttemptAt")
+})
+public class OutgoingMail {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, length = 4000)
+    private String text;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private String lastError;
+
+    private LocalDateTime createdDate = LocalDateTime.now();
+
+    public OutgoingMail(String recipient, String subject, String text, LocalDateTime nextAttemptAt) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.text = text;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+}
@@ -9,6 +9,9 @@ import java.util.Date;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_password_reset_token_created", columnList = "created")
+})
 @Getter
 @Setter
 @NoArgsConstructor
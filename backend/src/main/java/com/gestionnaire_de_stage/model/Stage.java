@@ -14,12 +14,20 @@ public class Stage {
     @GeneratedValue
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @OneToOne
     private Contract contract;
 
-    @Lob
-    private byte[] evalMilieuStage;
+    private Long evalMilieuStageSize;
+
+    @Column(length = 64)
+    private String evalMilieuStageHash;
+
+    private Long evalStagiaireSize;
 
-    @Lob
-    private byte[] evalStagiaire;
+    @Column(length = 64)
+    private String evalStagiaireHash;
 }
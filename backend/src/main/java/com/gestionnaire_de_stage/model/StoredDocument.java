@@ -0,0 +1,24 @@
+package com.gestionnaire_de_stage.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "stored_document")
+public class StoredDocument {
+    // SHA-256 of the content, the same content is stored once
+    @Id
+    @Column(name = "document_key", length = 64)
+    private String key;
+
+    @Column(name = "content_size", nullable = false)
+    private long size;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] content;
+}
@@ -2,6 +2,7 @@ package com.gestionnaire_de_stage.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.Hibernate;
@@ -14,6 +15,7 @@ import java.util.Objects;
 @Setter
 @Getter
 @Entity
+@DiscriminatorValue("STUDENT")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Student extends User {
 
@@ -50,4 +52,9 @@ public class Student extends User {
     public int hashCode() {
         return 0;
     }
+
+    @Override
+    public TypeUser getRole() {
+        return TypeUser.STUDENT;
+    }
 }
@@ -1,11 +1,13 @@
 package com.gestionnaire_de_stage.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
 import javax.persistence.Column;
+import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
@@ -14,6 +16,7 @@ import javax.validation.constraints.Size;
 @Getter
 @Setter
 @Entity
+@DiscriminatorValue("SUPERVISOR")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Supervisor extends User {
 
@@ -24,4 +27,9 @@ public class Supervisor extends User {
 
     @NotBlank
     private String department;
+
+    @Override
+    public TypeUser getRole() {
+        return TypeUser.SUPERVISOR;
+    }
 }
@@ -1,5 +1,7 @@
 package com.gestionnaire_de_stage.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -9,13 +11,18 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
 
+// The identity of every user is in one table, the roles only keep their own fields joined on the id
 @SequenceGenerator(name = "user_seq", initialValue = 6)
 @Data
 @Entity
 @NoArgsConstructor
-@Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Inheritance(strategy = InheritanceType.JOINED)
+@DiscriminatorColumn(name = "role", discriminatorType = DiscriminatorType.STRING, length = 16)
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email"))
 public abstract class User implements Serializable {
 
+    public static final String UK_EMAIL = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
     private Long id;
@@ -30,7 +37,6 @@ public abstract class User implements Serializable {
 
     @NotBlank
     @Email(message = "Le courriel doit être valide")
-    @Column(unique = true)
     private String email;
 
     private String phone;
@@ -38,4 +44,7 @@ public abstract class User implements Serializable {
     @NotBlank
     @Size(min = 8, max = 64, message = "Le mot de passe doit contenir entre 8 et 64 caractères")
     private String password;
+
+    @JsonIgnore
+    public abstract TypeUser getRole();
 }
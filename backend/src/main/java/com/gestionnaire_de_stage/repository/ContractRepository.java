@@ -1,19 +1,36 @@
 package com.gestionnaire_de_stage.repository;
 
+import com.gestionnaire_de_stage.dto.ContractSummaryDTO;
+import com.gestionnaire_de_stage.enums.PdfStatus;
 import com.gestionnaire_de_stage.model.Contract;
-import com.gestionnaire_de_stage.model.Session;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.time.Year;
 import java.util.List;
 
 public interface ContractRepository extends JpaRepository<Contract, Long> {
 
-    List<Contract> getAllByManagerSignatureNull();
+    String SELECT_SUMMARY = "SELECT new com.gestionnaire_de_stage.dto.ContractSummaryDTO(" +
+            "c.id, c.managerSignDate, c.monitorSignDate, c.studentSignDate, " +
+            "c.managerSignature, c.monitorSignature, c.studentSignature, " +
+            "c.pdfStatus, c.contractPDFSize, c.contractPDFHash, o.id, o.title, " +
+            "s.id, s.firstName, s.lastName, s.email, " +
+            "m.id, m.firstName, m.lastName, m.email, " +
+            "ma.id, ma.firstName, ma.lastName, ma.email) " +
+            "FROM Contract c LEFT JOIN c.student s LEFT JOIN c.offer o " +
+            "LEFT JOIN c.monitor m LEFT JOIN c.manager ma LEFT JOIN c.session se ";
+
+    @Query(SELECT_SUMMARY + "WHERE c.managerSignature IS NULL")
+    List<ContractSummaryDTO> findAllSummariesByManagerSignatureNull();
 
     Contract getContractByIdAndMonitorSignatureNotNullAndManagerSignatureNotNullAndStudentSignatureNull(Long id);
 
-    List<Contract> getAllByOffer_CreatorIdAndMonitorSignatureNullAndManagerSignatureNotNullAndSession_YearGreaterThanEqual(Long offer_creator_id, Year year);
+    @Query(SELECT_SUMMARY + "WHERE o.creator.id = ?1 AND c.monitorSignature IS NULL AND c.managerSignature IS NOT NULL AND se.year >= ?2")
+    List<ContractSummaryDTO> findAllSummariesToSignForMonitor(Long offer_creator_id, Year year);
 
     Contract getContractByIdAndManagerSignatureNotNullAndMonitorSignatureNullAndStudentSignatureNull(Long id);
 
@@ -25,13 +42,34 @@ public interface ContractRepository extends JpaRepository<Contract, Long> {
 
     boolean existsByStudentMatricule(String matricule);
 
-    List<Contract> getAllByManager_IdAndManagerSignatureNotNullAndSession_YearGreaterThanEqual(Long manager_id, Year year);
+    @Query(SELECT_SUMMARY + "WHERE ma.id = ?1 AND c.managerSignature IS NOT NULL AND se.year >= ?2")
+    List<ContractSummaryDTO> findAllSummariesSignedByManager(Long manager_id, Year year);
 
-    List<Contract> getAllByMonitor_IdAndManagerSignatureNotNullAndMonitorSignatureNotNullAndSession_YearGreaterThanEqual(Long monitor_id, Year year);
+    @Query(SELECT_SUMMARY + "WHERE m.id = ?1 AND c.managerSignature IS NOT NULL AND c.monitorSignature IS NOT NULL AND se.year >= ?2")
+    List<ContractSummaryDTO> findAllSummariesSignedByMonitor(Long monitor_id, Year year);
 
-    boolean existsByStudentIdAndSession(Long idStudent, Session session);
 
     Contract getByStudent_IdAndManagerSignatureNotNullAndMonitorSignatureNotNullAndStudentSignatureNotNullAndSession_YearGreaterThanEqual(Long student_id, Year year);
 
     boolean existsByIdAndSession_YearGreaterThanEqual(Long id, Year year);
+
+    @Query("SELECT c.id FROM Contract c WHERE c.pdfStatus = ?1 AND (c.pdfRequestedAt IS NULL OR c.pdfRequestedAt < ?2)")
+    List<Long> findAllIdsByPdfStatusRequestedBefore(PdfStatus pdfStatus, LocalDateTime requestedBefore);
+
+    @Query("UPDATE Contract c SET c.pdfRequestedAt = ?4 WHERE c.id = ?1 AND c.pdfStatus = ?2 " +
+            "AND (c.pdfRequestedAt IS NULL OR c.pdfRequestedAt < ?3)")
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    int claimPdfRequestedBefore(Long id, PdfStatus pdfStatus, LocalDateTime requestedBefore, LocalDateTime requestedAt);
+
+    // Only the version the PDF was rendered from, a signature added in between asks for another render
+    @Query("UPDATE Contract c SET c.contractPDFSize = ?3, c.contractPDFHash = ?4, c.pdfStatus = ?5 WHERE c.id = ?1 AND c.version = ?2")
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    int updateContractPDF(Long id, long version, Long contractPDFSize, String contractPDFHash, PdfStatus pdfStatus);
+
+    @Query("UPDATE Contract c SET c.pdfStatus = ?2 WHERE c.id = ?1")
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    int updatePdfStatus(Long id, PdfStatus pdfStatus);
 }
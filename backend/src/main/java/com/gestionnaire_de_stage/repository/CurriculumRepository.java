@@ -1,11 +1,26 @@
 package com.gestionnaire_de_stage.repository;
 
+import com.gestionnaire_de_stage.dto.CurriculumSummaryDTO;
 import com.gestionnaire_de_stage.model.Curriculum;
-import com.gestionnaire_de_stage.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CurriculumRepository extends JpaRepository<Curriculum, Long> {
-    List<Curriculum> findAllByStudent(Student student);
+
+    String SELECT_SUMMARY = "SELECT new com.gestionnaire_de_stage.dto.CurriculumSummaryDTO(" +
+            "c.id, c.name, c.type, c.isValid, c.dataSize, c.dataHash, " +
+            "s.id, s.firstName, s.lastName, s.email) " +
+            "FROM Curriculum c JOIN c.student s ";
+
+    @Query(SELECT_SUMMARY + "WHERE s.id = ?1")
+    List<CurriculumSummaryDTO> findAllSummariesByStudentId(Long studentId);
+
+    @Query(SELECT_SUMMARY + "WHERE c.id IN ?1")
+    List<CurriculumSummaryDTO> findAllSummariesByIdIn(Collection<Long> ids);
+
+    @Query("SELECT c.id FROM Curriculum c")
+    List<Long> findAllIds();
 }
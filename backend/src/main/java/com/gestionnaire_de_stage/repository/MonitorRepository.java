@@ -7,9 +7,5 @@ public interface MonitorRepository extends JpaRepository<Monitor, Long> {
 
     boolean existsByEmail(String email);
 
-    boolean existsByEmailAndPassword(String email, String password);
-
-    Monitor findMonitorByEmailAndPassword(String email, String password);
-
     Monitor getMonitorByEmail(String email);
 }
@@ -1,10 +1,60 @@
 package com.gestionnaire_de_stage.repository;
 
+import com.gestionnaire_de_stage.dto.NotificationDTO;
 import com.gestionnaire_de_stage.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findAllBySeenIsFalseAndTargetedUser_IdOrderByCreatedDateDesc(Long userId);
+
+    long countBySeenIsFalseAndTargetedUser_Id(Long userId);
+
+    @Query("UPDATE Notification n SET n.seen = TRUE WHERE n.targetedUser.id = ?1 AND n.seen = FALSE")
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    int markAllSeenByTargetedUserId(Long userId);
+
+    @Query("SELECT new com.gestionnaire_de_stage.dto.NotificationDTO(n.id, n.targetedUser.id, n.message, n.seen, n.createdDate) " +
+            "FROM Notification n WHERE n.targetedUser.id = ?1 ORDER BY n.createdDate DESC, n.id DESC")
+    List<NotificationDTO> findHistoryByTargetedUserId(Long userId, Pageable pageable);
+
+    @Query("SELECT new com.gestionnaire_de_stage.dto.NotificationDTO(n.id, n.targetedUser.id, n.message, n.seen, n.createdDate) " +
+            "FROM Notification n WHERE n.targetedUser.id = ?1 " +
+            "AND (n.createdDate < ?2 OR (n.createdDate = ?2 AND n.id < ?3)) ORDER BY n.createdDate DESC, n.id DESC")
+    List<NotificationDTO> findHistoryByTargetedUserIdBefore(Long userId, LocalDateTime createdDate, Long id, Pageable pageable);
+
+    @Query(value = "INSERT INTO notification (targeted_user_id, seen, message, created_date) " +
+            "SELECT s.id, FALSE, ?1, ?2 FROM student s", nativeQuery = true)
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    int notifyAllStudents(String message, LocalDateTime createdDate);
+
+    @Query(value = "INSERT INTO notification (targeted_user_id, seen, message, created_date) " +
+            "SELECT m.id, FALSE, ?1, ?2 FROM manager m", nativeQuery = true)
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    int notifyAllManagers(String message, LocalDateTime createdDate);
+
+    @Query("SELECT new com.gestionnaire_de_stage.dto.NotificationDTO(n.id, n.targetedUser.id, n.message, n.seen, n.createdDate) " +
+            "FROM Notification n WHERE n.targetedUser.id = ?1 AND n.id > ?2 ORDER BY n.id")
+    List<NotificationDTO> findAllSummariesByTargetedUserIdAndIdGreaterThan(Long userId, Long id);
+
+    @Query("SELECT new com.gestionnaire_de_stage.dto.NotificationDTO(n.id, n.targetedUser.id, n.message, n.seen, n.createdDate) " +
+            "FROM Notification n WHERE n.targetedUser.id IN ?1 AND n.id > ?2 ORDER BY n.id")
+    List<NotificationDTO> findAllSummariesByTargetedUserIdInAndIdGreaterThan(Collection<Long> userIds, Long id);
+
+    @Query("SELECT MAX(n.id) FROM Notification n")
+    Long findMaxId();
+
+    @Query("SELECT new com.gestionnaire_de_stage.dto.NotificationDTO(n.id, n.targetedUser.id, n.message, n.seen, n.createdDate) " +
+            "FROM Notification n WHERE n.message = ?1 AND n.createdDate = ?2 AND n.targetedUser.id IN ?3 ORDER BY n.id")
+    List<NotificationDTO> findAllSummariesOfBroadcast(String message, LocalDateTime createdDate, Collection<Long> userIds);
 }
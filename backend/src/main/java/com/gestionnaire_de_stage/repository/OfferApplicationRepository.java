@@ -1,24 +1,32 @@
 package com.gestionnaire_de_stage.repository;
 
+import com.gestionnaire_de_stage.dto.AppliedOfferDTO;
+import com.gestionnaire_de_stage.dto.PlacementCandidateDTO;
+import com.gestionnaire_de_stage.dto.ScheduledInterviewDTO;
 import com.gestionnaire_de_stage.enums.Status;
 import com.gestionnaire_de_stage.model.Curriculum;
-import com.gestionnaire_de_stage.model.Offer;
 import com.gestionnaire_de_stage.model.OfferApplication;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 
-import javax.transaction.Transactional;
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
 import java.time.Year;
+import java.util.Collection;
 import java.util.List;
 
 public interface OfferApplicationRepository extends JpaRepository<OfferApplication, Long> {
-    boolean existsByOfferAndCurriculum(Offer offer, Curriculum curriculum);
 
     boolean existsByCurriculum(Curriculum curriculum);
 
+    boolean existsByCurriculum_IdAndOffer_Creator_Id(Long curriculum_id, Long offer_creator_id);
+
     List<OfferApplication> getAllByOffer_CreatorEmail(String email);
 
+    @Query("SELECT DISTINCT o.curriculum.id FROM OfferApplication o WHERE o.offer.creator.email = ?1")
+    List<Long> findAllCurriculumIdsByOffer_CreatorEmail(String email);
+
     List<OfferApplication> getAllByCurriculum_StudentId(Long id);
 
     List<OfferApplication> getAllByStatusAndSession_YearGreaterThanEqualAndCurriculum_Student_SupervisorIsNull(Status status, Year session_year);
@@ -29,8 +37,26 @@ public interface OfferApplicationRepository extends JpaRepository<OfferApplicati
 
     List<OfferApplication> findAllByCurriculum_Student_Supervisor_IdAndSession_YearGreaterThanEqual(Long curriculum_student_supervisor_id, Year session_year);
 
-    @Query("UPDATE OfferApplication t SET t.status = ?2 WHERE t.status = ?1 and t.interviewDate < current_timestamp and t.session in (select s.id from Session s where s.year >= ?3)")
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Transactional
-    int updateAllOfferApplicationThatWereInAInterviewStatusToStatus(Status oldStatus, Status newStatus, Year session_year);
+    @Query("SELECT new com.gestionnaire_de_stage.dto.ScheduledInterviewDTO(o.id, o.interviewDate) " +
+            "FROM OfferApplication o WHERE o.status = ?1 AND o.interviewDate IS NOT NULL AND o.session.year >= ?2")
+    List<ScheduledInterviewDTO> findAllScheduledInterviews(Status status, Year session_year);
+
+    String SELECT_APPLIED_OFFER = "SELECT new com.gestionnaire_de_stage.dto.AppliedOfferDTO(c.student.id, f.id, s.id) " +
+            "FROM OfferApplication o JOIN o.curriculum c JOIN o.offer f LEFT JOIN f.session s ";
+
+    @Query(SELECT_APPLIED_OFFER)
+    List<AppliedOfferDTO> findAllAppliedOffers();
+
+    @Query(SELECT_APPLIED_OFFER + "WHERE c.student.id = ?1")
+    List<AppliedOfferDTO> findAllAppliedOffersByStudentId(Long studentId);
+
+    @Query("SELECT new com.gestionnaire_de_stage.dto.PlacementCandidateDTO(o.id, c.student.id, f.id, f.capacity, o.status, o.studentRank, o.monitorRank) " +
+            "FROM OfferApplication o JOIN o.curriculum c JOIN o.offer f WHERE o.session.id = ?1 AND o.status IN ?2 ORDER BY o.id")
+    List<PlacementCandidateDTO> findAllPlacementCandidates(Long sessionId, Collection<Status> statuses);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OfferApplication> findAllByIdInAndSession_Id(Collection<Long> ids, Long sessionId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OfferApplication> findAllByIdInAndStatusAndInterviewDateLessThanEqual(Collection<Long> ids, Status status, LocalDateTime interviewDate);
 }
\ No newline at end of file
@@ -1,19 +1,36 @@
 package com.gestionnaire_de_stage.repository;
 
+import com.gestionnaire_de_stage.enums.TypeSession;
 import com.gestionnaire_de_stage.model.Offer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.time.Year;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OfferRepository extends JpaRepository<Offer, Long> {
     List<Offer> findAllByValidIsTrueAndSession_YearGreaterThanEqual(Year year);
 
+    @Query("SELECT o FROM Offer o JOIN FETCH o.session s LEFT JOIN FETCH o.creator " +
+            "WHERE o.valid = TRUE " +
+            "AND (s.year > ?2 OR (s.year = ?2 AND s.typeSession IN ?3)) " +
+            "AND (?4 IS NULL OR s.id = ?4) " +
+            "AND NOT EXISTS (SELECT a.id FROM OfferApplication a WHERE a.offer = o AND a.curriculum.student.id = ?1) " +
+            "ORDER BY o.id")
+    Slice<Offer> findAllValidNotAppliedByStudent(Long studentId, Year firstYear, Collection<TypeSession> firstYearSessions,
+                                                 Long sessionId, Pageable pageable);
+
     List<Offer> findAllByValidAndSession_YearGreaterThanEqual(Boolean valid, Year year);
 
     List<Offer> findAllByValidNull();
 
+    List<Offer> findAllByModifiedGreaterThanEqual(LocalDateTime modified);
+
     boolean existsByIdAndValidNotNull(Long id);
 }
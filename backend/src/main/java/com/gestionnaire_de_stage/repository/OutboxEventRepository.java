@@ -0,0 +1,23 @@
+package com.gestionnaire_de_stage.repository;
+
+import com.gestionnaire_de_stage.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.transaction.Transactional;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findAllByAttemptsLessThanOrderByIdAsc(int maxAttempts, Pageable pageable);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    long countByAttemptsGreaterThanEqual(int maxAttempts);
+
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id = ?1")
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    int incrementAttempts(Long id);
+}
@@ -0,0 +1,24 @@
+package com.gestionnaire_de_stage.repository;
+
+import com.gestionnaire_de_stage.model.OutgoingMail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutgoingMailRepository extends JpaRepository<OutgoingMail, Long> {
+    List<OutgoingMail> findAllByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(int maxAttempts, LocalDateTime now, Pageable pageable);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    long countByAttemptsGreaterThanEqual(int maxAttempts);
+
+    @Query("UPDATE OutgoingMail m SET m.attempts = m.attempts + 1, m.nextAttemptAt = ?2, m.lastError = ?3 WHERE m.id = ?1")
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    int markFailed(Long id, LocalDateTime nextAttemptAt, String lastError);
+}
@@ -1,12 +1,30 @@
 package com.gestionnaire_de_stage.repository;
 
 import com.gestionnaire_de_stage.model.PasswordResetToken;
+import com.gestionnaire_de_stage.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
-public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, String> {
+import javax.transaction.Transactional;
+import java.util.Date;
+import java.util.List;
+
+public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     boolean existsByToken(String token);
 
-    PasswordResetToken getByToken(String token);
+    @Query("UPDATE PasswordResetToken t SET t.unusable = true WHERE t.token = ?1 AND t.unusable = false AND t.created > ?2")
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    int consume(String token, Date createdAfter);
+
+    @Query("SELECT t.user FROM PasswordResetToken t WHERE t.token = ?1")
+    User findUserByToken(String token);
+
+    @Query("SELECT t.id FROM PasswordResetToken t WHERE t.created <= ?1 ORDER BY t.created")
+    List<Long> findAllIdsCreatedUntil(Date created, Pageable pageable);
 
-    boolean existsByTokenAndUnusableTrue(String token);
+    @Query("SELECT t.id FROM PasswordResetToken t WHERE t.unusable = true")
+    List<Long> findAllUnusableIds(Pageable pageable);
 }
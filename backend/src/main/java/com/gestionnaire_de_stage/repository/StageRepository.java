@@ -1,29 +1,40 @@
 package com.gestionnaire_de_stage.repository;
 
+import com.gestionnaire_de_stage.dto.StageSummaryDTO;
 import com.gestionnaire_de_stage.model.Stage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface StageRepository extends JpaRepository<Stage, Long> {
 
+    String SELECT_SUMMARY = "SELECT new com.gestionnaire_de_stage.dto.StageSummaryDTO(" +
+            "st.id, c.id, st.evalMilieuStageSize, st.evalMilieuStageHash, st.evalStagiaireSize, st.evalStagiaireHash, " +
+            "s.id, s.firstName, s.lastName, s.email, " +
+            "m.id, m.firstName, m.lastName, m.email, " +
+            "su.id, su.firstName, su.lastName, su.email) " +
+            "FROM Stage st JOIN st.contract c JOIN c.student s LEFT JOIN c.monitor m LEFT JOIN s.supervisor su ";
+
     Stage getStageByContractStudentMatricule(String matricule);
 
-    boolean existsByContract_StudentMatriculeAndEvalMilieuStageNotNull(String matricule);
+    boolean existsByContract_StudentMatriculeAndEvalMilieuStageHashNotNull(String matricule);
 
-    boolean existsByContract_StudentMatriculeAndEvalMilieuStageNull(String matricule);
+    boolean existsByContract_StudentMatriculeAndEvalMilieuStageHashNull(String matricule);
 
-    List<Stage> getAllByEvalStagiaireNotNullAndContract_Monitor_Id(Long idMonitor);
+    @Query(SELECT_SUMMARY + "WHERE st.evalStagiaireHash IS NOT NULL AND m.id = ?1")
+    List<StageSummaryDTO> findAllSummariesWithEvalStagiaireByMonitorId(Long idMonitor);
 
     Stage getByContract_StudentEmail(String email);
 
     boolean existsByContract_StudentEmail(String email);
 
-    List<Stage> getAllByEvalMilieuStageIsNull();
+    List<Stage> getAllByEvalMilieuStageHashIsNull();
 
-    List<Stage> getAllByEvalStagiaireIsNull();
+    List<Stage> getAllByEvalStagiaireHashIsNull();
 
-    boolean existsByContract_StudentEmailAndEvalStagiaireNotNull(String email);
+    boolean existsByContract_StudentEmailAndEvalStagiaireHashNotNull(String email);
 
-    List<Stage> getAllByEvalMilieuStageNotNullAndContract_Student_Supervisor_Id(Long idSupervisor);
+    @Query(SELECT_SUMMARY + "WHERE st.evalMilieuStageHash IS NOT NULL AND su.id = ?1")
+    List<StageSummaryDTO> findAllSummariesWithEvalMilieuStageBySupervisorId(Long idSupervisor);
 }
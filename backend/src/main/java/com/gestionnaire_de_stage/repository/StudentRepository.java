@@ -1,7 +1,9 @@
 package com.gestionnaire_de_stage.repository;
 
+import com.gestionnaire_de_stage.dto.StudentProfileDTO;
 import com.gestionnaire_de_stage.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
@@ -9,15 +11,23 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 
     boolean existsByEmail(String email);
 
-    boolean existsByEmailAndPassword(String email, String password);
-
     boolean existsByMatricule(String matricule);
 
-    boolean existsByIdAndSupervisorNull(Long id);
+    @Query("SELECT s.matricule FROM Student s")
+    List<String> findAllMatricules();
 
-    Student findStudentByEmailAndPassword(String email, String password);
+    boolean existsByIdAndSupervisorNull(Long id);
 
     List<Student> getAllByPrincipalCurriculum_IsValidAndSupervisorNull(Boolean isValid);
 
     Student getByEmail(String email);
+
+    String SELECT_PROFILE = "SELECT new com.gestionnaire_de_stage.dto.StudentProfileDTO(s.id, s.department, c.id) " +
+            "FROM Student s LEFT JOIN s.principalCurriculum c ";
+
+    @Query(SELECT_PROFILE)
+    List<StudentProfileDTO> findAllProfiles();
+
+    @Query(SELECT_PROFILE + "WHERE s.id = ?1")
+    StudentProfileDTO findProfileById(Long id);
 }
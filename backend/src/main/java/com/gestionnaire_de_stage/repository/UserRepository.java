@@ -0,0 +1,17 @@
+package com.gestionnaire_de_stage.repository;
+
+import com.gestionnaire_de_stage.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface UserRepository extends JpaRepository<User, Long> {
+
+    User findByEmailAndPassword(String email, String password);
+
+    boolean existsByEmail(String email);
+
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
+}
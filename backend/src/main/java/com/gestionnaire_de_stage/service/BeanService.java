@@ -1,24 +0,0 @@
-package com.gestionnaire_de_stage.service;
-
-import org.springframework.beans.BeansException;
-import org.springframework.beans.factory.NoSuchBeanDefinitionException;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.ApplicationContextAware;
-import org.springframework.stereotype.Service;
-import org.springframework.util.Assert;
-
-@Service
-public class BeanService implements ApplicationContextAware {
-
-    private static ApplicationContext context;
-
-    public static <T> T getBean(Class<T> beanClass) throws NoSuchBeanDefinitionException {
-        Assert.notNull(beanClass, "Class cannot be blank");
-        return context.getBean(beanClass);
-    }
-
-    @Override
-    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
-        context = applicationContext;
-    }
-}
@@ -0,0 +1,194 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.aspect.LeaderLease;
+import com.gestionnaire_de_stage.dto.ContractRenderingStatsDTO;
+import com.gestionnaire_de_stage.model.Contract;
+import com.gestionnaire_de_stage.repository.ContractRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@Slf4j(topic = "ContractRenderingService")
+public class ContractRenderingService {
+
+    private static class RenderedContract {
+        private final Contract contract;
+        private final String html;
+
+        private RenderedContract(Contract contract, String html) {
+            this.contract = contract;
+            this.html = html;
+        }
+    }
+
+    private enum RenderState {
+        QUEUED,
+        RUNNING,
+        RUNNING_DIRTY
+    }
+
+    private final ContractService contractService;
+
+    private final ContractRepository contractRepository;
+
+    private final PdfRenderingEngine pdfRenderingEngine;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Clock clock;
+
+    private final Duration grace;
+
+    private final Map<Long, RenderState> states = new ConcurrentHashMap<>();
+
+    private final LongAdder completedRenders = new LongAdder();
+
+    private final LongAdder failedRenders = new LongAdder();
+
+    private final LongAdder rejectedRenders = new LongAdder();
+
+    private final LongAdder totalLatencyMs = new LongAdder();
+
+    private final AtomicLong lastLatencyMs = new AtomicLong();
+
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+
+    public ContractRenderingService(ContractService contractService,
+                                    ContractRepository contractRepository,
+                                    PdfRenderingEngine pdfRenderingEngine,
+                                    PlatformTransactionManager transactionManager,
+                                    Clock clock,
+                                    @Value("${contract.rendering.threads:2}") int threads,
+                                    @Value("${contract.rendering.queue-capacity:500}") int queueCapacity,
+                                    @Value("${contract.rendering.grace:5m}") Duration grace) {
+        this.contractService = contractService;
+        this.contractRepository = contractRepository;
+        this.pdfRenderingEngine = pdfRenderingEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("contract-render-"));
+        this.clock = clock;
+        this.grace = grace;
+    }
+
+    public void queueRendering(Long contract_id) {
+        Assert.notNull(contract_id, "L'identifiant du contrat ne peut pas être vide");
+        while (true) {
+            RenderState current = states.putIfAbsent(contract_id, RenderState.QUEUED);
+            if (current == null) {
+                submit(contract_id);
+                return;
+            }
+            if (current != RenderState.RUNNING || states.replace(contract_id, RenderState.RUNNING, RenderState.RUNNING_DIRTY))
+                return;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${contract.rendering.sweep-delay:60000}", fixedDelayString = "${contract.rendering.sweep-delay:60000}")
+    @LeaderLease(leaseFor = "${contract.rendering.sweep-lease:5m}")
+    public void requeuePendingRenders() {
+        // The recent renders are still in the queue of the instance that took the request
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime requestedBefore = now.minus(grace);
+        for (Long contract_id : contractService.getAllIdsWithPendingPDFRequestedBefore(requestedBefore))
+            if (contractService.claimPendingPDF(contract_id, requestedBefore, now))
+                queueRendering(contract_id);
+    }
+
+    public ContractRenderingStatsDTO getStats() {
+        long completed = completedRenders.sum();
+        return new ContractRenderingStatsDTO(
+                executor.getQueue().size(),
+                executor.getActiveCount(),
+                completed,
+                failedRenders.sum(),
+                rejectedRenders.sum(),
+                lastLatencyMs.get(),
+                completed == 0 ? 0 : totalLatencyMs.sum() / completed,
+                maxLatencyMs.get()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void submit(Long contract_id) {
+        try {
+            executor.execute(() -> render(contract_id));
+        } catch (RejectedExecutionException e) {
+            states.remove(contract_id);
+            rejectedRenders.increment();
+            log.warn("Render queue full, contract {} stays pending until the next sweep", contract_id);
+        }
+    }
+
+    private void render(Long contract_id) {
+        states.put(contract_id, RenderState.RUNNING);
+        long start = System.nanoTime();
+        try {
+            RenderedContract rendered = transactionTemplate.execute(status ->
+                    contractRepository.findById(contract_id).map(this::processTemplate).orElse(null));
+            if (rendered == null) {
+                log.warn("Contract {} no longer exists, render skipped", contract_id);
+                return;
+            }
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            pdfRenderingEngine.convertToPdf(rendered.html, baos);
+            if (!contractService.fillPDF(rendered.contract, baos)) {
+                // Rendered from a version that another instance changed since, the finally block renders it again
+                states.replace(contract_id, RenderState.RUNNING, RenderState.RUNNING_DIRTY);
+                log.debug("Contract {} changed during its render, queued again", contract_id);
+                return;
+            }
+
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            completedRenders.increment();
+            totalLatencyMs.add(latency);
+            lastLatencyMs.set(latency);
+            maxLatencyMs.accumulateAndGet(latency, Math::max);
+            log.debug("Rendered contract {} in {} ms", contract_id, latency);
+        } catch (Exception e) {
+            failedRenders.increment();
+            log.error("Could not render contract {}", contract_id, e);
+            markFailed(contract_id);
+        } finally {
+            RenderState next = states.compute(contract_id, (id, state) ->
+                    state == RenderState.RUNNING_DIRTY ? RenderState.QUEUED : null);
+            if (next == RenderState.QUEUED)
+                submit(contract_id);
+        }
+    }
+
+    private RenderedContract processTemplate(Contract contract) {
+        return new RenderedContract(contract, pdfRenderingEngine.processTemplate("contractTemplate", Map.of("contract", contract)));
+    }
+
+    private void markFailed(Long contract_id) {
+        try {
+            contractService.markPDFFailed(contract_id);
+        } catch (Exception e) {
+            log.error("Could not mark contract {} as failed", contract_id, e);
+        }
+    }
+}
@@ -1,18 +1,27 @@
 package com.gestionnaire_de_stage.service;
 
 import com.gestionnaire_de_stage.dto.ContractStarterDto;
+import com.gestionnaire_de_stage.dto.ContractSummaryDTO;
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
 import com.gestionnaire_de_stage.dto.StudentMonitorOfferDTO;
 import com.gestionnaire_de_stage.dto.UpdateStatusDTO;
+import com.gestionnaire_de_stage.enums.PdfStatus;
 import com.gestionnaire_de_stage.enums.Status;
 import com.gestionnaire_de_stage.exception.*;
 import com.gestionnaire_de_stage.model.*;
 import com.gestionnaire_de_stage.repository.ContractRepository;
 import com.gestionnaire_de_stage.repository.StudentRepository;
+import com.gestionnaire_de_stage.util.UniqueConstraints;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Year;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -33,22 +42,30 @@ public class ContractService {
 
     private final StudentRepository studentRepository;
 
+    private final DocumentStore documentStore;
+
+    private final Clock clock;
+
     public ContractService(ContractRepository contractRepository,
                            ManagerService managerService,
                            MonitorService monitorService,
                            StudentService studentService,
                            OfferApplicationService offerApplicationService,
-                           StudentRepository studentRepository) {
+                           StudentRepository studentRepository,
+                           DocumentStore documentStore,
+                           Clock clock) {
         this.contractRepository = contractRepository;
         this.managerService = managerService;
         this.monitorService = monitorService;
         this.studentService = studentService;
         this.offerApplicationService = offerApplicationService;
         this.studentRepository = studentRepository;
+        this.documentStore = documentStore;
+        this.clock = clock;
     }
 
-    public List<Contract> getAllUnsignedContracts() {
-        return contractRepository.getAllByManagerSignatureNull();
+    public List<ContractSummaryDTO> getAllUnsignedContracts() {
+        return contractRepository.findAllSummariesByManagerSignatureNull();
     }
 
     public Contract getOneById(Long idContract) throws IdDoesNotExistException {
@@ -64,19 +81,20 @@ public class ContractService {
         if (isContractIdNotValid(contract_id))
             throw new IdDoesNotExistException("Il n'y a pas de contrat associé à cet identifiant");
 
-        Contract contract = contractRepository.getContractByIdAndManagerSignatureNullAndMonitorSignatureNullAndStudentSignatureNullAndSession_YearGreaterThanEqual(contract_id, Year.now());
+        Contract contract = contractRepository.getContractByIdAndManagerSignatureNullAndMonitorSignatureNullAndStudentSignatureNullAndSession_YearGreaterThanEqual(contract_id, Year.now(clock));
 
-        contract.setManagerSignDate(LocalDate.now());
+        contract.setManagerSignDate(LocalDate.now(clock));
         contract.setManagerSignature(managerSignature);
+        requestPDF(contract);
         return contractRepository.save(contract);
     }
 
-    public List<Contract> getAllUnsignedContractForMonitor(Long monitor_id) throws IdDoesNotExistException {
+    public List<ContractSummaryDTO> getAllUnsignedContractForMonitor(Long monitor_id) throws IdDoesNotExistException {
         Assert.isTrue(monitor_id != null, "L'identifiant du moniteur ne peut pas être vide");
         if (monitorService.isIdInvalid(monitor_id)) {
             throw new IdDoesNotExistException("Il n'y a pas de moniteur associé à cet identifiant");
         }
-        return contractRepository.getAllByOffer_CreatorIdAndMonitorSignatureNullAndManagerSignatureNotNullAndSession_YearGreaterThanEqual(monitor_id, Year.now());
+        return contractRepository.findAllSummariesToSignForMonitor(monitor_id, Year.now(clock));
     }
 
     public Contract addMonitorSignature(String monitorSignature, Long contract_id) throws IllegalArgumentException, IdDoesNotExistException {
@@ -86,8 +104,9 @@ public class ContractService {
             throw new IdDoesNotExistException("Il n'y a pas de contrat associé à cet identifiant");
         }
         Contract contract = contractRepository.getContractByIdAndManagerSignatureNotNullAndMonitorSignatureNullAndStudentSignatureNull(contract_id);
-        contract.setMonitorSignDate(LocalDate.now());
+        contract.setMonitorSignDate(LocalDate.now(clock));
         contract.setMonitorSignature(monitorSignature);
+        requestPDF(contract);
         return contractRepository.save(contract);
     }
 
@@ -96,7 +115,7 @@ public class ContractService {
         if (studentService.isIDNotValid(student_id)) {
             throw new IdDoesNotExistException("Il n'y a pas d'étudiant associé à cet identifiant");
         }
-        return contractRepository.getByStudent_IdAndManagerSignatureNotNullAndMonitorSignatureNotNullAndStudentSignatureNullAndSession_YearGreaterThanEqual(student_id, Year.now());
+        return contractRepository.getByStudent_IdAndManagerSignatureNotNullAndMonitorSignatureNotNullAndStudentSignatureNullAndSession_YearGreaterThanEqual(student_id, Year.now(clock));
     }
 
     public Contract getContractByStudentMatricule(String matricule) throws MatriculeDoesNotExistException, ContractDoesNotExistException {
@@ -117,19 +136,48 @@ public class ContractService {
             throw new IdDoesNotExistException("Il n'y a pas de contrat associé à cet identifiant");
         }
         Contract contract = contractRepository.getContractByIdAndMonitorSignatureNotNullAndManagerSignatureNotNullAndStudentSignatureNull(contract_id);
-        contract.setStudentSignDate(LocalDate.now());
+        contract.setStudentSignDate(LocalDate.now(clock));
         contract.setStudentSignature(studentSignature);
+        requestPDF(contract);
         return contractRepository.save(contract);
     }
 
-    public Contract fillPDF(Contract contract, ByteArrayOutputStream baos) {
+    // False when the contract changed since it was read for the render, the PDF is then stale and not kept
+    public boolean fillPDF(Contract contract, ByteArrayOutputStream baos) throws IOException {
         Assert.isTrue(contract != null, "Le contrat ne peut pas être vide");
-        contract.setContractPDF(baos.toByteArray());
-        return contractRepository.save(contract);
+        StoredDocumentDTO contractPDF = documentStore.store(new ByteArrayInputStream(baos.toByteArray()));
+        if (contractRepository.updateContractPDF(contract.getId(), contract.getVersion(), contractPDF.getSize(),
+                contractPDF.getKey(), PdfStatus.READY) == 0)
+            return false;
+        contract.setContractPDFHash(contractPDF.getKey());
+        contract.setContractPDFSize(contractPDF.getSize());
+        contract.setPdfStatus(PdfStatus.READY);
+        return true;
+    }
+
+    public void markPDFFailed(Long contract_id) {
+        Assert.isTrue(contract_id != null, "L'identifiant du contrat ne peut pas être vide");
+        contractRepository.updatePdfStatus(contract_id, PdfStatus.FAILED);
+    }
+
+    public List<Long> getAllIdsWithPendingPDFRequestedBefore(LocalDateTime requestedBefore) {
+        Assert.isTrue(requestedBefore != null, "La date de la demande ne peut pas être vide");
+        return contractRepository.findAllIdsByPdfStatusRequestedBefore(PdfStatus.PENDING, requestedBefore);
+    }
+
+    public boolean claimPendingPDF(Long contract_id, LocalDateTime requestedBefore, LocalDateTime now) {
+        Assert.isTrue(contract_id != null, "L'identifiant du contrat ne peut pas être vide");
+        // A conditional UPDATE, the render is requested again by one sweep until it is stale once more
+        return contractRepository.claimPdfRequestedBefore(contract_id, PdfStatus.PENDING, requestedBefore, now) == 1;
+    }
+
+    private void requestPDF(Contract contract) {
+        contract.setPdfStatus(PdfStatus.PENDING);
+        contract.setPdfRequestedAt(LocalDateTime.now(clock));
     }
 
     private boolean isContractIdNotValid(Long contract_id) {
-        return !contractRepository.existsByIdAndSession_YearGreaterThanEqual(contract_id, Year.now());
+        return !contractRepository.existsByIdAndSession_YearGreaterThanEqual(contract_id, Year.now(clock));
     }
 
     public Contract gsStartContract(Contract contract, ContractStarterDto contractStarterDto) throws IdDoesNotExistException, IllegalArgumentException, StudentAlreadyHaveAContractException, StudentIsNotAssignedException {
@@ -143,38 +191,40 @@ public class ContractService {
         Curriculum curriculum = offerApplication.getCurriculum();
         Student student = curriculum.getStudent();
 
-        if (doesStudentAlreadyHaveAContract(student.getId(), contract.getSession()))
-            throw new StudentAlreadyHaveAContractException("Un contrat existe déjà pour l'étudiant ayant la matricule " + student.getMatricule());
         if (studentRepository.existsByIdAndSupervisorNull(student.getId())) {
             throw new StudentIsNotAssignedException("L'étudiant doit être affecté à un superviseur avant de créer un contrat");
         }
 
-        offerApplicationService.updateStatus(new UpdateStatusDTO(offerApplication.getId(), Status.EN_SIGNATURE));
-
         contract.setStudent(student);
         contract.setMonitor(monitor);
         contract.setOffer(offer);
         contract.setSession(offerApplication.getSession());
+        requestPDF(contract);
+
+        try {
+            contract = contractRepository.saveAndFlush(contract);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, Contract.UK_STUDENT_SESSION))
+                throw new StudentAlreadyHaveAContractException("Un contrat existe déjà pour l'étudiant ayant la matricule " + student.getMatricule());
+            throw e;
+        }
 
-        return contractRepository.save(contract);
-    }
-
-    public boolean doesStudentAlreadyHaveAContract(Long id, Session session) {
-        return contractRepository.existsByStudentIdAndSession(id, session);
+        offerApplicationService.updateStatus(new UpdateStatusDTO(offerApplication.getId(), Status.EN_SIGNATURE));
+        return contract;
     }
 
     public Contract updateContract(Contract contract) {
         return contractRepository.save(contract);
     }
 
-    public List<Contract> getAllSignedContractsByManager(Long id) throws IllegalArgumentException {
+    public List<ContractSummaryDTO> getAllSignedContractsByManager(Long id) throws IllegalArgumentException {
         Assert.isTrue(id != null, "L'identifiant du gestionnaire ne peut pas être vide");
-        return contractRepository.getAllByManager_IdAndManagerSignatureNotNullAndSession_YearGreaterThanEqual(id, Year.now());
+        return contractRepository.findAllSummariesSignedByManager(id, Year.now(clock));
     }
 
-    public List<Contract> getAllSignedContractsByMonitor(Long monitor_id) {
+    public List<ContractSummaryDTO> getAllSignedContractsByMonitor(Long monitor_id) {
         Assert.isTrue(monitor_id != null, "L'identifiant du moniteur ne peut pas être vide");
-        return contractRepository.getAllByMonitor_IdAndManagerSignatureNotNullAndMonitorSignatureNotNullAndSession_YearGreaterThanEqual(monitor_id, Year.now());
+        return contractRepository.findAllSummariesSignedByMonitor(monitor_id, Year.now(clock));
     }
 
     public Contract getSignedContractByStudentId(Long student_id) throws IdDoesNotExistException {
@@ -182,7 +232,7 @@ public class ContractService {
         if (studentService.isIDNotValid(student_id)) {
             throw new IdDoesNotExistException("Il n'y a pas d'étudiant associé à cet identifiant");
         }
-        return contractRepository.getByStudent_IdAndManagerSignatureNotNullAndMonitorSignatureNotNullAndStudentSignatureNotNullAndSession_YearGreaterThanEqual(student_id, Year.now());
+        return contractRepository.getByStudent_IdAndManagerSignatureNotNullAndMonitorSignatureNotNullAndStudentSignatureNotNullAndSession_YearGreaterThanEqual(student_id, Year.now(clock));
     }
 
     public StudentMonitorOfferDTO buildStudentMonitorOfferDTOFromContract(Contract contract) throws IllegalArgumentException {
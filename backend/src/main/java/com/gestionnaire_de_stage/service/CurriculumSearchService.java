@@ -0,0 +1,250 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.CurriculumSearchHitDTO;
+import com.gestionnaire_de_stage.dto.CurriculumSearchResultDTO;
+import com.gestionnaire_de_stage.dto.CurriculumSummaryDTO;
+import com.gestionnaire_de_stage.model.Curriculum;
+import com.gestionnaire_de_stage.repository.CurriculumRepository;
+import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
+import com.gestionnaire_de_stage.util.AfterCommit;
+import com.gestionnaire_de_stage.util.InvertedIndex;
+import com.gestionnaire_de_stage.util.TextAnalyzer;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.web.util.HtmlUtils;
+
+import javax.annotation.PreDestroy;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j(topic = "CurriculumSearchService")
+public class CurriculumSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Enough for the longest curriculum, a larger file is indexed on its beginning
+    private static final int MAX_TEXT_LENGTH = 100_000;
+
+    private static final int MAX_SNIPPETS = 3;
+
+    private static final int SNIPPET_CONTEXT = 60;
+
+    private static final Pattern WORDS = Pattern.compile("[\\p{L}\\p{N}\\p{M}]+");
+
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    private static class ExtractedCurriculum {
+        private final Long id;
+        // Kept to cut the snippets out of it
+        private final String text;
+
+        private ExtractedCurriculum(Long id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+
+    private final CurriculumRepository curriculumRepository;
+
+    private final OfferApplicationRepository offerApplicationRepository;
+
+    private final DocumentStore documentStore;
+
+    private final ThreadPoolExecutor executor;
+
+    private final InvertedIndex<ExtractedCurriculum> index = new InvertedIndex<>();
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private final Set<Long> unreadable = ConcurrentHashMap.newKeySet();
+
+    public CurriculumSearchService(CurriculumRepository curriculumRepository,
+                                   OfferApplicationRepository offerApplicationRepository,
+                                   DocumentStore documentStore,
+                                   @Value("${curriculum.extraction.threads:2}") int threads,
+                                   @Value("${curriculum.extraction.queue-capacity:500}") int queueCapacity) {
+        this.curriculumRepository = curriculumRepository;
+        this.offerApplicationRepository = offerApplicationRepository;
+        this.documentStore = documentStore;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("curriculum-extract-"));
+    }
+
+    public void queueExtraction(Curriculum curriculum) {
+        Assert.notNull(curriculum, "Le curriculum ne peut pas être vide");
+        Long id = curriculum.getId();
+        String dataHash = curriculum.getDataHash();
+        AfterCommit.run(() -> queueExtraction(id, dataHash));
+    }
+
+    public void remove(Long curriculumId) {
+        AfterCommit.run(() -> {
+            index.remove(curriculumId);
+            unreadable.remove(curriculumId);
+        });
+    }
+
+    // Indexes the curricula uploaded before startup, through another instance or rejected by a full queue
+    @Scheduled(fixedDelayString = "${curriculum.extraction.sweep-delay:60000}")
+    public void indexMissing() {
+        Set<Long> ids = new HashSet<>(curriculumRepository.findAllIds());
+        for (ExtractedCurriculum indexed : index.documents())
+            if (!ids.contains(indexed.id))
+                index.remove(indexed.id);
+        unreadable.retainAll(ids);
+
+        List<Long> missing = ids.stream()
+                .filter(id -> index.get(id) == null && !unreadable.contains(id) && !pending.contains(id))
+                .limit(executor.getQueue().remainingCapacity())
+                .collect(Collectors.toList());
+        if (missing.isEmpty())
+            return;
+        curriculumRepository.findAllSummariesByIdIn(missing)
+                .forEach(curriculum -> queueExtraction(curriculum.getId(), curriculum.getDataHash()));
+        log.info("Queued the extraction of {} curricula", missing.size());
+    }
+
+    // The text extracted from the curriculum, null until it is indexed
+    public String getText(Long curriculumId) {
+        ExtractedCurriculum curriculum = index.get(curriculumId);
+        return curriculum == null ? null : curriculum.text;
+    }
+
+    public CurriculumSearchResultDTO search(String q, int page, int size) throws IllegalArgumentException {
+        return search(q, page, size, null);
+    }
+
+    public CurriculumSearchResultDTO searchApplicantsOf(String monitorEmail, String q, int page, int size) throws IllegalArgumentException {
+        Assert.hasText(monitorEmail, "Le courriel ne peut pas être vide");
+        return search(q, page, size, new HashSet<>(offerApplicationRepository.findAllCurriculumIdsByOffer_CreatorEmail(monitorEmail)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private CurriculumSearchResultDTO search(String q, int page, int size, Set<Long> allowed) {
+        Assert.isTrue(page >= 0, "Le numéro de page ne peut pas être négatif");
+        Assert.isTrue(size > 0 && size <= MAX_PAGE_SIZE, "La taille de la page doit être entre 1 et " + MAX_PAGE_SIZE);
+        List<String> terms = TextAnalyzer.analyze(q);
+        Assert.isTrue(!terms.isEmpty(), "La recherche ne peut pas être vide");
+
+        List<InvertedIndex.Match<ExtractedCurriculum>> matches = index.search(terms).stream()
+                .filter(match -> allowed == null || allowed.contains(match.getDocument().id))
+                .sorted(Comparator.<InvertedIndex.Match<ExtractedCurriculum>>comparingDouble(InvertedIndex.Match::getScore).reversed()
+                        .thenComparingLong(match -> match.getDocument().id))
+                .collect(Collectors.toList());
+        List<InvertedIndex.Match<ExtractedCurriculum>> pageMatches = matches.stream()
+                .skip((long) page * size)
+                .limit(size)
+                .collect(Collectors.toList());
+        if (pageMatches.isEmpty())
+            return new CurriculumSearchResultDTO(new ArrayList<>(), matches.size());
+
+        Map<Long, CurriculumSummaryDTO> curriculums = curriculumRepository
+                .findAllSummariesByIdIn(pageMatches.stream().map(match -> match.getDocument().id).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(CurriculumSummaryDTO::getId, Function.identity()));
+        Set<String> queryTerms = new HashSet<>(terms);
+        List<CurriculumSearchHitDTO> hits = new ArrayList<>();
+        for (InvertedIndex.Match<ExtractedCurriculum> match : pageMatches) {
+            CurriculumSummaryDTO curriculum = curriculums.get(match.getDocument().id);
+            if (curriculum != null)
+                hits.add(new CurriculumSearchHitDTO(curriculum, match.getScore(), snippets(match.getDocument().text, queryTerms)));
+        }
+        return new CurriculumSearchResultDTO(hits, matches.size());
+    }
+
+    private void queueExtraction(Long id, String dataHash) {
+        if (id == null || dataHash == null || !pending.add(id))
+            return;
+        try {
+            executor.execute(() -> extract(id, dataHash));
+        } catch (RejectedExecutionException e) {
+            pending.remove(id);
+            log.warn("Extraction queue full, curriculum {} is indexed on the next sweep", id);
+        }
+    }
+
+    private void extract(Long id, String dataHash) {
+        try {
+            String text = extractText(dataHash);
+            index.put(id, new ExtractedCurriculum(id, text), TextAnalyzer.analyze(text));
+        } catch (Exception e) {
+            unreadable.add(id);
+            log.warn("Could not extract the text of curriculum {}", id, e);
+        } finally {
+            pending.remove(id);
+        }
+    }
+
+    private String extractText(String dataHash) throws Exception {
+        StringBuilder text = new StringBuilder();
+        try (InputStream content = documentStore.open(dataHash);
+             PdfDocument document = new PdfDocument(new PdfReader(content))) {
+            for (int page = 1; page <= document.getNumberOfPages() && text.length() < MAX_TEXT_LENGTH; page++)
+                text.append(PdfTextExtractor.getTextFromPage(document.getPage(page))).append(' ');
+        }
+        String normalized = WHITESPACES.matcher(text).replaceAll(" ").trim();
+        return normalized.length() > MAX_TEXT_LENGTH ? normalized.substring(0, MAX_TEXT_LENGTH) : normalized;
+    }
+
+    private List<String> snippets(String text, Set<String> terms) {
+        List<int[]> found = new ArrayList<>();
+        Matcher words = WORDS.matcher(text);
+        while (words.find())
+            if (terms.contains(TextAnalyzer.term(words.group())))
+                found.add(new int[]{words.start(), words.end()});
+
+        List<String> snippets = new ArrayList<>();
+        int i = 0;
+        while (i < found.size() && snippets.size() < MAX_SNIPPETS) {
+            int start = wordStart(text, found.get(i)[0]);
+            int end = wordEnd(text, found.get(i)[1]);
+            StringBuilder snippet = new StringBuilder(start > 0 ? "… " : "");
+            int position = start;
+            // Every word found within the passage is marked, the next passage starts after it
+            for (; i < found.size() && found.get(i)[1] <= end; i++) {
+                snippet.append(HtmlUtils.htmlEscape(text.substring(position, found.get(i)[0]), "UTF-8"))
+                        .append("<mark>")
+                        .append(HtmlUtils.htmlEscape(text.substring(found.get(i)[0], found.get(i)[1]), "UTF-8"))
+                        .append("</mark>");
+                position = found.get(i)[1];
+            }
+            snippet.append(HtmlUtils.htmlEscape(text.substring(position, end), "UTF-8")).append(end < text.length() ? " …" : "");
+            snippets.add(snippet.toString());
+        }
+        return snippets;
+    }
+
+    // The passage starts and ends on whole words, around the word found
+    private int wordStart(String text, int wordStart) {
+        int position = wordStart - SNIPPET_CONTEXT;
+        if (position <= 0)
+            return 0;
+        int space = text.indexOf(' ', position);
+        return space < 0 || space >= wordStart ? position : space + 1;
+    }
+
+    private int wordEnd(String text, int wordEnd) {
+        int position = wordEnd + SNIPPET_CONTEXT;
+        if (position >= text.length())
+            return text.length();
+        int space = text.lastIndexOf(' ', position);
+        return space < wordEnd ? position : space;
+    }
+}
@@ -1,5 +1,7 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.dto.CurriculumSummaryDTO;
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
 import com.gestionnaire_de_stage.dto.StudentCurriculumsDTO;
 import com.gestionnaire_de_stage.dto.ValidationCurriculum;
 import com.gestionnaire_de_stage.exception.CurriculumAlreadyTreatedException;
@@ -8,28 +10,47 @@ import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.model.Curriculum;
 import com.gestionnaire_de_stage.model.Student;
 import com.gestionnaire_de_stage.repository.CurriculumRepository;
+import com.gestionnaire_de_stage.util.SizeLimitedInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 
 @Service
 public class CurriculumService {
 
+    private static final byte[] PDF_SIGNATURE = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
     private final CurriculumRepository curriculumRepository;
     private final StudentService studentService;
     private final OfferApplicationService offerApplicationService;
+    private final DocumentStore documentStore;
+    private final CurriculumSearchService curriculumSearchService;
+    private final DataSize maxFileSize;
 
     public CurriculumService(
             CurriculumRepository curriculumRepository,
             StudentService studentService,
-            OfferApplicationService offerApplicationService) {
+            OfferApplicationService offerApplicationService,
+            DocumentStore documentStore,
+            CurriculumSearchService curriculumSearchService,
+            @Value("${spring.servlet.multipart.max-file-size:10MB}") DataSize maxFileSize) {
         this.curriculumRepository = curriculumRepository;
         this.studentService = studentService;
         this.offerApplicationService = offerApplicationService;
+        this.documentStore = documentStore;
+        this.curriculumSearchService = curriculumSearchService;
+        this.maxFileSize = maxFileSize;
     }
 
     @SuppressWarnings("ConstantConditions")
@@ -37,14 +58,23 @@ public class CurriculumService {
             throws IOException, IdDoesNotExistException, IllegalArgumentException {
         Assert.isTrue(file != null, "Fichier ne peut pas être vide");
         Assert.isTrue(studentId != null, "L'identifiant de l'étudiant ne peut pas être vide");
+        Assert.isTrue(!file.isEmpty(), "Fichier ne peut pas être vide");
+        Assert.isTrue(file.getSize() <= maxFileSize.toBytes(), "Le fichier ne peut pas dépasser " + maxFileSize.toMegabytes() + " Mo");
 
         Student student = studentService.getOneByID(studentId);
 
         String fileName = StringUtils.cleanPath(file.getOriginalFilename());
+        StoredDocumentDTO data;
+        // The part is spooled to disk by the container, it is hashed and copied to the store chunk by chunk
+        try (InputStream inputStream = new BufferedInputStream(file.getInputStream())) {
+            Assert.isTrue(hasPdfSignature(inputStream), "Le curriculum doit être un fichier PDF");
+            data = documentStore.store(new SizeLimitedInputStream(inputStream, maxFileSize.toBytes()));
+        }
         return new Curriculum(
                 fileName,
-                file.getContentType(),
-                file.getBytes(),
+                MediaType.APPLICATION_PDF_VALUE,
+                data.getKey(),
+                data.getSize(),
                 student
         );
     }
@@ -52,23 +82,26 @@ public class CurriculumService {
     public Curriculum create(Curriculum curriculum) throws IllegalArgumentException {
         Assert.notNull(curriculum, "Le curriculum ne peut pas être vide");
 
-
-        return curriculumRepository.save(curriculum);
+        Curriculum saved = curriculumRepository.save(curriculum);
+        // The text is extracted on the search pool, the upload does not wait for it
+        curriculumSearchService.queueExtraction(saved);
+        return saved;
     }
 
-    public List<Curriculum> findAllByStudent(Student student) throws IllegalArgumentException {
+    public List<CurriculumSummaryDTO> findAllByStudent(Student student) throws IllegalArgumentException {
         Assert.notNull(student, "L'etudiant ne peut pas être vide");
 
-        return curriculumRepository.findAllByStudent(student);
+        return curriculumRepository.findAllSummariesByStudentId(student.getId());
     }
 
     public StudentCurriculumsDTO allCurriculumsByStudentAsStudentCurriculumsDTO(Student student) throws IllegalArgumentException {
-        List<Curriculum> curriculumListByStudent = findAllByStudent(student);
-        Curriculum principal;
+        List<CurriculumSummaryDTO> curriculumListByStudent = findAllByStudent(student);
+        Curriculum principalCurriculum = student.getPrincipalCurriculum();
 
-        int index = curriculumListByStudent.indexOf(student.getPrincipalCurriculum());
-        principal = curriculumListByStudent.contains(student.getPrincipalCurriculum())
-                ? curriculumListByStudent.get(index) : null;
+        CurriculumSummaryDTO principal = principalCurriculum == null ? null : curriculumListByStudent.stream()
+                .filter(curriculum -> curriculum.getId().equals(principalCurriculum.getId()))
+                .findFirst()
+                .orElse(null);
 
         return new StudentCurriculumsDTO(principal, curriculumListByStudent);
     }
@@ -94,7 +127,7 @@ public class CurriculumService {
                 .orElseThrow(() -> new IdDoesNotExistException("Il n'y a pas de curriculum associé à cet identifiant"));
     }
 
-    public List<Curriculum> findAllByStudentId(Long id) throws IdDoesNotExistException {
+    public List<CurriculumSummaryDTO> findAllByStudentId(Long id) throws IdDoesNotExistException {
         Student student = studentService.getOneByID(id);
         return findAllByStudent(student);
     }
@@ -110,10 +143,18 @@ public class CurriculumService {
             throw new CurriculumUsedException("Impossible de supprimer. Vous avez postulé avec ce curriculum");
 
         curriculumRepository.deleteById(idCurriculum);
+        curriculumSearchService.remove(idCurriculum);
     }
 
     private boolean isPrincipal(Curriculum curriculum) {
         Student student = curriculum.getStudent();
         return curriculum == student.getPrincipalCurriculum();
     }
+
+    private boolean hasPdfSignature(InputStream inputStream) throws IOException {
+        inputStream.mark(PDF_SIGNATURE.length);
+        byte[] signature = inputStream.readNBytes(PDF_SIGNATURE.length);
+        inputStream.reset();
+        return Arrays.equals(signature, PDF_SIGNATURE);
+    }
 }
@@ -0,0 +1,140 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
+import com.gestionnaire_de_stage.util.DocumentHash;
+import com.gestionnaire_de_stage.util.JdbcBlobReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Documents in the stored_document table, so that every instance reads what another one stored. The content
+ * is spooled to a temporary file first, its key is only known once it is read to the end.
+ */
+@Slf4j(topic = "DatabaseDocumentStore")
+public class DatabaseDocumentStore implements DocumentStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String INSERT = "INSERT INTO stored_document (document_key, content_size, content) VALUES (?, ?, ?)";
+
+    private static final String SELECT_SIZE = "SELECT content_size FROM stored_document WHERE document_key = ?";
+
+    private static final String SELECT_CONTENT = "SELECT content FROM stored_document WHERE document_key = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JdbcBlobReader blobReader;
+
+    public DatabaseDocumentStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.blobReader = new JdbcBlobReader(dataSource);
+    }
+
+    @Override
+    public StoredDocumentDTO store(InputStream content) throws IOException {
+        Assert.notNull(content, "Le contenu du document ne peut pas être vide");
+        Path temp = Files.createTempFile("document-", ".tmp");
+        try {
+            MessageDigest digest = DocumentHash.newDigest();
+            long size = 0;
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    outputStream.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+
+            String key = DocumentHash.toHex(digest.digest());
+            if (exists(key)) {
+                log.debug("Document {} already stored", key);
+                return new StoredDocumentDTO(key, size);
+            }
+            long length = size;
+            try (InputStream inputStream = Files.newInputStream(temp)) {
+                jdbcTemplate.update(INSERT, statement -> {
+                    statement.setString(1, key);
+                    statement.setLong(2, length);
+                    statement.setBinaryStream(3, inputStream, length);
+                });
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent upload of the same content inserted it first, both are identical
+                log.debug("Document {} already stored", key);
+            }
+            return new StoredDocumentDTO(key, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return !findSize(key).isEmpty();
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        List<Long> sizes = findSize(key);
+        if (sizes.isEmpty())
+            throw new NoSuchFileException(key);
+        return sizes.get(0);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return open(key, 0, Long.MAX_VALUE);
+    }
+
+    @Override
+    public long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        Assert.notNull(target, "Le canal de destination ne peut pas être vide");
+        long transferred = 0;
+        try (InputStream inputStream = open(key, position, count)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining())
+                    target.write(byteBuffer);
+                transferred += read;
+            }
+        }
+        return transferred;
+    }
+
+    private InputStream open(String key, long position, long count) throws IOException {
+        checkKey(key);
+        InputStream inputStream = blobReader.open(SELECT_CONTENT, key, position, count);
+        if (inputStream == null)
+            throw new NoSuchFileException(key);
+        return inputStream;
+    }
+
+    private List<Long> findSize(String key) {
+        checkKey(key);
+        return jdbcTemplate.queryForList(SELECT_SIZE, Long.class, key);
+    }
+
+    private void checkKey(String key) {
+        Assert.isTrue(key != null && KEY_PATTERN.matcher(key).matches(), "La clé du document est invalide");
+    }
+}
@@ -0,0 +1,128 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
+import com.gestionnaire_de_stage.enums.DocumentType;
+import com.gestionnaire_de_stage.util.JdbcBlobReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves the content of the legacy blob columns to the document store. The column is only emptied once the
+ * document is in the store, which the other instances read too (see DocumentStoreConfiguration).
+ */
+@Service
+@Slf4j(topic = "DocumentMigrationService")
+public class DocumentMigrationService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JdbcBlobReader blobReader;
+
+    private final DocumentStore documentStore;
+
+    private final int batchSize;
+
+    private final boolean enabled;
+
+    private volatile Set<DocumentType> legacyTypes;
+
+    public DocumentMigrationService(DataSource dataSource,
+                                    DocumentStore documentStore,
+                                    @Value("${document.store.migration.batch-size:50}") int batchSize,
+                                    @Value("${document.store.migration.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.blobReader = new JdbcBlobReader(dataSource);
+        this.documentStore = documentStore;
+        this.batchSize = batchSize;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateAll() {
+        if (!enabled)
+            return;
+        for (DocumentType type : DocumentType.values()) {
+            long lastId = 0;
+            long next;
+            while ((next = migrateBatch(type, lastId)) != lastId)
+                lastId = next;
+            if (lastId > 0)
+                log.info("Went through the {} documents up to {}", type, lastId);
+        }
+    }
+
+    // Pages by id so that a document that cannot be moved is skipped, returns the last id read or afterId when none is left
+    public long migrateBatch(DocumentType type, long afterId) {
+        Assert.notNull(type, "Le type de document ne peut pas être vide");
+        if (!hasLegacyContent(type))
+            return afterId;
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM " + type.getTable() +
+                " WHERE " + type.getContentColumn() + " IS NOT NULL AND id > ? ORDER BY id LIMIT ?", Long.class, afterId, batchSize);
+        for (Long id : ids) {
+            try {
+                migrate(type, id);
+            } catch (IOException | DataAccessException e) {
+                log.error("Could not move {} {} to the document store", type, id, e);
+            }
+        }
+        return ids.isEmpty() ? afterId : ids.get(ids.size() - 1);
+    }
+
+    public StoredDocumentDTO migrate(DocumentType type, Long id) throws IOException {
+        Assert.notNull(type, "Le type de document ne peut pas être vide");
+        Assert.notNull(id, "L'identifiant du document ne peut pas être vide");
+        if (!hasLegacyContent(type))
+            return null;
+
+        StoredDocumentDTO stored;
+        try (InputStream inputStream = openLegacyContent(type, id)) {
+            if (inputStream == null)
+                return null;
+            stored = documentStore.store(inputStream);
+        }
+        jdbcTemplate.update("UPDATE " + type.getTable() + " SET " + type.getSizeColumn() + " = ?, " +
+                        type.getHashColumn() + " = ?, " + type.getContentColumn() + " = NULL WHERE id = ?",
+                stored.getSize(), stored.getKey(), id);
+        log.debug("Moved {} {} to the document store", type, id);
+        return stored;
+    }
+
+    public boolean hasLegacyContent(DocumentType type) {
+        Set<DocumentType> types = legacyTypes;
+        if (types == null) {
+            types = findLegacyTypes();
+            legacyTypes = types;
+        }
+        return types.contains(type);
+    }
+
+    private Set<DocumentType> findLegacyTypes() {
+        Set<DocumentType> types = EnumSet.noneOf(DocumentType.class);
+        for (DocumentType type : DocumentType.values()) {
+            try {
+                jdbcTemplate.queryForList("SELECT " + type.getContentColumn() + " FROM " + type.getTable() + " WHERE 1 = 0");
+                types.add(type);
+            } catch (DataAccessException e) {
+                log.debug("No legacy column {} on {}", type.getContentColumn(), type.getTable());
+            }
+        }
+        return types;
+    }
+
+    private InputStream openLegacyContent(DocumentType type, Long id) throws IOException {
+        return blobReader.open("SELECT " + type.getContentColumn() + " FROM " + type.getTable() + " WHERE id = ?", id);
+    }
+}
@@ -0,0 +1,93 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.DocumentDTO;
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
+import com.gestionnaire_de_stage.enums.DocumentType;
+import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+
+@Service
+@Slf4j(topic = "DocumentService")
+public class DocumentService {
+
+    private static class DocumentMetadata {
+        private final String key;
+        private final String name;
+        private final String contentType;
+
+        private DocumentMetadata(String key, String name, String contentType) {
+            this.key = key;
+            this.name = name;
+            this.contentType = contentType;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DocumentStore documentStore;
+
+    private final DocumentMigrationService documentMigrationService;
+
+    public DocumentService(DataSource dataSource,
+                           DocumentStore documentStore,
+                           DocumentMigrationService documentMigrationService) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.documentStore = documentStore;
+        this.documentMigrationService = documentMigrationService;
+    }
+
+    public DocumentDTO getDocument(DocumentType type, Long id) throws IdDoesNotExistException, IOException {
+        Assert.notNull(type, "Le type de document ne peut pas être vide");
+        Assert.notNull(id, "L'identifiant du document ne peut pas être vide");
+
+        DocumentMetadata metadata = findMetadata(type, id);
+        if (metadata == null)
+            throw new IdDoesNotExistException(type.getNotFoundMessage());
+
+        String key = metadata.key;
+        if (key == null || !documentStore.exists(key)) {
+            // Rows written before the document store still hold their content in the table
+            StoredDocumentDTO migrated = documentMigrationService.migrate(type, id);
+            if (migrated == null) {
+                if (key != null)
+                    log.warn("{} {} references document {} which is missing from the store", type, id, key);
+                return null;
+            }
+            key = migrated.getKey();
+        }
+
+        StoredDocumentResource content = documentStore.getResource(key);
+        return new DocumentDTO(
+                id,
+                content.contentLength(),
+                key,
+                metadata.contentType == null ? MediaType.APPLICATION_PDF_VALUE : metadata.contentType,
+                metadata.name == null ? defaultFileName(type, id) : metadata.name,
+                content
+        );
+    }
+
+    private DocumentMetadata findMetadata(DocumentType type, Long id) {
+        String sql = "SELECT " + type.getHashColumn() +
+                (type == DocumentType.CURRICULUM ? ", name, type" : "") +
+                " FROM " + type.getTable() + " WHERE id = ?";
+        List<DocumentMetadata> rows = jdbcTemplate.query(sql, (rs, rowNum) -> new DocumentMetadata(
+                rs.getString(1),
+                type == DocumentType.CURRICULUM ? rs.getString(2) : null,
+                type == DocumentType.CURRICULUM ? rs.getString(3) : null
+        ), id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private String defaultFileName(DocumentType type, Long id) {
+        return type.name().toLowerCase() + "_" + id + ".pdf";
+    }
+}
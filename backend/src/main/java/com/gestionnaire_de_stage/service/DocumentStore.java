@@ -0,0 +1,24 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+
+public interface DocumentStore {
+
+    StoredDocumentDTO store(InputStream content) throws IOException;
+
+    boolean exists(String key);
+
+    long size(String key) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+
+    default StoredDocumentResource getResource(String key) throws IOException {
+        return new StoredDocumentResource(this, key, size(key));
+    }
+}
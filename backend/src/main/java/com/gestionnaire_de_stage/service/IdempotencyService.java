@@ -0,0 +1,227 @@
+package com.gestionnaire_de_stage.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestionnaire_de_stage.exception.IdempotencyKeyReusedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Keys and responses of the idempotent requests, in the idempotency_key table so that a duplicate sent to
+ * another instance finds them too. The responses of this instance are also kept in memory, the duplicates
+ * sent here are answered without reading the table.
+ */
+@Service
+@Slf4j(topic = "IdempotencyService")
+public class IdempotencyService {
+
+    private static final String TAKE_OVER = "UPDATE idempotency_key SET fingerprint = ?, expires_at = ?, status = NULL, body = NULL " +
+            "WHERE scope = ? AND idempotency_key = ? AND expires_at <= ?";
+
+    private static final String INSERT = "INSERT INTO idempotency_key (scope, idempotency_key, fingerprint, expires_at) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT = "SELECT fingerprint, status, body FROM idempotency_key " +
+            "WHERE scope = ? AND idempotency_key = ? AND expires_at > ?";
+
+    private static final String COMPLETE = "UPDATE idempotency_key SET status = ?, body = ? " +
+            "WHERE scope = ? AND idempotency_key = ? AND fingerprint = ? AND status IS NULL";
+
+    private static final String RELEASE = "DELETE FROM idempotency_key WHERE scope = ? AND idempotency_key = ? AND status IS NULL";
+
+    private static final String PURGE = "DELETE FROM idempotency_key WHERE expires_at <= ?";
+
+    private static final long POLL_MILLIS = 100;
+
+    private static class StoredResponse {
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+        private final int fingerprint;
+        private final Instant expiresAt;
+
+        private StoredResponse(int fingerprint, Instant expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static class StoredRow {
+        private final int fingerprint;
+        private final Integer status;
+        private final byte[] body;
+
+        private StoredRow(int fingerprint, Integer status, byte[] body) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private final ConcurrentMap<String, StoredResponse> responses = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Clock clock;
+
+    private final Duration timeToLive;
+
+    private final Duration wait;
+
+    public IdempotencyService(JdbcTemplate jdbcTemplate,
+                              ObjectMapper objectMapper,
+                              Clock clock,
+                              @Value("${idempotency.ttl:10m}") Duration timeToLive,
+                              @Value("${idempotency.wait:30s}") Duration wait) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.timeToLive = timeToLive;
+        this.wait = wait;
+    }
+
+    public ResponseEntity<?> execute(String scope, String key, int fingerprint, Supplier<ResponseEntity<?>> call) throws IdempotencyKeyReusedException {
+        String id = scope + ":" + key;
+        Instant now = clock.instant();
+        StoredResponse started = new StoredResponse(fingerprint, now.plus(timeToLive));
+        // Concurrent duplicates find the entry of the first one and wait for its response
+        StoredResponse stored = responses.compute(id,
+                (ignored, previous) -> previous == null || !now.isBefore(previous.expiresAt) ? started : previous);
+        if (stored != started) {
+            if (stored.fingerprint != fingerprint)
+                throw new IdempotencyKeyReusedException("Cette clé d'idempotence a déjà servi pour une autre requête");
+            log.debug("Replaying the response of {}", id);
+            return join(stored);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = claimOrAwait(scope, key, fingerprint, started.expiresAt);
+        } catch (IdempotencyKeyReusedException | RuntimeException e) {
+            responses.remove(id, started);
+            started.response.completeExceptionally(e);
+            throw e;
+        }
+        if (response != null) {
+            log.debug("Replaying the response of {} from another instance", id);
+            started.response.complete(response);
+            return response;
+        }
+
+        try {
+            response = call.get();
+        } catch (RuntimeException | Error e) {
+            release(scope, key);
+            responses.remove(id, started);
+            started.response.completeExceptionally(e);
+            throw e;
+        }
+        // Only a success is kept, the request can be retried once what made it fail is fixed
+        if (response.getStatusCode().is2xxSuccessful())
+            complete(scope, key, fingerprint, response);
+        else {
+            release(scope, key);
+            responses.remove(id, started);
+        }
+        started.response.complete(response);
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-delay:60000}")
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        responses.values().removeIf(stored -> stored.response.isDone() && !now.isBefore(stored.expiresAt));
+        int purged = jdbcTemplate.update(PURGE, Timestamp.valueOf(LocalDateTime.now(clock)));
+        log.debug("Purged {} idempotency keys", purged);
+    }
+
+    // Null when the key is claimed by this request, otherwise the response stored by the request that claimed it
+    private ResponseEntity<?> claimOrAwait(String scope, String key, int fingerprint, Instant expiresAt) throws IdempotencyKeyReusedException {
+        Timestamp expiry = Timestamp.valueOf(LocalDateTime.ofInstant(expiresAt, clock.getZone()));
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now(clock));
+            // The row of an expired key is taken over in one conditional UPDATE, like a lease
+            if (jdbcTemplate.update(TAKE_OVER, fingerprint, expiry, scope, key, now) == 1)
+                return null;
+            try {
+                if (jdbcTemplate.update(INSERT, scope, key, fingerprint, expiry) == 1)
+                    return null;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Idempotency key {}:{} is already claimed", scope, key);
+            }
+
+            List<StoredRow> rows = jdbcTemplate.query(SELECT,
+                    (resultSet, row) -> new StoredRow(resultSet.getInt(1), (Integer) resultSet.getObject(2), resultSet.getBytes(3)),
+                    scope, key, now);
+            if (!rows.isEmpty()) {
+                StoredRow row = rows.get(0);
+                if (row.fingerprint != fingerprint)
+                    throw new IdempotencyKeyReusedException("Cette clé d'idempotence a déjà servi pour une autre requête");
+                if (row.status != null)
+                    return toResponse(row);
+            }
+            // The first request runs on another instance, or failed and released the key in between
+            if (System.nanoTime() > deadline)
+                throw new IdempotencyKeyReusedException("Une requête avec cette clé d'idempotence est encore en cours");
+            sleep();
+        }
+    }
+
+    private void complete(String scope, String key, int fingerprint, ResponseEntity<?> response) {
+        try {
+            byte[] body = response.getBody() == null ? null : objectMapper.writeValueAsBytes(response.getBody());
+            jdbcTemplate.update(COMPLETE, response.getStatusCodeValue(), body, scope, key, fingerprint);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not store the response of {}:{}, the key is released", scope, key, e);
+            release(scope, key);
+        }
+    }
+
+    private void release(String scope, String key) {
+        jdbcTemplate.update(RELEASE, scope, key);
+    }
+
+    private ResponseEntity<?> toResponse(StoredRow row) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(row.status);
+        if (row.body == null)
+            return response.build();
+        return response.contentType(MediaType.APPLICATION_JSON).body(row.body);
+    }
+
+    private ResponseEntity<?> join(StoredResponse stored) throws IdempotencyKeyReusedException {
+        try {
+            return stored.response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IdempotencyKeyReusedException)
+                throw new IdempotencyKeyReusedException(e.getCause().getMessage());
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
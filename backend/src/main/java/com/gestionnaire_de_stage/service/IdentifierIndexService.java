@@ -0,0 +1,147 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.enums.UserIdentifier;
+import com.gestionnaire_de_stage.repository.StudentRepository;
+import com.gestionnaire_de_stage.repository.SupervisorRepository;
+import com.gestionnaire_de_stage.repository.UserRepository;
+import com.gestionnaire_de_stage.util.IdentifierFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Emails and matricules of the users, in memory, for the checks of the signup forms. The emails are unique
+ * among all the users, they are in one filter; the matricules are per role.
+ * The filters are rebuilt from the database at startup and from time to time, to catch up with
+ * the accounts changed through another instance; until the first rebuild the checks query the database.
+ */
+@Service
+@Slf4j(topic = "IdentifierIndexService")
+public class IdentifierIndexService {
+
+    private static class Change {
+        private final UserIdentifier identifier;
+        private final String value;
+        private final boolean added;
+
+        private Change(UserIdentifier identifier, String value, boolean added) {
+            this.identifier = identifier;
+            this.value = value;
+            this.added = added;
+        }
+    }
+
+    private final UserRepository userRepository;
+
+    private final StudentRepository studentRepository;
+
+    private final SupervisorRepository supervisorRepository;
+
+    private volatile Map<UserIdentifier, IdentifierFilter> filters = Map.of();
+
+    // The changes made while a rebuild reads the database, applied again to the rebuilt filters
+    private List<Change> changesDuringRebuild;
+
+    public IdentifierIndexService(UserRepository userRepository,
+                                  StudentRepository studentRepository,
+                                  SupervisorRepository supervisorRepository) {
+        this.userRepository = userRepository;
+        this.studentRepository = studentRepository;
+        this.supervisorRepository = supervisorRepository;
+    }
+
+    public boolean exists(UserIdentifier identifier, String value) {
+        Assert.notNull(identifier, "Le type d'identifiant ne peut pas être vide");
+        if (value == null)
+            return false;
+        IdentifierFilter filter = filters.get(identifier);
+        if (filter == null)
+            return existsInDatabase(identifier, value);
+        return filter.contains(normalize(identifier, value));
+    }
+
+    public synchronized void add(UserIdentifier identifier, String value) {
+        apply(filters, new Change(identifier, value, true));
+    }
+
+    public synchronized void remove(UserIdentifier identifier, String value) {
+        apply(filters, new Change(identifier, value, false));
+    }
+
+    public synchronized void replace(UserIdentifier identifier, String previous, String current) {
+        if (previous != null && !normalize(identifier, previous).equals(current == null ? null : normalize(identifier, current)))
+            remove(identifier, previous);
+        add(identifier, current);
+    }
+
+    @Scheduled(fixedDelayString = "${identifier.index.rebuild:600000}")
+    public void rebuild() {
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        Map<UserIdentifier, IdentifierFilter> rebuilt = new EnumMap<>(UserIdentifier.class);
+        try {
+            for (UserIdentifier identifier : UserIdentifier.values())
+                rebuilt.put(identifier, IdentifierFilter.of(findAll(identifier).stream()
+                        .filter(Objects::nonNull)
+                        .map(value -> normalize(identifier, value))
+                        .collect(Collectors.toList())));
+        } finally {
+            synchronized (this) {
+                if (rebuilt.size() == UserIdentifier.values().length) {
+                    changesDuringRebuild.forEach(change -> apply(rebuilt, change));
+                    filters = rebuilt;
+                }
+                changesDuringRebuild = null;
+            }
+        }
+        log.info("Indexed {} user identifiers", rebuilt.values().stream().mapToInt(IdentifierFilter::size).sum());
+    }
+
+    private void apply(Map<UserIdentifier, IdentifierFilter> target, Change change) {
+        Assert.notNull(change.identifier, "Le type d'identifiant ne peut pas être vide");
+        if (change.value == null)
+            return;
+        if (target == filters && changesDuringRebuild != null)
+            changesDuringRebuild.add(change);
+        IdentifierFilter filter = target.get(change.identifier);
+        if (filter == null)
+            return;
+        if (change.added)
+            filter.add(normalize(change.identifier, change.value));
+        else
+            filter.remove(normalize(change.identifier, change.value));
+    }
+
+    // The database compares the emails regardless of the case
+    private String normalize(UserIdentifier identifier, String value) {
+        String trimmed = value.trim();
+        return identifier == UserIdentifier.EMAIL ? trimmed.toLowerCase(Locale.ROOT) : trimmed;
+    }
+
+    private List<String> findAll(UserIdentifier identifier) {
+        switch (identifier) {
+            case EMAIL:
+                return userRepository.findAllEmails();
+            case STUDENT_MATRICULE:
+                return studentRepository.findAllMatricules();
+            default:
+                return supervisorRepository.findAllMatricules();
+        }
+    }
+
+    private boolean existsInDatabase(UserIdentifier identifier, String value) {
+        switch (identifier) {
+            case EMAIL:
+                return userRepository.existsByEmail(value);
+            case STUDENT_MATRICULE:
+                return studentRepository.existsByMatricule(value);
+            default:
+                return supervisorRepository.existsByMatricule(value);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.ScheduledInterviewDTO;
+import com.gestionnaire_de_stage.enums.Status;
+import com.gestionnaire_de_stage.model.OfferApplication;
+import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledFuture;
+
+@Service
+@Slf4j(topic = "InterviewSchedulerService")
+public class InterviewSchedulerService {
+
+    private final PriorityQueue<ScheduledInterviewDTO> queue = new PriorityQueue<>(
+            Comparator.comparing(ScheduledInterviewDTO::getInterviewDate)
+                    .thenComparing(ScheduledInterviewDTO::getOfferApplicationId));
+
+    private final OfferApplicationRepository offerApplicationRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Clock clock;
+
+    private final int batchSize;
+
+    private final Duration retryDelay;
+
+    private TaskScheduler taskScheduler;
+
+    private ScheduledFuture<?> nextRun;
+
+    private LocalDateTime nextRunDate;
+
+    // The interviews scheduled while a reload reads the database, added again to the reloaded queue
+    private List<ScheduledInterviewDTO> scheduledDuringReload;
+
+    public InterviewSchedulerService(OfferApplicationRepository offerApplicationRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     Clock clock,
+                                     @Value("${interview.scheduler.batch-size:50}") int batchSize,
+                                     @Value("${interview.scheduler.retry-delay:30s}") Duration retryDelay) {
+        this.offerApplicationRepository = offerApplicationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+    }
+
+    // Runs at startup, then picks up from time to time the interviews set through another instance
+    @Scheduled(fixedDelayString = "${interview.scheduler.reload:3600000}")
+    public void reload() {
+        synchronized (this) {
+            scheduledDuringReload = new ArrayList<>();
+        }
+        List<ScheduledInterviewDTO> interviews = null;
+        try {
+            interviews = offerApplicationRepository.findAllScheduledInterviews(Status.EN_ATTENTE_ENTREVUE, Year.now(clock));
+        } finally {
+            synchronized (this) {
+                if (interviews != null) {
+                    queue.clear();
+                    queue.addAll(interviews);
+                    queue.addAll(scheduledDuringReload);
+                    arm();
+                }
+                scheduledDuringReload = null;
+            }
+        }
+        log.info("Scheduled {} interviews", interviews.size());
+    }
+
+    public void schedule(Long offerApplicationId, LocalDateTime interviewDate) throws IllegalArgumentException {
+        Assert.notNull(offerApplicationId, "L'identifiant de l'application ne peut pas être vide");
+        Assert.notNull(interviewDate, "La date ne peut pas être vide");
+
+        ScheduledInterviewDTO interview = new ScheduledInterviewDTO(offerApplicationId, interviewDate);
+        synchronized (this) {
+            queue.add(interview);
+            if (scheduledDuringReload != null)
+                scheduledDuringReload.add(interview);
+            arm();
+        }
+    }
+
+    public synchronized int getScheduledCount() {
+        return queue.size();
+    }
+
+    public void runDue() {
+        List<Long> batch;
+        while (!(batch = pollDue()).isEmpty()) {
+            List<Long> ids = batch;
+            try {
+                int updated = transactionTemplate.execute(status -> passInterviews(ids));
+                log.debug("{} of {} interviews passed", updated, ids.size());
+            } catch (RuntimeException e) {
+                log.warn("Could not update the status of {} interviews, retrying in {}", ids.size(), retryDelay, e);
+                retryLater(ids);
+            }
+        }
+        synchronized (this) {
+            nextRun = null;
+            nextRunDate = null;
+            arm();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (taskScheduler instanceof ThreadPoolTaskScheduler)
+            ((ThreadPoolTaskScheduler) taskScheduler).shutdown();
+    }
+
+    // Its own thread, a batch of interviews does not wait behind the @Scheduled jobs
+    TaskScheduler newTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("interview-scheduler-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    // The real interview date is checked again by passInterviews, the retry only needs to come after it
+    private synchronized void retryLater(List<Long> ids) {
+        LocalDateTime retryAt = LocalDateTime.now(clock).plus(retryDelay);
+        for (Long id : ids) {
+            ScheduledInterviewDTO interview = new ScheduledInterviewDTO(id, retryAt);
+            queue.add(interview);
+            if (scheduledDuringReload != null)
+                scheduledDuringReload.add(interview);
+        }
+    }
+
+    private int passInterviews(List<Long> ids) {
+        // A rescheduled or answered application no longer matches, its stale entry is simply dropped.
+        // The rows are locked, an instance holding the same entry finds them already passed.
+        List<OfferApplication> offerApplications = offerApplicationRepository.findAllByIdInAndStatusAndInterviewDateLessThanEqual(
+                ids, Status.EN_ATTENTE_ENTREVUE, LocalDateTime.now(clock));
+        offerApplications.forEach(offerApplication -> offerApplication.setStatus(Status.EN_ATTENTE_REPONSE));
+        offerApplicationRepository.saveAll(offerApplications);
+        return offerApplications.size();
+    }
+
+    private synchronized List<Long> pollDue() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Long> batch = new ArrayList<>();
+        while (batch.size() < batchSize && !queue.isEmpty() && !queue.peek().getInterviewDate().isAfter(now))
+            batch.add(queue.poll().getOfferApplicationId());
+        return batch;
+    }
+
+    private void arm() {
+        ScheduledInterviewDTO head = queue.peek();
+        if (head == null || (nextRunDate != null && !head.getInterviewDate().isBefore(nextRunDate)))
+            return;
+        if (nextRun != null)
+            nextRun.cancel(false);
+        if (taskScheduler == null)
+            taskScheduler = newTaskScheduler();
+        nextRunDate = head.getInterviewDate();
+        nextRun = taskScheduler.schedule(this::runDue, nextRunDate.atZone(clock.getZone()).toInstant());
+    }
+}
@@ -0,0 +1,119 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
+import com.gestionnaire_de_stage.enums.TypeUser;
+import com.gestionnaire_de_stage.exception.InvalidTokenException;
+import com.gestionnaire_de_stage.util.DocumentHash;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+public class JwtService {
+
+    private static final String ROLE_CLAIM = "role";
+
+    private static final String EMAIL_CLAIM = "email";
+
+    // A stream ticket travels in a URL, it only opens the notification stream and is not a bearer token
+    private static final String PURPOSE_CLAIM = "purpose";
+
+    private static final String STREAM_PURPOSE = "stream";
+
+    // HS256 needs a key of at least 256 bits
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    // SHA-256 of keys that were published, any token signed with them can be forged
+    private static final Set<String> COMPROMISED_SECRETS = Set.of(
+            "ec924958502e0983fb5087f6c3876767c4169ceff126ca155c44af0373d484a9"
+    );
+
+    private final byte[] secret;
+
+    private final Clock clock;
+
+    private final Duration timeToLive;
+
+    private final Duration streamTicketTimeToLive;
+
+    // The key is not committed, it comes from the environment (JWT_SECRET)
+    public JwtService(Clock clock,
+                      @Value("${jwt.secret:}") String secret,
+                      @Value("${jwt.ttl:8h}") Duration timeToLive,
+                      @Value("${jwt.stream-ticket-ttl:1m}") Duration streamTicketTimeToLive) {
+        Assert.isTrue(secret != null && secret.getBytes(StandardCharsets.UTF_8).length >= MIN_SECRET_LENGTH,
+                "La clé de signature (JWT_SECRET) doit contenir au moins " + MIN_SECRET_LENGTH + " octets");
+        Assert.isTrue(!COMPROMISED_SECRETS.contains(DocumentHash.sha256(secret.getBytes(StandardCharsets.UTF_8))),
+                "La clé de signature (JWT_SECRET) a été divulguée, il faut en générer une nouvelle");
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.clock = clock;
+        this.timeToLive = timeToLive;
+        this.streamTicketTimeToLive = streamTicketTimeToLive;
+    }
+
+    public String issue(Long id, TypeUser role, String email) {
+        Assert.notNull(id, "L'identifiant ne peut pas être vide");
+        Assert.notNull(role, "Le type d'utilisateur ne peut pas être vide");
+        Assert.notNull(email, "Le courriel ne peut pas être vide");
+        Instant now = clock.instant();
+        return Jwts.builder()
+                .setSubject(id.toString())
+                .claim(ROLE_CLAIM, role.name())
+                .claim(EMAIL_CLAIM, email)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(timeToLive)))
+                .signWith(SignatureAlgorithm.HS256, secret)
+                .compact();
+    }
+
+    public String issueStreamTicket(AuthenticatedUserDTO user) {
+        Assert.notNull(user, "L'utilisateur ne peut pas être vide");
+        Instant now = clock.instant();
+        return Jwts.builder()
+                .setSubject(user.getId().toString())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(EMAIL_CLAIM, user.getEmail())
+                .claim(PURPOSE_CLAIM, STREAM_PURPOSE)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(streamTicketTimeToLive)))
+                .signWith(SignatureAlgorithm.HS256, secret)
+                .compact();
+    }
+
+    // Only the signature and the claims are checked, the user is not loaded
+    public AuthenticatedUserDTO parse(String token) throws InvalidTokenException {
+        return parse(token, null);
+    }
+
+    public AuthenticatedUserDTO parseStreamTicket(String ticket) throws InvalidTokenException {
+        return parse(ticket, STREAM_PURPOSE);
+    }
+
+    private AuthenticatedUserDTO parse(String token, String purpose) throws InvalidTokenException {
+        try {
+            Claims claims = Jwts.parser()
+                    .setSigningKey(secret)
+                    .setClock(() -> Date.from(clock.instant()))
+                    .parseClaimsJws(token)
+                    .getBody();
+            if (!Objects.equals(purpose, claims.get(PURPOSE_CLAIM, String.class)))
+                throw new InvalidTokenException("Le jeton d'authentification est invalide ou expiré");
+            return new AuthenticatedUserDTO(Long.valueOf(claims.getSubject()), TypeUser.valueOf(claims.get(ROLE_CLAIM, String.class)),
+                    claims.get(EMAIL_CLAIM, String.class));
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            throw new InvalidTokenException("Le jeton d'authentification est invalide ou expiré");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.gestionnaire_de_stage.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+@Slf4j(topic = "LeaseService")
+public class LeaseService {
+
+    private static final String RENEW_OR_TAKE_OVER = "UPDATE job_lease SET owner = ?, expires_at = ? " +
+            "WHERE name = ? AND (owner = ? OR expires_at < ?)";
+
+    private static final String INSERT = "INSERT INTO job_lease (name, owner, expires_at) VALUES (?, ?, ?)";
+
+    private static final String RELEASE = "DELETE FROM job_lease WHERE name = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Clock clock;
+
+    private final String owner;
+
+    public LeaseService(JdbcTemplate jdbcTemplate, Clock clock, @Value("${lease.owner:}") String owner) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.owner = StringUtils.hasText(owner) ? owner : UUID.randomUUID().toString();
+        log.info("Leases of this instance are held as {}", this.owner);
+    }
+
+    public boolean tryAcquire(String name, Duration duration) throws IllegalArgumentException {
+        Assert.hasText(name, "Le nom du bail ne peut pas être vide");
+        Assert.isTrue(duration != null && !duration.isNegative() && !duration.isZero(), "La durée du bail doit être positive");
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        Timestamp expiresAt = Timestamp.valueOf(now.plus(duration));
+        // A single conditional UPDATE, the row lock decides between two nodes racing for an expired lease
+        if (jdbcTemplate.update(RENEW_OR_TAKE_OVER, owner, expiresAt, name, owner, Timestamp.valueOf(now)) == 1)
+            return true;
+        try {
+            return jdbcTemplate.update(INSERT, name, owner, expiresAt) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    public void release(String name) throws IllegalArgumentException {
+        Assert.hasText(name, "Le nom du bail ne peut pas être vide");
+
+        jdbcTemplate.update(RELEASE, name, owner);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+}
@@ -0,0 +1,104 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
+import com.gestionnaire_de_stage.util.DocumentHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.util.regex.Pattern;
+
+@Slf4j(topic = "LocalDocumentStore")
+public class LocalDocumentStore implements DocumentStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+
+    private final Path tempDirectory;
+
+    public LocalDocumentStore(String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.tempDirectory = this.root.resolve("tmp");
+    }
+
+    @Override
+    public StoredDocumentDTO store(InputStream content) throws IOException {
+        Assert.notNull(content, "Le contenu du document ne peut pas être vide");
+        Files.createDirectories(tempDirectory);
+        Path temp = Files.createTempFile(tempDirectory, "document-", ".tmp");
+        try {
+            MessageDigest digest = DocumentHash.newDigest();
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                    while (byteBuffer.hasRemaining())
+                        channel.write(byteBuffer);
+                    size += read;
+                }
+                channel.force(true);
+            }
+
+            String key = DocumentHash.toHex(digest.digest());
+            Path target = resolve(key);
+            if (Files.exists(target)) {
+                log.debug("Document {} already stored", key);
+            } else {
+                Files.createDirectories(target.getParent());
+                // A concurrent upload of the same content may win the rename, both files are identical
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredDocumentDTO(key, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        Assert.notNull(target, "Le canal de destination ne peut pas être vide");
+        try (FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            long end = Math.min(position + count, channel.size());
+            long current = position;
+            while (current < end) {
+                long transferred = channel.transferTo(current, end - current, target);
+                if (transferred <= 0)
+                    break;
+                current += transferred;
+            }
+            return current - position;
+        }
+    }
+
+    private Path resolve(String key) {
+        Assert.isTrue(key != null && KEY_PATTERN.matcher(key).matches(), "La clé du document est invalide");
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+}
@@ -0,0 +1,203 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.aspect.LeaderLease;
+import com.gestionnaire_de_stage.dto.MailQueueStatsDTO;
+import com.gestionnaire_de_stage.model.OutgoingMail;
+import com.gestionnaire_de_stage.repository.OutgoingMailRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@Slf4j(topic = "MailQueueService")
+public class MailQueueService {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final OutgoingMailRepository outgoingMailRepository;
+
+    private final JavaMailSender mailSender;
+
+    private final Clock clock;
+
+    private final ExecutorService executor;
+
+    private final int threads;
+
+    private final String fromMail;
+
+    private final int batchSize;
+
+    private final int maxAttempts;
+
+    private final Duration backoff;
+
+    private final Duration maxBackoff;
+
+    private final LongAdder sentMails = new LongAdder();
+
+    private final LongAdder failedAttempts = new LongAdder();
+
+    private final LongAdder connections = new LongAdder();
+
+    private final AtomicLong lastBatchLatencyMs = new AtomicLong();
+
+    public MailQueueService(OutgoingMailRepository outgoingMailRepository,
+                            JavaMailSender mailSender,
+                            Clock clock,
+                            @Value("${spring.mail.username}") String fromMail,
+                            @Value("${mail.queue.threads:2}") int threads,
+                            @Value("${mail.queue.batch-size:50}") int batchSize,
+                            @Value("${mail.queue.max-attempts:8}") int maxAttempts,
+                            @Value("${mail.queue.backoff:30s}") Duration backoff,
+                            @Value("${mail.queue.max-backoff:1h}") Duration maxBackoff) {
+        this.outgoingMailRepository = outgoingMailRepository;
+        this.mailSender = mailSender;
+        this.clock = clock;
+        this.fromMail = fromMail;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("mail-sender-"));
+    }
+
+    // Joins the transaction of the caller, the mail is only sent once it commits
+    public OutgoingMail enqueue(String recipient, String subject, String text) throws IllegalArgumentException {
+        Assert.hasText(recipient, "Le destinataire du courriel ne peut pas être vide");
+        Assert.hasText(subject, "Le sujet du courriel ne peut pas être vide");
+        Assert.hasText(text, "Le contenu du courriel ne peut pas être vide");
+        return outgoingMailRepository.save(new OutgoingMail(recipient, subject, text, LocalDateTime.now(clock)));
+    }
+
+    @Scheduled(initialDelayString = "${mail.queue.delay:5000}", fixedDelayString = "${mail.queue.delay:5000}")
+    @LeaderLease(leaseFor = "${mail.queue.lease:2m}")
+    public void sendPending() {
+        int fetched;
+        do {
+            fetched = sendBatch();
+        } while (fetched == batchSize);
+    }
+
+    public int sendBatch() {
+        List<OutgoingMail> mails = outgoingMailRepository.findAllByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                maxAttempts, LocalDateTime.now(clock), PageRequest.of(0, batchSize));
+        if (mails.isEmpty())
+            return 0;
+        long start = System.nanoTime();
+
+        // Each worker sends its share of the batch over a single connection
+        int chunkSize = (mails.size() + threads - 1) / threads;
+        List<Callable<Map<OutgoingMail, String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < mails.size(); from += chunkSize) {
+            List<OutgoingMail> chunk = mails.subList(from, Math.min(from + chunkSize, mails.size()));
+            chunks.add(() -> send(chunk));
+        }
+        Map<OutgoingMail, String> failures = new IdentityHashMap<>();
+        try {
+            for (Future<Map<OutgoingMail, String>> chunk : executor.invokeAll(chunks))
+                failures.putAll(chunk.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        List<Long> sent = new ArrayList<>();
+        for (OutgoingMail mail : mails) {
+            String error = failures.get(mail);
+            if (error == null) {
+                sent.add(mail.getId());
+                continue;
+            }
+            if (mail.getAttempts() + 1 >= maxAttempts)
+                log.error("Giving up on mail {} to {} after {} attempts: {}", mail.getId(), mail.getRecipient(), maxAttempts, error);
+            outgoingMailRepository.markFailed(mail.getId(), LocalDateTime.now(clock).plus(delayAfter(mail.getAttempts())), error);
+        }
+        if (!sent.isEmpty())
+            outgoingMailRepository.deleteAllByIdInBatch(sent);
+
+        sentMails.add(sent.size());
+        failedAttempts.add(failures.size());
+        lastBatchLatencyMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.debug("Sent {} of {} mails", sent.size(), mails.size());
+        return mails.size();
+    }
+
+    public MailQueueStatsDTO getStats() {
+        return new MailQueueStatsDTO(
+                outgoingMailRepository.countByAttemptsLessThan(maxAttempts),
+                outgoingMailRepository.countByAttemptsGreaterThanEqual(maxAttempts),
+                sentMails.sum(),
+                failedAttempts.sum(),
+                connections.sum(),
+                lastBatchLatencyMs.get()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Map<OutgoingMail, String> send(List<OutgoingMail> mails) {
+        Map<SimpleMailMessage, OutgoingMail> messages = new IdentityHashMap<>();
+        for (OutgoingMail mail : mails)
+            messages.put(toMessage(mail), mail);
+
+        Map<OutgoingMail, String> failures = new IdentityHashMap<>();
+        try {
+            connections.increment();
+            mailSender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Without failed messages the connection itself failed and none was sent
+            if (e.getFailedMessages().isEmpty())
+                mails.forEach(mail -> failures.put(mail, describe(e)));
+            e.getFailedMessages().forEach((message, cause) -> {
+                OutgoingMail mail = messages.get(message);
+                if (mail != null)
+                    failures.put(mail, describe(cause));
+            });
+        } catch (RuntimeException e) {
+            mails.forEach(mail -> failures.put(mail, describe(e)));
+        }
+        return failures;
+    }
+
+    private SimpleMailMessage toMessage(OutgoingMail mail) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromMail);
+        message.setTo(mail.getRecipient());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getText());
+        return message;
+    }
+
+    private Duration delayAfter(int attempts) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private String describe(Exception e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
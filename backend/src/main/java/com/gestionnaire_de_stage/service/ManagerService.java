@@ -1,6 +1,5 @@
 package com.gestionnaire_de_stage.service;
 
-import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.model.Manager;
 import com.gestionnaire_de_stage.repository.ManagerRepository;
@@ -30,14 +29,6 @@ public class ManagerService {
         return managerRepository.findAll();
     }
 
-    public Manager getOneByEmailAndPassword(String email, String password) throws EmailAndPasswordDoesNotExistException {
-        Assert.notNull(email, "Le courriel ne peut pas être vide");
-        Assert.notNull(password, "Le mot de passe ne peut pas être vide");
-        if (!isEmailAndPasswordValid(email, password))
-            throw new EmailAndPasswordDoesNotExistException("Courriel ou mot de passe invalide");
-        return managerRepository.findManagerByEmailAndPassword(email, password);
-    }
-
     public boolean isEmailInvalid(String email) {
         return !managerRepository.existsByEmail(email);
     }
@@ -46,8 +37,4 @@ public class ManagerService {
         return !managerRepository.existsById(id);
     }
 
-    private boolean isEmailAndPasswordValid(String email, String password) {
-        return managerRepository.existsByEmailAndPassword(email, password);
-    }
-
 }
\ No newline at end of file
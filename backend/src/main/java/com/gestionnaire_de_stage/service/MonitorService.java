@@ -1,28 +1,44 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.enums.UserIdentifier;
 import com.gestionnaire_de_stage.exception.DoesNotExistException;
-import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.exception.MonitorAlreadyExistsException;
 import com.gestionnaire_de_stage.model.Monitor;
+import com.gestionnaire_de_stage.model.User;
 import com.gestionnaire_de_stage.repository.MonitorRepository;
+import com.gestionnaire_de_stage.util.UniqueConstraints;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import java.util.Optional;
+
 @Service
 public class MonitorService {
 
     private final MonitorRepository monitorRepository;
 
-    public MonitorService(MonitorRepository monitorRepository) {
+    private final IdentifierIndexService identifierIndexService;
+
+    public MonitorService(MonitorRepository monitorRepository, IdentifierIndexService identifierIndexService) {
         this.monitorRepository = monitorRepository;
+        this.identifierIndexService = identifierIndexService;
     }
 
     public Monitor create(Monitor monitor) throws MonitorAlreadyExistsException, IllegalArgumentException {
         Assert.isTrue(monitor != null, "Le moniteur ne peut pas être vide");
         if (emailAlreadyInUse(monitor))
             throw new MonitorAlreadyExistsException("Un compte existe déjà pour ce moniteur");
-        return monitorRepository.save(monitor);
+        try {
+            Monitor created = monitorRepository.saveAndFlush(monitor);
+            identifierIndexService.add(UserIdentifier.EMAIL, monitor.getEmail());
+            return created;
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, User.UK_EMAIL))
+                throw new MonitorAlreadyExistsException("Ce courriel est déjà utilisé par un autre compte");
+            throw e;
+        }
     }
 
     public Monitor getOneByID(Long aLong) throws IdDoesNotExistException {
@@ -36,27 +52,24 @@ public class MonitorService {
         Assert.isTrue(monitor != null, "Monitor est null");
         if (!monitorRepository.existsById(monitor.getId()))
             throw new IdDoesNotExistException("Il n'y a pas de moniteur associé à cet identifiant");
-        return monitorRepository.save(monitor);
-    }
-
-    public Monitor getOneByEmailAndPassword(String email, String password) throws EmailAndPasswordDoesNotExistException, IllegalArgumentException {
-        Assert.isTrue(email != null, "Le courriel ne peut pas être vide");
-        Assert.isTrue(password != null, "Le mot de passe ne peut pas être vide");
-        if (!monitorRepository.existsByEmailAndPassword(email, password))
-            throw new EmailAndPasswordDoesNotExistException("Courriel ou mot de passe invalide");
-        return monitorRepository.findMonitorByEmailAndPassword(email, password);
+        Optional<Monitor> previous = monitorRepository.findById(monitor.getId());
+        Monitor updated = monitorRepository.save(monitor);
+        identifierIndexService.replace(UserIdentifier.EMAIL, previous.map(Monitor::getEmail).orElse(null), monitor.getEmail());
+        return updated;
     }
 
     public void deleteByID(Long aLong) throws IdDoesNotExistException {
         Assert.isTrue(aLong != null, "ID est null");
         if (!monitorRepository.existsById(aLong))
             throw new IdDoesNotExistException("Il n'y a pas de moniteur associé à cet identifiant");
+        Optional<Monitor> deleted = monitorRepository.findById(aLong);
         monitorRepository.deleteById(aLong);
+        deleted.ifPresent(monitor -> identifierIndexService.remove(UserIdentifier.EMAIL, monitor.getEmail()));
     }
 
     public Monitor getOneByEmail(String email) throws DoesNotExistException {
         Assert.isTrue(email != null, "Le courriel ne peut pas être vide");
-        if (isEmailInvalid(email)) {
+        if (!monitorRepository.existsByEmail(email)) {
             throw new DoesNotExistException("Le courriel n'existe pas");
         }
         return monitorRepository.getMonitorByEmail(email);
@@ -67,7 +80,7 @@ public class MonitorService {
     }
 
     public boolean isEmailInvalid(String email) {
-        return !monitorRepository.existsByEmail(email);
+        return !identifierIndexService.exists(UserIdentifier.EMAIL, email);
     }
 
     public boolean isIdInvalid(Long id) {
@@ -0,0 +1,82 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.repository.NotificationRepository;
+import com.gestionnaire_de_stage.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Service
+public class NotificationCounterService {
+
+    private static class UnreadCount {
+        private final long count;
+        private final Instant expiresAt;
+
+        private UnreadCount(long count, Instant expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+
+        private UnreadCount plus(long delta) {
+            return new UnreadCount(Math.max(count + delta, 0), expiresAt);
+        }
+    }
+
+    private final ConcurrentMap<Long, UnreadCount> unreadCounts = new ConcurrentHashMap<>();
+
+    private final NotificationRepository notificationRepository;
+
+    private final Clock clock;
+
+    private final Duration timeToLive;
+
+    public NotificationCounterService(NotificationRepository notificationRepository,
+                                      Clock clock,
+                                      @Value("${notification.counter.ttl:30s}") Duration timeToLive) {
+        this.notificationRepository = notificationRepository;
+        this.clock = clock;
+        this.timeToLive = timeToLive;
+    }
+
+    public long getUnreadCount(Long userId) throws IllegalArgumentException {
+        Assert.notNull(userId, "Le userId ne peut pas être vide");
+
+        // The other nodes change the same counts, a count is only trusted until it expires and is read again
+        Instant now = clock.instant();
+        return unreadCounts.compute(userId, (id, cached) -> cached == null || !now.isBefore(cached.expiresAt)
+                ? new UnreadCount(notificationRepository.countBySeenIsFalseAndTargetedUser_Id(id), now.plus(timeToLive))
+                : cached).count;
+    }
+
+    public void increment(Long userId) {
+        // Only users already counted are updated, the others are counted from the index on their first read
+        AfterCommit.run(() -> unreadCounts.computeIfPresent(userId, (id, cached) -> cached.plus(1)));
+    }
+
+    public void decrement(Long userId) {
+        AfterCommit.run(() -> unreadCounts.computeIfPresent(userId, (id, cached) -> cached.plus(-1)));
+    }
+
+    public void reset(Long userId) {
+        AfterCommit.run(() -> unreadCounts.computeIfPresent(userId, (id, cached) -> new UnreadCount(0, cached.expiresAt)));
+    }
+
+    public void evictAll() {
+        // A broadcast does not say who received it, the counts are read again rather than guessed
+        AfterCommit.run(unreadCounts::clear);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.counter.purge-delay:60000}")
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        unreadCounts.values().removeIf(cached -> !now.isBefore(cached.expiresAt));
+    }
+}
@@ -1,44 +1,36 @@
 package com.gestionnaire_de_stage.service;
 
-import com.gestionnaire_de_stage.enums.Status;
+import com.gestionnaire_de_stage.dto.NotificationDTO;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.model.*;
 import com.gestionnaire_de_stage.repository.NotificationRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
 
 @Service
 public class NotificationService {
 
-    private final CurriculumService curriculumService;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
 
-    private final OfferService offerService;
-
-    private final ManagerService managerService;
-
-    private final StudentService studentService;
+    private final NotificationRepository notificationRepository;
 
-    private final OfferApplicationService offerApplicationService;
+    private final NotificationStreamService notificationStreamService;
 
-    private final ContractService contractService;
+    private final NotificationCounterService notificationCounterService;
 
-    private final NotificationRepository notificationRepository;
-
-    public NotificationService(CurriculumService curriculumService, OfferService offerService, NotificationRepository notificationRepository, ManagerService managerService, StudentService studentService, OfferApplicationService offerApplicationService, ContractService contractService) {
-        this.curriculumService = curriculumService;
-        this.offerService = offerService;
+    public NotificationService(NotificationRepository notificationRepository,
+                               NotificationStreamService notificationStreamService,
+                               NotificationCounterService notificationCounterService) {
         this.notificationRepository = notificationRepository;
-        this.managerService = managerService;
-        this.studentService = studentService;
-        this.offerApplicationService = offerApplicationService;
-        this.contractService = contractService;
+        this.notificationStreamService = notificationStreamService;
+        this.notificationCounterService = notificationCounterService;
     }
 
     public List<Notification> getAllByUserId(Long userId) throws IllegalArgumentException {
@@ -47,129 +39,168 @@ public class NotificationService {
         return notificationRepository.findAllBySeenIsFalseAndTargetedUser_IdOrderByCreatedDateDesc(userId);
     }
 
+    public List<NotificationDTO> getHistoryByUserId(Long userId, LocalDateTime beforeDate, Long beforeId, int size) throws IllegalArgumentException {
+        Assert.notNull(userId, "Le userId ne peut pas être vide");
+        Assert.isTrue((beforeDate == null) == (beforeId == null), "La date et l'ID de la dernière notification vont ensemble");
+        Assert.isTrue(size > 0 && size <= MAX_HISTORY_PAGE_SIZE, "La taille de la page doit être entre 1 et " + MAX_HISTORY_PAGE_SIZE);
+
+        // Keyset pagination, the page is found with the index whatever its depth in the history
+        Pageable page = PageRequest.of(0, size);
+        if (beforeDate == null)
+            return notificationRepository.findHistoryByTargetedUserId(userId, page);
+        return notificationRepository.findHistoryByTargetedUserIdBefore(userId, beforeDate, beforeId, page);
+    }
+
+    public long getUnreadCount(Long userId) throws IllegalArgumentException {
+        return notificationCounterService.getUnreadCount(userId);
+    }
+
+    public Notification getOneById(Long notificationId) throws IdDoesNotExistException {
+        Assert.notNull(notificationId, "Le notificationId ne peut pas être vide");
+        return notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new IdDoesNotExistException("Aucune notification trouvée avec cet ID"));
+    }
+
     public Notification updateSeen(Long notificationId) throws IdDoesNotExistException {
         Assert.notNull(notificationId, "Le notificationId ne peut pas être vide");
 
-        if (!notificationRepository.existsById(notificationId))
-            throw new IdDoesNotExistException("Aucune notification trouvée avec cet ID");
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new IdDoesNotExistException("Aucune notification trouvée avec cet ID"));
+        if (notification.isSeen())
+            return notification;
 
-        Notification notification = notificationRepository.getById(notificationId);
         notification.setSeen(true);
+        if (notification.getTargetedUser() != null)
+            notificationCounterService.decrement(notification.getTargetedUser().getId());
         return notificationRepository.save(notification);
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void notifyOfCurriculumValidation(Curriculum curriculum) throws IdDoesNotExistException, IllegalArgumentException {
+    public int updateAllSeen(Long userId) throws IllegalArgumentException {
+        Assert.notNull(userId, "Le userId ne peut pas être vide");
+
+        int updated = notificationRepository.markAllSeenByTargetedUserId(userId);
+        notificationCounterService.reset(userId);
+        return updated;
+    }
+
+    public void notifyOfCurriculumValidation(Curriculum curriculum) throws IllegalArgumentException {
         Assert.notNull(curriculum, "Le curriculum ne peut pas être vide");
-        Curriculum previous = curriculumService.getOneById(curriculum.getId());
 
-        if (curriculum.getIsValid() != previous.getIsValid()) {
-            notificationRepository.save(new Notification(
-                    curriculum.getStudent(),
-                    "Votre curriculum : " + curriculum.getName() + " à été vérifié. Veuillez voir son état dans vos Curriculums."
-            ));
-        }
+        save(new Notification(
+                curriculum.getStudent(),
+                "Votre curriculum : " + curriculum.getName() + " à été vérifié. Veuillez voir son état dans vos Curriculums."
+        ));
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void notifyOfNewApplicant(OfferApplication offerApplication) throws IllegalArgumentException {
         Assert.notNull(offerApplication, "Le offerApplication ne peut pas être vide");
 
         Offer offer = offerApplication.getOffer();
-        notificationRepository.save(new Notification(
+        save(new Notification(
                 offer.getCreator(),
                 "Votre offre de stage à reçue un nouvel appliquant."
         ));
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void notifyOfOfferAppStatusSetToStageTrouve(OfferApplication offerApplication) throws IdDoesNotExistException, IllegalArgumentException {
+    public void notifyOfOfferAppStatusSetToStageTrouve(OfferApplication offerApplication) throws IllegalArgumentException {
         Assert.notNull(offerApplication, "Le offerApplication ne peut pas être vide");
-        OfferApplication previous = offerApplicationService.getOneById(offerApplication.getId());
-
-        if (offerApplication.getStatus() != previous.getStatus() && offerApplication.getStatus() == Status.STAGE_TROUVE) {
-            List<Manager> managers = managerService.getAll();
-            managers.forEach(manager ->
-                    notificationRepository.save(new Notification(
-                            manager,
-                            "Un étudiant est prêt pour débuter la signature de contrat."
-                    )));
-        }
+
+        notifyAllManagers("Un étudiant est prêt pour débuter la signature de contrat.");
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void notifyOfOfferAppInterviewSet(OfferApplication offerApplication) throws IdDoesNotExistException, IllegalArgumentException {
+    public void notifyOfOfferAppInterviewSet(OfferApplication offerApplication) throws IllegalArgumentException {
         Assert.notNull(offerApplication, "Le offerApplication ne peut pas être vide");
-        OfferApplication previous = offerApplicationService.getOneById(offerApplication.getId());
-
-        if (offerApplication.getInterviewDate() != previous.getInterviewDate()) {
-            Curriculum curriculum = offerApplication.getCurriculum();
-            Student student = curriculum.getStudent();
-            Offer offer = offerApplication.getOffer();
-            notificationRepository.save(new Notification(
-                    offer.getCreator(),
-                    "N'oubliez pas votre entrevue avec " + student.getLastName() +
-                            ", " + student.getFirstName() + " le " +
-                            offerApplication.getInterviewDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy hh:mm:ss")) + "."
-            ));
-        }
+        Assert.notNull(offerApplication.getInterviewDate(), "La date d'entrevue ne peut pas être vide");
+
+        Curriculum curriculum = offerApplication.getCurriculum();
+        Student student = curriculum.getStudent();
+        Offer offer = offerApplication.getOffer();
+        save(new Notification(
+                offer.getCreator(),
+                "N'oubliez pas votre entrevue avec " + student.getLastName() +
+                        ", " + student.getFirstName() + " le " +
+                        offerApplication.getInterviewDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy hh:mm:ss")) + "."
+        ));
+    }
+
+    public void notifyOfOfferAppInterviewPassed(OfferApplication offerApplication) throws IllegalArgumentException {
+        Assert.notNull(offerApplication, "Le offerApplication ne peut pas être vide");
+
+        Curriculum curriculum = offerApplication.getCurriculum();
+        Offer offer = offerApplication.getOffer();
+        save(new Notification(
+                curriculum.getStudent(),
+                "Votre entrevue pour le poste de " + offer.getTitle() + " est passée, vous êtes en attente d'une réponse."
+        ));
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void notifyOfNewOffer(Offer offer) throws IllegalArgumentException {
         Assert.notNull(offer, "Le offer ne peut pas être vide");
 
-        List<Manager> managers = managerService.getAll();
-        managers.forEach(manager ->
-                notificationRepository.save(new Notification(
-                        manager,
-                        "Une nouvelle offre est en attente de validation."
-                )));
+        notifyAllManagers("Une nouvelle offre est en attente de validation.");
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void notifyOfOfferValidation(Offer offer) throws IllegalArgumentException {
         Assert.notNull(offer, "Le offre ne peut pas être vide");
-        Optional<Offer> previous = offerService.findOfferById(offer.getId());
-
-        if (previous.isPresent() && offer.getValid() != previous.get().getValid()) {
-            notificationRepository.save(new Notification(
-                    offer.getCreator(),
-                    "Votre offre de stage a été vérifiée."
-            ));
-
-            if (offer.getValid()) {
-                List<Student> students = studentService.getAll();
-                students.forEach(student ->
-                        notificationRepository.save(new Notification(
-                                student,
-                                "Une nouvelle offre de stage a été publiée."
-                        )));
-            }
+
+        save(new Notification(
+                offer.getCreator(),
+                "Votre offre de stage a été vérifiée."
+        ));
+
+        if (Boolean.TRUE.equals(offer.getValid())) {
+            notifyAllStudents("Une nouvelle offre de stage a été publiée.");
         }
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void notifyOfContractSignature(Contract contract) throws IdDoesNotExistException, IllegalArgumentException {
+    public void notifyOfManagerSignature(Contract contract) throws IllegalArgumentException {
         Assert.notNull(contract, "Le contrat ne peut pas être vide");
-        Contract previous = contractService.getOneById(contract.getId());
-
-        if (!Objects.equals(contract.getManagerSignature(), previous.getManagerSignature())) {
-            Student student = contract.getStudent();
-            notificationRepository.save(new Notification(
-                    contract.getMonitor(),
-                    "Votre contrat avec l'étudiant " + student.getLastName() +
-                            ", " + student.getFirstName() + " est prêt à être signé."
-            ));
-        }
 
-        if (!Objects.equals(contract.getMonitorSignature(), previous.getMonitorSignature())) {
-            Offer offer = contract.getOffer();
-            notificationRepository.save(new Notification(
-                    contract.getStudent(),
-                    "Votre contrat pour le poste de " + offer.getTitle() +
-                            " est prêt à être signé."
-            ));
-        }
+        Student student = contract.getStudent();
+        save(new Notification(
+                contract.getMonitor(),
+                "Votre contrat avec l'étudiant " + student.getLastName() +
+                        ", " + student.getFirstName() + " est prêt à être signé."
+        ));
+    }
+
+    public void notifyOfMonitorSignature(Contract contract) throws IllegalArgumentException {
+        Assert.notNull(contract, "Le contrat ne peut pas être vide");
+
+        Offer offer = contract.getOffer();
+        save(new Notification(
+                contract.getStudent(),
+                "Votre contrat pour le poste de " + offer.getTitle() +
+                        " est prêt à être signé."
+        ));
+    }
+
+    private void save(Notification notification) {
+        notificationRepository.save(notification);
+        if (notification.getTargetedUser() == null)
+            return;
+        notificationCounterService.increment(notification.getTargetedUser().getId());
+        notificationStreamService.publish(new NotificationDTO(
+                notification.getId(),
+                notification.getTargetedUser().getId(),
+                notification.getMessage(),
+                notification.isSeen(),
+                notification.getCreatedDate()
+        ));
+    }
+
+    private void notifyAllStudents(String message) {
+        // One INSERT ... SELECT, the date is truncated so the pushed rows can be read back with an exact match
+        LocalDateTime createdDate = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        notificationRepository.notifyAllStudents(message, createdDate);
+        notificationCounterService.evictAll();
+        notificationStreamService.publishBroadcast(message, createdDate);
+    }
+
+    private void notifyAllManagers(String message) {
+        LocalDateTime createdDate = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        notificationRepository.notifyAllManagers(message, createdDate);
+        notificationCounterService.evictAll();
+        notificationStreamService.publishBroadcast(message, createdDate);
     }
 }
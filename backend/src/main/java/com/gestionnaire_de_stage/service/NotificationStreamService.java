@@ -0,0 +1,223 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.NotificationDTO;
+import com.gestionnaire_de_stage.repository.NotificationRepository;
+import com.gestionnaire_de_stage.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+@Service
+@Slf4j(topic = "NotificationStreamService")
+public class NotificationStreamService {
+
+    private static final int BROADCAST_CHUNK_SIZE = 500;
+
+    private static class Watermark {
+        private final Instant readAt;
+        private final long id;
+
+        private Watermark(Instant readAt, long id) {
+            this.readAt = readAt;
+            this.id = id;
+        }
+    }
+
+    private final ConcurrentMap<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    private final NavigableSet<Long> delivered = new ConcurrentSkipListSet<>();
+
+    private final Deque<Watermark> watermarks = new ArrayDeque<>();
+
+    private Long floor;
+
+    private Long lastMaxId;
+
+    private Duration idleDelay = Duration.ZERO;
+
+    private Instant nextPollAt = Instant.MIN;
+
+    private volatile boolean subscribed;
+
+    private final NotificationRepository notificationRepository;
+
+    private final Clock clock;
+
+    private final long timeout;
+
+    private final Duration settle;
+
+    private final Duration poll;
+
+    private final Duration maxIdleDelay;
+
+    public NotificationStreamService(NotificationRepository notificationRepository,
+                                     Clock clock,
+                                     @Value("${notification.stream.timeout:1800000}") long timeout,
+                                     @Value("${notification.stream.settle:30s}") Duration settle,
+                                     @Value("${notification.stream.poll:2000}") long poll,
+                                     @Value("${notification.stream.max-idle-delay:15s}") Duration maxIdleDelay) {
+        // A late commit is only found if the nodes poll again before the floor moves past it
+        Assert.isTrue(maxIdleDelay.compareTo(settle) < 0, "Le délai maximal entre deux lectures doit être plus court que le délai de stabilisation");
+        this.notificationRepository = notificationRepository;
+        this.clock = clock;
+        this.timeout = timeout;
+        this.settle = settle;
+        this.poll = Duration.ofMillis(poll);
+        this.maxIdleDelay = maxIdleDelay;
+    }
+
+    public SseEmitter subscribe(Long userId, Long lastEventId) throws IllegalArgumentException {
+        Assert.notNull(userId, "Le userId ne peut pas être vide");
+
+        SseEmitter emitter = newEmitter(timeout);
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(userId, emitter));
+        // Registered before the replay, a notification committed in between is sent twice rather than lost
+        emitters.compute(userId, (id, userEmitters) -> {
+            Set<SseEmitter> set = userEmitters == null ? new CopyOnWriteArraySet<>() : userEmitters;
+            set.add(emitter);
+            return set;
+        });
+        subscribed = true;
+
+        if (lastEventId != null)
+            notificationRepository.findAllSummariesByTargetedUserIdAndIdGreaterThan(userId, lastEventId)
+                    .forEach(notification -> send(userId, emitter, notification));
+        return emitter;
+    }
+
+    public void publish(NotificationDTO notification) throws IllegalArgumentException {
+        Assert.notNull(notification, "La notification ne peut pas être vide");
+        AfterCommit.run(() -> push(notification));
+    }
+
+    public void publishBroadcast(String message, LocalDateTime createdDate) throws IllegalArgumentException {
+        Assert.notNull(message, "Le message ne peut pas être vide");
+        Assert.notNull(createdDate, "La date ne peut pas être vide");
+        AfterCommit.run(() -> pushBroadcast(message, createdDate));
+    }
+
+    public int getConnectionCount() {
+        return emitters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Scheduled(initialDelayString = "${notification.stream.heartbeat:15000}", fixedDelayString = "${notification.stream.heartbeat:15000}")
+    public void sendHeartbeats() {
+        for (Map.Entry<Long, Set<SseEmitter>> entry : emitters.entrySet()) {
+            for (SseEmitter emitter : entry.getValue()) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(entry.getKey(), emitter);
+                }
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${notification.stream.poll:2000}", fixedDelayString = "${notification.stream.poll:2000}")
+    public synchronized void pollNewNotifications() {
+        if (emitters.isEmpty()) {
+            // Nobody to push to, the watermarks are read again once a user connects
+            reset();
+            return;
+        }
+        Instant now = clock.instant();
+        if (subscribed) {
+            subscribed = false;
+            idleDelay = Duration.ZERO;
+        } else if (now.isBefore(nextPollAt)) {
+            return;
+        }
+
+        // Notifications saved on another node are only pushed there, every node reads back those of its own users
+        Long maxId = notificationRepository.findMaxId();
+        long id = maxId == null ? 0L : maxId;
+        // Backs off while nothing new is saved
+        if (lastMaxId != null && lastMaxId == id) {
+            Duration next = idleDelay.isZero() ? poll : idleDelay.multipliedBy(2);
+            idleDelay = next.compareTo(maxIdleDelay) > 0 ? maxIdleDelay : next;
+        } else {
+            idleDelay = Duration.ZERO;
+        }
+        lastMaxId = id;
+        nextPollAt = now.plus(idleDelay);
+
+        watermarks.addLast(new Watermark(now, id));
+        if (floor == null)
+            floor = watermarks.peekFirst().id;
+        // The floor lags behind, a notification committed after a greater id was read is still found
+        while (watermarks.size() > 1 && !watermarks.peekFirst().readAt.isAfter(now.minus(settle)))
+            floor = watermarks.pollFirst().id;
+        delivered.headSet(floor, true).clear();
+
+        List<Long> connected = new ArrayList<>(emitters.keySet());
+        for (int i = 0; i < connected.size(); i += BROADCAST_CHUNK_SIZE) {
+            List<Long> chunk = connected.subList(i, Math.min(i + BROADCAST_CHUNK_SIZE, connected.size()));
+            notificationRepository.findAllSummariesByTargetedUserIdInAndIdGreaterThan(chunk, floor).forEach(this::push);
+        }
+    }
+
+    SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    private void reset() {
+        watermarks.clear();
+        delivered.clear();
+        floor = null;
+        lastMaxId = null;
+        idleDelay = Duration.ZERO;
+        nextPollAt = Instant.MIN;
+    }
+
+    private void push(NotificationDTO notification) {
+        Set<SseEmitter> userEmitters = emitters.get(notification.getUserId());
+        if (userEmitters == null || !delivered.add(notification.getId()))
+            return;
+        userEmitters.forEach(emitter -> send(notification.getUserId(), emitter, notification));
+    }
+
+    private void pushBroadcast(String message, LocalDateTime createdDate) {
+        // Only the rows of connected users are read back, nothing is queried when nobody listens
+        List<Long> connected = new ArrayList<>(emitters.keySet());
+        for (int i = 0; i < connected.size(); i += BROADCAST_CHUNK_SIZE) {
+            List<Long> chunk = connected.subList(i, Math.min(i + BROADCAST_CHUNK_SIZE, connected.size()));
+            notificationRepository.findAllSummariesOfBroadcast(message, createdDate, chunk).forEach(this::push);
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, NotificationDTO notification) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(notification.getId()))
+                    .name("notification")
+                    .data(notification));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping notification stream of user {}", userId);
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+}
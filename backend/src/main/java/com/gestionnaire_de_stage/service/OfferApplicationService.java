@@ -1,18 +1,23 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.dto.UpdateRankDTO;
 import com.gestionnaire_de_stage.dto.UpdateStatusDTO;
 import com.gestionnaire_de_stage.enums.Status;
 import com.gestionnaire_de_stage.exception.DateNotValidException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
+import com.gestionnaire_de_stage.exception.NotOwnerException;
 import com.gestionnaire_de_stage.exception.StudentAlreadyAppliedToOfferException;
 import com.gestionnaire_de_stage.exception.StudentHasNoCurriculumException;
 import com.gestionnaire_de_stage.model.Curriculum;
 import com.gestionnaire_de_stage.model.Offer;
 import com.gestionnaire_de_stage.model.OfferApplication;
 import com.gestionnaire_de_stage.model.Student;
+import com.gestionnaire_de_stage.model.User;
 import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
 import com.gestionnaire_de_stage.repository.SupervisorRepository;
+import com.gestionnaire_de_stage.util.UniqueConstraints;
 import io.jsonwebtoken.lang.Assert;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -20,6 +25,7 @@ import java.time.Year;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,14 +36,16 @@ public class OfferApplicationService {
     private final ManagerService managerService;
     private final StudentService studentService;
     private final SupervisorRepository supervisorRepository;
+    private final InterviewSchedulerService interviewSchedulerService;
 
 
-    public OfferApplicationService(OfferApplicationRepository offerApplicationRepository, OfferService offerService, ManagerService managerService, StudentService studentService, SupervisorRepository supervisorRepository) {
+    public OfferApplicationService(OfferApplicationRepository offerApplicationRepository, OfferService offerService, ManagerService managerService, StudentService studentService, SupervisorRepository supervisorRepository, InterviewSchedulerService interviewSchedulerService) {
         this.offerApplicationRepository = offerApplicationRepository;
         this.offerService = offerService;
         this.managerService = managerService;
         this.studentService = studentService;
         this.supervisorRepository = supervisorRepository;
+        this.interviewSchedulerService = interviewSchedulerService;
     }
 
     public OfferApplication create(Long idOffer, Long idStudent) throws StudentAlreadyAppliedToOfferException, IdDoesNotExistException, IllegalArgumentException, StudentHasNoCurriculumException {
@@ -52,16 +60,19 @@ public class OfferApplicationService {
         if (offer.isEmpty())
             throw new IdDoesNotExistException("Il n'y a pas d'offre associé à cet identifiant");
 
-        if (offerApplicationRepository.existsByOfferAndCurriculum(offer.get(), curriculum))
-            throw new StudentAlreadyAppliedToOfferException("Vous avez déjà postulé sur cette offre");
-
         OfferApplication offerApplication = new OfferApplication();
         offerApplication.setOffer(offer.get());
         offerApplication.setCurriculum(student.getPrincipalCurriculum());
         offerApplication.setStatus(Status.CV_ENVOYE);
         offerApplication.setSession(offer.get().getSession());
 
-        return offerApplicationRepository.save(offerApplication);
+        try {
+            return offerApplicationRepository.saveAndFlush(offerApplication);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, OfferApplication.UK_OFFER_CURRICULUM))
+                throw new StudentAlreadyAppliedToOfferException("Vous avez déjà postulé sur cette offre");
+            throw e;
+        }
     }
 
     public List<OfferApplication> getAllByOfferCreatorEmail(String email) {
@@ -90,7 +101,9 @@ public class OfferApplicationService {
         offerApplication.setStatus(Status.EN_ATTENTE_ENTREVUE);
         offerApplication.setInterviewDate(date);
 
-        return offerApplicationRepository.save(offerApplication);
+        OfferApplication saved = offerApplicationRepository.save(offerApplication);
+        interviewSchedulerService.schedule(offerAppID, date);
+        return saved;
     }
 
     private boolean isDateInvalid(LocalDateTime date) {
@@ -125,6 +138,11 @@ public class OfferApplicationService {
         return offerApplicationRepository.getById(idOfferApplication);
     }
 
+    public boolean isCurriculumSentToMonitor(Long idCurriculum, Long idMonitor) {
+        Assert.notNull(idCurriculum, "L'identifiant du curriculum ne peut pas être vide");
+        return offerApplicationRepository.existsByCurriculum_IdAndOffer_Creator_Id(idCurriculum, idMonitor);
+    }
+
     public List<OfferApplication> getAllOffersStudentAppliedAndStatusWaiting(Long idStudent) throws IdDoesNotExistException, IllegalArgumentException {
         Assert.isTrue(idStudent != null, "L'identifiant de l'étudiant ne peut pas être vide");
         if (studentService.getOneByID(idStudent) == null)
@@ -158,12 +176,28 @@ public class OfferApplicationService {
         }
     }
 
-    public int updateAllOfferApplicationThatWereInAInterviewStatusFromStatusToOther(Status status, Status newStatus) throws IllegalArgumentException {
-        Assert.notNull(status, "Les deux statut ne peuvent pas être vide");
-        Assert.notNull(newStatus, "Les deux statut ne peuvent pas être vide");
-        Assert.isTrue(status != newStatus, "Les deux statut ne peuvent pas être identiques");
+    public OfferApplication updateStudentRank(UpdateRankDTO updateRankDTO, Long idStudent) throws IdDoesNotExistException, IllegalArgumentException, NotOwnerException {
+        OfferApplication offerApplication = getRankedOne(updateRankDTO, idStudent, ranked -> ranked.getCurriculum().getStudent());
+        offerApplication.setStudentRank(updateRankDTO.getRank());
+        return offerApplicationRepository.save(offerApplication);
+    }
+
+    public OfferApplication updateMonitorRank(UpdateRankDTO updateRankDTO, Long idMonitor) throws IdDoesNotExistException, IllegalArgumentException, NotOwnerException {
+        OfferApplication offerApplication = getRankedOne(updateRankDTO, idMonitor, ranked -> ranked.getOffer().getCreator());
+        offerApplication.setMonitorRank(updateRankDTO.getRank());
+        return offerApplicationRepository.save(offerApplication);
+    }
 
-        return offerApplicationRepository.updateAllOfferApplicationThatWereInAInterviewStatusToStatus(status, newStatus, Year.now());
+    // The student ranks their own applications, the monitor the applications to their offers
+    private OfferApplication getRankedOne(UpdateRankDTO updateRankDTO, Long idUser, Function<OfferApplication, User> owner) throws IdDoesNotExistException, NotOwnerException {
+        Assert.isTrue(updateRankDTO != null && updateRankDTO.getIdOfferApplied() != null, "L'identifiant de l'offre ne peut pas être vide");
+        Assert.isTrue(updateRankDTO.getRank() == null || updateRankDTO.getRank() > 0, "Le rang doit être positif");
+        Assert.notNull(idUser, "L'identifiant de l'utilisateur ne peut pas être vide");
+        OfferApplication offerApplication = getOneById(updateRankDTO.getIdOfferApplied());
+        User rankedBy = owner.apply(offerApplication);
+        if (rankedBy == null || !idUser.equals(rankedBy.getId()))
+            throw new NotOwnerException("Cette candidature ne vous concerne pas");
+        return offerApplication;
     }
 
     public List<OfferApplication> getAllBySupervisorId(Long supervisor_id) throws IdDoesNotExistException {
@@ -0,0 +1,81 @@
+package com.gestionnaire_de_stage.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestionnaire_de_stage.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Service
+@Slf4j(topic = "OfferCatalogService")
+public class OfferCatalogService {
+
+    private static class CachedCatalog {
+        private final CompletableFuture<byte[]> json = new CompletableFuture<>();
+        private final Instant expiresAt;
+
+        private CachedCatalog(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // The window of valid offers only depends on the month, see OfferService.getValidOffers
+    private final ConcurrentMap<YearMonth, CachedCatalog> catalogs = new ConcurrentHashMap<>();
+
+    private final OfferService offerService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Clock clock;
+
+    private final Duration timeToLive;
+
+    public OfferCatalogService(OfferService offerService, ObjectMapper objectMapper, Clock clock,
+                               @Value("${offer.catalog.ttl:5m}") Duration timeToLive) {
+        this.offerService = offerService;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.timeToLive = timeToLive;
+    }
+
+    public byte[] getValidOffersJson() {
+        YearMonth month = YearMonth.now(clock);
+        Instant now = clock.instant();
+        CachedCatalog missed = new CachedCatalog(now.plus(timeToLive));
+        // Concurrent misses find the entry of the first one and wait for its load
+        CachedCatalog catalog = catalogs.compute(month,
+                (key, cached) -> cached == null || !now.isBefore(cached.expiresAt) ? missed : cached);
+        if (catalog == missed)
+            load(month, missed);
+
+        try {
+            return catalog.json.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    public void evictAll() {
+        // A load started before the commit is dropped with its entry, it is never put back
+        AfterCommit.run(catalogs::clear);
+    }
+
+    private void load(YearMonth month, CachedCatalog catalog) {
+        try {
+            catalog.json.complete(objectMapper.writeValueAsBytes(offerService.getValidOffers(month)));
+            log.debug("Loaded the catalog of {}", month);
+        } catch (Exception e) {
+            catalogs.remove(month, catalog);
+            catalog.json.completeExceptionally(e instanceof RuntimeException ? e : new IllegalStateException(e));
+        }
+    }
+}
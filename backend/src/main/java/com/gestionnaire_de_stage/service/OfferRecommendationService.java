@@ -0,0 +1,473 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.AppliedOfferDTO;
+import com.gestionnaire_de_stage.dto.OfferRecommendationDTO;
+import com.gestionnaire_de_stage.dto.StudentProfileDTO;
+import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.Session;
+import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
+import com.gestionnaire_de_stage.repository.OfferRepository;
+import com.gestionnaire_de_stage.repository.StudentRepository;
+import com.gestionnaire_de_stage.util.AfterCommit;
+import com.gestionnaire_de_stage.util.TextAnalyzer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j(topic = "OfferRecommendationService")
+public class OfferRecommendationService {
+
+    // The signals are between 0 and 1, so is the score
+    private static final double DEPARTMENT_WEIGHT = 0.35;
+
+    private static final double CURRICULUM_WEIGHT = 0.35;
+
+    private static final double CO_APPLICATION_WEIGHT = 0.2;
+
+    private static final double SESSION_WEIGHT = 0.1;
+
+    // Students scored by a fork/join task without splitting it further
+    private static final int BATCH_SIZE = 32;
+
+    private static final Comparator<Recommendation> BY_SCORE = Comparator.<Recommendation>comparingDouble(recommendation -> recommendation.score)
+            .reversed()
+            .thenComparingLong(recommendation -> recommendation.offerId);
+
+    // Sparse tf-idf vector of unit length, the terms sorted by their index in the vocabulary
+    private static class TermVector {
+        private static final TermVector EMPTY = new TermVector(new int[0], new double[0]);
+
+        private final int[] terms;
+        private final double[] weights;
+
+        private TermVector(int[] terms, double[] weights) {
+            this.terms = terms;
+            this.weights = weights;
+        }
+
+        private double cosine(TermVector other) {
+            double cosine = 0;
+            int i = 0, j = 0;
+            while (i < terms.length && j < other.terms.length) {
+                if (terms[i] < other.terms[j])
+                    i++;
+                else if (terms[i] > other.terms[j])
+                    j++;
+                else
+                    cosine += weights[i++] * other.weights[j++];
+            }
+            return cosine;
+        }
+    }
+
+    private static class OfferProfile {
+        private final long id;
+        private final String department;
+        private final Long sessionId;
+        private final TermVector vector;
+
+        private OfferProfile(long id, String department, Long sessionId, TermVector vector) {
+            this.id = id;
+            this.department = department;
+            this.sessionId = sessionId;
+            this.vector = vector;
+        }
+    }
+
+    private static class StudentProfile {
+        private final long id;
+        private final String department;
+        private final TermVector vector;
+        private final Set<Long> appliedOffers;
+        private final Set<Long> appliedSessions;
+
+        private StudentProfile(long id, String department, TermVector vector, Set<Long> appliedOffers, Set<Long> appliedSessions) {
+            this.id = id;
+            this.department = department;
+            this.vector = vector;
+            this.appliedOffers = appliedOffers;
+            this.appliedSessions = appliedSessions;
+        }
+    }
+
+    private static class Recommendation {
+        private final long offerId;
+        private final double score;
+        private final boolean departmentMatch;
+        private final double curriculumSimilarity;
+        private final boolean sessionFit;
+        private final double coApplication;
+
+        private Recommendation(long offerId, boolean departmentMatch, double curriculumSimilarity, boolean sessionFit, double coApplication) {
+            this.offerId = offerId;
+            this.departmentMatch = departmentMatch;
+            this.curriculumSimilarity = curriculumSimilarity;
+            this.sessionFit = sessionFit;
+            this.coApplication = coApplication;
+            this.score = (departmentMatch ? DEPARTMENT_WEIGHT : 0)
+                    + CURRICULUM_WEIGHT * curriculumSimilarity
+                    + (sessionFit ? SESSION_WEIGHT : 0)
+                    + CO_APPLICATION_WEIGHT * coApplication;
+        }
+    }
+
+    // The profiles the recommendations are computed from, only used by the job thread and the tasks it waits for
+    private static class Model {
+        private final Map<String, Integer> vocabulary = new HashMap<>();
+        private double[] idfs;
+        private final Map<Long, OfferProfile> offers = new HashMap<>();
+        private final Map<Long, StudentProfile> students = new HashMap<>();
+        private final Map<Long, Set<Long>> applicants = new HashMap<>();
+        private final Map<Long, Long> awaitingText = new HashMap<>();
+    }
+
+    private static class ForEachStudent extends RecursiveAction {
+        private final List<StudentProfile> students;
+        private final int from;
+        private final int to;
+        private final Consumer<StudentProfile> action;
+
+        private ForEachStudent(List<StudentProfile> students, int from, int to, Consumer<StudentProfile> action) {
+            this.students = students;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                for (int i = from; i < to; i++)
+                    action.accept(students.get(i));
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ForEachStudent(students, from, middle, action), new ForEachStudent(students, middle, to, action));
+        }
+    }
+
+    private final OfferService offerService;
+
+    private final OfferRepository offerRepository;
+
+    private final StudentRepository studentRepository;
+
+    private final OfferApplicationRepository offerApplicationRepository;
+
+    private final CurriculumSearchService curriculumSearchService;
+
+    private final Clock clock;
+
+    private final int size;
+
+    private final Duration maxAge;
+
+    private final ForkJoinPool pool;
+
+    // A single thread, the jobs changing the model never overlap
+    private final ThreadPoolExecutor jobs;
+
+    private volatile ConcurrentMap<Long, List<Recommendation>> recommendations = new ConcurrentHashMap<>();
+
+    private Model model;
+
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    private volatile Instant lastRun = Instant.MIN;
+
+    public OfferRecommendationService(OfferService offerService,
+                                      OfferRepository offerRepository,
+                                      StudentRepository studentRepository,
+                                      OfferApplicationRepository offerApplicationRepository,
+                                      CurriculumSearchService curriculumSearchService,
+                                      Clock clock,
+                                      @Value("${offer.recommendation.size:20}") int size,
+                                      @Value("${offer.recommendation.max-age:1h}") Duration maxAge,
+                                      @Value("${offer.recommendation.parallelism:2}") int parallelism) {
+        this.offerService = offerService;
+        this.offerRepository = offerRepository;
+        this.studentRepository = studentRepository;
+        this.offerApplicationRepository = offerApplicationRepository;
+        this.curriculumSearchService = curriculumSearchService;
+        this.clock = clock;
+        this.size = size;
+        this.maxAge = maxAge;
+        this.pool = new ForkJoinPool(parallelism);
+        this.jobs = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), new CustomizableThreadFactory("offer-recommendation-"));
+    }
+
+    public List<OfferRecommendationDTO> getRecommendations(Long studentId) throws IdDoesNotExistException, IllegalArgumentException {
+        Assert.isTrue(studentId != null, "L'identifiant de l'étudiant ne peut pas être vide");
+        if (!studentRepository.existsById(studentId))
+            throw new IdDoesNotExistException("Il n'y a pas d'étudiant associé à cet identifiant");
+
+        List<Recommendation> recommended = recommendations.getOrDefault(studentId, List.of());
+        Map<Long, Offer> offers = offerRepository.findAllById(recommended.stream().map(recommendation -> recommendation.offerId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Offer::getId, Function.identity()));
+        // An offer refused or deleted since the last run is left out
+        return recommended.stream()
+                .filter(recommendation -> offers.containsKey(recommendation.offerId) && Boolean.TRUE.equals(offers.get(recommendation.offerId).getValid()))
+                .map(recommendation -> new OfferRecommendationDTO(offers.get(recommendation.offerId), recommendation.score,
+                        recommendation.departmentMatch, recommendation.curriculumSimilarity, recommendation.sessionFit, recommendation.coApplication))
+                .collect(Collectors.toList());
+    }
+
+    // Scores every student again when the catalog changed or the last run is too old, else catches up with the curricula extracted since
+    @Scheduled(fixedDelayString = "${offer.recommendation.refresh-delay:60000}")
+    public void refresh() {
+        if (stale.get() || lastRun.plus(maxAge).isBefore(clock.instant()))
+            submit(this::recommendAll);
+        else
+            submit(this::recommendAwaitingText);
+    }
+
+    public void markStale() {
+        AfterCommit.run(() -> stale.set(true));
+    }
+
+    public void rescoreOffer(Offer offer) {
+        Assert.notNull(offer, "L'offre ne peut pas être vide");
+        // Read now, the entity may change before the job runs
+        Long id = offer.getId();
+        String department = department(offer.getDepartment());
+        Session session = offer.getSession() == null ? null
+                : new Session(offer.getSession().getId(), offer.getSession().getTypeSession(), offer.getSession().getYear());
+        List<String> terms = terms(offer);
+        AfterCommit.run(() -> submit(() -> recommendOffer(id, department, session, terms)));
+    }
+
+    public void rescoreStudent(Long studentId) {
+        Assert.notNull(studentId, "L'identifiant de l'étudiant ne peut pas être vide");
+        AfterCommit.run(() -> submit(() -> recommendStudent(studentId)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private void submit(Runnable job) {
+        try {
+            jobs.execute(() -> {
+                try {
+                    job.run();
+                } catch (Exception e) {
+                    stale.set(true);
+                    log.warn("Could not update the recommendations, they are computed again on the next refresh", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stale.set(true);
+        }
+    }
+
+    private void recommendAll() {
+        stale.set(false);
+        long start = System.nanoTime();
+        Model rebuilt = new Model();
+
+        List<Offer> offers = offerService.getValidOffers(YearMonth.now(clock));
+        List<List<String>> offerTerms = offers.stream().map(this::terms).collect(Collectors.toList());
+        Map<String, Integer> documentFrequencies = new HashMap<>();
+        offerTerms.forEach(terms -> new HashSet<>(terms).forEach(term -> documentFrequencies.merge(term, 1, Integer::sum)));
+        rebuilt.idfs = new double[documentFrequencies.size()];
+        documentFrequencies.forEach((term, documentFrequency) -> {
+            int index = rebuilt.vocabulary.size();
+            rebuilt.vocabulary.put(term, index);
+            rebuilt.idfs[index] = Math.log(1 + (double) offers.size() / documentFrequency);
+        });
+        for (int i = 0; i < offers.size(); i++) {
+            Offer offer = offers.get(i);
+            Long sessionId = offer.getSession() == null ? null : offer.getSession().getId();
+            rebuilt.offers.put(offer.getId(), new OfferProfile(offer.getId(), department(offer.getDepartment()), sessionId, vector(rebuilt, offerTerms.get(i))));
+        }
+
+        Map<Long, List<AppliedOfferDTO>> appliedOffers = offerApplicationRepository.findAllAppliedOffers().stream()
+                .collect(Collectors.groupingBy(AppliedOfferDTO::getStudentId));
+        for (StudentProfileDTO student : studentRepository.findAllProfiles())
+            addStudent(rebuilt, student, appliedOffers.getOrDefault(student.getStudentId(), List.of()));
+
+        ConcurrentMap<Long, List<Recommendation>> recommended = new ConcurrentHashMap<>();
+        List<StudentProfile> students = new ArrayList<>(rebuilt.students.values());
+        pool.invoke(new ForEachStudent(students, 0, students.size(), student -> recommended.put(student.id, recommend(rebuilt, student))));
+
+        model = rebuilt;
+        recommendations = recommended;
+        lastRun = clock.instant();
+        log.info("Recommended {} offers to {} students in {} ms", offers.size(), students.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void recommendOffer(Long id, String department, Session session, List<String> terms) {
+        if (model == null)
+            return;
+        Model current = model;
+        if (session == null || !offerService.isInWindow(session, YearMonth.now(clock)))
+            return;
+        // Scored with the vocabulary of the last run, a word only this offer uses counts from the next one
+        OfferProfile offer = new OfferProfile(id, department, session.getId(), vector(current, terms));
+        current.offers.put(id, offer);
+        List<StudentProfile> students = new ArrayList<>(current.students.values());
+        pool.invoke(new ForEachStudent(students, 0, students.size(), student ->
+                recommendations.compute(student.id, (studentId, recommended) -> withOffer(current, student, offer, recommended))));
+    }
+
+    private void recommendStudent(Long studentId) {
+        if (model == null)
+            return;
+        removeStudent(model, studentId);
+        StudentProfileDTO profile = studentRepository.findProfileById(studentId);
+        if (profile == null) {
+            recommendations.remove(studentId);
+            return;
+        }
+        StudentProfile student = addStudent(model, profile, offerApplicationRepository.findAllAppliedOffersByStudentId(studentId));
+        recommendations.put(studentId, recommend(model, student));
+    }
+
+    private void recommendAwaitingText() {
+        if (model == null)
+            return;
+        new ArrayList<>(model.awaitingText.entrySet()).stream()
+                .filter(awaiting -> curriculumSearchService.getText(awaiting.getValue()) != null)
+                .forEach(awaiting -> recommendStudent(awaiting.getKey()));
+    }
+
+    private List<Recommendation> recommend(Model model, StudentProfile student) {
+        Set<Long> coApplicants = coApplicants(model, student);
+        Map<Long, Integer> coApplications = new HashMap<>();
+        for (Long coApplicant : coApplicants)
+            model.students.get(coApplicant).appliedOffers.forEach(offerId -> coApplications.merge(offerId, 1, Integer::sum));
+
+        // The lowest of the best offers on top, replaced as soon as a better one comes
+        PriorityQueue<Recommendation> best = new PriorityQueue<>(BY_SCORE.reversed());
+        for (OfferProfile offer : model.offers.values()) {
+            if (student.appliedOffers.contains(offer.id))
+                continue;
+            best.add(score(student, offer, coApplications.getOrDefault(offer.id, 0), coApplicants.size()));
+            if (best.size() > size)
+                best.poll();
+        }
+        List<Recommendation> recommended = new ArrayList<>(best);
+        recommended.sort(BY_SCORE);
+        return Collections.unmodifiableList(recommended);
+    }
+
+    private List<Recommendation> withOffer(Model model, StudentProfile student, OfferProfile offer, List<Recommendation> recommended) {
+        List<Recommendation> updated = new ArrayList<>();
+        if (recommended != null)
+            recommended.stream().filter(recommendation -> recommendation.offerId != offer.id).forEach(updated::add);
+        if (!student.appliedOffers.contains(offer.id)) {
+            Set<Long> coApplicants = coApplicants(model, student);
+            int coApplications = (int) model.applicants.getOrDefault(offer.id, Set.of()).stream().filter(coApplicants::contains).count();
+            updated.add(score(student, offer, coApplications, coApplicants.size()));
+        }
+        updated.sort(BY_SCORE);
+        return Collections.unmodifiableList(updated.size() > size ? new ArrayList<>(updated.subList(0, size)) : updated);
+    }
+
+    private Recommendation score(StudentProfile student, OfferProfile offer, int coApplications, int coApplicants) {
+        return new Recommendation(
+                offer.id,
+                !student.department.isEmpty() && student.department.equals(offer.department),
+                student.vector.cosine(offer.vector),
+                offer.sessionId != null && student.appliedSessions.contains(offer.sessionId),
+                coApplicants == 0 ? 0 : (double) coApplications / coApplicants);
+    }
+
+    // The other students who applied to an offer the student applied to
+    private Set<Long> coApplicants(Model model, StudentProfile student) {
+        Set<Long> coApplicants = new HashSet<>();
+        for (Long offerId : student.appliedOffers)
+            coApplicants.addAll(model.applicants.getOrDefault(offerId, Set.of()));
+        coApplicants.remove(student.id);
+        return coApplicants;
+    }
+
+    private StudentProfile addStudent(Model model, StudentProfileDTO profile, List<AppliedOfferDTO> appliedOffers) {
+        TermVector vector = TermVector.EMPTY;
+        if (profile.getPrincipalCurriculumId() != null) {
+            String text = curriculumSearchService.getText(profile.getPrincipalCurriculumId());
+            if (text == null)
+                model.awaitingText.put(profile.getStudentId(), profile.getPrincipalCurriculumId());
+            else
+                vector = vector(model, TextAnalyzer.analyze(text));
+        }
+        StudentProfile student = new StudentProfile(
+                profile.getStudentId(),
+                department(profile.getDepartment()),
+                vector,
+                appliedOffers.stream().map(AppliedOfferDTO::getOfferId).collect(Collectors.toSet()),
+                appliedOffers.stream().map(AppliedOfferDTO::getSessionId).filter(Objects::nonNull).collect(Collectors.toSet()));
+        model.students.put(student.id, student);
+        student.appliedOffers.forEach(offerId -> model.applicants.computeIfAbsent(offerId, key -> new HashSet<>()).add(student.id));
+        return student;
+    }
+
+    private void removeStudent(Model model, Long studentId) {
+        StudentProfile student = model.students.remove(studentId);
+        model.awaitingText.remove(studentId);
+        if (student == null)
+            return;
+        for (Long offerId : student.appliedOffers) {
+            Set<Long> applicants = model.applicants.get(offerId);
+            applicants.remove(studentId);
+            if (applicants.isEmpty())
+                model.applicants.remove(offerId);
+        }
+    }
+
+    private TermVector vector(Model model, List<String> terms) {
+        Map<Integer, Integer> frequencies = new TreeMap<>();
+        for (String term : terms) {
+            Integer index = model.vocabulary.get(term);
+            if (index != null)
+                frequencies.merge(index, 1, Integer::sum);
+        }
+        int[] indexes = new int[frequencies.size()];
+        double[] weights = new double[frequencies.size()];
+        double norm = 0;
+        int i = 0;
+        for (Map.Entry<Integer, Integer> frequency : frequencies.entrySet()) {
+            indexes[i] = frequency.getKey();
+            weights[i] = (1 + Math.log(frequency.getValue())) * model.idfs[frequency.getKey()];
+            norm += weights[i] * weights[i];
+            i++;
+        }
+        if (norm == 0)
+            return TermVector.EMPTY;
+        norm = Math.sqrt(norm);
+        for (i = 0; i < weights.length; i++)
+            weights[i] /= norm;
+        return new TermVector(indexes, weights);
+    }
+
+    private List<String> terms(Offer offer) {
+        List<String> terms = new ArrayList<>(TextAnalyzer.analyze(offer.getTitle()));
+        terms.addAll(TextAnalyzer.analyze(offer.getDescription()));
+        return terms;
+    }
+
+    private String department(String department) {
+        return department == null ? "" : TextAnalyzer.fold(department).trim();
+    }
+}
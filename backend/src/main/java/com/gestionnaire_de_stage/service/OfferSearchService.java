@@ -0,0 +1,266 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.OfferSearchDTO;
+import com.gestionnaire_de_stage.dto.OfferSearchResultDTO;
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.Session;
+import com.gestionnaire_de_stage.repository.OfferRepository;
+import com.gestionnaire_de_stage.util.AfterCommit;
+import com.gestionnaire_de_stage.util.InvertedIndex;
+import com.gestionnaire_de_stage.util.TextAnalyzer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j(topic = "OfferSearchService")
+public class OfferSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // The dates come from the clock of the instance that changed the offer and are set before the commit
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+
+    // Lower bounds of the salary ranges counted in the facets
+    private static final double[] SALARY_RANGES = {0, 15, 20, 25};
+
+    private static class IndexedOffer {
+        private final Long id;
+        private final String department;
+        private final String foldedDepartment;
+        private final long sessionId;
+        private final double salary;
+        private final LocalDate dateDebut;
+        private final LocalDate dateFin;
+
+        private IndexedOffer(Offer offer, Map<String, String> departments) {
+            this.id = offer.getId();
+            // Shared by the offers of a department, the filter compares them by reference first
+            this.department = departments.computeIfAbsent(offer.getDepartment(), Function.identity());
+            this.foldedDepartment = departments.computeIfAbsent(TextAnalyzer.fold(offer.getDepartment()), Function.identity());
+            this.sessionId = offer.getSession().getId();
+            this.salary = offer.getSalary();
+            this.dateDebut = offer.getDateDebut();
+            this.dateFin = offer.getDateFin();
+        }
+    }
+
+    private static class SearchIndex {
+        private final InvertedIndex<IndexedOffer> offers = new InvertedIndex<>();
+        private final ConcurrentMap<Long, Session> sessions = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, String> departments = new ConcurrentHashMap<>();
+    }
+
+    private volatile SearchIndex searchIndex = new SearchIndex();
+
+    // The changes made while a rebuild reads the database, applied again to the rebuilt index
+    private List<Consumer<SearchIndex>> changesDuringRebuild;
+
+    private volatile LocalDateTime caughtUpTo;
+
+    private final OfferRepository offerRepository;
+
+    private final OfferService offerService;
+
+    private final Clock clock;
+
+    public OfferSearchService(OfferRepository offerRepository, OfferService offerService, Clock clock) {
+        this.offerRepository = offerRepository;
+        this.offerService = offerService;
+        this.clock = clock;
+    }
+
+    // Runs at startup, then from time to time to drop the offers deleted through another instance
+    @Scheduled(fixedDelayString = "${offer.search.rebuild:3600000}")
+    public void rebuild() {
+        synchronized (this) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        LocalDateTime startedAt = LocalDateTime.now(clock);
+        SearchIndex rebuilt = new SearchIndex();
+        boolean complete = false;
+        try {
+            offerRepository.findAllByValidIsTrueAndSession_YearGreaterThanEqual(Year.now(clock))
+                    .forEach(offer -> add(rebuilt, new IndexedOffer(offer, rebuilt.departments), copyOf(offer.getSession()), terms(offer)));
+            complete = true;
+        } finally {
+            synchronized (this) {
+                if (complete) {
+                    changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                    searchIndex = rebuilt;
+                    caughtUpTo = startedAt;
+                }
+                changesDuringRebuild = null;
+            }
+        }
+        log.info("Indexed {} offers", rebuilt.offers.size());
+    }
+
+    // Catches up with the offers created or changed through another instance
+    @Scheduled(initialDelayString = "${offer.search.catch-up:30000}", fixedDelayString = "${offer.search.catch-up:30000}")
+    public void catchUp() {
+        LocalDateTime since = caughtUpTo;
+        if (since == null)
+            return;
+        LocalDateTime startedAt = LocalDateTime.now(clock);
+        List<Offer> changed = offerRepository.findAllByModifiedGreaterThanEqual(since.minus(CATCH_UP_OVERLAP));
+        changed.forEach(this::index);
+        caughtUpTo = startedAt;
+        log.debug("Caught up with {} offers", changed.size());
+    }
+
+    public void index(Offer offer) {
+        if (!Boolean.TRUE.equals(offer.getValid()) || offer.getSession() == null) {
+            remove(offer.getId());
+            return;
+        }
+        // Read now, applied once the change is committed
+        IndexedOffer indexedOffer = new IndexedOffer(offer, searchIndex.departments);
+        Session session = copyOf(offer.getSession());
+        List<String> terms = terms(offer);
+        AfterCommit.run(() -> apply(index -> add(index, indexedOffer, session, terms)));
+    }
+
+    public void remove(Long offerId) {
+        AfterCommit.run(() -> apply(index -> index.offers.remove(offerId)));
+    }
+
+    public void updateSession(Session session) {
+        Session snapshot = copyOf(session);
+        AfterCommit.run(() -> apply(index -> index.sessions.replace(snapshot.getId(), snapshot)));
+    }
+
+    public OfferSearchResultDTO search(OfferSearchDTO criteria) throws IllegalArgumentException {
+        Assert.isTrue(criteria != null, "La recherche ne peut pas être vide");
+        Assert.isTrue(criteria.getPage() >= 0, "Le numéro de page ne peut pas être négatif");
+        Assert.isTrue(criteria.getSize() > 0 && criteria.getSize() <= MAX_PAGE_SIZE,
+                "La taille de la page doit être entre 1 et " + MAX_PAGE_SIZE);
+
+        SearchIndex current = searchIndex;
+        List<String> terms = TextAnalyzer.analyze(criteria.getQ());
+        List<InvertedIndex.Match<IndexedOffer>> candidates = new ArrayList<>();
+        if (terms.isEmpty())
+            current.offers.documents().forEach(offer -> candidates.add(new InvertedIndex.Match<>(offer, 0)));
+        else
+            candidates.addAll(current.offers.search(terms));
+
+        YearMonth month = YearMonth.now(clock);
+        long[] sessionsInWindow = current.sessions.values().stream()
+                .filter(session -> offerService.isInWindow(session, month))
+                .mapToLong(Session::getId)
+                .toArray();
+        String department = criteria.getDepartment() == null ? null : TextAnalyzer.fold(criteria.getDepartment());
+        // Keyed by the folded department, the spellings of a department are counted together
+        Map<String, Long> departments = new HashMap<>();
+        Map<String, String> departmentLabels = new HashMap<>();
+        Map<Long, Long> sessions = new HashMap<>();
+        long[] salaryRangeCounts = new long[SALARY_RANGES.length];
+        List<InvertedIndex.Match<IndexedOffer>> matches = new ArrayList<>();
+
+        for (InvertedIndex.Match<IndexedOffer> candidate : candidates) {
+            IndexedOffer offer = candidate.getDocument();
+            if (!contains(sessionsInWindow, offer.sessionId))
+                continue;
+            boolean inDepartment = department == null || offer.foldedDepartment.equals(department);
+            boolean inSession = criteria.getSessionId() == null || criteria.getSessionId() == offer.sessionId;
+            boolean inSalary = (criteria.getMinSalary() == null || offer.salary >= criteria.getMinSalary())
+                    && (criteria.getMaxSalary() == null || offer.salary <= criteria.getMaxSalary());
+            boolean inDates = (criteria.getStartsAfter() == null || (offer.dateDebut != null && !offer.dateDebut.isBefore(criteria.getStartsAfter())))
+                    && (criteria.getEndsBefore() == null || (offer.dateFin != null && !offer.dateFin.isAfter(criteria.getEndsBefore())));
+
+            // A facet counts the offers matching the other filters, the alternatives to a chosen value stay visible
+            if (inSession && inSalary && inDates) {
+                departments.merge(offer.foldedDepartment, 1L, Long::sum);
+                // The same spelling is shown whatever the order of the offers
+                departmentLabels.merge(offer.foldedDepartment, offer.department, (label, other) -> label.compareTo(other) <= 0 ? label : other);
+            }
+            if (inDepartment && inSalary && inDates)
+                sessions.merge(offer.sessionId, 1L, Long::sum);
+            if (inDepartment && inSession && inDates)
+                salaryRangeCounts[salaryRange(offer.salary)]++;
+            if (inDepartment && inSession && inSalary && inDates)
+                matches.add(candidate);
+        }
+
+        Comparator<InvertedIndex.Match<IndexedOffer>> byId = Comparator.comparingLong(match -> match.getDocument().id);
+        matches.sort(terms.isEmpty() ? byId
+                : Comparator.<InvertedIndex.Match<IndexedOffer>>comparingDouble(InvertedIndex.Match::getScore).reversed().thenComparing(byId));
+        List<Long> pageIds = matches.stream()
+                .skip((long) criteria.getPage() * criteria.getSize())
+                .limit(criteria.getSize())
+                .map(match -> match.getDocument().id)
+                .collect(Collectors.toList());
+        Map<String, Long> departmentCounts = new TreeMap<>();
+        departments.forEach((folded, count) -> departmentCounts.put(departmentLabels.get(folded), count));
+        Map<String, Long> salaryRanges = new LinkedHashMap<>();
+        for (int range = 0; range < SALARY_RANGES.length; range++)
+            salaryRanges.put(salaryRangeLabel(range), salaryRangeCounts[range]);
+
+        return new OfferSearchResultDTO(load(pageIds), matches.size(), departmentCounts, new TreeMap<>(sessions), salaryRanges);
+    }
+
+    private List<Offer> load(List<Long> ids) {
+        Map<Long, Offer> offers = offerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Offer::getId, Function.identity()));
+        return ids.stream().map(offers::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private synchronized void apply(Consumer<SearchIndex> change) {
+        if (changesDuringRebuild != null)
+            changesDuringRebuild.add(change);
+        change.accept(searchIndex);
+    }
+
+    private void add(SearchIndex index, IndexedOffer offer, Session session, List<String> terms) {
+        index.sessions.put(session.getId(), session);
+        index.offers.put(offer.id, offer, terms);
+    }
+
+    private List<String> terms(Offer offer) {
+        // The title counts twice, a word of the title says more about the offer than one of the description
+        List<String> terms = new ArrayList<>(TextAnalyzer.analyze(offer.getTitle()));
+        terms.addAll(terms);
+        terms.addAll(TextAnalyzer.analyze(offer.getDescription()));
+        terms.addAll(TextAnalyzer.analyze(offer.getDepartment()));
+        terms.addAll(TextAnalyzer.analyze(offer.getAddress()));
+        return terms;
+    }
+
+    private Session copyOf(Session session) {
+        return new Session(session.getId(), session.getTypeSession(), session.getYear());
+    }
+
+    private boolean contains(long[] ids, long id) {
+        for (long candidate : ids)
+            if (candidate == id)
+                return true;
+        return false;
+    }
+
+    private int salaryRange(double salary) {
+        int range = 0;
+        while (range + 1 < SALARY_RANGES.length && salary >= SALARY_RANGES[range + 1])
+            range++;
+        return range;
+    }
+
+    private String salaryRangeLabel(int range) {
+        return range + 1 < SALARY_RANGES.length
+                ? String.format("%.0f-%.0f", SALARY_RANGES[range], SALARY_RANGES[range + 1])
+                : String.format("%.0f+", SALARY_RANGES[range]);
+    }
+}
@@ -10,20 +10,21 @@ import com.gestionnaire_de_stage.exception.OfferAlreadyExistsException;
 import com.gestionnaire_de_stage.exception.OfferAlreadyTreatedException;
 import com.gestionnaire_de_stage.model.Monitor;
 import com.gestionnaire_de_stage.model.Offer;
-import com.gestionnaire_de_stage.model.OfferApplication;
 import com.gestionnaire_de_stage.model.Session;
-import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
 import com.gestionnaire_de_stage.repository.OfferRepository;
 import com.gestionnaire_de_stage.repository.StudentRepository;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.Year;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -31,19 +32,19 @@ import java.util.stream.Collectors;
 @Service
 public class OfferService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OfferRepository offerRepository;
     private final MonitorService monitorService;
     private final SessionService sessionService;
     private final StudentRepository studentRepository;
-    private final OfferApplicationRepository offerApplicationRepository;
     private final Clock clock;
 
-    public OfferService(OfferRepository offerRepository, MonitorService monitorService, SessionService sessionService, StudentRepository studentRepository, OfferApplicationRepository offerApplicationRepository, @Lazy Clock clock) {
+    public OfferService(OfferRepository offerRepository, MonitorService monitorService, SessionService sessionService, StudentRepository studentRepository, @Lazy Clock clock) {
         this.offerRepository = offerRepository;
         this.monitorService = monitorService;
         this.sessionService = sessionService;
         this.studentRepository = studentRepository;
-        this.offerApplicationRepository = offerApplicationRepository;
         this.clock = clock;
     }
 
@@ -62,6 +63,7 @@ public class OfferService {
         offer.setHoraireTravail(dto.getHoraireTravail());
         offer.setNbHeureSemaine(dto.getNbHeureSemaine());
         offer.setNbSemaine(dto.getNbSemaine());
+        offer.setCapacity(dto.getCapacity());
         return offer;
     }
 
@@ -96,14 +98,15 @@ public class OfferService {
 
         Session session = sessionService.getOneBySessionId(offerDto.getIdSession());
         offer.setSession(session);
+        offer.setModified(LocalDateTime.now(clock));
 
         return offerRepository.save(offer);
     }
 
-    private void removeOffersOfWinter(List<Offer> offers) {
+    private void removeOffersOfWinter(List<Offer> offers, Year year) {
         offers.removeIf(offer -> {
             Session session = offer.getSession();
-            return session.getYear().equals(Year.now(clock)) &&
+            return session.getYear().equals(year) &&
                     session.getTypeSession() == TypeSession.HIVER;
         });
     }
@@ -113,19 +116,34 @@ public class OfferService {
     }
 
     public List<Offer> getValidOffers() {
-        int monthValue = LocalDate.now(clock).getMonthValue();
+        return getValidOffers(YearMonth.now(clock));
+    }
+
+    public List<Offer> getValidOffers(YearMonth month) {
+        Assert.isTrue(month != null, "Le mois ne peut pas être vide");
+        Year year = Year.of(month.getYear());
 
-        if (monthValue >= Month.SEPTEMBER.getValue())
-            return offerRepository.findAllByValidAndSession_YearGreaterThanEqual(true, Year.now().plusYears(1));
+        if (month.getMonthValue() >= Month.SEPTEMBER.getValue())
+            return offerRepository.findAllByValidAndSession_YearGreaterThanEqual(true, year.plusYears(1));
 
-        List<Offer> offers = offerRepository.findAllByValidAndSession_YearGreaterThanEqual(true, Year.now());
+        List<Offer> offers = offerRepository.findAllByValidAndSession_YearGreaterThanEqual(true, year);
 
-        if (monthValue >= Month.MAY.getValue())
-            removeOffersOfWinter(offers);
+        if (month.getMonthValue() >= Month.MAY.getValue())
+            removeOffersOfWinter(offers, year);
 
         return offers;
     }
 
+    // The window of getValidOffers, for offers already loaded
+    public boolean isInWindow(Session session, YearMonth month) {
+        Year year = Year.of(month.getYear());
+        if (month.getMonthValue() >= Month.SEPTEMBER.getValue())
+            return !session.getYear().isBefore(year.plusYears(1));
+        if (month.getMonthValue() >= Month.MAY.getValue() && session.getYear().equals(year))
+            return session.getTypeSession() != TypeSession.HIVER;
+        return !session.getYear().isBefore(year);
+    }
+
     public List<Offer> getNotValidatedOffers() {
         return offerRepository.findAllByValidNull();
     }
@@ -140,31 +158,29 @@ public class OfferService {
         }
         Offer offer = offerRepository.getById(validationOffer.getId());
         offer.setValid(validationOffer.isValid());
+        offer.setModified(LocalDateTime.now(clock));
 
         return offerRepository.save(offer);
     }
 
-    public List<Offer> getOffersNotYetApplied(Long studentId) throws IdDoesNotExistException {
+    public List<Offer> getOffersNotYetApplied(Long studentId, Long sessionId, int page, int size) throws IdDoesNotExistException, IllegalArgumentException {
         Assert.isTrue(studentId != null, "L'identifiant de l'étudiant ne peut pas être vide");
+        Assert.isTrue(page >= 0, "Le numéro de page ne peut pas être négatif");
+        Assert.isTrue(size > 0 && size <= MAX_PAGE_SIZE, "La taille de la page doit être entre 1 et " + MAX_PAGE_SIZE);
         if (!studentRepository.existsById(studentId)) {
             throw new IdDoesNotExistException("Il n'y a pas d'étudiant associé à cet identifiant");
         }
-        List<OfferApplication> listOffersApplied = offerApplicationRepository.getAllByCurriculum_StudentId(studentId);
-        int monthValue = LocalDate.now(clock).getMonthValue();
-        List<Offer> collect = listOffersApplied.stream().map(OfferApplication::getOffer).collect(Collectors.toList());
-
-        if (monthValue >= Month.SEPTEMBER.getValue()) {
-            List<Offer> listOffers = offerRepository.findAllByValidIsTrueAndSession_YearGreaterThanEqual(Year.now().plusYears(1));
-            listOffers.removeAll(collect);
-            return listOffers;
-        }
-
-        List<Offer> listOffers = offerRepository.findAllByValidIsTrueAndSession_YearGreaterThanEqual(Year.now());
-
-        if (monthValue >= Month.MAY.getValue())
-            removeOffersOfWinter(listOffers);
-
-        listOffers.removeAll(collect);
-        return listOffers;
+        LocalDate today = LocalDate.now(clock);
+        Year firstYear = Year.from(today);
+        List<TypeSession> firstYearSessions = List.of(TypeSession.values());
+
+        // Same window as getValidOffers, from september the next year, from may the summer of this year
+        if (today.getMonthValue() >= Month.SEPTEMBER.getValue())
+            firstYear = firstYear.plusYears(1);
+        else if (today.getMonthValue() >= Month.MAY.getValue())
+            firstYearSessions = List.of(TypeSession.ETE);
+
+        return offerRepository.findAllValidNotAppliedByStudent(studentId, firstYear, firstYearSessions, sessionId,
+                PageRequest.of(page, size)).getContent();
     }
 }
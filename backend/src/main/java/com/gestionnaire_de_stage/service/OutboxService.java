@@ -0,0 +1,155 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.aspect.LeaderLease;
+import com.gestionnaire_de_stage.dto.OutboxStatsDTO;
+import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.OutboxEvent;
+import com.gestionnaire_de_stage.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.List;
+
+@Service
+@Slf4j(topic = "OutboxService")
+public class OutboxService {
+
+    private static final String DISPATCH_LEASE = "OutboxService.dispatchPending";
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final NotificationService notificationService;
+
+    private final CurriculumService curriculumService;
+
+    private final OfferService offerService;
+
+    private final OfferApplicationService offerApplicationService;
+
+    private final ContractService contractService;
+
+    private final LeaseService leaseService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final int maxAttempts;
+
+    private final Duration lease;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         NotificationService notificationService,
+                         CurriculumService curriculumService,
+                         OfferService offerService,
+                         OfferApplicationService offerApplicationService,
+                         ContractService contractService,
+                         LeaseService leaseService,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${outbox.dispatch.batch-size:100}") int batchSize,
+                         @Value("${outbox.dispatch.max-attempts:10}") int maxAttempts,
+                         @Value("${outbox.dispatch.lease:30s}") Duration lease) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationService = notificationService;
+        this.curriculumService = curriculumService;
+        this.offerService = offerService;
+        this.offerApplicationService = offerApplicationService;
+        this.contractService = contractService;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+    }
+
+    @Scheduled(initialDelayString = "${outbox.dispatch.delay:5000}", fixedDelayString = "${outbox.dispatch.delay:5000}")
+    @LeaderLease(name = DISPATCH_LEASE, leaseFor = "${outbox.dispatch.lease:30s}")
+    public void dispatchPending() {
+        int dispatched;
+        // The lease is renewed before each further batch, a long drain stops once another instance took it over
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched == batchSize && leaseService.tryAcquire(DISPATCH_LEASE, lease));
+    }
+
+    public int dispatchBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findAllByAttemptsLessThanOrderByIdAsc(maxAttempts, PageRequest.of(0, batchSize));
+        int dispatched = 0;
+        for (OutboxEvent event : events) {
+            try {
+                // The notifications and the removal of the event commit together, a crash in between replays the event
+                transactionTemplate.executeWithoutResult(status -> {
+                    dispatch(event);
+                    outboxEventRepository.deleteById(event.getId());
+                });
+                dispatched++;
+            } catch (RuntimeException e) {
+                outboxEventRepository.incrementAttempts(event.getId());
+                if (event.getAttempts() + 1 >= maxAttempts)
+                    log.error("Giving up on {} {} for {} after {} attempts, it stays in the outbox",
+                            event.getType(), event.getId(), event.getAggregateId(), maxAttempts, e);
+                else
+                    log.warn("Could not dispatch {} {} for {}", event.getType(), event.getId(), event.getAggregateId(), e);
+            }
+        }
+        return dispatched;
+    }
+
+    public OutboxStatsDTO getStats() {
+        return new OutboxStatsDTO(
+                outboxEventRepository.countByAttemptsLessThan(maxAttempts),
+                outboxEventRepository.countByAttemptsGreaterThanEqual(maxAttempts)
+        );
+    }
+
+    public void dispatch(OutboxEvent event) throws IllegalArgumentException {
+        Assert.notNull(event, "L'événement ne peut pas être vide");
+        Long id = event.getAggregateId();
+        try {
+            switch (event.getType()) {
+                case CURRICULUM_VALIDATED:
+                    notificationService.notifyOfCurriculumValidation(curriculumService.getOneById(id));
+                    break;
+                case OFFER_CREATED:
+                    notificationService.notifyOfNewOffer(getOffer(id));
+                    break;
+                case OFFER_VALIDATED:
+                    notificationService.notifyOfOfferValidation(getOffer(id));
+                    break;
+                case OFFER_APPLICATION_CREATED:
+                    notificationService.notifyOfNewApplicant(offerApplicationService.getOneById(id));
+                    break;
+                case OFFER_APPLICATION_STAGE_TROUVE:
+                    notificationService.notifyOfOfferAppStatusSetToStageTrouve(offerApplicationService.getOneById(id));
+                    break;
+                case OFFER_APPLICATION_INTERVIEW_SET:
+                    notificationService.notifyOfOfferAppInterviewSet(offerApplicationService.getOneById(id));
+                    break;
+                case OFFER_APPLICATION_INTERVIEW_PASSED:
+                    notificationService.notifyOfOfferAppInterviewPassed(offerApplicationService.getOneById(id));
+                    break;
+                case CONTRACT_SIGNED_BY_MANAGER:
+                    notificationService.notifyOfManagerSignature(contractService.getOneById(id));
+                    break;
+                case CONTRACT_SIGNED_BY_MONITOR:
+                    notificationService.notifyOfMonitorSignature(contractService.getOneById(id));
+                    break;
+            }
+        } catch (IdDoesNotExistException e) {
+            log.warn("Dropping {} {}, {} no longer exists", event.getType(), event.getId(), id);
+        }
+    }
+
+    private Offer getOffer(Long id) throws IdDoesNotExistException {
+        return offerService.findOfferById(id)
+                .orElseThrow(() -> new IdDoesNotExistException("Il n'y a pas d'offre associé à cet identifiant"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.aspect.LeaderLease;
 import com.gestionnaire_de_stage.dto.PasswordResetTokenDto;
 import com.gestionnaire_de_stage.exception.DoesNotExistException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
@@ -7,35 +8,57 @@ import com.gestionnaire_de_stage.exception.UnusableTokenException;
 import com.gestionnaire_de_stage.model.*;
 import com.gestionnaire_de_stage.repository.PasswordResetTokenRepository;
 import io.jsonwebtoken.lang.Assert;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
 
 @Service
+@Slf4j(topic = "PasswordResetService")
 public class PasswordResetService {
 
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final MonitorService monitorService;
     private final SupervisorService supervisorService;
     private final StudentService studentService;
-    private final JavaMailSender mailSender;
-    @Value("${spring.mail.username}")
-    private String fromMail;
-
-    public PasswordResetService(PasswordResetTokenRepository passwordResetTokenRepository, MonitorService monitorService, SupervisorService supervisorService, StudentService studentService, JavaMailSender mailSender) {
+    private final MailQueueService mailQueueService;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Duration timeToLive;
+    private final int purgeBatchSize;
+
+    public PasswordResetService(PasswordResetTokenRepository passwordResetTokenRepository, MonitorService monitorService, SupervisorService supervisorService, StudentService studentService, MailQueueService mailQueueService, PlatformTransactionManager transactionManager, Clock clock,
+                                @Value("${password.reset.ttl:1h}") Duration timeToLive,
+                                @Value("${password.reset.purge-batch-size:500}") int purgeBatchSize) {
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.monitorService = monitorService;
         this.supervisorService = supervisorService;
         this.studentService = studentService;
-        this.mailSender = mailSender;
+        this.mailQueueService = mailQueueService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.timeToLive = timeToLive;
+        this.purgeBatchSize = purgeBatchSize;
     }
 
     private PasswordResetToken forgotPassword(User user) {
         Assert.notNull(user, "Un utilisateur est nécessaire afin de créer un jeton de récupération de mot de passe");
-        PasswordResetToken passwordResetToken = new PasswordResetToken(user);
-        sendEmail(user.getEmail(), passwordResetToken.getToken());
-        return passwordResetTokenRepository.save(passwordResetToken);
+        // The token and its mail are saved together, the mail is sent later by the queue
+        return transactionTemplate.execute(status -> {
+            PasswordResetToken passwordResetToken = passwordResetTokenRepository.save(new PasswordResetToken(user));
+            queueEmail(user.getEmail(), passwordResetToken.getToken());
+            return passwordResetToken;
+        });
     }
 
     public PasswordResetToken forgotPasswordMonitor(String email) throws DoesNotExistException {
@@ -55,17 +78,56 @@ public class PasswordResetService {
 
     public User resetPassword(PasswordResetTokenDto passwordResetTokenDto) throws DoesNotExistException, IdDoesNotExistException, UnusableTokenException {
         Assert.notNull(passwordResetTokenDto, "Un jeton et un mot de passe sont nécessaires pour une modification de mot de passe");
-        PasswordResetToken passwordResetToken = getOneByToken(passwordResetTokenDto.getToken());
+        Assert.notNull(passwordResetTokenDto.getPassword(), "Un mot de passe est nécessaire pour une modification de mot de passe");
+        String token = passwordResetTokenDto.getToken();
+        Assert.notNull(token, "Un jeton est nécessaire pour une modification de mot de passe");
 
-        User user = updateUserPassword(passwordResetTokenDto.getPassword(), passwordResetToken.getUser());
+        // The token is spent with the new password, a password refused at the commit leaves it usable
+        User user;
+        try {
+            user = transactionTemplate.execute(status -> {
+                if (!consume(token))
+                    return null;
+                try {
+                    return updateUserPassword(passwordResetTokenDto.getPassword(), passwordResetTokenRepository.findUserByToken(token));
+                } catch (IdDoesNotExistException e) {
+                    throw new UserRemovedException(e);
+                }
+            });
+        } catch (UserRemovedException e) {
+            throw (IdDoesNotExistException) e.getCause();
+        }
+        if (user != null)
+            return user;
+        if (!passwordResetTokenRepository.existsByToken(token))
+            throw new DoesNotExistException("Le jeton n'existe pas");
+        throw new UnusableTokenException("Le jeton n'est plus utilisable");
+    }
 
-        setTokenUnusable(passwordResetToken);
+    @Scheduled(initialDelayString = "${password.reset.purge-delay:3600000}", fixedDelayString = "${password.reset.purge-delay:3600000}")
+    @LeaderLease(leaseFor = "${password.reset.purge-lease:10m}")
+    public int purgeTokens() {
+        Date expired = Date.from(clock.instant().minus(timeToLive));
+        int purged = purge(pageable -> passwordResetTokenRepository.findAllIdsCreatedUntil(expired, pageable))
+                + purge(passwordResetTokenRepository::findAllUnusableIds);
+        if (purged > 0)
+            log.info("Purged {} expired or used password reset tokens", purged);
+        return purged;
+    }
 
-        return user;
+    private int purge(Function<Pageable, List<Long>> batch) {
+        int purged = 0;
+        List<Long> ids;
+        do {
+            ids = batch.apply(PageRequest.of(0, purgeBatchSize));
+            if (!ids.isEmpty())
+                passwordResetTokenRepository.deleteAllByIdInBatch(ids);
+            purged += ids.size();
+        } while (ids.size() == purgeBatchSize);
+        return purged;
     }
 
     private User updateUserPassword(String password, User user) throws IdDoesNotExistException {
-        Assert.notNull(password, "Un mot de passe est nécessaire pour une modification de mot de passe");
         user.setPassword(password);
 
         if (user instanceof Monitor)
@@ -78,36 +140,20 @@ public class PasswordResetService {
     }
 
 
-    private PasswordResetToken getOneByToken(String token) throws DoesNotExistException, UnusableTokenException {
-        Assert.notNull(token, "Un jeton est nécessaire pour une modification de mot de passe");
-        if (doesNotExists(token))
-            throw new DoesNotExistException("Le jeton n'existe pas");
-        if (isTokenUnusable(token))
-            throw new UnusableTokenException("Le jeton n'est plus utilisable");
-
-        return passwordResetTokenRepository.getByToken(token);
-    }
-
-    private boolean isTokenUnusable(String token) {
-        return passwordResetTokenRepository.existsByTokenAndUnusableTrue(token);
+    // A token is used once and before it expires, the update checks both so two resets cannot use the same token
+    private boolean consume(String token) {
+        return passwordResetTokenRepository.consume(token, Date.from(clock.instant().minus(timeToLive))) == 1;
     }
 
-    private void setTokenUnusable(PasswordResetToken passwordResetToken) {
-        passwordResetToken.setUnusable();
-        passwordResetTokenRepository.save(passwordResetToken);
+    // Carries the checked exception out of the transaction, which it rolls back
+    private static class UserRemovedException extends RuntimeException {
+        private UserRemovedException(IdDoesNotExistException cause) {
+            super(cause);
+        }
     }
 
-    private boolean doesNotExists(String token) {
-        return !passwordResetTokenRepository.existsByToken(token);
-    }
-
-    private void sendEmail(String mailTo,  String token) {
-        SimpleMailMessage mail = new SimpleMailMessage();
-        mail.setFrom(this.fromMail);
-        mail.setSubject("Mot de passe oublié");
-        mail.setText("Veuillez cliquer sur le lien suivant pour réinitialiser votre mot de passe : http://localhost:3000/reset_password/" + token);
-        mail.setTo(mailTo);
-
-        this.mailSender.send(mail);
+    private void queueEmail(String mailTo, String token) {
+        mailQueueService.enqueue(mailTo, "Mot de passe oublié",
+                "Veuillez cliquer sur le lien suivant pour réinitialiser votre mot de passe : http://localhost:3000/reset_password/" + token);
     }
 }
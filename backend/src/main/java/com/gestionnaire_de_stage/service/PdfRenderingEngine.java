@@ -0,0 +1,100 @@
+package com.gestionnaire_de_stage.service;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.attach.impl.DefaultTagWorkerFactory;
+import com.itextpdf.html2pdf.css.apply.impl.DefaultCssApplierFactory;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.layout.font.FontProvider;
+import com.itextpdf.layout.font.FontSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+@Slf4j(topic = "PdfRenderingEngine")
+public class PdfRenderingEngine {
+
+    private static final String TEMPLATES_LOCATION = "classpath:templates/*.html";
+
+    private final TemplateEngine templateEngine;
+
+    private final FontSet fontSet;
+
+    private final ConverterProperties converterProperties;
+
+    private final boolean warmUpEnabled;
+
+    public PdfRenderingEngine(TemplateEngine templateEngine,
+                              @Value("${pdf.rendering.warm-up:true}") boolean warmUpEnabled) {
+        this.templateEngine = templateEngine;
+        this.warmUpEnabled = warmUpEnabled;
+        this.fontSet = new DefaultFontProvider(true, true, false).getFontSet();
+        this.converterProperties = new ConverterProperties()
+                .setCharset(StandardCharsets.UTF_8.name())
+                .setTagWorkerFactory(DefaultTagWorkerFactory.getInstance())
+                .setCssApplierFactory(DefaultCssApplierFactory.getInstance());
+    }
+
+    public String processTemplate(String template, Map<String, Object> variables) {
+        Assert.hasText(template, "Le gabarit ne peut pas être vide");
+        Context context = new Context(Locale.CANADA_FRENCH);
+        context.setVariables(variables);
+        return templateEngine.process(template, context);
+    }
+
+    public void convertToPdf(String html, OutputStream outputStream) {
+        Assert.notNull(html, "Le contenu HTML ne peut pas être vide");
+        Assert.notNull(outputStream, "Le flux de sortie ne peut pas être vide");
+        HtmlConverter.convertToPdf(html, outputStream, newConverterProperties());
+    }
+
+    public void renderToPdf(String template, Map<String, Object> variables, OutputStream outputStream) {
+        convertToPdf(processTemplate(template, variables), outputStream);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUpEnabled)
+            return;
+        long start = System.nanoTime();
+        try {
+            Resource[] templates = new PathMatchingResourcePatternResolver().getResources(TEMPLATES_LOCATION);
+            for (Resource template : templates)
+                warmUp(template);
+            log.info("Warmed up {} PDF templates in {} ms", templates.length, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Could not list the PDF templates to warm up", e);
+        }
+    }
+
+    private void warmUp(Resource template) {
+        try {
+            String html = StreamUtils.copyToString(template.getInputStream(), StandardCharsets.UTF_8);
+            convertToPdf(html, new ByteArrayOutputStream());
+        } catch (Exception e) {
+            log.warn("Could not warm up template {}", template.getFilename(), e);
+        }
+    }
+
+    private ConverterProperties newConverterProperties() {
+        // FontProvider keeps a per-document selector cache, so only the parsed FontSet is shared
+        return new ConverterProperties(converterProperties)
+                .setFontProvider(new FontProvider(fontSet));
+    }
+}
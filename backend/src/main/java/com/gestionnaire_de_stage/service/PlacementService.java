@@ -0,0 +1,132 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.PlacementCandidateDTO;
+import com.gestionnaire_de_stage.dto.PlacementDTO;
+import com.gestionnaire_de_stage.dto.PlacementPlanDTO;
+import com.gestionnaire_de_stage.enums.Status;
+import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
+import com.gestionnaire_de_stage.model.OfferApplication;
+import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
+import com.gestionnaire_de_stage.repository.SessionRepository;
+import com.gestionnaire_de_stage.util.DeferredAcceptance;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j(topic = "PlacementService")
+public class PlacementService {
+
+    private static final List<Status> CANDIDATE_STATUSES = List.of(Status.EN_ATTENTE_REPONSE, Status.STAGE_TROUVE, Status.EN_SIGNATURE);
+
+    private final OfferApplicationRepository offerApplicationRepository;
+
+    private final SessionRepository sessionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PlacementService(OfferApplicationRepository offerApplicationRepository,
+                            SessionRepository sessionRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.offerApplicationRepository = offerApplicationRepository;
+        this.sessionRepository = sessionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public PlacementPlanDTO propose(Long sessionId) throws IdDoesNotExistException, IllegalArgumentException {
+        Assert.notNull(sessionId, "L'identifiant de la session ne peut pas être vide");
+        if (!sessionRepository.existsById(sessionId))
+            throw new IdDoesNotExistException("Il n'y a pas de session associée à cet identifiant");
+        long start = System.nanoTime();
+        List<PlacementCandidateDTO> candidates = offerApplicationRepository.findAllPlacementCandidates(sessionId, CANDIDATE_STATUSES);
+
+        // A student whose contract is in signature is placed, they only take a place of the offer
+        Set<Long> signedStudents = new HashSet<>();
+        Map<Long, Integer> signedPlaces = new HashMap<>();
+        for (PlacementCandidateDTO candidate : candidates) {
+            if (candidate.getStatus() == Status.EN_SIGNATURE) {
+                signedStudents.add(candidate.getStudentId());
+                signedPlaces.merge(candidate.getOfferId(), 1, Integer::sum);
+            }
+        }
+        List<PlacementCandidateDTO> pairs = candidates.stream()
+                .filter(candidate -> !signedStudents.contains(candidate.getStudentId()))
+                .collect(Collectors.toList());
+
+        Map<Long, Integer> students = new HashMap<>();
+        Map<Long, Integer> offers = new HashMap<>();
+        List<Integer> capacities = new ArrayList<>();
+        int[] pairStudents = new int[pairs.size()];
+        int[] pairOffers = new int[pairs.size()];
+        int[] studentRanks = new int[pairs.size()];
+        int[] offerRanks = new int[pairs.size()];
+        for (int pair = 0; pair < pairs.size(); pair++) {
+            PlacementCandidateDTO candidate = pairs.get(pair);
+            pairStudents[pair] = students.computeIfAbsent(candidate.getStudentId(), id -> students.size());
+            pairOffers[pair] = offers.computeIfAbsent(candidate.getOfferId(), id -> {
+                int capacity = candidate.getCapacity() == null ? 1 : candidate.getCapacity();
+                capacities.add(Math.max(0, capacity - signedPlaces.getOrDefault(id, 0)));
+                return offers.size();
+            });
+            studentRanks[pair] = rank(candidate.getStudentRank());
+            offerRanks[pair] = rank(candidate.getMonitorRank());
+        }
+
+        int[] matched = DeferredAcceptance.match(students.size(), capacities.stream().mapToInt(Integer::intValue).toArray(),
+                pairStudents, pairOffers, studentRanks, offerRanks);
+
+        List<PlacementDTO> placements = new ArrayList<>();
+        for (int pair = 0; pair < pairs.size(); pair++) {
+            PlacementCandidateDTO candidate = pairs.get(pair);
+            placements.add(new PlacementDTO(candidate.getOfferApplicationId(), candidate.getStudentId(), candidate.getOfferId(),
+                    candidate.getStatus(), matched[pairStudents[pair]] == pair ? Status.STAGE_TROUVE : Status.STAGE_REFUSE));
+        }
+        int placed = (int) Arrays.stream(matched).filter(pair -> pair >= 0).count();
+        log.info("Placed {} of {} students of session {} in {} ms", placed, students.size(), sessionId, (System.nanoTime() - start) / 1_000_000);
+        return new PlacementPlanDTO(sessionId, placements, placed, students.size() - placed);
+    }
+
+    // Applies every placement of the plan at once, or none if an application changed since it was proposed
+    public int apply(Long sessionId, PlacementPlanDTO plan) throws IllegalArgumentException {
+        Assert.notNull(sessionId, "L'identifiant de la session ne peut pas être vide");
+        Assert.isTrue(plan != null && plan.getPlacements() != null, "Le plan ne peut pas être vide");
+        Assert.isTrue(sessionId.equals(plan.getSessionId()), "Le plan ne correspond pas à cette session");
+
+        Set<Long> placedStudents = new HashSet<>();
+        for (PlacementDTO placement : plan.getPlacements()) {
+            Assert.isTrue(placement.getStatus() == Status.STAGE_TROUVE || placement.getStatus() == Status.STAGE_REFUSE,
+                    "Le plan ne peut que trouver ou refuser un stage");
+            Assert.isTrue(placement.getStatus() != Status.STAGE_TROUVE || placedStudents.add(placement.getStudentId()),
+                    "Un étudiant ne peut avoir qu'un stage");
+        }
+
+        return transactionTemplate.execute(status -> {
+            Map<Long, OfferApplication> offerApplications = offerApplicationRepository.findAllByIdInAndSession_Id(
+                            plan.getPlacements().stream().map(PlacementDTO::getOfferApplicationId).collect(Collectors.toList()), sessionId)
+                    .stream()
+                    .collect(Collectors.toMap(OfferApplication::getId, Function.identity()));
+            List<OfferApplication> changed = new ArrayList<>();
+            for (PlacementDTO placement : plan.getPlacements()) {
+                OfferApplication offerApplication = offerApplications.get(placement.getOfferApplicationId());
+                if (offerApplication == null || offerApplication.getStatus() != placement.getCurrentStatus())
+                    throw new IllegalArgumentException("Les candidatures ont changé depuis le plan, proposez-en un nouveau");
+                if (offerApplication.getStatus() != placement.getStatus()) {
+                    offerApplication.setStatus(placement.getStatus());
+                    changed.add(offerApplication);
+                }
+            }
+            offerApplicationRepository.saveAll(changed);
+            return changed.size();
+        });
+    }
+
+    private int rank(Integer rank) {
+        return rank == null ? Integer.MAX_VALUE : rank;
+    }
+}
@@ -1,5 +1,7 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.dto.StageSummaryDTO;
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
 import com.gestionnaire_de_stage.exception.EvaluationAlreadyFilledException;
 import com.gestionnaire_de_stage.exception.StageDoesNotExistException;
 import com.gestionnaire_de_stage.model.Stage;
@@ -7,7 +9,9 @@ import com.gestionnaire_de_stage.repository.StageRepository;
 import io.jsonwebtoken.lang.Assert;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.List;
 
 @Service
@@ -15,8 +19,11 @@ public class StageService {
 
     private final StageRepository stageRepository;
 
-    public StageService(StageRepository stageRepository) {
+    private final DocumentStore documentStore;
+
+    public StageService(StageRepository stageRepository, DocumentStore documentStore) {
         this.stageRepository = stageRepository;
+        this.documentStore = documentStore;
     }
 
     public Stage create(Stage stage, String matricule) throws EvaluationAlreadyFilledException {
@@ -30,12 +37,14 @@ public class StageService {
         return stageRepository.save(stage);
     }
 
-    public Stage addEvalMilieuStage(Stage stage, ByteArrayOutputStream baos) throws StageDoesNotExistException {
+    public Stage addEvalMilieuStage(Stage stage, ByteArrayOutputStream baos) throws StageDoesNotExistException, IOException {
         Assert.isTrue(stage != null, "Le stage ne peut pas être vide");
         if (isNotValid(stage)) {
             throw new StageDoesNotExistException("Il n'y a pas de stage pour cette étudiant");
         }
-        stage.setEvalMilieuStage(baos.toByteArray());
+        StoredDocumentDTO evaluation = documentStore.store(new ByteArrayInputStream(baos.toByteArray()));
+        stage.setEvalMilieuStageHash(evaluation.getKey());
+        stage.setEvalMilieuStageSize(evaluation.getSize());
         return stageRepository.save(stage);
     }
 
@@ -50,21 +59,23 @@ public class StageService {
         return stageRepository.getByContract_StudentEmail(email);
     }
 
-    public Stage addEvalStagiaire(Stage stage, ByteArrayOutputStream baos) throws StageDoesNotExistException {
+    public Stage addEvalStagiaire(Stage stage, ByteArrayOutputStream baos) throws StageDoesNotExistException, IOException {
         Assert.isTrue(stage != null, "Le stage ne peut pas être vide");
         if (isNotValid(stage)) {
             throw new StageDoesNotExistException("Il n'y a pas de stage pour cette étudiant");
         }
-        stage.setEvalStagiaire(baos.toByteArray());
+        StoredDocumentDTO evaluation = documentStore.store(new ByteArrayInputStream(baos.toByteArray()));
+        stage.setEvalStagiaireHash(evaluation.getKey());
+        stage.setEvalStagiaireSize(evaluation.getSize());
         return stageRepository.save(stage);
     }
 
     public List<Stage> getAllWithNoEvalMilieu() {
-        return stageRepository.getAllByEvalMilieuStageIsNull();
+        return stageRepository.getAllByEvalMilieuStageHashIsNull();
     }
 
     public List<Stage> getAllWithNoEvalStagiaire() {
-        return stageRepository.getAllByEvalStagiaireIsNull();
+        return stageRepository.getAllByEvalStagiaireHashIsNull();
     }
 
     private boolean isNotValid(Stage stage) {
@@ -72,11 +83,11 @@ public class StageService {
     }
 
     private boolean isAlreadyCreatedButNoEvalMilieu(String matricule) {
-        return stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageNull(matricule);
+        return stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageHashNull(matricule);
     }
 
     private boolean isAlreadyCreated(String matricule) {
-        return stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageNotNull(matricule);
+        return stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageHashNotNull(matricule);
     }
 
     private boolean isNotAlreadyCreatedEmail(String email) {
@@ -84,16 +95,16 @@ public class StageService {
     }
 
     private boolean isEvalStagiaireFilled(String email) {
-        return stageRepository.existsByContract_StudentEmailAndEvalStagiaireNotNull(email);
+        return stageRepository.existsByContract_StudentEmailAndEvalStagiaireHashNotNull(email);
     }
 
-    public List<Stage> getAllEvaluationsForSupervisor(Long idSupervisor) {
+    public List<StageSummaryDTO> getAllEvaluationsForSupervisor(Long idSupervisor) {
         Assert.notNull(idSupervisor, "L'id du superviseur ne peut pas être vide");
-        return stageRepository.getAllByEvalMilieuStageNotNullAndContract_Student_Supervisor_Id(idSupervisor);
+        return stageRepository.findAllSummariesWithEvalMilieuStageBySupervisorId(idSupervisor);
     }
 
-    public List<Stage> getAllEvaluationsForMonitor(Long idMonitor) throws IllegalArgumentException {
+    public List<StageSummaryDTO> getAllEvaluationsForMonitor(Long idMonitor) throws IllegalArgumentException {
         Assert.notNull(idMonitor, "L'id du moniteur ne peut pas être vide");
-        return stageRepository.getAllByEvalStagiaireNotNullAndContract_Monitor_Id(idMonitor);
+        return stageRepository.findAllSummariesWithEvalStagiaireByMonitorId(idMonitor);
     }
 }
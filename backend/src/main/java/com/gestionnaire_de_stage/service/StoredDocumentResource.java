@@ -0,0 +1,55 @@
+package com.gestionnaire_de_stage.service;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+
+public class StoredDocumentResource extends AbstractResource {
+
+    private final DocumentStore documentStore;
+
+    private final String key;
+
+    private final long size;
+
+    public StoredDocumentResource(DocumentStore documentStore, String key, long size) {
+        this.documentStore = documentStore;
+        this.key = key;
+        this.size = size;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        return documentStore.transferTo(key, position, count, target);
+    }
+
+    @Override
+    public boolean exists() {
+        return documentStore.exists(key);
+    }
+
+    @Override
+    public long contentLength() {
+        return size;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return documentStore.open(key);
+    }
+
+    @Override
+    public String getFilename() {
+        return null;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Document " + key;
+    }
+}
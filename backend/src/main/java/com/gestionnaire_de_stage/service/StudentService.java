@@ -1,36 +1,55 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.enums.UserIdentifier;
 import com.gestionnaire_de_stage.exception.*;
 import com.gestionnaire_de_stage.model.Curriculum;
 import com.gestionnaire_de_stage.model.Student;
 import com.gestionnaire_de_stage.model.Supervisor;
+import com.gestionnaire_de_stage.model.User;
 import com.gestionnaire_de_stage.repository.StudentRepository;
+import com.gestionnaire_de_stage.util.UniqueConstraints;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class StudentService {
 
     private final StudentRepository studentRepository;
     private final CurriculumService curriculumService;
+    private final IdentifierIndexService identifierIndexService;
 
-    public StudentService(StudentRepository studentRepository, @Lazy CurriculumService curriculumService) {
+    public StudentService(StudentRepository studentRepository, @Lazy CurriculumService curriculumService,
+                          IdentifierIndexService identifierIndexService) {
         this.studentRepository = studentRepository;
         this.curriculumService = curriculumService;
+        this.identifierIndexService = identifierIndexService;
     }
 
     public Student create(Student student) throws StudentAlreadyExistsException {
         Assert.isTrue(student != null, "L'étudiant ne peut pas être vide");
-        if (isNotValid(student)) {
-            throw new StudentAlreadyExistsException("Un compte existe déjà pour cet étudiant");
+        try {
+            Student created = studentRepository.saveAndFlush(student);
+            identifierIndexService.add(UserIdentifier.EMAIL, student.getEmail());
+            identifierIndexService.add(UserIdentifier.STUDENT_MATRICULE, student.getMatricule());
+            return created;
+        } catch (DataIntegrityViolationException e) {
+            // The email and the matricule are unique, the one taken is only looked up when the insert fails
+            if (isNotValid(student)) {
+                throw new StudentAlreadyExistsException("Un compte existe déjà pour cet étudiant");
+            }
+            if (student.getMatricule() != null && studentRepository.existsByMatricule(student.getMatricule())) {
+                throw new StudentAlreadyExistsException("Un étudiant ayant cette matricule existe déjà");
+            }
+            if (UniqueConstraints.isViolated(e, User.UK_EMAIL)) {
+                throw new StudentAlreadyExistsException("Ce courriel est déjà utilisé par un autre compte");
+            }
+            throw e;
         }
-        if (isMatriculeValid(student.getMatricule())) {
-            throw new StudentAlreadyExistsException("Un étudiant ayant cette matricule existe déjà");
-        }
-        return studentRepository.save(student);
     }
 
     public Student getOneByID(Long aLong) throws IdDoesNotExistException {
@@ -49,7 +68,11 @@ public class StudentService {
         Assert.isTrue(student != null, "L'étudiant ne peut pas être vide");
         if (isIDNotValid(student.getId()))
             throw new IdDoesNotExistException("Il n'y a pas d'étudiant associé à cet identifiant");
-        return studentRepository.save(student);
+        Optional<Student> previous = studentRepository.findById(student.getId());
+        Student updated = studentRepository.save(student);
+        identifierIndexService.replace(UserIdentifier.EMAIL, previous.map(Student::getEmail).orElse(null), student.getEmail());
+        identifierIndexService.replace(UserIdentifier.STUDENT_MATRICULE, previous.map(Student::getMatricule).orElse(null), student.getMatricule());
+        return updated;
     }
 
     public void deleteByID(Long aLong) throws IdDoesNotExistException {
@@ -57,16 +80,12 @@ public class StudentService {
         if (isIDNotValid(aLong)) {
             throw new IdDoesNotExistException("Aucun étudiant trouvé pour cet identifiant");
         }
+        Optional<Student> deleted = studentRepository.findById(aLong);
         studentRepository.deleteById(aLong);
-    }
-
-    public Student getOneByEmailAndPassword(String email, String password) throws EmailAndPasswordDoesNotExistException {
-        Assert.isTrue(email != null, "Le courriel ne peut pas être vide");
-        Assert.isTrue(password != null, "Le mot de passe ne peut pas être vide");
-        if (!isEmailAndPasswordValid(email, password)) {
-            throw new EmailAndPasswordDoesNotExistException("Courriel ou mot de passe invalide");
-        }
-        return studentRepository.findStudentByEmailAndPassword(email, password);
+        deleted.ifPresent(student -> {
+            identifierIndexService.remove(UserIdentifier.EMAIL, student.getEmail());
+            identifierIndexService.remove(UserIdentifier.STUDENT_MATRICULE, student.getMatricule());
+        });
     }
 
     public Student setPrincipalCurriculum(Student receivedStudent, Long idCurriculum) throws IdDoesNotExistException, CurriculumNotValidException {
@@ -105,13 +124,9 @@ public class StudentService {
         return !studentRepository.existsById(id);
     }
 
-    private boolean isEmailAndPasswordValid(String email, String password) {
-        return studentRepository.existsByEmailAndPassword(email, password);
-    }
-
     public Student getOneByEmail(String email) throws DoesNotExistException {
         Assert.notNull(email, "Le courriel est vide");
-        if (isEmailInvalid(email))
+        if (!studentRepository.existsByEmail(email))
             throw new DoesNotExistException("Le courriel n'existe pas");
         return studentRepository.getByEmail(email);
     }
@@ -123,11 +138,11 @@ public class StudentService {
     }
 
     public boolean isEmailInvalid(String email) {
-        return !studentRepository.existsByEmail(email);
+        return !identifierIndexService.exists(UserIdentifier.EMAIL, email);
     }
 
     public boolean isMatriculeValid(String matricule) {
-        return studentRepository.existsByMatricule(matricule);
+        return identifierIndexService.exists(UserIdentifier.STUDENT_MATRICULE, matricule);
     }
 
 }
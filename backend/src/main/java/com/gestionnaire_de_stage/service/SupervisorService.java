@@ -1,16 +1,20 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.enums.UserIdentifier;
 import com.gestionnaire_de_stage.exception.DoesNotExistException;
-import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.exception.SupervisorAlreadyExistsException;
 import com.gestionnaire_de_stage.model.OfferApplication;
 import com.gestionnaire_de_stage.model.Supervisor;
+import com.gestionnaire_de_stage.model.User;
 import com.gestionnaire_de_stage.repository.SupervisorRepository;
+import com.gestionnaire_de_stage.util.UniqueConstraints;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class SupervisorService {
@@ -19,23 +23,36 @@ public class SupervisorService {
 
     private final OfferApplicationService offerApplicationService;
 
+    private final IdentifierIndexService identifierIndexService;
+
     public SupervisorService(SupervisorRepository supervisorRepository,
-                             OfferApplicationService offerApplicationService) {
+                             OfferApplicationService offerApplicationService,
+                             IdentifierIndexService identifierIndexService) {
         this.supervisorRepository = supervisorRepository;
         this.offerApplicationService = offerApplicationService;
+        this.identifierIndexService = identifierIndexService;
     }
 
     public Supervisor create(Supervisor supervisor) throws SupervisorAlreadyExistsException {
         Assert.isTrue(supervisor != null, "Superviseur ne peut pas être vide");
         if (isNotValid(supervisor))
             throw new SupervisorAlreadyExistsException("Un compte existe déjà pour ce superviseur");
-        if (isMatriculeValid(supervisor.getMatricule()))
+        if (supervisorRepository.existsByMatricule(supervisor.getMatricule()))
             throw new SupervisorAlreadyExistsException("La matricule existe déjà");
-        return supervisorRepository.save(supervisor);
+        try {
+            Supervisor created = supervisorRepository.saveAndFlush(supervisor);
+            identifierIndexService.add(UserIdentifier.EMAIL, supervisor.getEmail());
+            identifierIndexService.add(UserIdentifier.SUPERVISOR_MATRICULE, supervisor.getMatricule());
+            return created;
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, User.UK_EMAIL))
+                throw new SupervisorAlreadyExistsException("Ce courriel est déjà utilisé par un autre compte");
+            throw e;
+        }
     }
 
     public boolean isMatriculeValid(String matricule) {
-        return supervisorRepository.existsByMatricule(matricule);
+        return identifierIndexService.exists(UserIdentifier.SUPERVISOR_MATRICULE, matricule);
     }
 
     public Supervisor getOneByID(Long aLong) throws IdDoesNotExistException {
@@ -53,22 +70,23 @@ public class SupervisorService {
         Assert.isTrue(supervisor != null, "Le superviseur ne peut pas être vide");
         if (isIdNotValid(supervisor.getId()))
             throw new IdDoesNotExistException("Il n'y a pas de superviseur associé à cet identifiant");
-        return supervisorRepository.save(supervisor);
+        Optional<Supervisor> previous = supervisorRepository.findById(supervisor.getId());
+        Supervisor updated = supervisorRepository.save(supervisor);
+        identifierIndexService.replace(UserIdentifier.EMAIL, previous.map(Supervisor::getEmail).orElse(null), supervisor.getEmail());
+        identifierIndexService.replace(UserIdentifier.SUPERVISOR_MATRICULE, previous.map(Supervisor::getMatricule).orElse(null), supervisor.getMatricule());
+        return updated;
     }
 
     public void deleteByID(Long aLong) throws IdDoesNotExistException {
         Assert.isTrue(aLong != null, "L'identifiant ne peut pas être vide");
         if (isIdNotValid(aLong))
             throw new IdDoesNotExistException("Il n'y a pas de superviseur associé à cet identifiant");
+        Optional<Supervisor> deleted = supervisorRepository.findById(aLong);
         supervisorRepository.deleteById(aLong);
-    }
-
-    public Supervisor getOneByEmailAndPassword(String email, String password) throws EmailAndPasswordDoesNotExistException {
-        Assert.isTrue(email != null, "Le courriel ne peut pas être vide");
-        Assert.isTrue(password != null, "Le mot de passe ne peut pas être vide");
-        if (!isEmailAndPasswordValid(email, password))
-            throw new EmailAndPasswordDoesNotExistException("Courriel ou mot de passe invalide");
-        return supervisorRepository.findSupervisorByEmailAndPassword(email, password);
+        deleted.ifPresent(supervisor -> {
+            identifierIndexService.remove(UserIdentifier.EMAIL, supervisor.getEmail());
+            identifierIndexService.remove(UserIdentifier.SUPERVISOR_MATRICULE, supervisor.getMatricule());
+        });
     }
 
     public List<OfferApplication> getStudentsStatus(Long supervisor_id) throws IdDoesNotExistException {
@@ -80,7 +98,7 @@ public class SupervisorService {
 
     public Supervisor getOneByEmail(String email) throws DoesNotExistException {
         Assert.notNull(email, "Le courriel est obligatoire");
-        if (isEmailInvalid(email))
+        if (!supervisorRepository.existsByEmail(email))
             throw new DoesNotExistException("Le courriel n'existe pas");
 
         return supervisorRepository.getByEmail(email);
@@ -95,12 +113,8 @@ public class SupervisorService {
         return !supervisorRepository.existsById(id);
     }
 
-    private boolean isEmailAndPasswordValid(String email, String password) {
-        return supervisorRepository.existsByEmailAndPassword(email, password);
-    }
-
     public boolean isEmailInvalid(String email) {
-        return !supervisorRepository.existsByEmail(email);
+        return !identifierIndexService.exists(UserIdentifier.EMAIL, email);
     }
 
     public Supervisor changePassword(Long id, String password) throws IdDoesNotExistException {
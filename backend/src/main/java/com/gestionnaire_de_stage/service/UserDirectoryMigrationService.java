@@ -0,0 +1,107 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.enums.TypeUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves the identity of the users from the table of their role, where the former TABLE_PER_CLASS mapping kept it,
+ * to the users table. The ids are kept, so the references to the users and the user_seq sequence stay valid.
+ * It runs once the schema is updated and before the application serves requests.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+@Slf4j(topic = "UserDirectoryMigrationService")
+public class UserDirectoryMigrationService {
+
+    // The managers come first, they keep their email if another role uses it too
+    private static final List<TypeUser> ROLES = List.of(TypeUser.MANAGER, TypeUser.SUPERVISOR, TypeUser.MONITOR, TypeUser.STUDENT);
+
+    private static final List<String> IDENTITY_COLUMNS = List.of("email", "first_name", "last_name", "password", "phone");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+
+    public UserDirectoryMigrationService(DataSource dataSource,
+                                         @Value("${user.directory.migration.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void migrateAll() {
+        if (!enabled)
+            return;
+        // A failure stops the startup, the users left behind could not sign in
+        for (TypeUser role : ROLES) {
+            int moved = migrate(role);
+            if (moved > 0)
+                log.info("Moved {} users of {} to the users table", moved, role.name());
+        }
+    }
+
+    public int migrate(TypeUser role) {
+        Assert.notNull(role, "Le type d'utilisateur ne peut pas être vide");
+        String table = role.name().toLowerCase(Locale.ROOT);
+        if (!hasLegacyColumns(table))
+            return 0;
+
+        String columns = String.join(", ", IDENTITY_COLUMNS);
+        int moved = jdbcTemplate.update("INSERT INTO users (id, role, " + columns + ") " +
+                "SELECT t.id, ?, t." + String.join(", t.", IDENTITY_COLUMNS) + " FROM " + table + " t " +
+                "WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = t.id OR u.email = t.email)", role.name());
+
+        // The emails are now unique across the roles, a user whose email is taken by another role gets it suffixed with its id
+        List<Map.Entry<Long, String>> conflicts = jdbcTemplate.query("SELECT t.id, t.email FROM " + table + " t " +
+                        "WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = t.id)",
+                (resultSet, row) -> Map.entry(resultSet.getLong(1), resultSet.getString(2)));
+        List<String> otherColumns = IDENTITY_COLUMNS.stream().filter(column -> !column.equals("email")).collect(Collectors.toList());
+        for (Map.Entry<Long, String> conflict : conflicts) {
+            String renamed = rename(conflict.getValue(), conflict.getKey());
+            try {
+                moved += jdbcTemplate.update("INSERT INTO users (id, role, email, " + String.join(", ", otherColumns) + ") " +
+                        "SELECT t.id, ?, ?, t." + String.join(", t.", otherColumns) + " FROM " + table + " t WHERE t.id = ?",
+                        role.name(), renamed, conflict.getKey());
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalStateException("Le courriel de l'utilisateur " + conflict.getKey() + " est déjà utilisé, " +
+                        "même une fois renommé en " + renamed, e);
+            }
+            log.warn("The email of user {} of {} is used by another user, it is now {}", conflict.getKey(), role.name(), renamed);
+        }
+        for (String column : IDENTITY_COLUMNS)
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN " + column);
+        return moved;
+    }
+
+    // local+id@domain, the same on every instance and every run
+    static String rename(String email, Long id) {
+        int at = email.lastIndexOf('@');
+        if (at < 0)
+            return email + "+" + id;
+        return email.substring(0, at) + "+" + id + email.substring(at);
+    }
+
+    public boolean hasLegacyColumns(String table) {
+        try {
+            jdbcTemplate.queryForList("SELECT email FROM " + table + " WHERE 1 = 0");
+            return true;
+        } catch (DataAccessException e) {
+            log.debug("No legacy identity columns on {}", table);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
+import com.gestionnaire_de_stage.model.User;
+import com.gestionnaire_de_stage.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+@Service
+public class UserService {
+
+    private final UserRepository userRepository;
+
+    public UserService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // One lookup on the indexed email of the user directory, whatever the role
+    public User getOneByEmailAndPassword(String email, String password) throws EmailAndPasswordDoesNotExistException {
+        Assert.notNull(email, "Le courriel ne peut pas être vide");
+        Assert.notNull(password, "Le mot de passe ne peut pas être vide");
+        User user = userRepository.findByEmailAndPassword(email, password);
+        if (user == null)
+            throw new EmailAndPasswordDoesNotExistException("Courriel ou mot de passe invalide");
+        return user;
+    }
+}
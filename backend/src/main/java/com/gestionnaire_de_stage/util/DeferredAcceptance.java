@@ -0,0 +1,117 @@
+package com.gestionnaire_de_stage.util;
+
+import java.util.Arrays;
+
+/**
+ * Stable matching of students to offers with several places, the students proposing (Gale-Shapley).
+ * The candidate pairs are given as parallel arrays, a lower rank is preferred and equal ranks are
+ * broken by the index of the pair. No student and offer both prefer each other to what they get,
+ * and every student gets the best offer they can have in such a matching.
+ */
+public final class DeferredAcceptance {
+
+    private DeferredAcceptance() {
+    }
+
+    /**
+     * @return for each student, the index of the pair they are placed with or -1
+     */
+    public static int[] match(int students, int[] capacities, int[] pairStudents, int[] pairOffers, int[] studentRanks, int[] offerRanks) {
+        int pairs = pairStudents.length;
+        if (pairOffers.length != pairs || studentRanks.length != pairs || offerRanks.length != pairs)
+            throw new IllegalArgumentException("Les paires doivent avoir la même taille");
+
+        // The pairs of each student, from the offer they prefer: rank and pair packed in a long, sorted in place
+        int[] studentStarts = new int[students + 1];
+        for (int pair = 0; pair < pairs; pair++)
+            studentStarts[pairStudents[pair] + 1]++;
+        for (int student = 0; student < students; student++)
+            studentStarts[student + 1] += studentStarts[student];
+        long[] proposals = new long[pairs];
+        int[] filled = Arrays.copyOf(studentStarts, students);
+        for (int pair = 0; pair < pairs; pair++)
+            proposals[filled[pairStudents[pair]]++] = key(studentRanks[pair], pair);
+        for (int student = 0; student < students; student++)
+            Arrays.sort(proposals, studentStarts[student], studentStarts[student + 1]);
+
+        // Each offer holds at most its places, in a heap with the student it prefers the least on top
+        int[] candidates = new int[capacities.length];
+        for (int pair = 0; pair < pairs; pair++)
+            candidates[pairOffers[pair]]++;
+        int[] heapStarts = new int[capacities.length + 1];
+        for (int offer = 0; offer < capacities.length; offer++)
+            heapStarts[offer + 1] = heapStarts[offer] + Math.max(0, Math.min(capacities[offer], candidates[offer]));
+        long[] heaps = new long[heapStarts[capacities.length]];
+        int[] heapSizes = new int[capacities.length];
+
+        int[] next = Arrays.copyOf(studentStarts, students);
+        int[] free = new int[students];
+        int freeCount = 0;
+        for (int student = students - 1; student >= 0; student--)
+            free[freeCount++] = student;
+
+        while (freeCount > 0) {
+            int student = free[--freeCount];
+            if (next[student] == studentStarts[student + 1])
+                continue;
+            int pair = (int) proposals[next[student]++];
+            int offer = pairOffers[pair];
+            long proposal = key(offerRanks[pair], pair);
+            int start = heapStarts[offer];
+            int places = heapStarts[offer + 1] - start;
+            if (heapSizes[offer] < places) {
+                push(heaps, start, heapSizes[offer]++, proposal);
+            } else if (places > 0 && proposal < heaps[start]) {
+                // The least preferred student held is released and proposes to their next offer
+                free[freeCount++] = pairStudents[(int) heaps[start]];
+                heaps[start] = proposal;
+                siftDown(heaps, start, heapSizes[offer], 0);
+            } else {
+                free[freeCount++] = student;
+            }
+        }
+
+        int[] matched = new int[students];
+        Arrays.fill(matched, -1);
+        for (int offer = 0; offer < capacities.length; offer++)
+            for (int i = heapStarts[offer]; i < heapStarts[offer] + heapSizes[offer]; i++)
+                matched[pairStudents[(int) heaps[i]]] = (int) heaps[i];
+        return matched;
+    }
+
+    private static long key(int rank, int pair) {
+        return (long) rank << 32 | pair;
+    }
+
+    private static void push(long[] heap, int start, int size, long value) {
+        int i = size;
+        heap[start + i] = value;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[start + parent] >= heap[start + i])
+                return;
+            swap(heap, start + parent, start + i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int start, int size, int i) {
+        while (true) {
+            int largest = i, left = 2 * i + 1, right = left + 1;
+            if (left < size && heap[start + left] > heap[start + largest])
+                largest = left;
+            if (right < size && heap[start + right] > heap[start + largest])
+                largest = right;
+            if (largest == i)
+                return;
+            swap(heap, start + i, start + largest);
+            i = largest;
+        }
+    }
+
+    private static void swap(long[] heap, int i, int j) {
+        long value = heap[i];
+        heap[i] = heap[j];
+        heap[j] = value;
+    }
+}
@@ -0,0 +1,148 @@
+package com.gestionnaire_de_stage.util;
+
+import java.util.Collection;
+
+/**
+ * Set of identifiers such as emails and matricules, kept as 64-bit fingerprints.
+ * A Bloom filter in front answers most absent identifiers with a few bit reads; the fingerprints,
+ * in an open addressing table, answer the others and allow removals, which the Bloom filter cannot do.
+ * Two identifiers sharing a fingerprint are taken for one another, a chance of about n / 2^64.
+ */
+public class IdentifierFilter {
+
+    private static final int BITS_PER_IDENTIFIER = 10;
+
+    private static final int HASHES = 7;
+
+    private static final long EMPTY = 0L;
+
+    private final long[] bloom;
+
+    private final long bloomBits;
+
+    private long[] fingerprints;
+
+    private int size;
+
+    public IdentifierFilter(int expectedSize) {
+        long bits = Math.max(1024L, (long) Math.max(expectedSize, 0) * BITS_PER_IDENTIFIER);
+        this.bloom = new long[(int) ((bits + 63) >>> 6)];
+        this.bloomBits = (long) bloom.length << 6;
+        this.fingerprints = new long[tableCapacity(expectedSize)];
+    }
+
+    public static IdentifierFilter of(Collection<String> identifiers) {
+        IdentifierFilter filter = new IdentifierFilter(identifiers.size());
+        identifiers.forEach(filter::add);
+        return filter;
+    }
+
+    public synchronized void add(String identifier) {
+        if (identifier == null)
+            return;
+        long fingerprint = fingerprint(identifier);
+        long h2 = (fingerprint >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(fingerprint + i * h2, bloomBits);
+            bloom[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        if (slot(fingerprint) >= 0)
+            return;
+        if ((size + 1) * 2 > fingerprints.length)
+            resize(fingerprints.length * 2);
+        fingerprints[-slot(fingerprint) - 1] = fingerprint;
+        size++;
+    }
+
+    public synchronized void remove(String identifier) {
+        if (identifier == null)
+            return;
+        int slot = slot(fingerprint(identifier));
+        if (slot < 0)
+            return;
+        // Backward shift deletion, the entries after the slot must stay reachable from their home slot
+        int mask = fingerprints.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; fingerprints[next] != EMPTY; next = (next + 1) & mask) {
+            int home = home(fingerprints[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                fingerprints[hole] = fingerprints[next];
+                hole = next;
+            }
+        }
+        fingerprints[hole] = EMPTY;
+        size--;
+    }
+
+    public synchronized boolean contains(String identifier) {
+        if (identifier == null)
+            return false;
+        long fingerprint = fingerprint(identifier);
+        if (!mightContain(fingerprint))
+            return false;
+        return slot(fingerprint) >= 0;
+    }
+
+    public synchronized boolean mightContain(String identifier) {
+        return identifier != null && mightContain(fingerprint(identifier));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private boolean mightContain(long fingerprint) {
+        long h2 = (fingerprint >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(fingerprint + i * h2, bloomBits);
+            if ((bloom[(int) (bit >>> 6)] & 1L << bit) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    // The slot holding the fingerprint, or -(the empty slot where it would go) - 1
+    private int slot(long fingerprint) {
+        int mask = fingerprints.length - 1;
+        for (int i = home(fingerprint); ; i = (i + 1) & mask) {
+            if (fingerprints[i] == fingerprint)
+                return i;
+            if (fingerprints[i] == EMPTY)
+                return -i - 1;
+        }
+    }
+
+    private int home(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & (fingerprints.length - 1);
+    }
+
+    private void resize(int capacity) {
+        long[] previous = fingerprints;
+        fingerprints = new long[capacity];
+        for (long fingerprint : previous)
+            if (fingerprint != EMPTY)
+                fingerprints[-slot(fingerprint) - 1] = fingerprint;
+    }
+
+    private static int tableCapacity(int expectedSize) {
+        int capacity = 16;
+        while (capacity < (long) Math.max(expectedSize, 0) * 2)
+            capacity <<= 1;
+        return capacity;
+    }
+
+    // FNV-1a over the characters, then the finalizer of MurmurHash3 to spread the bits
+    private static long fingerprint(String identifier) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < identifier.length(); i++) {
+            hash ^= identifier.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe1a85b53L;
+        hash ^= hash >>> 33;
+        return hash == EMPTY ? 1L : hash;
+    }
+}
@@ -0,0 +1,174 @@
+package com.gestionnaire_de_stage.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Terms analyzed by TextAnalyzer, mapped to the documents holding them with their frequency.
+ * A search returns the documents holding every term of the query, scored with BM25.
+ * The postings point to the documents themselves, a match needs no lookup by id.
+ */
+public class InvertedIndex<D> {
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    public static class Match<D> {
+        private final D document;
+        private final double score;
+
+        public Match(D document, double score) {
+            this.document = document;
+            this.score = score;
+        }
+
+        public D getDocument() {
+            return document;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    private static class Entry<D> {
+        private final D document;
+        private final Set<String> terms;
+        private final int length;
+
+        private Entry(D document, Set<String> terms, int length) {
+            this.document = document;
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    private static class Posting<D> {
+        private final Entry<D> entry;
+        private final int frequency;
+
+        private Posting(Entry<D> entry, int frequency) {
+            this.entry = entry;
+            this.frequency = frequency;
+        }
+    }
+
+    private final Map<String, Map<Long, Posting<D>>> postings = new HashMap<>();
+
+    private final Map<Long, Entry<D>> entries = new HashMap<>();
+
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Long id, D document, List<String> terms) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        Entry<D> entry = new Entry<>(document, frequencies.keySet(), terms.size());
+
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, new Posting<>(entry, frequency)));
+            entries.put(id, entry);
+            totalLength += entry.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public D get(Long id) {
+        lock.readLock().lock();
+        try {
+            Entry<D> entry = entries.get(id);
+            return entry == null ? null : entry.document;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<D> documents() {
+        lock.readLock().lock();
+        try {
+            List<D> documents = new ArrayList<>(entries.size());
+            entries.values().forEach(entry -> documents.add(entry.document));
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Match<D>> search(List<String> terms) {
+        Set<String> distinctTerms = new LinkedHashSet<>(terms);
+        List<Match<D>> matches = new ArrayList<>();
+        if (distinctTerms.isEmpty())
+            return matches;
+
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Posting<D>>> termPostings = new ArrayList<>();
+            for (String term : distinctTerms) {
+                Map<Long, Posting<D>> documents = postings.get(term);
+                if (documents == null)
+                    return matches;
+                termPostings.add(documents);
+            }
+            // The rarest term drives the intersection, the others are only looked up
+            termPostings.sort(Comparator.comparingInt(Map::size));
+            double[] idfs = termPostings.stream().mapToDouble(documents -> idf(documents.size())).toArray();
+            double averageLength = (double) totalLength / entries.size();
+            for (Map.Entry<Long, Posting<D>> first : termPostings.get(0).entrySet()) {
+                Entry<D> entry = first.getValue().entry;
+                double norm = K1 * (1 - B + B * entry.length / averageLength);
+                double score = 0;
+                int i = 0;
+                for (Posting<D> posting = first.getValue(); posting != null;
+                     posting = ++i < idfs.length ? termPostings.get(i).get(first.getKey()) : null)
+                    score += idfs[i] * posting.frequency * (K1 + 1) / (posting.frequency + norm);
+                if (i == idfs.length)
+                    matches.add(new Match<>(entry.document, score));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (entries.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private void removeEntry(Long id) {
+        Entry<D> entry = entries.remove(id);
+        if (entry == null)
+            return;
+        for (String term : entry.terms) {
+            Map<Long, Posting<D>> documents = postings.get(term);
+            documents.remove(id);
+            if (documents.isEmpty())
+                postings.remove(term);
+        }
+        totalLength -= entry.length;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gestionnaire_de_stage.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.*;
+
+/**
+ * Streams a blob column without loading it in memory. The connection stays open until the returned stream
+ * is closed.
+ */
+@Slf4j(topic = "JdbcBlobReader")
+public final class JdbcBlobReader {
+
+    private final DataSource dataSource;
+
+    public JdbcBlobReader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    // Null when there is no row or the column is empty
+    public InputStream open(String sql, Object key) throws IOException {
+        return open(sql, key, 0, Long.MAX_VALUE);
+    }
+
+    public InputStream open(String sql, Object key, long position, long count) throws IOException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = connection.prepareStatement(sql);
+            statement.setObject(1, key);
+            resultSet = statement.executeQuery();
+            Blob blob = resultSet.next() ? resultSet.getBlob(1) : null;
+            if (blob == null) {
+                release(resultSet, statement, connection);
+                return null;
+            }
+            long length = Math.min(count, blob.length() - position);
+            if (length <= 0) {
+                blob.free();
+                release(resultSet, statement, connection);
+                return new ByteArrayInputStream(new byte[0]);
+            }
+            InputStream content = position == 0 && length == blob.length()
+                    ? blob.getBinaryStream()
+                    : blob.getBinaryStream(position + 1, length);
+            return new BlobInputStream(content, blob, resultSet, statement, connection);
+        } catch (SQLException | RuntimeException e) {
+            release(resultSet, statement, connection);
+            throw new IOException("Impossible de lire le document", e);
+        }
+    }
+
+    private void release(ResultSet resultSet, Statement statement, Connection connection) {
+        JdbcUtils.closeResultSet(resultSet);
+        JdbcUtils.closeStatement(statement);
+        DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+
+    private class BlobInputStream extends FilterInputStream {
+        private final Blob blob;
+        private final ResultSet resultSet;
+        private final Statement statement;
+        private final Connection connection;
+
+        private BlobInputStream(InputStream content, Blob blob, ResultSet resultSet, Statement statement, Connection connection) {
+            super(content);
+            this.blob = blob;
+            this.resultSet = resultSet;
+            this.statement = statement;
+            this.connection = connection;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+                blob.free();
+            } catch (SQLException e) {
+                log.debug("Could not free blob", e);
+            } finally {
+                release(resultSet, statement, connection);
+            }
+        }
+    }
+}
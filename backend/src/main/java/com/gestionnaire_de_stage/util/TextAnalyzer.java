@@ -0,0 +1,74 @@
+package com.gestionnaire_de_stage.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "au", "aux", "avec", "ce", "ces", "dans", "de", "des", "du", "elle", "en", "et", "eux", "il", "je",
+            "la", "le", "les", "leur", "lui", "ma", "mais", "me", "meme", "mes", "moi", "mon", "ne", "nos", "notre",
+            "nous", "on", "ou", "par", "pas", "pour", "qu", "que", "qui", "sa", "se", "ses", "son", "sur", "ta",
+            "te", "tes", "toi", "ton", "tu", "un", "une", "vos", "votre", "vous", "est", "sont", "etre", "avoir",
+            "a", "y", "c", "d", "j", "l", "m", "n", "s", "t");
+
+    private TextAnalyzer() {
+    }
+
+    public static String fold(String text) {
+        return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Folds the accents and the case, splits on anything but letters and digits (the elisions of l', d' and qu'
+     * included), drops the French stop words and reduces what is left with a minimal French stemmer.
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null)
+            return terms;
+        for (String token : SEPARATORS.split(fold(text))) {
+            String term = foldedTerm(token);
+            if (term != null)
+                terms.add(term);
+        }
+        return terms;
+    }
+
+    /**
+     * The term a single word of the text is indexed under, null for a stop word.
+     */
+    public static String term(String word) {
+        return foldedTerm(fold(word));
+    }
+
+    private static String foldedTerm(String token) {
+        if (token.isEmpty() || STOP_WORDS.contains(token))
+            return null;
+        return stem(token);
+    }
+
+    // Plural and feminine endings only, after Savoy's minimal French stemmer
+    private static String stem(String token) {
+        int length = token.length();
+        if (length > 4 && token.endsWith("aux") && !token.endsWith("eaux"))
+            return token.substring(0, length - 3) + "al";
+        if (length > 3 && token.endsWith("x"))
+            return token.substring(0, length - 1);
+        if (length > 3 && token.endsWith("s"))
+            length--;
+        if (length > 4 && token.charAt(length - 1) == 'e')
+            length--;
+        if (length > 4 && token.charAt(length - 1) == token.charAt(length - 2) && Character.isLetter(token.charAt(length - 1)))
+            length--;
+        return token.substring(0, length);
+    }
+}
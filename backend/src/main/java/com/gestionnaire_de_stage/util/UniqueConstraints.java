@@ -0,0 +1,22 @@
+package com.gestionnaire_de_stage.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+
+public final class UniqueConstraints {
+
+    private UniqueConstraints() {
+    }
+
+    // The name reported by the database, qualified by the table or the index on H2 and MySQL, contains the one declared
+    public static boolean isViolated(Throwable exception, String constraintName) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                String violated = ((ConstraintViolationException) cause).getConstraintName();
+                return violated != null && violated.toLowerCase(Locale.ROOT).contains(constraintName.toLowerCase(Locale.ROOT));
+            }
+        }
+        return false;
+    }
+}
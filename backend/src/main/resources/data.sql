@@ -1,6 +1,8 @@
 # delete from manager;
+# delete from users where role = 'MANAGER';
 # delete from sessions;
 
 
 # INSERT INTO sessions VALUES (1, 'HIVER', 2022);
-# INSERT INTO manager VALUES (1, 'admin@jisos.com', 'Richard', 'Gautier', 'adminadmin', '5141234567');
+# INSERT INTO users (id, role, email, first_name, last_name, password, phone) VALUES (1, 'MANAGER', 'admin@jisos.com', 'Richard', 'Gautier', 'adminadmin', '5141234567');
+# INSERT INTO manager (id) VALUES (1);
@@ -0,0 +1,125 @@
+package com.gestionnaire_de_stage.aspect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.service.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IdempotentAspectTest {
+
+    public static class ApplyController {
+        private final AtomicInteger runs = new AtomicInteger();
+
+        @Idempotent
+        public ResponseEntity<?> apply(Long idOffer) {
+            return ResponseEntity.status(201).body(new ResponseMessage("Candidature " + runs.incrementAndGet()));
+        }
+
+        public int getRuns() {
+            return runs.get();
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @Import(IdempotentAspect.class)
+    static class ApplyConfiguration {
+        @Bean
+        public JdbcTemplate jdbcTemplate() {
+            return new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:idempotent;DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+
+        @Bean
+        public IdempotencyService idempotencyService(JdbcTemplate jdbcTemplate) {
+            return new IdempotencyService(jdbcTemplate, new ObjectMapper(), Clock.systemUTC(), Duration.ofMinutes(10), Duration.ofSeconds(5));
+        }
+
+        @Bean
+        public ApplyController applyController() {
+            return new ApplyController();
+        }
+    }
+
+    private AnnotationConfigApplicationContext context;
+
+    private ApplyController controller;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    @BeforeEach
+    void init() {
+        context = new AnnotationConfigApplicationContext(ApplyConfiguration.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS idempotency_key (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "scope VARCHAR(128) NOT NULL, idempotency_key VARCHAR(128) NOT NULL, fingerprint INT NOT NULL, " +
+                "expires_at TIMESTAMP NOT NULL, status INT, body BLOB, UNIQUE (scope, idempotency_key))");
+        jdbcTemplate.execute("DELETE FROM idempotency_key");
+        controller = context.getBean(ApplyController.class);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void close() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+    @Test
+    public void testWithoutKey() {
+        controller.apply(1L);
+        controller.apply(1L);
+
+        assertThat(controller.getRuns()).isEqualTo(2);
+    }
+
+    @Test
+    public void testWithSameKey() {
+        request.addHeader(IdempotentAspect.HEADER, "4a7f0c2e");
+
+        ResponseEntity<?> first = controller.apply(1L);
+        ResponseEntity<?> second = controller.apply(1L);
+
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(controller.getRuns()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWithSameKeyAndOtherBody() {
+        request.addHeader(IdempotentAspect.HEADER, "4a7f0c2e");
+
+        controller.apply(1L);
+        ResponseEntity<?> response = controller.apply(2L);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(400);
+        assertThat(controller.getRuns()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWithInvalidKey() {
+        request.addHeader(IdempotentAspect.HEADER, "x".repeat(129));
+
+        ResponseEntity<?> response = controller.apply(1L);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(400);
+        assertThat(controller.getRuns()).isZero();
+    }
+}
@@ -0,0 +1,177 @@
+package com.gestionnaire_de_stage.aspect;
+
+import com.gestionnaire_de_stage.service.LeaseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LeaderLeaseAspectTest {
+
+    private static final String URL = "jdbc:h2:mem:lease;DB_CLOSE_DELAY=-1";
+
+    private static final MovableClock CLOCK = new MovableClock();
+
+    static class MovableClock extends Clock {
+        private volatile Instant instant = Instant.parse("2021-11-20T15:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    public static class CountingJob {
+        private final AtomicInteger runs = new AtomicInteger();
+
+        @LeaderLease(name = "counting", leaseFor = "${counting.lease:30s}")
+        public void run() {
+            runs.incrementAndGet();
+        }
+
+        @LeaderLease(leaseFor = "PT1M")
+        public void unnamed() {
+            runs.incrementAndGet();
+        }
+
+        public int getRuns() {
+            return runs.get();
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @Import({LeaseService.class, LeaderLeaseAspect.class})
+    static class NodeConfiguration {
+        @Bean
+        public DataSource dataSource() {
+            return new DriverManagerDataSource(URL, "sa", "");
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        public Clock clock() {
+            return CLOCK;
+        }
+
+        @Bean
+        public CountingJob countingJob() {
+            return new CountingJob();
+        }
+    }
+
+    private AnnotationConfigApplicationContext first;
+
+    private AnnotationConfigApplicationContext second;
+
+    @BeforeEach
+    void init() {
+        first = new AnnotationConfigApplicationContext(NodeConfiguration.class);
+        second = new AnnotationConfigApplicationContext(NodeConfiguration.class);
+        JdbcTemplate jdbcTemplate = first.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS job_lease (name VARCHAR(128) PRIMARY KEY, " +
+                "owner VARCHAR(64) NOT NULL, expires_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("DELETE FROM job_lease");
+    }
+
+    @AfterEach
+    void close() {
+        first.close();
+        second.close();
+    }
+
+    @Test
+    public void testOnlyOneNodeRunsTheJob() {
+        for (int i = 0; i < 5; i++) {
+            first.getBean(CountingJob.class).run();
+            second.getBean(CountingJob.class).run();
+            CLOCK.instant = CLOCK.instant.plusSeconds(5);
+        }
+
+        assertThat(first.getBean(CountingJob.class).getRuns()).isEqualTo(5);
+        assertThat(second.getBean(CountingJob.class).getRuns()).isEqualTo(0);
+    }
+
+    @Test
+    public void testLeaseIsTakenOverOnceExpired() {
+        first.getBean(CountingJob.class).run();
+        CLOCK.instant = CLOCK.instant.plusSeconds(31);
+
+        second.getBean(CountingJob.class).run();
+        first.getBean(CountingJob.class).run();
+
+        assertThat(first.getBean(CountingJob.class).getRuns()).isEqualTo(1);
+        assertThat(second.getBean(CountingJob.class).getRuns()).isEqualTo(1);
+    }
+
+    @Test
+    public void testReleasedLeaseIsFree() {
+        first.getBean(CountingJob.class).run();
+        first.getBean(LeaseService.class).release("counting");
+
+        second.getBean(CountingJob.class).run();
+
+        assertThat(second.getBean(CountingJob.class).getRuns()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDefaultNameIsClassAndMethod() {
+        first.getBean(CountingJob.class).unnamed();
+
+        String owner = first.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT owner FROM job_lease WHERE name = 'CountingJob.unnamed'", String.class);
+        assertThat(owner).isEqualTo(first.getBean(LeaseService.class).getOwner());
+    }
+
+    @Test
+    public void testRacingNodesGetOneLeaseEach() throws Exception {
+        LeaseService firstLeases = first.getBean(LeaseService.class);
+        LeaseService secondLeases = second.getBean(LeaseService.class);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 20; i++) {
+                String name = "race-" + i;
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (LeaseService leases : List.of(firstLeases, secondLeases))
+                    results.add(executor.submit(() -> {
+                        barrier.await();
+                        return leases.tryAcquire(name, Duration.ofSeconds(30));
+                    }));
+
+                assertThat(results.get(0).get() ^ results.get(1).get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.gestionnaire_de_stage.aspect;
+
+import com.gestionnaire_de_stage.config.JwtAuthenticationFilter;
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
+import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.enums.TypeUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequiresRoleAspectTest {
+
+    public static class StatsController {
+        private final AtomicInteger runs = new AtomicInteger();
+
+        @RequiresRole(TypeUser.MANAGER)
+        public ResponseEntity<?> getStats() {
+            runs.incrementAndGet();
+            return ResponseEntity.ok(new ResponseMessage("Statistiques"));
+        }
+
+        @RequiresRole(value = {TypeUser.STUDENT, TypeUser.MANAGER}, selfId = "studentId")
+        public ResponseEntity<?> getContracts() {
+            runs.incrementAndGet();
+            return ResponseEntity.ok(new ResponseMessage("Contrats"));
+        }
+
+        @RequiresRole(value = TypeUser.MONITOR, selfEmail = "email")
+        public ResponseEntity<?> getApplicants() {
+            runs.incrementAndGet();
+            return ResponseEntity.ok(new ResponseMessage("Candidats"));
+        }
+
+        @RequiresRole(TypeUser.MANAGER)
+        public SseEmitter stream() {
+            runs.incrementAndGet();
+            return new SseEmitter();
+        }
+
+        public int getRuns() {
+            return runs.get();
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @Import(RequiresRoleAspect.class)
+    static class StatsConfiguration {
+        @Bean
+        public StatsController statsController() {
+            return new StatsController();
+        }
+    }
+
+    private AnnotationConfigApplicationContext context;
+
+    private StatsController controller;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    @BeforeEach
+    void init() {
+        context = new AnnotationConfigApplicationContext(StatsConfiguration.class);
+        controller = context.getBean(StatsController.class);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void close() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+    @Test
+    public void testWithRole() {
+        request.setAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER, new AuthenticatedUserDTO(1L, TypeUser.MANAGER, "oussama@cegep.qc.ca"));
+
+        ResponseEntity<?> response = controller.getStats();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(controller.getRuns()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWithOtherRole() {
+        request.setAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER, new AuthenticatedUserDTO(6L, TypeUser.STUDENT, "tea@outlook.com"));
+
+        ResponseEntity<?> response = controller.getStats();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.getRuns()).isZero();
+    }
+
+    @Test
+    public void testWithExpiredToken() {
+        request.setAttribute(JwtAuthenticationFilter.INVALID_TOKEN, "Le jeton d'authentification est invalide ou expiré");
+
+        ResponseEntity<?> response = controller.getStats();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(((ResponseMessage) response.getBody()).getMessage()).isEqualTo("Le jeton d'authentification est invalide ou expiré");
+        assertThat(controller.getRuns()).isZero();
+    }
+
+    @Test
+    public void testWithoutUser() {
+        ResponseEntity<?> response = controller.getStats();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(controller.getRuns()).isZero();
+    }
+
+    @Test
+    public void testSelfId() {
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("studentId", "6"));
+        request.setAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER, new AuthenticatedUserDTO(6L, TypeUser.STUDENT, "tea@outlook.com"));
+
+        assertThat(controller.getContracts().getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("studentId", "7"));
+
+        assertThat(controller.getContracts().getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.getRuns()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSelfId_inParameter() {
+        request.addParameter("studentId", "7");
+        request.setAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER, new AuthenticatedUserDTO(6L, TypeUser.STUDENT, "tea@outlook.com"));
+
+        assertThat(controller.getContracts().getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.getRuns()).isZero();
+    }
+
+    @Test
+    public void testSelfId_asManager() {
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("studentId", "7"));
+        request.setAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER, new AuthenticatedUserDTO(1L, TypeUser.MANAGER, "oussama@cegep.qc.ca"));
+
+        assertThat(controller.getContracts().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    public void testSelfEmail() {
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("email", "Jean@Desjardins.com"));
+        request.setAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER, new AuthenticatedUserDTO(8L, TypeUser.MONITOR, "jean@desjardins.com"));
+
+        assertThat(controller.getApplicants().getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("email", "autre@desjardins.com"));
+
+        assertThat(controller.getApplicants().getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    public void testWithoutUser_onStream() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> controller.stream());
+
+        assertThat(exception.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(controller.getRuns()).isZero();
+    }
+}
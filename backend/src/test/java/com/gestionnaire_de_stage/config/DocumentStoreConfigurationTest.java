@@ -0,0 +1,45 @@
+package com.gestionnaire_de_stage.config;
+
+import com.gestionnaire_de_stage.service.DatabaseDocumentStore;
+import com.gestionnaire_de_stage.service.DocumentStore;
+import com.gestionnaire_de_stage.service.LocalDocumentStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DocumentStoreConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(DataSource.class, () -> new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .build())
+            .withUserConfiguration(DocumentStoreConfiguration.class);
+
+    @Test
+    public void testDocumentStore_default() {
+        contextRunner.run(context ->
+                assertThat(context).getBean(DocumentStore.class).isInstanceOf(DatabaseDocumentStore.class));
+    }
+
+    @Test
+    public void testDocumentStore_withSharedRoot() {
+        contextRunner
+                .withPropertyValues("document.store.type=local", "document.store.shared=true")
+                .run(context -> assertThat(context).getBean(DocumentStore.class).isInstanceOf(LocalDocumentStore.class));
+    }
+
+    @Test
+    public void testDocumentStore_withUnsharedRoot() {
+        contextRunner
+                .withPropertyValues("document.store.type=local")
+                .run(context -> assertThat(context).getFailure()
+                        .hasRootCauseInstanceOf(IllegalArgumentException.class)
+                        .hasStackTraceContaining("document.store.shared=true"));
+    }
+}
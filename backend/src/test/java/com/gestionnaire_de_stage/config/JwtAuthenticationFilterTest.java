@@ -0,0 +1,111 @@
+package com.gestionnaire_de_stage.config;
+
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
+import com.gestionnaire_de_stage.enums.TypeUser;
+import com.gestionnaire_de_stage.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtAuthenticationFilterTest {
+
+    private final JwtService jwtService = new JwtService(Clock.systemUTC(), "une-cle-de-signature-de-test-assez-longue", Duration.ofHours(8), Duration.ofMinutes(1));
+
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService);
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private final MockFilterChain chain = new MockFilterChain();
+
+    @Test
+    public void testWithValidToken() throws Exception {
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.issue(1L, TypeUser.MANAGER, "oussama@cegep.qc.ca"));
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(request.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER))
+                .isEqualTo(new AuthenticatedUserDTO(1L, TypeUser.MANAGER, "oussama@cegep.qc.ca"));
+    }
+
+    @Test
+    public void testWithoutToken() throws Exception {
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(request.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER)).isNull();
+    }
+
+    @Test
+    public void testWithStreamTicketInParameter() throws Exception {
+        AuthenticatedUserDTO user = new AuthenticatedUserDTO(1L, TypeUser.MANAGER, "oussama@cegep.qc.ca");
+        request.setRequestURI("/notification/all/1");
+        request.addParameter("access_token", jwtService.issueStreamTicket(user));
+
+        filter.doFilter(request, response, chain);
+        assertThat(request.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER)).isNull();
+
+        MockHttpServletRequest streamRequest = new MockHttpServletRequest();
+        streamRequest.setRequestURI("/notification/stream/1");
+        streamRequest.addParameter("access_token", jwtService.issueStreamTicket(user));
+
+        filter.doFilter(streamRequest, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(streamRequest.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER)).isEqualTo(user);
+    }
+
+    @Test
+    public void testWithBearerTokenInParameter() throws Exception {
+        request.setRequestURI("/notification/stream/1");
+        request.addParameter("access_token", jwtService.issue(1L, TypeUser.MANAGER, "oussama@cegep.qc.ca"));
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(request.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER)).isNull();
+        assertThat(request.getAttribute(JwtAuthenticationFilter.INVALID_TOKEN)).isNotNull();
+    }
+
+    @Test
+    public void testWithStreamTicketAsBearer() throws Exception {
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.issueStreamTicket(new AuthenticatedUserDTO(1L, TypeUser.MANAGER, "oussama@cegep.qc.ca")));
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(request.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER)).isNull();
+    }
+
+    @Test
+    public void testWithInvalidToken() throws Exception {
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer pas.un.jeton");
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(request.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER)).isNull();
+        assertThat(request.getAttribute(JwtAuthenticationFilter.INVALID_TOKEN)).isEqualTo("Le jeton d'authentification est invalide ou expiré");
+    }
+
+    @Test
+    public void testWithExpiredToken() throws Exception {
+        JwtService yesterday = new JwtService(Clock.fixed(Instant.now().minus(Duration.ofDays(1)), ZoneOffset.UTC),
+                "une-cle-de-signature-de-test-assez-longue", Duration.ofHours(8), Duration.ofMinutes(1));
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + yesterday.issue(1L, TypeUser.MANAGER, "oussama@cegep.qc.ca"));
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(request.getAttribute(JwtAuthenticationFilter.AUTHENTICATED_USER)).isNull();
+        assertThat(request.getAttribute(JwtAuthenticationFilter.INVALID_TOKEN)).isNotNull();
+    }
+}
@@ -0,0 +1,116 @@
+package com.gestionnaire_de_stage.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestionnaire_de_stage.dto.LoginDTO;
+import com.gestionnaire_de_stage.enums.TypeUser;
+import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
+import com.gestionnaire_de_stage.model.Manager;
+import com.gestionnaire_de_stage.model.Student;
+import com.gestionnaire_de_stage.service.JwtService;
+import com.gestionnaire_de_stage.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(AuthController.class)
+public class AuthControllerTest {
+
+    private final ObjectMapper MAPPER = new ObjectMapper();
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private UserService userService;
+    @MockBean
+    private JwtService jwtService;
+
+    @Test
+    public void testLogin_student() throws Exception {
+        Student dummyStudent = getDummyStudent();
+        when(userService.getOneByEmailAndPassword(dummyStudent.getEmail(), dummyStudent.getPassword())).thenReturn(dummyStudent);
+        when(jwtService.issue(dummyStudent.getId(), TypeUser.STUDENT, dummyStudent.getEmail())).thenReturn("jeton");
+
+        MockHttpServletResponse response = login(new LoginDTO(dummyStudent.getEmail(), dummyStudent.getPassword(), TypeUser.STUDENT));
+
+        JsonNode body = MAPPER.readTree(response.getContentAsString());
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(body.get("token").asText()).isEqualTo("jeton");
+        assertThat(body.get("user").get("matricule").asText()).isEqualTo(dummyStudent.getMatricule());
+    }
+
+    @Test
+    public void testLogin_withoutType() throws Exception {
+        Manager dummyManager = getDummyManager();
+        when(userService.getOneByEmailAndPassword(any(), any())).thenReturn(dummyManager);
+        when(jwtService.issue(dummyManager.getId(), TypeUser.MANAGER, dummyManager.getEmail())).thenReturn("jeton");
+
+        MockHttpServletResponse response = login(new LoginDTO(dummyManager.getEmail(), dummyManager.getPassword(), null));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentAsString()).contains("\"token\":\"jeton\"");
+    }
+
+    @Test
+    public void testLogin_withOtherType() throws Exception {
+        Manager dummyManager = getDummyManager();
+        when(userService.getOneByEmailAndPassword(any(), any())).thenReturn(dummyManager);
+
+        MockHttpServletResponse response = login(new LoginDTO(dummyManager.getEmail(), dummyManager.getPassword(), TypeUser.STUDENT));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("Courriel ou mot de passe invalide");
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    public void testLogin_withInvalidEntries() throws Exception {
+        when(userService.getOneByEmailAndPassword(any(), any()))
+                .thenThrow(new EmailAndPasswordDoesNotExistException("Courriel ou mot de passe invalide"));
+
+        MockHttpServletResponse response = login(new LoginDTO("inconnu@gmail.com", "Test1234", TypeUser.MONITOR));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("Courriel ou mot de passe invalide");
+        verifyNoInteractions(jwtService);
+    }
+
+    private MockHttpServletResponse login(LoginDTO loginDTO) throws Exception {
+        return mockMvc.perform(
+                        MockMvcRequestBuilders.post("/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(MAPPER.writeValueAsString(loginDTO)))
+                .andReturn()
+                .getResponse();
+    }
+
+    private Student getDummyStudent() {
+        Student dummyStudent = new Student();
+        dummyStudent.setId(6L);
+        dummyStudent.setLastName("Candle");
+        dummyStudent.setFirstName("Tea");
+        dummyStudent.setEmail("cant@outlook.com");
+        dummyStudent.setPassword("cantPass");
+        dummyStudent.setMatricule("4673943");
+        return dummyStudent;
+    }
+
+    private Manager getDummyManager() {
+        Manager dummyManager = new Manager();
+        dummyManager.setId(1L);
+        dummyManager.setPassword("Test1234");
+        dummyManager.setEmail("oussamakably@gmail.com");
+        dummyManager.setFirstName("Oussama");
+        dummyManager.setLastName("Kably");
+        return dummyManager;
+    }
+}
@@ -3,18 +3,33 @@ package com.gestionnaire_de_stage.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gestionnaire_de_stage.config.JwtAuthenticationFilter;
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
+import com.gestionnaire_de_stage.dto.ContractRenderingStatsDTO;
 import com.gestionnaire_de_stage.dto.ContractStarterDto;
+import com.gestionnaire_de_stage.dto.ContractSummaryDTO;
+import com.gestionnaire_de_stage.dto.DocumentDTO;
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
+import com.gestionnaire_de_stage.enums.DocumentType;
 import com.gestionnaire_de_stage.enums.TypeSession;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.exception.StudentAlreadyHaveAContractException;
 import com.gestionnaire_de_stage.exception.StudentIsNotAssignedException;
 import com.gestionnaire_de_stage.model.*;
+import com.gestionnaire_de_stage.service.ContractRenderingService;
 import com.gestionnaire_de_stage.service.ContractService;
+import com.gestionnaire_de_stage.service.DocumentService;
+import com.gestionnaire_de_stage.service.DocumentStore;
+import com.gestionnaire_de_stage.service.LocalDocumentStore;
 import com.gestionnaire_de_stage.service.StageService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -22,6 +37,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.Year;
 import java.util.ArrayList;
@@ -30,7 +48,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @WebMvcTest(ContractController.class)
 public class ContractControllerTest {
@@ -41,12 +59,15 @@ public class ContractControllerTest {
     @MockBean
     private ContractService contractService;
     @MockBean
+    private ContractRenderingService contractRenderingService;
+    @MockBean
     private StageService stageService;
+    @MockBean
+    private DocumentService documentService;
 
     @Test
     public void testManagerStartContract() throws Exception {
         when(contractService.gsStartContract(any(), any())).thenReturn(getDummyContract());
-        when(contractService.updateContract(any())).thenReturn(getDummyContract());
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.post("/contracts/start")
                                 .contentType(MediaType.APPLICATION_JSON)
@@ -56,6 +77,7 @@ public class ContractControllerTest {
         final MockHttpServletResponse response = mvcResult.getResponse();
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(response.getContentAsString()).contains("Création du contrat faite avec succès");
+        verify(contractRenderingService, times(1)).queueRendering(any());
     }
 
     @Test
@@ -135,7 +157,7 @@ public class ContractControllerTest {
 
     @Test
     public void testGetContractReadySign_withValidEntries() throws Exception {
-        List<Contract> dummyContractList = getDummyContractList();
+        List<ContractSummaryDTO> dummyContractList = getDummyContractList();
         when(contractService.getAllUnsignedContracts()).thenReturn(dummyContractList);
 
         MvcResult mvcResult = mockMvc.perform(
@@ -144,7 +166,7 @@ public class ContractControllerTest {
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
-        List<Contract> actualContractList = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
+        List<ContractSummaryDTO> actualContractList = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
         });
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(actualContractList.size()).isEqualTo(dummyContractList.size());
@@ -158,7 +180,6 @@ public class ContractControllerTest {
                 + "/" + dummyContract.getId();
         when(contractService.addManagerSignature(any(), any()))
                 .thenReturn(dummyContract);
-        when(contractService.fillPDF(any(), any())).thenReturn(dummyContract);
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.put(uri)
@@ -168,6 +189,7 @@ public class ContractControllerTest {
         final MockHttpServletResponse response = mvcResult.getResponse();
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(response.getContentAsString()).contains("Contrat signé");
+        verify(contractRenderingService, times(1)).queueRendering(dummyContract.getId());
     }
 
     @Test
@@ -210,7 +232,7 @@ public class ContractControllerTest {
 
     @Test
     public void testGetContractReadySignMonitor_withValidEntries() throws Exception {
-        List<Contract> dummyContractList = getDummyContractList();
+        List<ContractSummaryDTO> dummyContractList = getDummyContractList();
         Monitor dummyMonitor = getDummyMonitor();
         when(contractService.getAllUnsignedContractForMonitor(any())).thenReturn(dummyContractList);
 
@@ -220,7 +242,7 @@ public class ContractControllerTest {
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
-        List<Contract> actualContractList = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
+        List<ContractSummaryDTO> actualContractList = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
         });
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(actualContractList.size()).isEqualTo(dummyContractList.size());
@@ -264,18 +286,20 @@ public class ContractControllerTest {
         Contract dummyContract = getDummyContract();
         String uri = "/contracts/monitorSign/" + monitorSignature
                 + "/" + dummyContract.getId();
+        when(contractService.getOneById(any())).thenReturn(dummyContract);
         when(contractService.addMonitorSignature(any(), any()))
                 .thenReturn(dummyContract);
-        when(contractService.fillPDF(any(), any())).thenReturn(dummyContract);
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.put(uri)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.MONITOR))
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(response.getContentAsString()).contains("Contrat signé");
+        verify(contractRenderingService, times(1)).queueRendering(dummyContract.getId());
     }
 
     @Test
@@ -284,11 +308,13 @@ public class ContractControllerTest {
         Contract dummyContract = getDummyContract();
         String uri = "/contracts/monitorSign/" + monitorSignature
                 + "/" + dummyContract.getId();
+        when(contractService.getOneById(any())).thenReturn(dummyContract);
         when(contractService.addMonitorSignature(any(), any()))
                 .thenThrow(new IllegalArgumentException("La signature et l'identifiant du contrat ne peuvent être vide"));
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.put(uri)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.MONITOR))
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
@@ -303,11 +329,13 @@ public class ContractControllerTest {
         Contract dummyContract = getDummyContract();
         String uri = "/contracts/monitorSign/" + monitorSignature
                 + "/" + dummyContract.getId();
+        when(contractService.getOneById(any())).thenReturn(dummyContract);
         when(contractService.addMonitorSignature(any(), any()))
                 .thenThrow(new IdDoesNotExistException("Il n'y a pas de contrat associé à cet identifiant"));
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.put(uri)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.MONITOR))
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
@@ -316,6 +344,23 @@ public class ContractControllerTest {
         assertThat(response.getContentAsString()).contains("Il n'y a pas de contrat associé à cet identifiant");
     }
 
+    @Test
+    public void testSignContractPDFMonitor_byAnotherMonitor() throws Exception {
+        Contract dummyContract = getDummyContract();
+        dummyContract.getMonitor().setId(2L);
+        when(contractService.getOneById(any())).thenReturn(dummyContract);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.put("/contracts/monitorSign/Jon Tralala/" + dummyContract.getId())
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.MONITOR))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.FORBIDDEN.value());
+        verify(contractService, never()).addMonitorSignature(any(), any());
+    }
+
     @Test
     public void testContractNeedsStudentSignature_withValidEntries() throws Exception {
         MAPPER.registerModule(new JavaTimeModule());
@@ -372,18 +417,20 @@ public class ContractControllerTest {
         Contract dummyContract = getDummyContract();
         String uri = "/contracts/studentSign/" + studentSignature
                 + "/" + dummyContract.getId();
+        when(contractService.getOneById(any())).thenReturn(dummyContract);
         when(contractService.addStudentSignature(any(), any()))
                 .thenReturn(dummyContract);
-        when(contractService.fillPDF(any(), any())).thenReturn(dummyContract);
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.put(uri)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(response.getContentAsString()).contains("Contrat signé");
+        verify(contractRenderingService, times(1)).queueRendering(dummyContract.getId());
     }
 
     @Test
@@ -392,11 +439,13 @@ public class ContractControllerTest {
         Contract dummyContract = getDummyContract();
         String uri = "/contracts/studentSign/" + studentSignature
                 + "/" + dummyContract.getId();
+        when(contractService.getOneById(any())).thenReturn(dummyContract);
         when(contractService.addStudentSignature(any(), any()))
                 .thenThrow(new IllegalArgumentException("La signature et l'identifiant du contrat ne peuvent être vide"));
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.put(uri)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
@@ -411,11 +460,13 @@ public class ContractControllerTest {
         Contract dummyContract = getDummyContract();
         String uri = "/contracts/studentSign/" + studentSignature
                 + "/" + dummyContract.getId();
+        when(contractService.getOneById(any())).thenReturn(dummyContract);
         when(contractService.addStudentSignature(any(), any()))
                 .thenThrow(new IdDoesNotExistException("Il n'y a pas de contrat associé à cet identifiant"));
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.put(uri)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
@@ -426,7 +477,7 @@ public class ContractControllerTest {
 
     @Test
     public void testGetAllSignedContractsByManager_withExistentId() throws Exception {
-        List<Contract> dummyContracts = getDummyContractList();
+        List<ContractSummaryDTO> dummyContracts = getDummyContractList();
         when(contractService.getAllSignedContractsByManager(any())).thenReturn(dummyContracts);
 
         MvcResult mvcResult = mockMvc.perform(
@@ -435,7 +486,7 @@ public class ContractControllerTest {
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
-        List<Contract> returnedContracts = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
+        List<ContractSummaryDTO> returnedContracts = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
         });
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(returnedContracts)
@@ -454,7 +505,7 @@ public class ContractControllerTest {
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
-        List<Contract> returnedContracts = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
+        List<ContractSummaryDTO> returnedContracts = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
         });
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(returnedContracts).isEmpty();
@@ -462,7 +513,7 @@ public class ContractControllerTest {
 
     @Test
     public void testGetAllSignedContractsByMonitor_withExistentId() throws Exception {
-        List<Contract> dummyContracts = getDummyContractList();
+        List<ContractSummaryDTO> dummyContracts = getDummyContractList();
         when(contractService.getAllSignedContractsByMonitor(any())).thenReturn(dummyContracts);
 
         MvcResult mvcResult = mockMvc.perform(
@@ -471,7 +522,7 @@ public class ContractControllerTest {
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
-        List<Contract> returnedContracts = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
+        List<ContractSummaryDTO> returnedContracts = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
         });
 
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
@@ -491,7 +542,7 @@ public class ContractControllerTest {
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
-        List<Contract> returnedContracts = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
+        List<ContractSummaryDTO> returnedContracts = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
         });
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(returnedContracts).isEmpty();
@@ -532,11 +583,162 @@ public class ContractControllerTest {
         assertThat(response.getContentAsString()).contains("Il n'y a pas d'étudiant associé à cet identifiant");
     }
 
+    @Test
+    public void testGetContractPDF_withValidEntries() throws Exception {
+        when(contractService.getOneById(any())).thenReturn(getDummyContract());
+        when(documentService.getDocument(any(), any())).thenReturn(getDummyDocument());
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/contracts/pdf/1")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT)))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_PDF_VALUE);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc123\"");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentAsByteArray()).isEqualTo(new byte[]{37, 80, 68, 70});
+        verify(documentService, times(1)).getDocument(DocumentType.CONTRACT, 1L);
+    }
+
+    @Test
+    public void testGetContractPDF_withMatchingETag() throws Exception {
+        when(contractService.getOneById(any())).thenReturn(getDummyContract());
+        when(documentService.getDocument(any(), any())).thenReturn(getDummyDocument());
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/contracts/pdf/1")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    public void testGetContractPDF_withRange() throws Exception {
+        when(contractService.getOneById(any())).thenReturn(getDummyContract());
+        when(documentService.getDocument(any(), any())).thenReturn(getDummyDocument());
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/contracts/pdf/1")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
+                                .header(HttpHeaders.RANGE, "bytes=1-2"))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 1-2/4");
+        assertThat(response.getContentAsByteArray()).isEqualTo(new byte[]{80, 68});
+    }
+
+    @Test
+    public void testGetContractPDF_withStoredDocument(@TempDir Path storeRoot) throws Exception {
+        when(contractService.getOneById(any())).thenReturn(getDummyContract());
+        when(documentService.getDocument(any(), any())).thenReturn(getDummyStoredDocument(storeRoot));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/contracts/pdf/1")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT)))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentLength()).isEqualTo(4);
+        assertThat(response.getContentAsByteArray()).isEqualTo(new byte[]{37, 80, 68, 70});
+    }
+
+    @Test
+    public void testGetContractPDF_withStoredDocumentRange(@TempDir Path storeRoot) throws Exception {
+        when(contractService.getOneById(any())).thenReturn(getDummyContract());
+        when(documentService.getDocument(any(), any())).thenReturn(getDummyStoredDocument(storeRoot));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/contracts/pdf/1")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
+                                .header(HttpHeaders.RANGE, "bytes=2-"))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-3/4");
+        assertThat(response.getContentAsByteArray()).isEqualTo(new byte[]{68, 70});
+    }
+
+    @Test
+    public void testGetContractPDF_withPendingPDF() throws Exception {
+        when(contractService.getOneById(any())).thenReturn(getDummyContract());
+        when(documentService.getDocument(any(), any())).thenReturn(null);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/contracts/pdf/1")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT)))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(response.getContentAsString()).contains("Le PDF du contrat n'est pas encore généré");
+    }
+
+    @Test
+    public void testGetContractPDF_withInvalidId() throws Exception {
+        when(contractService.getOneById(any())).thenReturn(getDummyContract());
+        when(documentService.getDocument(any(), any())).thenThrow(new IdDoesNotExistException("Aucun contrat ne correspond à cet identifiant"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/contracts/pdf/1")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT)))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("Aucun contrat ne correspond à cet identifiant");
+    }
+
+    @Test
+    public void testGetContractPDF_byAnotherStudent() throws Exception {
+        Contract dummyContract = getDummyContract();
+        dummyContract.getStudent().setId(2L);
+        when(contractService.getOneById(any())).thenReturn(dummyContract);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/contracts/pdf/1")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT)))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.FORBIDDEN.value());
+        verify(documentService, never()).getDocument(any(), any());
+    }
+
+    @Test
+    public void testGetRenderingStats() throws Exception {
+        when(contractRenderingService.getStats()).thenReturn(new ContractRenderingStatsDTO(3, 2, 10, 1, 0, 250, 300, 900));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/contracts/rendering/stats")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentAsString()).contains("\"queueDepth\":3");
+        assertThat(response.getContentAsString()).contains("\"averageLatencyMs\":300");
+    }
+
+    private AuthenticatedUserDTO getDummyAuthenticatedUser(TypeUser role) {
+        return new AuthenticatedUserDTO(1L, role, "cant@outlook.com");
+    }
+
     private Contract getDummyContract() {
         Contract dummyContract = new Contract();
         dummyContract.setId(1L);
         dummyContract.setStudent(getDummyStudent());
         dummyContract.setOffer(getDummyOffer());
+        dummyContract.setMonitor(getDummyMonitor());
         dummyContract.setManager(getDummyManager());
         dummyContract.setManagerSignature("Joe Janson");
         dummyContract.setManagerSignDate(LocalDate.now());
@@ -573,15 +775,15 @@ public class ContractControllerTest {
         return dummySupervisor;
     }
 
-    private List<Contract> getDummyContractList() {
-        List<Contract> dummyContractList = new ArrayList<>();
-        Contract contract1 = new Contract();
+    private List<ContractSummaryDTO> getDummyContractList() {
+        List<ContractSummaryDTO> dummyContractList = new ArrayList<>();
+        ContractSummaryDTO contract1 = new ContractSummaryDTO();
         contract1.setId(1L);
         dummyContractList.add(contract1);
-        Contract contract2 = new Contract();
+        ContractSummaryDTO contract2 = new ContractSummaryDTO();
         contract2.setId(2L);
         dummyContractList.add(contract2);
-        Contract contract3 = new Contract();
+        ContractSummaryDTO contract3 = new ContractSummaryDTO();
         contract3.setId(3L);
         dummyContractList.add(contract3);
 
@@ -619,4 +821,16 @@ public class ContractControllerTest {
         dummyManager.setPhone("5143643320");
         return dummyManager;
     }
+
+    private DocumentDTO getDummyDocument() {
+        return new DocumentDTO(1L, 4L, "abc123", MediaType.APPLICATION_PDF_VALUE, "contract_1.pdf",
+                new ByteArrayResource(new byte[]{37, 80, 68, 70}));
+    }
+
+    private DocumentDTO getDummyStoredDocument(Path storeRoot) throws IOException {
+        DocumentStore documentStore = new LocalDocumentStore(storeRoot.toString());
+        StoredDocumentDTO stored = documentStore.store(new ByteArrayInputStream(new byte[]{37, 80, 68, 70}));
+        return new DocumentDTO(1L, stored.getSize(), stored.getKey(), MediaType.APPLICATION_PDF_VALUE, "contract_1.pdf",
+                documentStore.getResource(stored.getKey()));
+    }
 }
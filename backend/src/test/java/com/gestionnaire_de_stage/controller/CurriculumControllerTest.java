@@ -2,19 +2,32 @@ package com.gestionnaire_de_stage.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestionnaire_de_stage.config.JwtAuthenticationFilter;
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
+import com.gestionnaire_de_stage.dto.CurriculumSearchHitDTO;
+import com.gestionnaire_de_stage.dto.CurriculumSearchResultDTO;
+import com.gestionnaire_de_stage.dto.CurriculumSummaryDTO;
+import com.gestionnaire_de_stage.dto.DocumentDTO;
 import com.gestionnaire_de_stage.dto.StudentCurriculumsDTO;
 import com.gestionnaire_de_stage.dto.ValidationCurriculum;
+import com.gestionnaire_de_stage.enums.DocumentType;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.exception.CurriculumAlreadyTreatedException;
 import com.gestionnaire_de_stage.exception.CurriculumUsedException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.model.Curriculum;
 import com.gestionnaire_de_stage.model.Student;
+import com.gestionnaire_de_stage.service.CurriculumSearchService;
 import com.gestionnaire_de_stage.service.CurriculumService;
+import com.gestionnaire_de_stage.service.DocumentService;
+import com.gestionnaire_de_stage.service.OfferApplicationService;
 import com.gestionnaire_de_stage.service.StudentService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -40,6 +53,12 @@ public class CurriculumControllerTest {
     private CurriculumService curriculumService;
     @MockBean
     private StudentService studentService;
+    @MockBean
+    private DocumentService documentService;
+    @MockBean
+    private CurriculumSearchService curriculumSearchService;
+    @MockBean
+    private OfferApplicationService offerApplicationService;
 
     @Test
     public void uploadCurriculumTest_withValidEntries() throws Exception {
@@ -148,7 +167,7 @@ public class CurriculumControllerTest {
     @Test
     public void testGetAllCurriculumByStudentId() throws Exception {
         Long studentId = 1L;
-        List<Curriculum> dummyCurriculumList = getDummyCurriculumList();
+        List<CurriculumSummaryDTO> dummyCurriculumList = getDummyCurriculumList();
         when(curriculumService.findAllByStudentId(any())).thenReturn(dummyCurriculumList);
 
         MvcResult mvcResult = mockMvc.perform(
@@ -157,7 +176,7 @@ public class CurriculumControllerTest {
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
-        List<Curriculum> returnedCurriculum = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
+        List<CurriculumSummaryDTO> returnedCurriculum = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
         });
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(returnedCurriculum).containsAll(dummyCurriculumList);
@@ -179,6 +198,57 @@ public class CurriculumControllerTest {
         assertThat(response.getContentAsString()).contains("Il n'y a pas d'étudiant associé à cet identifiant");
     }
 
+    @Test
+    public void testSearchCurriculums() throws Exception {
+        CurriculumSummaryDTO curriculum = new CurriculumSummaryDTO(1L, "cv.pdf", "application/pdf", true, 8L, "hash",
+                2L, "Jean", "Dupont", "jean@gmail.com");
+        CurriculumSearchResultDTO result = new CurriculumSearchResultDTO(
+                List.of(new CurriculumSearchHitDTO(curriculum, 1.5, List.of("Expérience en <mark>Java</mark>"))), 1);
+        when(curriculumSearchService.search("java", 0, 20)).thenReturn(result);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/curriculum/search")
+                                .param("q", "java")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(MAPPER.readValue(response.getContentAsString(), CurriculumSearchResultDTO.class)).isEqualTo(result);
+    }
+
+    @Test
+    public void testSearchCurriculums_withEmptyQuery() throws Exception {
+        when(curriculumSearchService.search(any(), anyInt(), anyInt())).thenThrow(new IllegalArgumentException("La recherche ne peut pas être vide"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/curriculum/search")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("La recherche ne peut pas être vide");
+    }
+
+    @Test
+    public void testSearchApplicantCurriculums() throws Exception {
+        CurriculumSearchResultDTO result = new CurriculumSearchResultDTO(List.of(), 0);
+        when(curriculumSearchService.searchApplicantsOf("monitor@gmail.com", "java", 1, 10)).thenReturn(result);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/curriculum/search/monitor/monitor@gmail.com")
+                                .param("q", "java")
+                                .param("page", "1")
+                                .param("size", "10")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(MAPPER.readValue(response.getContentAsString(), CurriculumSearchResultDTO.class)).isEqualTo(result);
+    }
+
     @Test
     public void testValidate() throws Exception {
         ValidationCurriculum validationCurriculum = new ValidationCurriculum(1L, true);
@@ -358,10 +428,12 @@ public class CurriculumControllerTest {
     @Test
     public void testDeleteOneById() throws Exception {
         Curriculum curriculum = getDummyCurriculum();
+        when(curriculumService.getOneById(any())).thenReturn(curriculum);
         doNothing().when(curriculumService).deleteOneById(any());
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.delete("/curriculum/delete/{curriculumId}", curriculum.getId())
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
@@ -373,12 +445,14 @@ public class CurriculumControllerTest {
     @Test
     void testDeleteOneById_throwsIllegalArg() throws Exception {
         Curriculum curriculum = getDummyCurriculum();
+        when(curriculumService.getOneById(any())).thenReturn(curriculum);
         doThrow(new IllegalArgumentException("No null values!"))
                 .when(curriculumService)
                 .deleteOneById(any());
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.delete("/curriculum/delete/{curriculumId}", curriculum.getId())
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
@@ -390,12 +464,14 @@ public class CurriculumControllerTest {
     @Test
     void testDeleteOneById_throwsCurriculumUsedException() throws Exception {
         Curriculum curriculum = getDummyCurriculum();
+        when(curriculumService.getOneById(any())).thenReturn(curriculum);
         doThrow(new CurriculumUsedException("Impossible de supprimer."))
                 .when(curriculumService)
                 .deleteOneById(any());
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.delete("/curriculum/delete/{curriculumId}", curriculum.getId())
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
@@ -404,16 +480,92 @@ public class CurriculumControllerTest {
         assertThat(response.getContentAsString()).contains("Impossible de supprimer.");
     }
 
+    @Test
+    public void testGetCurriculumDocument() throws Exception {
+        when(curriculumService.getOneById(any())).thenReturn(getDummyCurriculum());
+        when(documentService.getDocument(any(), any())).thenReturn(new DocumentDTO(1L, 4L, "abc123",
+                MediaType.APPLICATION_PDF_VALUE, "fileName", new ByteArrayResource("test".getBytes())));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/curriculum/document/{curriculumId}", 1L)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT)))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_PDF_VALUE);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("fileName");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc123\"");
+        assertThat(response.getContentAsByteArray()).isEqualTo("test".getBytes());
+        verify(documentService, times(1)).getDocument(DocumentType.CURRICULUM, 1L);
+    }
+
+    @Test
+    public void testGetCurriculumDocument_withIdNotFound() throws Exception {
+        when(curriculumService.getOneById(any())).thenReturn(getDummyCurriculum());
+        when(documentService.getDocument(any(), any()))
+                .thenThrow(new IdDoesNotExistException("Il n'y a pas de curriculum associé à cet identifiant"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/curriculum/document/{curriculumId}", 1L)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT)))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("Il n'y a pas de curriculum associé à cet identifiant");
+    }
+
+    @Test
+    public void testGetCurriculumDocument_byMonitorWithoutApplication() throws Exception {
+        when(offerApplicationService.isCurriculumSentToMonitor(any(), any())).thenReturn(false);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/curriculum/document/{curriculumId}", 1L)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.MONITOR)))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.FORBIDDEN.value());
+        verify(offerApplicationService, times(1)).isCurriculumSentToMonitor(1L, 1L);
+        verify(documentService, never()).getDocument(any(), any());
+    }
+
+    @Test
+    public void testDeleteOneById_byAnotherStudent() throws Exception {
+        Curriculum curriculum = getDummyCurriculum();
+        curriculum.getStudent().setId(2L);
+        when(curriculumService.getOneById(any())).thenReturn(curriculum);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.delete("/curriculum/delete/{curriculumId}", curriculum.getId())
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT)))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.FORBIDDEN.value());
+        verify(curriculumService, never()).deleteOneById(any());
+    }
+
+    private AuthenticatedUserDTO getDummyAuthenticatedUser(TypeUser role) {
+        return new AuthenticatedUserDTO(1L, role, "cant@outlook.com");
+    }
+
     private StudentCurriculumsDTO getDummyStudentCurriculumsDTO() {
-        return new StudentCurriculumsDTO(getDummyCurriculum(), getDummyCurriculumList());
+        List<CurriculumSummaryDTO> curriculumList = getDummyCurriculumList();
+        return new StudentCurriculumsDTO(curriculumList.get(0), curriculumList);
     }
 
-    private List<Curriculum> getDummyCurriculumList() {
-        Curriculum dummyCurriculum1 = getDummyCurriculum();
-        Curriculum dummyCurriculum2 = getDummyCurriculum();
-        Curriculum dummyCurriculum3 = getDummyCurriculum();
+    private CurriculumSummaryDTO getDummyCurriculumSummary(Long id) {
+        return new CurriculumSummaryDTO(id, "fileName", "application/pdf", null, 4L, null,
+                1L, "Tea", "Candle", "cant@outlook.com");
+    }
 
-        return Arrays.asList(dummyCurriculum1, dummyCurriculum2, dummyCurriculum3);
+    private List<CurriculumSummaryDTO> getDummyCurriculumList() {
+        return Arrays.asList(
+                getDummyCurriculumSummary(1L),
+                getDummyCurriculumSummary(2L),
+                getDummyCurriculumSummary(3L));
     }
 
     private Student getDummyStudent() {
@@ -433,6 +585,7 @@ public class CurriculumControllerTest {
         curriculum.setName("myFileeee");
         curriculum.setType("pdf");
         curriculum.setId(1L);
+        curriculum.setStudent(getDummyStudent());
         return curriculum;
     }
 }
\ No newline at end of file
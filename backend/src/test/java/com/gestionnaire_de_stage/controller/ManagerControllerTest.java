@@ -1,9 +1,12 @@
 package com.gestionnaire_de_stage.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
+import com.gestionnaire_de_stage.dto.MailQueueStatsDTO;
+import com.gestionnaire_de_stage.dto.OutboxStatsDTO;
 import com.gestionnaire_de_stage.model.Manager;
+import com.gestionnaire_de_stage.service.MailQueueService;
 import com.gestionnaire_de_stage.service.ManagerService;
+import com.gestionnaire_de_stage.service.OutboxService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -28,69 +31,51 @@ public class ManagerControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private ManagerService managerService;
+    @MockBean
+    private MailQueueService mailQueueService;
+    @MockBean
+    private OutboxService outboxService;
 
     @Test
-    public void testManagerLogin_withValidEntries() throws Exception {
-        Manager dummyManager = getDummyManager();
-        String email = "oussamakably@gmail.com";
-        String password = "Test1234";
-        when(managerService.getOneByEmailAndPassword(any(), any())).thenReturn(dummyManager);
+    public void testCheckEmailValidty() throws Exception {
+        when(managerService.isEmailInvalid(any())).thenReturn(false);
 
-        MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/manager/" + email + "/" + password)
-                                .contentType(MediaType.APPLICATION_JSON))
-                .andReturn();
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders
+                .get("/manager/email/{email}", "potato@gmail.com")
+                .contentType(MediaType.APPLICATION_JSON)).andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
-        Manager actualSupervisor = MAPPER.readValue(response.getContentAsString()
-                , Manager.class);
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
-        assertThat(actualSupervisor.getLastName()).isEqualTo("Kably");
+        assertThat(response.getContentAsString()).contains("false");
     }
 
     @Test
-    public void testManagerLogin_withNullEntries() throws Exception {
-        String email = null;
-        String password = null;
-        when(managerService.getOneByEmailAndPassword(any(), any())).thenThrow(new IllegalArgumentException("Courriel et mot de passe ne peuvent pas être vide"));
+    public void testGetMailQueueStats() throws Exception {
+        when(mailQueueService.getStats()).thenReturn(new MailQueueStatsDTO(4, 1, 120, 6, 30, 850));
 
         MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/manager/" + email + "/" + password)
+                        MockMvcRequestBuilders.get("/manager/mail_queue/stats")
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
-        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
-        assertThat(response.getContentAsString()).contains("Courriel et mot de passe ne peuvent pas être vide");
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentAsString()).contains("\"pendingMails\":4");
+        assertThat(response.getContentAsString()).contains("\"sentMails\":120");
     }
 
     @Test
-    public void testSupervisorLogin_withInvalidEntries() throws Exception {
-        String email = "qerw@qwetq.com";
-        String password = "qwreqwer";
-        when(managerService.getOneByEmailAndPassword(any(), any())).thenThrow(new EmailAndPasswordDoesNotExistException("Courriel ou mot de passe invalid"));
+    public void testGetOutboxStats() throws Exception {
+        when(outboxService.getStats()).thenReturn(new OutboxStatsDTO(3, 1));
 
         MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/manager/" + email + "/" + password)
+                        MockMvcRequestBuilders.get("/manager/outbox/stats")
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
-        final MockHttpServletResponse response = mvcResult.getResponse();
-        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
-        assertThat(response.getContentAsString()).contains("Courriel ou mot de passe invalid");
-    }
-
-    @Test
-    public void testCheckEmailValidty() throws Exception {
-        when(managerService.isEmailInvalid(any())).thenReturn(false);
-
-        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders
-                .get("/manager/email/{email}", "potato@gmail.com")
-                .contentType(MediaType.APPLICATION_JSON)).andReturn();
-
         final MockHttpServletResponse response = mvcResult.getResponse();
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
-        assertThat(response.getContentAsString()).contains("false");
+        assertThat(response.getContentAsString()).contains("\"abandonedEvents\":1");
     }
 
     private Manager getDummyManager() {
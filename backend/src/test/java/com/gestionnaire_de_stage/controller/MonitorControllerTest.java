@@ -1,7 +1,6 @@
 package com.gestionnaire_de_stage.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
 import com.gestionnaire_de_stage.exception.MonitorAlreadyExistsException;
 import com.gestionnaire_de_stage.model.Monitor;
 import com.gestionnaire_de_stage.service.MonitorService;
@@ -77,56 +76,6 @@ public class MonitorControllerTest {
         assertThat(response.getContentAsString()).contains("Un compte existe déjà pour ce moniteur");
     }
 
-    @Test
-    public void monitorLoginTest_withValidEntries() throws Exception {
-        Monitor dummyMonitor = getDummyMonitor();
-        String email = "potato@mail.com";
-        String password = "secretPasswordShhhh";
-        when(monitorService.getOneByEmailAndPassword(any(), any())).thenReturn(dummyMonitor);
-
-        MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/monitor/" + email + "/" + password)
-                                .contentType(MediaType.APPLICATION_JSON))
-                .andReturn();
-
-        final MockHttpServletResponse response = mvcResult.getResponse();
-        Monitor actualMonitor = MAPPER.readValue(response.getContentAsString(), Monitor.class);
-        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
-        assertThat(actualMonitor.getLastName()).isEqualTo("tata");
-    }
-
-    @Test
-    public void monitorLoginTest_withNullEntries() throws Exception {
-        String email = "potato@mail.com";
-        String password = "secretPasswordShhhh";
-        when(monitorService.getOneByEmailAndPassword(any(), any())).thenThrow(new IllegalArgumentException("Courriel et mot de passe ne peuvent pas être vide"));
-
-        MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/monitor/" + email + "/" + password)
-                                .contentType(MediaType.APPLICATION_JSON))
-                .andReturn();
-
-        final MockHttpServletResponse response = mvcResult.getResponse();
-        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
-        assertThat(response.getContentAsString()).contains("Courriel et mot de passe ne peuvent pas être vide");
-    }
-
-    @Test
-    public void testSupervisorLogin_withInvalidEntries() throws Exception {
-        String email = "sinl@gmail.com";
-        String password = "weightofworld";
-        when(monitorService.getOneByEmailAndPassword(any(), any())).thenThrow(new EmailAndPasswordDoesNotExistException("Courriel ou mot de passe invalid"));
-
-        MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/monitor/" + email + "/" + password)
-                                .contentType(MediaType.APPLICATION_JSON))
-                .andReturn();
-
-        final MockHttpServletResponse response = mvcResult.getResponse();
-        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
-        assertThat(response.getContentAsString()).contains("Courriel ou mot de passe invalid");
-    }
-
     @Test
     public void testCheckEmailValidty() throws Exception {
         when(monitorService.isEmailInvalid(any())).thenReturn(false);
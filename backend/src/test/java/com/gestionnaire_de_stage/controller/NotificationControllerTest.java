@@ -1,8 +1,14 @@
 package com.gestionnaire_de_stage.controller;
 
+import com.gestionnaire_de_stage.config.JwtAuthenticationFilter;
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
+import com.gestionnaire_de_stage.dto.NotificationDTO;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.model.Notification;
 import com.gestionnaire_de_stage.model.Student;
+import com.gestionnaire_de_stage.service.JwtService;
 import com.gestionnaire_de_stage.service.NotificationService;
+import com.gestionnaire_de_stage.service.NotificationStreamService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -13,12 +19,15 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
 
 @WebMvcTest(NotificationController.class)
 public class NotificationControllerTest {
@@ -29,6 +38,68 @@ public class NotificationControllerTest {
     @MockBean
     private NotificationService notificationService;
 
+    @MockBean
+    private NotificationStreamService notificationStreamService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @Test
+    public void testGetStreamTicket() throws Exception {
+        when(jwtService.issueStreamTicket(any())).thenReturn("ticket");
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.post("/notification/stream_ticket")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser()))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentAsString()).contains("\"ticket\":\"ticket\"");
+        verify(jwtService, times(1)).issueStreamTicket(getDummyAuthenticatedUser());
+    }
+
+    @Test
+    public void testStreamByUser_withLastEventIdInParameter() throws Exception {
+        when(notificationStreamService.subscribe(any(), any())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/notification/stream/{userId}", getDummyStudent().getId())
+                                .param("lastEventId", "42")
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andReturn();
+
+        verify(notificationStreamService, times(1)).subscribe(getDummyStudent().getId(), 42L);
+    }
+
+    @Test
+    public void testStreamByUser() throws Exception {
+        when(notificationStreamService.subscribe(any(), any())).thenReturn(new SseEmitter());
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/notification/stream/{userId}", getDummyStudent().getId())
+                                .header("Last-Event-ID", "42")
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(mvcResult.getRequest().isAsyncStarted()).isTrue();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        verify(notificationStreamService, times(1)).subscribe(getDummyStudent().getId(), 42L);
+    }
+
+    @Test
+    public void testStreamByUser_withoutLastEventId() throws Exception {
+        when(notificationStreamService.subscribe(any(), any())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.get("/notification/stream/{userId}", getDummyStudent().getId())
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andReturn();
+
+        verify(notificationStreamService, times(1)).subscribe(getDummyStudent().getId(), null);
+    }
+
     @Test
     public void testGetAllByUser() throws Exception {
         when(notificationService.getAllByUserId(any())).thenReturn(getDummyNotificationList());
@@ -59,10 +130,12 @@ public class NotificationControllerTest {
 
     @Test
     public void testUpdateSeen() throws Exception {
+        when(notificationService.getOneById(any())).thenReturn(getDummyNotification());
         when(notificationService.updateSeen(any())).thenReturn(getDummyNotification());
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.get("/notification/set_seen/{notificationId}", 1L)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser())
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
@@ -73,10 +146,12 @@ public class NotificationControllerTest {
 
     @Test
     public void testUpdateSeen_throwsIllegalArg() throws Exception {
+        when(notificationService.getOneById(any())).thenReturn(getDummyNotification());
         when(notificationService.updateSeen(any())).thenThrow(new IllegalArgumentException("test"));
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.get("/notification/set_seen/{notificationId}", 1L)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser())
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
@@ -85,6 +160,89 @@ public class NotificationControllerTest {
         assertThat(response.getContentAsString()).contains("test");
     }
 
+    @Test
+    public void testUpdateSeen_ofAnotherUser() throws Exception {
+        Notification notification = getDummyNotification();
+        notification.getTargetedUser().setId(2L);
+        when(notificationService.getOneById(any())).thenReturn(notification);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/notification/set_seen/{notificationId}", 1L)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser())
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.FORBIDDEN.value());
+        verify(notificationService, never()).updateSeen(any());
+    }
+
+    @Test
+    public void testGetHistoryByUser() throws Exception {
+        when(notificationService.getHistoryByUserId(any(), any(), any(), anyInt()))
+                .thenReturn(List.of(new NotificationDTO(9L, 1L, "a test message", true, LocalDateTime.now())));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/notification/history/{userId}", getDummyStudent().getId())
+                                .param("beforeDate", "2021-11-20T10:15:30")
+                                .param("beforeId", "10")
+                                .param("size", "5")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentAsString()).contains("a test message");
+        verify(notificationService, times(1)).getHistoryByUserId(
+                getDummyStudent().getId(), LocalDateTime.of(2021, 11, 20, 10, 15, 30), 10L, 5);
+    }
+
+    @Test
+    public void testGetHistoryByUser_throwsIllegalArg() throws Exception {
+        when(notificationService.getHistoryByUserId(any(), any(), any(), anyInt())).thenThrow(new IllegalArgumentException("test"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/notification/history/{userId}", getDummyStudent().getId())
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("test");
+    }
+
+    @Test
+    public void testGetUnreadCountByUser() throws Exception {
+        when(notificationService.getUnreadCount(any())).thenReturn(4L);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/notification/unread_count/{userId}", getDummyStudent().getId())
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentAsString()).isEqualTo("4");
+    }
+
+    @Test
+    public void testUpdateAllSeen() throws Exception {
+        when(notificationService.updateAllSeen(any())).thenReturn(3);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.put("/notification/set_all_seen/{userId}", getDummyStudent().getId())
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentAsString()).contains("3 notification(s)");
+    }
+
+    private AuthenticatedUserDTO getDummyAuthenticatedUser() {
+        return new AuthenticatedUserDTO(1L, TypeUser.STUDENT, "cant@outlook.com");
+    }
+
     private List<Notification> getDummyNotificationList() {
         return List.of(
                 getDummyNotification(),
@@ -3,15 +3,23 @@ package com.gestionnaire_de_stage.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gestionnaire_de_stage.config.JwtAuthenticationFilter;
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
 import com.gestionnaire_de_stage.dto.OfferAppDTO;
+import com.gestionnaire_de_stage.dto.PlacementDTO;
+import com.gestionnaire_de_stage.dto.PlacementPlanDTO;
+import com.gestionnaire_de_stage.dto.UpdateRankDTO;
 import com.gestionnaire_de_stage.dto.UpdateStatusDTO;
 import com.gestionnaire_de_stage.enums.Status;
+import com.gestionnaire_de_stage.enums.TypeUser;
 import com.gestionnaire_de_stage.exception.DateNotValidException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
+import com.gestionnaire_de_stage.exception.NotOwnerException;
 import com.gestionnaire_de_stage.exception.StudentAlreadyAppliedToOfferException;
 import com.gestionnaire_de_stage.exception.StudentHasNoCurriculumException;
 import com.gestionnaire_de_stage.model.*;
 import com.gestionnaire_de_stage.service.OfferApplicationService;
+import com.gestionnaire_de_stage.service.PlacementService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -29,7 +37,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.*;
 
 @WebMvcTest(OfferApplicationController.class)
@@ -40,6 +48,8 @@ class OfferApplicationControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private OfferApplicationService offerApplicationService;
+    @MockBean
+    private PlacementService placementService;
 
     @Test
     public void testStudentApplyToOffer() throws Exception {
@@ -204,6 +214,7 @@ class OfferApplicationControllerTest {
 
     @Test
     void testSetInterviewDate_withValidIDs() throws Exception {
+        when(offerApplicationService.getOneById(any())).thenReturn(getDummyOfferApp());
         MAPPER.registerModule(new JavaTimeModule());
         OfferApplication offerApplication = getDummyOfferApp();
         offerApplication.setInterviewDate(LocalDateTime.now());
@@ -212,6 +223,7 @@ class OfferApplicationControllerTest {
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.post("/applications/setdate/" + offerApplication.getId())
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(MAPPER.writeValueAsString(LocalDateTime.now())))
                 .andReturn();
@@ -224,6 +236,7 @@ class OfferApplicationControllerTest {
 
     @Test
     void testSetInterviewDate_withNullIDs() throws Exception {
+        when(offerApplicationService.getOneById(any())).thenReturn(getDummyOfferApp());
         MAPPER.registerModule(new JavaTimeModule());
         OfferApplication offerApplication = getDummyOfferApp();
         when(offerApplicationService.setInterviewDate(any(), any()))
@@ -231,6 +244,7 @@ class OfferApplicationControllerTest {
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.post("/applications/setdate/" + offerApplication.getId())
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(MAPPER.writeValueAsString(LocalDateTime.now())))
                 .andReturn();
@@ -242,12 +256,14 @@ class OfferApplicationControllerTest {
 
     @Test
     void testSetInterviewDate_withOfferAppIdNotExist() throws Exception {
+        when(offerApplicationService.getOneById(any())).thenReturn(getDummyOfferApp());
         MAPPER.registerModule(new JavaTimeModule());
         when(offerApplicationService.setInterviewDate(any(), any()))
                 .thenThrow(new IdDoesNotExistException("Il n'y a pas d'offre associé à cet identifiant"));
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.post("/applications/setdate/" + 3L)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(MAPPER.writeValueAsString(LocalDateTime.now())))
                 .andReturn();
@@ -259,12 +275,14 @@ class OfferApplicationControllerTest {
 
     @Test
     void testSetInterviewDate_withDateInvalid() throws Exception {
+        when(offerApplicationService.getOneById(any())).thenReturn(getDummyOfferApp());
         MAPPER.registerModule(new JavaTimeModule());
         when(offerApplicationService.setInterviewDate(any(), any()))
                 .thenThrow(new DateNotValidException("La date choisie est invalide"));
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.post("/applications/setdate/" + 3L)
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(MAPPER.writeValueAsString(LocalDateTime.now())))
                 .andReturn();
@@ -274,6 +292,25 @@ class OfferApplicationControllerTest {
         assertThat(response.getContentAsString()).contains("La date choisie est invalide");
     }
 
+    @Test
+    void testSetInterviewDate_ofAnotherStudent() throws Exception {
+        MAPPER.registerModule(new JavaTimeModule());
+        OfferApplication offerApplication = getDummyOfferApp();
+        offerApplication.getCurriculum().getStudent().setId(2L);
+        when(offerApplicationService.getOneById(any())).thenReturn(offerApplication);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.post("/applications/setdate/" + offerApplication.getId())
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(MAPPER.writeValueAsString(LocalDateTime.now())))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(FORBIDDEN.value());
+        verify(offerApplicationService, never()).setInterviewDate(any(), any());
+    }
+
     @Test
     void testGetAllByOfferStatusAndStudentID_withValidEntries() throws Exception {
         List<OfferApplication> offerApplicationList = getDummyOfferAppList();
@@ -326,12 +363,14 @@ class OfferApplicationControllerTest {
 
     @Test
     public void testUpdateStatusIsAccepted() throws Exception {
+        when(offerApplicationService.getOneById(any())).thenReturn(getDummyOfferApp());
         OfferApplication offerApplication = getDummyOfferApp();
         UpdateStatusDTO updateStatusDTO = new UpdateStatusDTO(offerApplication.getId(), Status.STAGE_TROUVE);
         when(offerApplicationService.updateStatus(any())).thenReturn("Statut changé, attendez la signature du contrat");
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.post("/applications/student/update_status")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(MAPPER.writeValueAsString(updateStatusDTO)))
                 .andReturn();
@@ -345,12 +384,14 @@ class OfferApplicationControllerTest {
 
     @Test
     public void testUpdateStatusIsAccepted_withIdNull() throws Exception {
+        when(offerApplicationService.getOneById(any())).thenReturn(getDummyOfferApp());
         UpdateStatusDTO updateStatusDTO = new UpdateStatusDTO(null, Status.STAGE_TROUVE);
         when(offerApplicationService.updateStatus(any()))
                 .thenThrow(new IllegalArgumentException("L'identifiant de l'offre ne peut pas être vide"));
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.post("/applications/student/update_status")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(MAPPER.writeValueAsString(updateStatusDTO)))
                 .andReturn();
@@ -361,6 +402,119 @@ class OfferApplicationControllerTest {
         assertThat(response.getContentAsString()).contains("L'identifiant de l'offre ne peut pas être vide");
     }
 
+    @Test
+    public void testUpdateStudentRank() throws Exception {
+        OfferApplication dummyOfferApplication = getDummyOfferApp();
+        dummyOfferApplication.setStudentRank(1);
+        when(offerApplicationService.updateStudentRank(any(), any())).thenReturn(dummyOfferApplication);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.post("/applications/student/update_rank")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.STUDENT))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(MAPPER.writeValueAsString(new UpdateRankDTO(dummyOfferApplication.getId(), 1))))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentAsString()).contains("\"studentRank\":1");
+    }
+
+    @Test
+    public void testUpdateMonitorRank_withInvalidRank() throws Exception {
+        when(offerApplicationService.updateMonitorRank(any(), any()))
+                .thenThrow(new IllegalArgumentException("Le rang doit être positif"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.post("/applications/monitor/update_rank")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.MONITOR))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(MAPPER.writeValueAsString(new UpdateRankDTO(1L, 0))))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("Le rang doit être positif");
+    }
+
+    @Test
+    public void testUpdateMonitorRank_ofAnotherMonitor() throws Exception {
+        when(offerApplicationService.updateMonitorRank(any(), any()))
+                .thenThrow(new NotOwnerException("Cette candidature ne vous concerne pas"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.post("/applications/monitor/update_rank")
+                                .requestAttr(JwtAuthenticationFilter.AUTHENTICATED_USER, getDummyAuthenticatedUser(TypeUser.MONITOR))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(MAPPER.writeValueAsString(new UpdateRankDTO(1L, 1))))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(FORBIDDEN.value());
+        verify(offerApplicationService, times(1)).updateMonitorRank(new UpdateRankDTO(1L, 1), 1L);
+    }
+
+    @Test
+    public void testProposePlacement() throws Exception {
+        PlacementPlanDTO plan = getDummyPlacementPlan();
+        when(placementService.propose(any())).thenReturn(plan);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/applications/placement/1")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(MAPPER.readValue(response.getContentAsString(), PlacementPlanDTO.class)).isEqualTo(plan);
+    }
+
+    @Test
+    public void testProposePlacement_withInvalidSession() throws Exception {
+        when(placementService.propose(any()))
+                .thenThrow(new IdDoesNotExistException("Il n'y a pas de session associée à cet identifiant"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/applications/placement/34")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("Il n'y a pas de session associée à cet identifiant");
+    }
+
+    @Test
+    public void testApplyPlacement() throws Exception {
+        when(placementService.apply(any(), any())).thenReturn(2);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.post("/applications/placement/1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(MAPPER.writeValueAsString(getDummyPlacementPlan())))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentAsString()).contains("2 candidatures mises à jour");
+    }
+
+    @Test
+    public void testApplyPlacement_withChangedApplications() throws Exception {
+        when(placementService.apply(any(), any()))
+                .thenThrow(new IllegalArgumentException("Les candidatures ont changé depuis le plan, proposez-en un nouveau"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.post("/applications/placement/1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(MAPPER.writeValueAsString(getDummyPlacementPlan())))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("Les candidatures ont changé depuis le plan");
+    }
+
     @Test
     public void testGetAllOffersByStudentsApplied() throws Exception {
         List<OfferApplication> offerApplicationsList = getDummyOfferAppList();
@@ -461,6 +615,10 @@ class OfferApplicationControllerTest {
         assertThat(response.getContentAsString()).contains("Il n'y a pas de gestionnaire associé à cet identifiant");
     }
 
+    private AuthenticatedUserDTO getDummyAuthenticatedUser(TypeUser role) {
+        return new AuthenticatedUserDTO(1L, role, "cant@outlook.com");
+    }
+
     private OfferAppDTO getDummyOfferAppDto() {
         OfferAppDTO offerAppDTO = new OfferAppDTO();
         offerAppDTO.setIdStudent(1L);
@@ -472,7 +630,9 @@ class OfferApplicationControllerTest {
     private OfferApplication getDummyOfferApp() {
         OfferApplication dummyOfferApplicationDTO = new OfferApplication();
         dummyOfferApplicationDTO.setOffer(getDummyOffer());
-        dummyOfferApplicationDTO.setCurriculum(new Curriculum());
+        Curriculum curriculum = new Curriculum();
+        curriculum.setStudent(getDummyStudent());
+        dummyOfferApplicationDTO.setCurriculum(curriculum);
         dummyOfferApplicationDTO.setId(1L);
 
         return dummyOfferApplicationDTO;
@@ -503,7 +663,6 @@ class OfferApplicationControllerTest {
         Curriculum dummyCurriculum = new Curriculum();
 
         dummyCurriculum.setId(1L);
-        dummyCurriculum.setData("some xml".getBytes());
         dummyCurriculum.setName("sample.pdf");
         dummyCurriculum.setStudent(new Student());
         return dummyCurriculum;
@@ -549,4 +708,9 @@ class OfferApplicationControllerTest {
         return offerApplicationList;
     }
 
+    private PlacementPlanDTO getDummyPlacementPlan() {
+        return new PlacementPlanDTO(1L, List.of(
+                new PlacementDTO(1L, 1L, 1L, Status.EN_ATTENTE_REPONSE, Status.STAGE_TROUVE),
+                new PlacementDTO(2L, 2L, 1L, Status.EN_ATTENTE_REPONSE, Status.STAGE_REFUSE)), 1, 1);
+    }
 }
\ No newline at end of file
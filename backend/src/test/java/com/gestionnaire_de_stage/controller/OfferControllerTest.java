@@ -3,12 +3,17 @@ package com.gestionnaire_de_stage.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gestionnaire_de_stage.dto.OfferDTO;
+import com.gestionnaire_de_stage.dto.OfferRecommendationDTO;
+import com.gestionnaire_de_stage.dto.OfferSearchResultDTO;
 import com.gestionnaire_de_stage.dto.ValidationOffer;
 import com.gestionnaire_de_stage.exception.DoesNotExistException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.exception.OfferAlreadyExistsException;
 import com.gestionnaire_de_stage.exception.OfferAlreadyTreatedException;
 import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.service.OfferCatalogService;
+import com.gestionnaire_de_stage.service.OfferRecommendationService;
+import com.gestionnaire_de_stage.service.OfferSearchService;
 import com.gestionnaire_de_stage.service.OfferService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,9 +28,12 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.when;
 
 @WebMvcTest(OfferController.class)
@@ -36,6 +44,14 @@ public class OfferControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private OfferService offerService;
+    @MockBean
+    private OfferCatalogService offerCatalogService;
+    @MockBean
+    private OfferSearchService offerSearchService;
+    @MockBean
+    private OfferRecommendationService offerRecommendationService;
+    @Autowired
+    private ObjectMapper objectMapper;
     private Offer dummyOffer;
 
     @Test
@@ -215,10 +231,13 @@ public class OfferControllerTest {
     @Test
     public void testGetOffersNotYetApplied() throws Exception {
         List<Offer> dummyArrayOffer = getDummyArrayOffer();
-        when(offerService.getOffersNotYetApplied(any())).thenReturn(dummyArrayOffer);
+        when(offerService.getOffersNotYetApplied(1L, 2L, 1, 10)).thenReturn(dummyArrayOffer);
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.get("/offers/{0}", 1L)
+                                .param("sessionId", "2")
+                                .param("page", "1")
+                                .param("size", "10")
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
@@ -231,7 +250,7 @@ public class OfferControllerTest {
 
     @Test
     public void testGetOffersNotYetApplied_withInvalidStudent() throws Exception {
-        when(offerService.getOffersNotYetApplied(any()))
+        when(offerService.getOffersNotYetApplied(any(), any(), anyInt(), anyInt()))
                 .thenThrow(new IdDoesNotExistException("Il n'y a pas d'étudiant associé à cet identifiant"));
 
         MvcResult mvcResult = mockMvc.perform(
@@ -245,10 +264,26 @@ public class OfferControllerTest {
     }
 
 
+    @Test
+    public void testGetOffersNotYetApplied_withInvalidPage() throws Exception {
+        when(offerService.getOffersNotYetApplied(any(), any(), anyInt(), anyInt()))
+                .thenThrow(new IllegalArgumentException("La taille de la page doit être entre 1 et 100"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/offers/{0}", 1L)
+                                .param("size", "1000")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("La taille de la page doit être entre 1 et 100");
+    }
+
     @Test
     void testGetValidOffers() throws Exception {
         List<Offer> dummyArrayOffer = getDummyArrayOffer();
-        when(offerService.getValidOffers()).thenReturn(dummyArrayOffer);
+        when(offerCatalogService.getValidOffersJson()).thenReturn(objectMapper.writeValueAsBytes(dummyArrayOffer));
 
         MvcResult mvcResult = mockMvc.perform(
                         MockMvcRequestBuilders.get("/offers/valid")
@@ -259,6 +294,7 @@ public class OfferControllerTest {
         List<Offer> returnedOffers = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
         });
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
         assertThat(returnedOffers).isEqualTo(dummyArrayOffer);
     }
 
@@ -279,6 +315,75 @@ public class OfferControllerTest {
         assertThat(returnedOffers).isEqualTo(dummyArrayOffer);
     }
 
+    @Test
+    void testSearchOffers() throws Exception {
+        List<Offer> dummyArrayOffer = getDummyArrayOffer();
+        when(offerSearchService.search(argThat(criteria -> "java".equals(criteria.getQ())
+                && "Informatique".equals(criteria.getDepartment()) && criteria.getPage() == 1)))
+                .thenReturn(new OfferSearchResultDTO(dummyArrayOffer, 23, Map.of("Informatique", 23L), Map.of(1L, 23L), Map.of("20-25", 23L)));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/offers/search")
+                                .param("q", "java")
+                                .param("department", "Informatique")
+                                .param("page", "1")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        OfferSearchResultDTO result = MAPPER.readValue(response.getContentAsString(), OfferSearchResultDTO.class);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(result.getOffers()).isEqualTo(dummyArrayOffer);
+        assertThat(result.getTotal()).isEqualTo(23);
+    }
+
+    @Test
+    void testSearchOffers_withInvalidPage() throws Exception {
+        when(offerSearchService.search(any())).thenThrow(new IllegalArgumentException("Le numéro de page ne peut pas être négatif"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/offers/search")
+                                .param("page", "-1")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("Le numéro de page ne peut pas être négatif");
+    }
+
+    @Test
+    void testGetRecommendations() throws Exception {
+        List<OfferRecommendationDTO> dummyRecommendations = List.of(
+                new OfferRecommendationDTO(getDummyOffer(), 0.8, true, 0.5, true, 0.25));
+        when(offerRecommendationService.getRecommendations(any())).thenReturn(dummyRecommendations);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/offers/recommendations/1")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        List<OfferRecommendationDTO> recommendations = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {
+        });
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(recommendations).isEqualTo(dummyRecommendations);
+    }
+
+    @Test
+    void testGetRecommendations_withInvalidStudentId() throws Exception {
+        when(offerRecommendationService.getRecommendations(any())).thenThrow(new IdDoesNotExistException("Il n'y a pas d'étudiant associé à cet identifiant"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/offers/recommendations/34")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("Il n'y a pas d'étudiant associé à cet identifiant");
+    }
+
     private List<Offer> getDummyArrayOffer() {
         List<Offer> dummyArrayOffer = new ArrayList<>();
         for (long i = 0; i < 3; i++) {
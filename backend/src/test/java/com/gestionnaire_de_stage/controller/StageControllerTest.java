@@ -3,21 +3,28 @@ package com.gestionnaire_de_stage.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gestionnaire_de_stage.dto.DocumentDTO;
 import com.gestionnaire_de_stage.dto.EvalMilieuStageDTO;
 import com.gestionnaire_de_stage.dto.EvalStagiaireDTO;
+import com.gestionnaire_de_stage.dto.StageSummaryDTO;
+import com.gestionnaire_de_stage.enums.DocumentType;
 import com.gestionnaire_de_stage.exception.ContractDoesNotExistException;
 import com.gestionnaire_de_stage.exception.EvaluationAlreadyFilledException;
+import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.exception.MatriculeDoesNotExistException;
 import com.gestionnaire_de_stage.exception.StageDoesNotExistException;
 import com.gestionnaire_de_stage.model.Contract;
 import com.gestionnaire_de_stage.model.Stage;
 import com.gestionnaire_de_stage.model.Student;
 import com.gestionnaire_de_stage.service.ContractService;
+import com.gestionnaire_de_stage.service.DocumentService;
+import com.gestionnaire_de_stage.service.PdfRenderingEngine;
 import com.gestionnaire_de_stage.service.StageService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -32,7 +39,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @WebMvcTest(StageController.class)
 public class StageControllerTest {
@@ -44,6 +51,10 @@ public class StageControllerTest {
     private StageService stageService;
     @MockBean
     private ContractService contractService;
+    @MockBean
+    private PdfRenderingEngine pdfRenderingEngine;
+    @MockBean
+    private DocumentService documentService;
 
     @Test
     public void testFillEvalMilieuStagePDF_withValidEntries() throws Exception {
@@ -254,7 +265,7 @@ public class StageControllerTest {
 
     @Test
     public void testGetAllFormulaireDeVisite_supervisorIdExistent() throws Exception {
-        List<Stage> dummyStageList = getDummyListStage();
+        List<StageSummaryDTO> dummyStageList = getDummyListStage();
         long idSupervisor = 2L;
         when(stageService.getAllEvaluationsForSupervisor(any())).thenReturn(dummyStageList);
 
@@ -264,7 +275,7 @@ public class StageControllerTest {
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
-        final List<Stage> stages = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {});
+        final List<StageSummaryDTO> stages = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {});
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(stages).hasSize(10);
     }
@@ -285,7 +296,7 @@ public class StageControllerTest {
         final MockHttpServletResponse response = mvcResult.getResponse();
         assertThat(response.getContentAsString()).isNotBlank();
 
-        final List<Stage> stages = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {});
+        final List<StageSummaryDTO> stages = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {});
 
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(stages).isEmpty();
@@ -294,7 +305,7 @@ public class StageControllerTest {
     @Test
     public void testGetAllEvaluationStagiare_withMonitorExistentId() throws Exception {
         long idMonitor = 2L;
-        List<Stage> dummyStageList = getDummyListStage();
+        List<StageSummaryDTO> dummyStageList = getDummyListStage();
         when(stageService.getAllEvaluationsForMonitor(any()))
                 .thenReturn(dummyStageList);
 
@@ -306,7 +317,7 @@ public class StageControllerTest {
         final MockHttpServletResponse response = mvcResult.getResponse();
         assertThat(response.getContentAsString()).isNotBlank();
 
-        final List<Stage> stages = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {});
+        final List<StageSummaryDTO> stages = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {});
 
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(stages)
@@ -325,7 +336,7 @@ public class StageControllerTest {
                 .andReturn();
 
         final MockHttpServletResponse response = mvcResult.getResponse();
-        final List<Stage> stages = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {});
+        final List<StageSummaryDTO> stages = MAPPER.readValue(response.getContentAsString(), new TypeReference<>() {});
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(stages).isEmpty();
     }
@@ -345,6 +356,48 @@ public class StageControllerTest {
         assertThat(response.getContentAsString()).contains("test");
     }
 
+    @Test
+    public void testGetEvalMilieuStagePDF_withExistentId() throws Exception {
+        when(documentService.getDocument(any(), any())).thenReturn(new DocumentDTO(1L, 4L, "abc123",
+                MediaType.APPLICATION_PDF_VALUE, "eval_milieu_stage_1.pdf", new ByteArrayResource(new byte[]{37, 80, 68, 70})));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/stages/eval_milieu_stage/{idStage}", 1L))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_PDF_VALUE);
+        assertThat(response.getContentAsByteArray()).isEqualTo(new byte[]{37, 80, 68, 70});
+        verify(documentService, times(1)).getDocument(DocumentType.EVAL_MILIEU_STAGE, 1L);
+    }
+
+    @Test
+    public void testGetEvalMilieuStagePDF_withNonExistentId() throws Exception {
+        when(documentService.getDocument(any(), any())).thenThrow(new IdDoesNotExistException("Il n'y a pas de stage associé à cet identifiant"));
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/stages/eval_milieu_stage/{idStage}", 1L))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("Il n'y a pas de stage associé à cet identifiant");
+    }
+
+    @Test
+    public void testGetEvalStagiairePDF_withNotFilledEvaluation() throws Exception {
+        when(documentService.getDocument(any(), any())).thenReturn(null);
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/stages/eval_stagiaire/{idStage}", 1L))
+                .andReturn();
+
+        final MockHttpServletResponse response = mvcResult.getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(response.getContentAsString()).contains("Cette évaluation n'a pas encore été remplie");
+    }
+
     private EvalMilieuStageDTO getDummyEvalMilieuStageDTO() {
         EvalMilieuStageDTO dummyEvalMilieuStageDTO = new EvalMilieuStageDTO();
         dummyEvalMilieuStageDTO.setCompanyName("La place");
@@ -377,12 +430,12 @@ public class StageControllerTest {
         return dummyContract;
     }
 
-    private List<Stage> getDummyListStage(){
-        List<Stage> stages = new ArrayList<>();
+    private List<StageSummaryDTO> getDummyListStage(){
+        List<StageSummaryDTO> stages = new ArrayList<>();
 
         for(long i =0; i< 10; i++){
-            Stage stage = getDummyStage();
-            stage.setId(i);
+            StageSummaryDTO stage = new StageSummaryDTO(i, 1L, 4L, null, null, null,
+                    1L, "Tea", "Candle", "cant@outlook.com", null, null, null, null, null, null, null, null);
             stages.add(stage);
         }
         return stages;
@@ -4,7 +4,6 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gestionnaire_de_stage.dto.StudentMonitorOfferDTO;
 import com.gestionnaire_de_stage.exception.CurriculumNotValidException;
-import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.exception.StudentAlreadyExistsException;
 import com.gestionnaire_de_stage.model.*;
@@ -93,56 +92,6 @@ public class StudentControllerTest {
         assertThat(response.getContentAsString()).contains("Un compte existe déjà pour cet étudiant");
     }
 
-    @Test
-    public void testStudentLogin_withValidEntries() throws Exception {
-        Student dummyStudent = getDummyStudent();
-        String email = "clip@gmail.com";
-        String password = "thiswilldo";
-        when(studentService.getOneByEmailAndPassword(any(), any())).thenReturn(dummyStudent);
-
-        MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/student/" + email + "/" + password)
-                                .contentType(MediaType.APPLICATION_JSON))
-                .andReturn();
-
-        final MockHttpServletResponse response = mvcResult.getResponse();
-        Student actualStudent = MAPPER.readValue(response.getContentAsString(), Student.class);
-        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
-        assertThat(actualStudent.getLastName()).isEqualTo("Brawl");
-    }
-
-    @Test
-    public void testStudentLogin_withNullEntries() throws Exception {
-        String email = "clip@gmail.com";
-        String password = "thiswilldo";
-        when(studentService.getOneByEmailAndPassword(any(), any())).thenThrow(new IllegalArgumentException("Courriel et mot de passe ne peuvent pas être vide"));
-
-        MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/student/" + email + "/" + password)
-                                .contentType(MediaType.APPLICATION_JSON))
-                .andReturn();
-
-        final MockHttpServletResponse response = mvcResult.getResponse();
-        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
-        assertThat(response.getContentAsString()).contains("Courriel et mot de passe ne peuvent pas être vide");
-    }
-
-    @Test
-    public void testStudentLogin_withInvalidEntries() throws Exception {
-        String email = "clip@gmail.com";
-        String password = "thiswilldo";
-        when(studentService.getOneByEmailAndPassword(any(), any())).thenThrow(new EmailAndPasswordDoesNotExistException("Courriel ou mot de passe invalide"));
-
-        MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/student/" + email + "/" + password)
-                                .contentType(MediaType.APPLICATION_JSON))
-                .andReturn();
-
-        final MockHttpServletResponse response = mvcResult.getResponse();
-        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
-        assertThat(response.getContentAsString()).contains("Courriel ou mot de passe invalide");
-    }
-
     @Test
     public void testSetPrincipalCurriculum_withValidEntries() throws Exception {
         Student student = getDummyStudent();
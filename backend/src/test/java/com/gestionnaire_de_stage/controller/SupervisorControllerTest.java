@@ -4,7 +4,6 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gestionnaire_de_stage.dto.AssignDto;
 import com.gestionnaire_de_stage.enums.Status;
-import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.exception.SupervisorAlreadyExistsException;
 import com.gestionnaire_de_stage.model.Curriculum;
@@ -98,40 +97,6 @@ public class SupervisorControllerTest {
         assertThat(response.getContentAsString()).contains("Un compte existe déjà pour ce superviseur");
     }
 
-    @Test
-    public void testSupervisorLogin_withValidEntries() throws Exception {
-        Supervisor dummySupervisor = getDummySupervisor();
-        String email = "sinl@gmail.com";
-        String password = "weightofworld";
-        when(supervisorService.getOneByEmailAndPassword(any(), any())).thenReturn(dummySupervisor);
-
-        MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/supervisor/" + email + "/" + password)
-                                .contentType(MediaType.APPLICATION_JSON))
-                .andReturn();
-
-        final MockHttpServletResponse response = mvcResult.getResponse();
-        Supervisor actualSupervisor = MAPPER.readValue(response.getContentAsString(), Supervisor.class);
-        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
-        assertThat(actualSupervisor.getLastName()).isEqualTo("Singh");
-    }
-
-    @Test
-    public void testSupervisorLogin_withNullEntries() throws Exception {
-        String email = "sinl@gmail.com";
-        String password = "weightofworld";
-        when(supervisorService.getOneByEmailAndPassword(any(), any())).thenThrow(new IllegalArgumentException("Courriel et mot de passe ne peuvent pas être vide"));
-
-        MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/supervisor/" + email + "/" + password)
-                                .contentType(MediaType.APPLICATION_JSON))
-                .andReturn();
-
-        final MockHttpServletResponse response = mvcResult.getResponse();
-        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
-        assertThat(response.getContentAsString()).contains("Courriel et mot de passe ne peuvent pas être vide");
-    }
-
     @Test
     public void testAssign_withAssignedStudent() throws Exception {
         AssignDto assignDto = new AssignDto(1L, 2L);
@@ -181,22 +146,6 @@ public class SupervisorControllerTest {
         assertThat(response.getContentAsString()).contains("Il n'y a pas de superviseur associé à cet identifiant");
     }
 
-    @Test
-    public void testSupervisorLogin_withInvalidEntries() throws Exception {
-        String email = "sinl@gmail.com";
-        String password = "weightofworld";
-        when(supervisorService.getOneByEmailAndPassword(any(), any())).thenThrow(new EmailAndPasswordDoesNotExistException("Courriel ou mot de passe invalide"));
-
-        MvcResult mvcResult = mockMvc.perform(
-                        MockMvcRequestBuilders.get("/supervisor/" + email + "/" + password)
-                                .contentType(MediaType.APPLICATION_JSON))
-                .andReturn();
-
-        final MockHttpServletResponse response = mvcResult.getResponse();
-        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
-        assertThat(response.getContentAsString()).contains("Courriel ou mot de passe invalide");
-    }
-
     @Test
     public void testGetAllSupervisor() throws Exception {
         List<Supervisor> list = Arrays.asList(new Supervisor(), new Supervisor());
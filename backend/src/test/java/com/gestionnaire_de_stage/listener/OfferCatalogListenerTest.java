@@ -0,0 +1,103 @@
+package com.gestionnaire_de_stage.listener;
+
+import com.gestionnaire_de_stage.enums.TypeSession;
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.Session;
+import com.gestionnaire_de_stage.repository.OfferRepository;
+import com.gestionnaire_de_stage.repository.SessionRepository;
+import com.gestionnaire_de_stage.service.OfferCatalogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManager;
+import java.time.Year;
+
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@Import(OfferCatalogListener.class)
+public class OfferCatalogListenerTest {
+
+    @MockBean
+    private OfferCatalogService offerCatalogService;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testOfferCreated_notInCatalogYet() {
+        offerRepository.save(getDummyOffer());
+        entityManager.flush();
+
+        verify(offerCatalogService, never()).evictAll();
+    }
+
+    @Test
+    public void testOfferValidated() {
+        Offer offer = offerRepository.save(getDummyOffer());
+        entityManager.flush();
+        offer.setValid(true);
+        entityManager.flush();
+
+        verify(offerCatalogService, times(1)).evictAll();
+    }
+
+    @Test
+    public void testOfferRefused_notInCatalog() {
+        Offer offer = offerRepository.save(getDummyOffer());
+        entityManager.flush();
+        offer.setValid(false);
+        entityManager.flush();
+        offer.setTitle("Un autre titre");
+        entityManager.flush();
+
+        verify(offerCatalogService, never()).evictAll();
+    }
+
+    @Test
+    public void testValidOfferChanged() {
+        Offer offer = getDummyOffer();
+        offer.setValid(true);
+        offer = offerRepository.save(offer);
+        entityManager.flush();
+        offer.setSession(sessionRepository.save(new Session(null, TypeSession.ETE, Year.of(2022))));
+        entityManager.flush();
+        offerRepository.delete(offer);
+        entityManager.flush();
+
+        verify(offerCatalogService, times(3)).evictAll();
+    }
+
+    @Test
+    public void testSessionChanged() {
+        Session session = sessionRepository.save(new Session(null, TypeSession.HIVER, Year.of(2022)));
+        entityManager.flush();
+        session.setYear(Year.of(2023));
+        entityManager.flush();
+
+        verify(offerCatalogService, times(1)).evictAll();
+    }
+
+    private Offer getDummyOffer() {
+        Offer dummyOffer = new Offer();
+        dummyOffer.setDepartment("Un departement");
+        dummyOffer.setAddress("ajsaodas");
+        dummyOffer.setDescription("oeinoiendw");
+        dummyOffer.setSalary(10);
+        dummyOffer.setTitle("oeinoiendw");
+        return dummyOffer;
+    }
+}
@@ -0,0 +1,152 @@
+package com.gestionnaire_de_stage.listener;
+
+import com.gestionnaire_de_stage.enums.TypeSession;
+import com.gestionnaire_de_stage.model.Curriculum;
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.OfferApplication;
+import com.gestionnaire_de_stage.model.Session;
+import com.gestionnaire_de_stage.model.Student;
+import com.gestionnaire_de_stage.repository.CurriculumRepository;
+import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
+import com.gestionnaire_de_stage.repository.OfferRepository;
+import com.gestionnaire_de_stage.repository.SessionRepository;
+import com.gestionnaire_de_stage.repository.StudentRepository;
+import com.gestionnaire_de_stage.service.OfferRecommendationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManager;
+import java.time.Year;
+
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@Import(OfferRecommendationListener.class)
+public class OfferRecommendationListenerTest {
+
+    @MockBean
+    private OfferRecommendationService offerRecommendationService;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CurriculumRepository curriculumRepository;
+
+    @Autowired
+    private OfferApplicationRepository offerApplicationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testOfferValidated() {
+        Offer offer = offerRepository.save(getDummyOffer());
+        entityManager.flush();
+        offer.setValid(true);
+        entityManager.flush();
+
+        verify(offerRecommendationService, times(1)).rescoreOffer(offer);
+        verify(offerRecommendationService, never()).markStale();
+    }
+
+    @Test
+    public void testValidOfferChangedAndDeleted() {
+        Offer offer = getDummyOffer();
+        offer.setValid(true);
+        offerRepository.save(offer);
+        entityManager.flush();
+        offer.setTitle("Programmeur");
+        entityManager.flush();
+        offerRepository.delete(offer);
+        entityManager.flush();
+
+        verify(offerRecommendationService, times(2)).markStale();
+        verify(offerRecommendationService, never()).rescoreOffer(any());
+    }
+
+    @Test
+    public void testPendingOfferChanged() {
+        Offer offer = offerRepository.save(getDummyOffer());
+        entityManager.flush();
+        offer.setTitle("Programmeur");
+        entityManager.flush();
+
+        verify(offerRecommendationService, never()).markStale();
+        verify(offerRecommendationService, never()).rescoreOffer(any());
+    }
+
+    @Test
+    public void testSessionChanged() {
+        Session session = sessionRepository.save(new Session(null, TypeSession.HIVER, Year.of(2022)));
+        entityManager.flush();
+        session.setYear(Year.of(2023));
+        entityManager.flush();
+
+        verify(offerRecommendationService, times(1)).markStale();
+    }
+
+    @Test
+    public void testStudentCurriculumChanged() {
+        Student student = studentRepository.save(getDummyStudent());
+        Curriculum curriculum = curriculumRepository.save(new Curriculum("cv.pdf", "application/pdf", "hash", 10L, student));
+        entityManager.flush();
+        verify(offerRecommendationService, times(1)).rescoreStudent(student.getId());
+
+        student.setPrincipalCurriculum(curriculum);
+        entityManager.flush();
+        student.setPhone("5144758569");
+        entityManager.flush();
+
+        verify(offerRecommendationService, times(2)).rescoreStudent(student.getId());
+    }
+
+    @Test
+    public void testOfferApplicationCreated() {
+        Student student = studentRepository.save(getDummyStudent());
+        Curriculum curriculum = curriculumRepository.save(new Curriculum("cv.pdf", "application/pdf", "hash", 10L, student));
+        Offer offer = offerRepository.save(getDummyOffer());
+        entityManager.flush();
+        OfferApplication offerApplication = new OfferApplication();
+        offerApplication.setOffer(offer);
+        offerApplication.setCurriculum(curriculum);
+        offerApplicationRepository.save(offerApplication);
+        entityManager.flush();
+
+        verify(offerRecommendationService, times(2)).rescoreStudent(student.getId());
+    }
+
+    private Offer getDummyOffer() {
+        Offer dummyOffer = new Offer();
+        dummyOffer.setDepartment("Un departement");
+        dummyOffer.setAddress("ajsaodas");
+        dummyOffer.setDescription("oeinoiendw");
+        dummyOffer.setSalary(10);
+        dummyOffer.setTitle("oeinoiendw");
+        return dummyOffer;
+    }
+
+    private Student getDummyStudent() {
+        Student dummyStudent = new Student();
+        dummyStudent.setLastName("Candle");
+        dummyStudent.setFirstName("Tea");
+        dummyStudent.setEmail("cant@outlook.com");
+        dummyStudent.setPassword("cantPass");
+        dummyStudent.setDepartment("Informatique");
+        dummyStudent.setMatricule("4673943");
+        return dummyStudent;
+    }
+}
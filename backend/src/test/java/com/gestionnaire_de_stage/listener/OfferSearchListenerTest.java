@@ -0,0 +1,80 @@
+package com.gestionnaire_de_stage.listener;
+
+import com.gestionnaire_de_stage.enums.TypeSession;
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.Session;
+import com.gestionnaire_de_stage.repository.OfferRepository;
+import com.gestionnaire_de_stage.repository.SessionRepository;
+import com.gestionnaire_de_stage.service.OfferSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManager;
+import java.time.Year;
+
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@Import(OfferSearchListener.class)
+public class OfferSearchListenerTest {
+
+    @MockBean
+    private OfferSearchService offerSearchService;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testOfferCreatedAndChanged() {
+        Offer offer = offerRepository.save(getDummyOffer());
+        entityManager.flush();
+        offer.setValid(true);
+        entityManager.flush();
+
+        verify(offerSearchService, times(2)).index(offer);
+    }
+
+    @Test
+    public void testOfferDeleted() {
+        Offer offer = offerRepository.save(getDummyOffer());
+        entityManager.flush();
+        offerRepository.delete(offer);
+        entityManager.flush();
+
+        verify(offerSearchService, times(1)).remove(offer.getId());
+    }
+
+    @Test
+    public void testSessionChanged() {
+        Session session = sessionRepository.save(new Session(null, TypeSession.HIVER, Year.of(2022)));
+        entityManager.flush();
+        session.setYear(Year.of(2023));
+        entityManager.flush();
+
+        verify(offerSearchService, times(1)).updateSession(session);
+        verify(offerSearchService, never()).index(any());
+    }
+
+    private Offer getDummyOffer() {
+        Offer dummyOffer = new Offer();
+        dummyOffer.setDepartment("Un departement");
+        dummyOffer.setAddress("ajsaodas");
+        dummyOffer.setDescription("oeinoiendw");
+        dummyOffer.setSalary(10);
+        dummyOffer.setTitle("oeinoiendw");
+        return dummyOffer;
+    }
+}
@@ -0,0 +1,148 @@
+package com.gestionnaire_de_stage.listener;
+
+import com.gestionnaire_de_stage.enums.OutboxEventType;
+import com.gestionnaire_de_stage.enums.Status;
+import com.gestionnaire_de_stage.model.*;
+import com.gestionnaire_de_stage.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@Import(OutboxEventListener.class)
+public class OutboxEventListenerTest {
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private OfferApplicationRepository offerApplicationRepository;
+
+    @Autowired
+    private CurriculumRepository curriculumRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testOfferCreatedAndValidated() {
+        Offer offer = offerRepository.save(getDummyOffer());
+        offer.setValid(true);
+        entityManager.flush();
+        offer.setTitle("Un autre titre");
+        entityManager.flush();
+
+        assertThat(recordedTypes(offer.getId())).containsExactly(OutboxEventType.OFFER_CREATED, OutboxEventType.OFFER_VALIDATED);
+    }
+
+    @Test
+    public void testOfferApplicationStatusAndInterview() {
+        OfferApplication offerApplication = offerApplicationRepository.save(new OfferApplication());
+        entityManager.flush();
+        offerApplication.setStatus(Status.EN_ATTENTE_ENTREVUE);
+        offerApplication.setInterviewDate(LocalDateTime.now());
+        entityManager.flush();
+        offerApplication.setStatus(Status.EN_ATTENTE_REPONSE);
+        entityManager.flush();
+        offerApplication.setStatus(Status.STAGE_TROUVE);
+        entityManager.flush();
+
+        assertThat(recordedTypes(offerApplication.getId())).containsExactly(
+                OutboxEventType.OFFER_APPLICATION_CREATED,
+                OutboxEventType.OFFER_APPLICATION_INTERVIEW_SET,
+                OutboxEventType.OFFER_APPLICATION_INTERVIEW_PASSED,
+                OutboxEventType.OFFER_APPLICATION_STAGE_TROUVE);
+    }
+
+    @Test
+    public void testCurriculumValidated() {
+        Curriculum curriculum = curriculumRepository.save(new Curriculum("cv.pdf", "application/pdf",
+                "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08", 4L, studentRepository.save(getDummyStudent())));
+        entityManager.flush();
+        curriculum.setIsValid(false);
+        entityManager.flush();
+
+        assertThat(recordedTypes(curriculum.getId())).containsExactly(OutboxEventType.CURRICULUM_VALIDATED);
+    }
+
+    @Test
+    public void testContractSignatures() {
+        Contract contract = contractRepository.save(new Contract());
+        contract.setManagerSignature("Oussama Kably");
+        entityManager.flush();
+        contract.setMonitorSignature("Toto Titi");
+        entityManager.flush();
+
+        assertThat(recordedTypes(contract.getId())).containsExactly(
+                OutboxEventType.CONTRACT_SIGNED_BY_MANAGER,
+                OutboxEventType.CONTRACT_SIGNED_BY_MONITOR);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testEventRolledBackWithChange() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            offerRepository.save(getDummyOffer());
+            status.setRollbackOnly();
+        });
+
+        assertThat(offerRepository.count()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event", Long.class)).isZero();
+    }
+
+    private List<OutboxEventType> recordedTypes(Long aggregateId) {
+        return jdbcTemplate.query("SELECT type FROM outbox_event WHERE aggregate_id = ? ORDER BY id",
+                (rs, rowNum) -> OutboxEventType.valueOf(rs.getString(1)), aggregateId);
+    }
+
+    private Student getDummyStudent() {
+        Student dummyStudent = new Student();
+        dummyStudent.setLastName("Winter");
+        dummyStudent.setFirstName("Summer");
+        dummyStudent.setEmail("cant@outlook.com");
+        dummyStudent.setPassword("cantPass");
+        dummyStudent.setDepartment("info");
+        dummyStudent.setMatricule("4673943");
+        return dummyStudent;
+    }
+
+    private Offer getDummyOffer() {
+        Offer dummyOffer = new Offer();
+        dummyOffer.setDepartment("Un departement");
+        dummyOffer.setAddress("ajsaodas");
+        dummyOffer.setDescription("oeinoiendw");
+        dummyOffer.setSalary(10);
+        dummyOffer.setTitle("oeinoiendw");
+        return dummyOffer;
+    }
+}
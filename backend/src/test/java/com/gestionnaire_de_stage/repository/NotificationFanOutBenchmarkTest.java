@@ -0,0 +1,77 @@
+package com.gestionnaire_de_stage.repository;
+
+import com.gestionnaire_de_stage.model.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j(topic = "NotificationFanOutBenchmarkTest")
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+public class NotificationFanOutBenchmarkTest {
+
+    private static final int STUDENT_COUNT = 10_000;
+
+    private static final String MESSAGE = "Une nouvelle offre de stage a été publiée.";
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private void insertStudents(int count) {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> students = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            users.add(new Object[]{id, "student" + id + "@cegep.qc.ca", "Prénom", "Nom", "Password1"});
+            students.add(new Object[]{id, String.format("%07d", id), "Informatique"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, role, email, first_name, last_name, password) " +
+                "VALUES (?, 'STUDENT', ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO student (id, matricule, department) VALUES (?, ?, ?)", students);
+    }
+
+    @Test
+    public void benchmarkOfferValidationFanOut() {
+        insertStudents(STUDENT_COUNT);
+
+        long start = System.nanoTime();
+        studentRepository.findAll().forEach(student ->
+                notificationRepository.save(new Notification(student, MESSAGE)));
+        entityManager.flush();
+        long perRecipient = System.nanoTime() - start;
+        entityManager.clear();
+        jdbcTemplate.update("DELETE FROM notification");
+
+        start = System.nanoTime();
+        int inserted = notificationRepository.notifyAllStudents(MESSAGE, LocalDateTime.now());
+        long bulk = System.nanoTime() - start;
+
+        log.info("Offer validation fan-out to {} students: {} ms with one save per student, {} ms with INSERT ... SELECT",
+                STUDENT_COUNT, perRecipient / 1_000_000, bulk / 1_000_000);
+        assertThat(inserted).isEqualTo(STUDENT_COUNT);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification WHERE message = ? AND seen = FALSE",
+                Long.class, MESSAGE)).isEqualTo(STUDENT_COUNT);
+    }
+}
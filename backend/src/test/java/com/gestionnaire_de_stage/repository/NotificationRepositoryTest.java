@@ -0,0 +1,110 @@
+package com.gestionnaire_de_stage.repository;
+
+import com.gestionnaire_de_stage.dto.NotificationDTO;
+import com.gestionnaire_de_stage.model.Notification;
+import com.gestionnaire_de_stage.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+public class NotificationRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2021, 11, 20, 10, 0);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private Student student;
+
+    private final List<Notification> notifications = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        student = studentRepository.save(getDummyStudent("cant@outlook.com", "4673943"));
+        Student other = studentRepository.save(getDummyStudent("other@outlook.com", "4673944"));
+        // Two notifications share each date, the id breaks the tie
+        for (int i = 0; i < 6; i++)
+            notifications.add(notificationRepository.save(getDummyNotification(student, NOW.minusMinutes(i / 2))));
+        notificationRepository.save(getDummyNotification(other, NOW));
+    }
+
+    @Test
+    public void testFindHistory_pagesThroughEveryNotificationOnce() {
+        List<Long> seen = new ArrayList<>();
+        List<NotificationDTO> page = notificationRepository.findHistoryByTargetedUserId(student.getId(), PageRequest.of(0, 4));
+        while (!page.isEmpty()) {
+            page.forEach(notification -> seen.add(notification.getId()));
+            NotificationDTO last = page.get(page.size() - 1);
+            page = notificationRepository.findHistoryByTargetedUserIdBefore(student.getId(), last.getCreatedDate(), last.getId(), PageRequest.of(0, 4));
+        }
+
+        assertThat(seen).containsExactly(
+                notifications.get(1).getId(), notifications.get(0).getId(),
+                notifications.get(3).getId(), notifications.get(2).getId(),
+                notifications.get(5).getId(), notifications.get(4).getId());
+    }
+
+    @Test
+    public void testMarkAllSeen_updatesOnlyTheUser() {
+        notifications.get(0).setSeen(true);
+        notificationRepository.save(notifications.get(0));
+
+        int updated = notificationRepository.markAllSeenByTargetedUserId(student.getId());
+
+        assertThat(updated).isEqualTo(5);
+        assertThat(notificationRepository.countBySeenIsFalseAndTargetedUser_Id(student.getId())).isZero();
+        assertThat(notificationRepository.findAll().stream().filter(n -> !n.isSeen()).collect(Collectors.toList())).hasSize(1);
+    }
+
+    @Test
+    public void testNotifyAllStudents_targetsEveryStudent() {
+        int inserted = notificationRepository.notifyAllStudents("Une nouvelle offre de stage a été publiée.", NOW);
+
+        List<Notification> unseen = notificationRepository.findAllBySeenIsFalseAndTargetedUser_IdOrderByCreatedDateDesc(student.getId());
+        assertThat(inserted).isEqualTo(2);
+        assertThat(unseen).hasSize(7);
+        assertThat(unseen).filteredOn(notification -> notification.getMessage().equals("Une nouvelle offre de stage a été publiée."))
+                .hasSize(1);
+    }
+
+    @Test
+    public void testNotifyAllManagers_withoutManagers() {
+        int inserted = notificationRepository.notifyAllManagers("Une nouvelle offre est en attente de validation.", NOW);
+
+        assertThat(inserted).isZero();
+    }
+
+    private Notification getDummyNotification(Student student, LocalDateTime createdDate) {
+        Notification notification = new Notification(student, "a test message");
+        notification.setCreatedDate(createdDate);
+        return notification;
+    }
+
+    private Student getDummyStudent(String email, String matricule) {
+        Student dummyStudent = new Student();
+        dummyStudent.setLastName("Winter");
+        dummyStudent.setFirstName("Summer");
+        dummyStudent.setEmail(email);
+        dummyStudent.setPassword("cantPass");
+        dummyStudent.setDepartment("info");
+        dummyStudent.setMatricule(matricule);
+        return dummyStudent;
+    }
+}
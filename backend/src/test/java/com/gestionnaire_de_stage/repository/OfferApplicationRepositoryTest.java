@@ -0,0 +1,105 @@
+package com.gestionnaire_de_stage.repository;
+
+import com.gestionnaire_de_stage.enums.Status;
+import com.gestionnaire_de_stage.model.OfferApplication;
+import com.gestionnaire_de_stage.util.UniqueConstraints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+public class OfferApplicationRepositoryTest {
+
+    @Autowired
+    private OfferApplicationRepository offerApplicationRepository;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private CurriculumRepository curriculumRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate.update("INSERT INTO sessions (id, type_session, year) VALUES (1, 'HIVER', 2021)");
+        jdbcTemplate.update("INSERT INTO offer (id, department, title, description, created, address, salary, valid, session_id) " +
+                "VALUES (1, 'Informatique', 'Offre', 'Description', ?, 'Adresse', 20.0, true, 1)", new Timestamp(0));
+        jdbcTemplate.update("INSERT INTO users (id, role, email, first_name, last_name, password) " +
+                "VALUES (1, 'STUDENT', 'student@cegep.qc.ca', 'Prénom', 'Nom', 'Password1')");
+        jdbcTemplate.update("INSERT INTO student (id, matricule, department) VALUES (1, '1234567', 'Informatique')");
+        jdbcTemplate.update("INSERT INTO curriculum (id, name, student_id) VALUES (1, 'cv.pdf', 1)");
+    }
+
+    @Test
+    public void testSave_withSameOfferAndCurriculum() {
+        offerApplicationRepository.saveAndFlush(getDummyOfferApplication());
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> offerApplicationRepository.saveAndFlush(getDummyOfferApplication()));
+
+        assertThat(UniqueConstraints.isViolated(exception, OfferApplication.UK_OFFER_CURRICULUM)).isTrue();
+    }
+
+    @Test
+    public void testSave_withStaleVersion() {
+        OfferApplication offerApplication = offerApplicationRepository.saveAndFlush(getDummyOfferApplication());
+        jdbcTemplate.update("UPDATE offer_application SET version = version + 1 WHERE id = ?", offerApplication.getId());
+
+        offerApplication.setStatus(Status.EN_ATTENTE_ENTREVUE);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> offerApplicationRepository.saveAndFlush(offerApplication));
+    }
+
+    @Test
+    public void testFindById_withRowWithoutVersion() {
+        jdbcTemplate.update("INSERT INTO offer_application (id, status, offer_id, curriculum_id) VALUES (100, 'CV_ENVOYE', 1, 1)");
+
+        OfferApplication offerApplication = offerApplicationRepository.findById(100L).orElseThrow();
+        offerApplication.setStatus(Status.EN_ATTENTE_ENTREVUE);
+        offerApplicationRepository.saveAndFlush(offerApplication);
+
+        assertThat(offerApplication.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExistsByCurriculumAndOfferCreator() {
+        jdbcTemplate.update("INSERT INTO users (id, role, email, first_name, last_name, password) " +
+                "VALUES (2, 'MONITOR', 'monitor@cegep.qc.ca', 'Prénom', 'Nom', 'Password1')");
+        jdbcTemplate.update("INSERT INTO monitor (id, department) VALUES (2, 'Informatique')");
+        jdbcTemplate.update("UPDATE offer SET creator_id = 2 WHERE id = 1");
+        offerApplicationRepository.saveAndFlush(getDummyOfferApplication());
+
+        assertThat(offerApplicationRepository.existsByCurriculum_IdAndOffer_Creator_Id(1L, 2L)).isTrue();
+        assertThat(offerApplicationRepository.existsByCurriculum_IdAndOffer_Creator_Id(1L, 3L)).isFalse();
+    }
+
+    private OfferApplication getDummyOfferApplication() {
+        entityManager.clear();
+        OfferApplication offerApplication = new OfferApplication();
+        offerApplication.setOffer(offerRepository.getById(1L));
+        offerApplication.setCurriculum(curriculumRepository.getById(1L));
+        offerApplication.setStatus(Status.CV_ENVOYE);
+        return offerApplication;
+    }
+}
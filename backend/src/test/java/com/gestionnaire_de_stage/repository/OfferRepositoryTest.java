@@ -0,0 +1,154 @@
+package com.gestionnaire_de_stage.repository;
+
+import com.gestionnaire_de_stage.enums.TypeSession;
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.OfferApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+public class OfferRepositoryTest {
+
+    private static final Year YEAR = Year.of(2021);
+
+    private static final List<TypeSession> ALL_SESSIONS = List.of(TypeSession.values());
+
+    private static final long WINTER_LAST_YEAR = 1, WINTER = 2, SUMMER = 3, NEXT_WINTER = 4;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private OfferApplicationRepository offerApplicationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private void insertSessions() {
+        jdbcTemplate.batchUpdate("INSERT INTO sessions (id, type_session, year) VALUES (?, ?, ?)", List.of(
+                new Object[]{WINTER_LAST_YEAR, "HIVER", 2020},
+                new Object[]{WINTER, "HIVER", 2021},
+                new Object[]{SUMMER, "ETE", 2021},
+                new Object[]{NEXT_WINTER, "HIVER", 2022}));
+    }
+
+    private void insertOffers(int count) {
+        List<Object[]> offers = new ArrayList<>();
+        for (long id = 1; id <= count; id++)
+            offers.add(new Object[]{id, "Informatique", "Offre " + id, "Description", new Timestamp(0), "Adresse",
+                    20.0, id % 10 != 0, id % 4 + 1});
+        jdbcTemplate.batchUpdate("INSERT INTO offer (id, department, title, description, created, address, salary, valid, session_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", offers);
+    }
+
+    private void insertStudents(int count) {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> students = new ArrayList<>();
+        List<Object[]> curriculums = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            users.add(new Object[]{id, "student" + id + "@cegep.qc.ca", "Prénom", "Nom", "Password1"});
+            students.add(new Object[]{id, String.format("%07d", id), "Informatique"});
+            curriculums.add(new Object[]{id, "cv" + id + ".pdf", id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, role, email, first_name, last_name, password) " +
+                "VALUES (?, 'STUDENT', ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO student (id, matricule, department) VALUES (?, ?, ?)", students);
+        jdbcTemplate.batchUpdate("INSERT INTO curriculum (id, name, student_id) VALUES (?, ?, ?)", curriculums);
+    }
+
+    private void insertApplications(int studentCount, int offerCount, int perStudent) {
+        List<Object[]> applications = new ArrayList<>();
+        long id = 1;
+        for (long student = 1; student <= studentCount; student++)
+            for (int i = 0; i < perStudent; i++)
+                applications.add(new Object[]{id++, "CV_ENVOYE", (student * 31 + i * 7L) % offerCount + 1, student});
+        jdbcTemplate.batchUpdate("INSERT INTO offer_application (id, status, offer_id, curriculum_id) VALUES (?, ?, ?, ?)", applications);
+    }
+
+    private List<Offer> inMemoryNotYetApplied(Long studentId) {
+        List<Offer> offers = offerRepository.findAllByValidIsTrueAndSession_YearGreaterThanEqual(YEAR);
+        offers.removeAll(offerApplicationRepository.getAllByCurriculum_StudentId(studentId).stream()
+                .map(OfferApplication::getOffer)
+                .collect(Collectors.toList()));
+        return offers;
+    }
+
+    private List<Long> ids(List<Offer> offers) {
+        return offers.stream().map(Offer::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFindAllValidNotAppliedByStudent_matchesInMemoryFilter() {
+        insertSessions();
+        insertOffers(200);
+        insertStudents(2);
+        insertApplications(2, 200, 30);
+
+        List<Offer> offers = offerRepository.findAllValidNotAppliedByStudent(1L, YEAR, ALL_SESSIONS, null, PageRequest.of(0, 100)).getContent();
+        List<Offer> nextOffers = offerRepository.findAllValidNotAppliedByStudent(1L, YEAR, ALL_SESSIONS, null, PageRequest.of(1, 100)).getContent();
+
+        List<Long> actualIds = new ArrayList<>(ids(offers));
+        actualIds.addAll(ids(nextOffers));
+        assertThat(actualIds).isEqualTo(ids(inMemoryNotYetApplied(1L)).stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testFindAllValidNotAppliedByStudent_excludesWinterOfThisYear() {
+        insertSessions();
+        insertOffers(40);
+        insertStudents(1);
+
+        List<Offer> offers = offerRepository.findAllValidNotAppliedByStudent(1L, YEAR, List.of(TypeSession.ETE), null, PageRequest.of(0, 100)).getContent();
+
+        assertThat(offers).isNotEmpty();
+        assertThat(offers).allMatch(offer -> offer.getValid()
+                && (offer.getSession().getId() == SUMMER || offer.getSession().getId() == NEXT_WINTER));
+    }
+
+    @Test
+    public void testFindAllValidNotAppliedByStudent_withSession() {
+        insertSessions();
+        insertOffers(40);
+        insertStudents(1);
+        insertApplications(1, 40, 5);
+
+        List<Offer> offers = offerRepository.findAllValidNotAppliedByStudent(1L, YEAR, ALL_SESSIONS, SUMMER, PageRequest.of(0, 100)).getContent();
+
+        List<Long> appliedIds = offerApplicationRepository.getAllByCurriculum_StudentId(1L).stream()
+                .map(offerApplication -> offerApplication.getOffer().getId())
+                .collect(Collectors.toList());
+        assertThat(offers).isNotEmpty();
+        assertThat(offers).allMatch(offer -> offer.getSession().getId() == SUMMER);
+        assertThat(ids(offers)).doesNotContainAnyElementsOf(appliedIds);
+    }
+
+    @Test
+    public void testFindAllValidNotAppliedByStudent_hasNextPage() {
+        insertSessions();
+        insertOffers(40);
+        insertStudents(1);
+
+        Slice<Offer> firstPage = offerRepository.findAllValidNotAppliedByStudent(1L, YEAR, ALL_SESSIONS, null, PageRequest.of(0, 10));
+        Slice<Offer> lastPage = offerRepository.findAllValidNotAppliedByStudent(1L, YEAR, ALL_SESSIONS, null, PageRequest.of(2, 10));
+
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(lastPage.hasNext()).isFalse();
+        assertThat(lastPage.getContent()).hasSize(8);
+    }
+}
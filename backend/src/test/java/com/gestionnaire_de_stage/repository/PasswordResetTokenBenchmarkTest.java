@@ -0,0 +1,104 @@
+package com.gestionnaire_de_stage.repository;
+
+import com.gestionnaire_de_stage.model.PasswordResetToken;
+import com.gestionnaire_de_stage.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j(topic = "PasswordResetTokenBenchmarkTest")
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+public class PasswordResetTokenBenchmarkTest {
+
+    private static final Instant NOW = Instant.now();
+
+    private static final Date EXPIRED = Date.from(NOW.minus(Duration.ofHours(1)));
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate.update("INSERT INTO users (id, role, email, first_name, last_name, password) " +
+                "VALUES (1, 'STUDENT', 'student@cegep.qc.ca', 'Prénom', 'Nom', 'Password1')");
+        jdbcTemplate.update("INSERT INTO student (id, matricule, department) VALUES (1, '1234567', 'Informatique')");
+    }
+
+    // Token i is used when i % 4 == 1 and expired when i % 4 == 2
+    private void insertTokens(int count) {
+        List<Object[]> tokens = new ArrayList<>();
+        for (long id = 1; id <= count; id++)
+            tokens.add(new Object[]{id, "token-" + id, 1L, id % 4 == 1,
+                    Timestamp.from(id % 4 == 2 ? NOW.minus(Duration.ofHours(2)) : NOW.minusSeconds(id % 600))});
+        jdbcTemplate.batchUpdate("INSERT INTO password_reset_token (id, token, user_id, unusable, created) VALUES (?, ?, ?, ?, ?)", tokens);
+    }
+
+    // The checks of the previous version, three queries and a save
+    private User checkThenSave(String token) {
+        if (!passwordResetTokenRepository.existsByToken(token))
+            return null;
+        boolean unusable = entityManager.createQuery("SELECT COUNT(t) FROM PasswordResetToken t WHERE t.token = ?1 AND t.unusable = true", Long.class)
+                .setParameter(1, token).getSingleResult() > 0;
+        if (unusable)
+            return null;
+        PasswordResetToken passwordResetToken = entityManager.createQuery("SELECT t FROM PasswordResetToken t WHERE t.token = ?1", PasswordResetToken.class)
+                .setParameter(1, token).getSingleResult();
+        passwordResetToken.setUnusable();
+        passwordResetTokenRepository.saveAndFlush(passwordResetToken);
+        return passwordResetToken.getUser();
+    }
+
+    private User consume(String token) {
+        return passwordResetTokenRepository.consume(token, EXPIRED) == 1 ? passwordResetTokenRepository.findUserByToken(token) : null;
+    }
+
+    @Test
+    public void benchmarkResetTokenValidation() {
+        int count = 20_000, resets = 500;
+        insertTokens(count);
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= resets; i++) {
+            checkThenSave("token-" + (i * 4 + 3));
+            entityManager.clear();
+        }
+        long checkThenSaveTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 1; i <= resets; i++) {
+            consume("token-" + (i * 4 + 4));
+            entityManager.clear();
+        }
+        long consumeTime = System.nanoTime() - start;
+
+        log.info("Password reset token validation, {} resets: {} us per reset checking then saving, {} us per reset with a conditional update",
+                resets, checkThenSaveTime / resets / 1_000, consumeTime / resets / 1_000);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM password_reset_token WHERE unusable = true", Long.class))
+                .isEqualTo(count / 4 + 2L * resets);
+    }
+}
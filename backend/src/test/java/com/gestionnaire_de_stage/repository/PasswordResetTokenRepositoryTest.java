@@ -0,0 +1,78 @@
+package com.gestionnaire_de_stage.repository;
+
+import com.gestionnaire_de_stage.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+public class PasswordResetTokenRepositoryTest {
+
+    private static final Instant NOW = Instant.now();
+
+    private static final Date EXPIRED = Date.from(NOW.minus(Duration.ofHours(1)));
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate.update("INSERT INTO users (id, role, email, first_name, last_name, password) " +
+                "VALUES (1, 'STUDENT', 'student@cegep.qc.ca', 'Prénom', 'Nom', 'Password1')");
+        jdbcTemplate.update("INSERT INTO student (id, matricule, department) VALUES (1, '1234567', 'Informatique')");
+    }
+
+    // Token i is used when i % 4 == 1 and expired when i % 4 == 2
+    private void insertTokens(int count) {
+        List<Object[]> tokens = new ArrayList<>();
+        for (long id = 1; id <= count; id++)
+            tokens.add(new Object[]{id, "token-" + id, 1L, id % 4 == 1,
+                    Timestamp.from(id % 4 == 2 ? NOW.minus(Duration.ofHours(2)) : NOW.minusSeconds(id % 600))});
+        jdbcTemplate.batchUpdate("INSERT INTO password_reset_token (id, token, user_id, unusable, created) VALUES (?, ?, ?, ?, ?)", tokens);
+    }
+
+    private User consume(String token) {
+        return passwordResetTokenRepository.consume(token, EXPIRED) == 1 ? passwordResetTokenRepository.findUserByToken(token) : null;
+    }
+
+    @Test
+    public void testConsume_onlyOnceAndBeforeExpiry() {
+        insertTokens(8);
+
+        assertThat(consume("token-4")).isNotNull();
+        assertThat(consume("token-4")).isNull();
+        assertThat(consume("token-5")).isNull();
+        assertThat(consume("token-6")).isNull();
+        assertThat(consume("unknown")).isNull();
+    }
+
+    @Test
+    public void testFindAllIdsToPurge() {
+        insertTokens(40);
+
+        List<Long> expired = passwordResetTokenRepository.findAllIdsCreatedUntil(EXPIRED, PageRequest.of(0, 100));
+        List<Long> used = passwordResetTokenRepository.findAllUnusableIds(PageRequest.of(0, 4));
+
+        assertThat(expired).hasSize(10).allMatch(id -> id % 4 == 2);
+        assertThat(used).hasSize(4).allMatch(id -> id % 4 == 1);
+    }
+}
@@ -0,0 +1,115 @@
+package com.gestionnaire_de_stage.repository;
+
+import com.gestionnaire_de_stage.model.*;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j(topic = "UserDirectoryBenchmarkTest")
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+public class UserDirectoryBenchmarkTest {
+
+    private static final int USERS_PER_ROLE = 2_000;
+
+    private static final int LOOKUPS = 1_000;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Long> studentIds = new ArrayList<>();
+
+    private void insertUsers() {
+        for (int i = 0; i < USERS_PER_ROLE; i++) {
+            Student student = fill(new Student(), "student", i);
+            student.setMatricule(String.format("%07d", i));
+            student.setDepartment("Informatique");
+            entityManager.persist(student);
+            studentIds.add(student.getId());
+
+            Monitor monitor = fill(new Monitor(), "monitor", i);
+            monitor.setDepartment("Informatique");
+            entityManager.persist(monitor);
+
+            Supervisor supervisor = fill(new Supervisor(), "supervisor", i);
+            supervisor.setMatricule(String.format("%05d", i));
+            supervisor.setDepartment("Informatique");
+            entityManager.persist(supervisor);
+
+            entityManager.persist(fill(new Manager(), "manager", i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Object[]> notifications = new ArrayList<>();
+        List<Object[]> tokens = new ArrayList<>();
+        Timestamp now = Timestamp.from(Instant.now());
+        for (Long id : studentIds) {
+            for (int i = 0; i < 5; i++)
+                notifications.add(new Object[]{id, i % 2 == 0, "Notification " + i, now});
+            tokens.add(new Object[]{id, "token-" + id, id, false, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO notification (targeted_user_id, seen, message, created_date) VALUES (?, ?, ?, ?)", notifications);
+        jdbcTemplate.batchUpdate("INSERT INTO password_reset_token (id, token, user_id, unusable, created) VALUES (?, ?, ?, ?, ?)", tokens);
+    }
+
+    private <T extends User> T fill(T user, String role, int i) {
+        user.setEmail(role + i + "@cegep.qc.ca");
+        user.setFirstName("Prénom");
+        user.setLastName("Nom");
+        user.setPassword("Password1");
+        return user;
+    }
+
+    private long time(Supplier<Object> lookup) {
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            assertThat(lookup.get()).isNotNull();
+            entityManager.clear();
+        }
+        return (System.nanoTime() - start) / LOOKUPS / 1_000;
+    }
+
+    @Test
+    public void benchmarkPolymorphicUserLookups() {
+        insertUsers();
+
+        long notifications = time(() -> notificationRepository.findAllBySeenIsFalseAndTargetedUser_IdOrderByCreatedDateDesc(
+                studentIds.get((int) (Math.random() * studentIds.size()))).get(0).getTargetedUser());
+        long tokens = time(() -> passwordResetTokenRepository.findUserByToken(
+                "token-" + studentIds.get((int) (Math.random() * studentIds.size()))));
+        long logins = time(() -> userRepository.findByEmailAndPassword(
+                "manager" + (int) (Math.random() * USERS_PER_ROLE) + "@cegep.qc.ca", "Password1"));
+
+        log.info("{} users per role: {} us per unseen notifications lookup, {} us per password reset token user lookup, " +
+                "{} us per login by email", USERS_PER_ROLE, notifications, tokens, logins);
+    }
+}
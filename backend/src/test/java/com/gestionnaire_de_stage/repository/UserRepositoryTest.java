@@ -0,0 +1,71 @@
+package com.gestionnaire_de_stage.repository;
+
+import com.gestionnaire_de_stage.enums.TypeUser;
+import com.gestionnaire_de_stage.model.*;
+import com.gestionnaire_de_stage.util.UniqueConstraints;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+public class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private <T extends User> T fill(T user, String role, int i) {
+        user.setEmail(role + i + "@cegep.qc.ca");
+        user.setFirstName("Prénom");
+        user.setLastName("Nom");
+        user.setPassword("Password1");
+        return user;
+    }
+
+    @Test
+    public void testFindByEmailAndPassword_anyRole() {
+        Student student = fill(new Student(), "student", 3);
+        student.setMatricule("1234567");
+        student.setDepartment("Informatique");
+        entityManager.persist(student);
+        Monitor monitor = fill(new Monitor(), "monitor", 3);
+        monitor.setDepartment("Informatique");
+        entityManager.persist(monitor);
+        entityManager.persist(fill(new Manager(), "manager", 3));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userRepository.findByEmailAndPassword("monitor3@cegep.qc.ca", "Password1")).isInstanceOf(Monitor.class);
+        assertThat(userRepository.findByEmailAndPassword("student3@cegep.qc.ca", "Password1").getRole()).isEqualTo(TypeUser.STUDENT);
+        assertThat(userRepository.findByEmailAndPassword("student3@cegep.qc.ca", "Password2")).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT role FROM users WHERE email = 'manager3@cegep.qc.ca'", String.class))
+                .isEqualTo("MANAGER");
+    }
+
+    @Test
+    public void testEmail_uniqueAcrossRoles() {
+        entityManager.persist(fill(new Manager(), "student", 1));
+        Student student = fill(new Student(), "student", 1);
+        student.setMatricule("1234567");
+        student.setDepartment("Informatique");
+        entityManager.persist(student);
+
+        assertThatThrownBy(() -> entityManager.flush())
+                .satisfies(e -> assertThat(UniqueConstraints.isViolated(e, User.UK_EMAIL)).isTrue());
+    }
+}
@@ -0,0 +1,180 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.ContractRenderingStatsDTO;
+import com.gestionnaire_de_stage.model.Contract;
+import com.gestionnaire_de_stage.repository.ContractRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.time.*;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ContractRenderingServiceTest {
+
+    private ContractRenderingService contractRenderingService;
+
+    @Mock
+    private ContractService contractService;
+
+    @Mock
+    private ContractRepository contractRepository;
+
+    @Mock
+    private TemplateEngine templateEngine;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2021-11-20T15:00:00Z"), ZoneOffset.UTC);
+
+    @BeforeEach
+    void init() throws Exception {
+        when(contractService.fillPDF(any(), any())).thenReturn(true);
+        contractRenderingService = new ContractRenderingService(contractService, contractRepository, new PdfRenderingEngine(templateEngine, false), transactionManager,
+                clock, 1, 10, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        contractRenderingService.shutdown();
+    }
+
+    @Test
+    void testQueueRendering() {
+        Contract contract = getDummyContract();
+        when(contractRepository.findById(any())).thenReturn(Optional.of(contract));
+        when(templateEngine.process(anyString(), any(IContext.class))).thenReturn("<p>Contrat</p>");
+
+        contractRenderingService.queueRendering(contract.getId());
+
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                verify(contractService, times(1)).fillPDF(eq(contract), any()));
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(contractRenderingService.getStats().getCompletedRenders()).isEqualTo(1));
+    }
+
+    @Test
+    void testQueueRendering_withNullId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> contractRenderingService.queueRendering(null));
+    }
+
+    @Test
+    void testQueueRendering_coalescesRequestsWhileRunning() throws InterruptedException {
+        Contract contract = getDummyContract();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(contractRepository.findById(any())).thenReturn(Optional.of(contract));
+        when(templateEngine.process(anyString(), any(IContext.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "<p>Contrat</p>";
+        });
+
+        contractRenderingService.queueRendering(contract.getId());
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        contractRenderingService.queueRendering(contract.getId());
+        contractRenderingService.queueRendering(contract.getId());
+        contractRenderingService.queueRendering(contract.getId());
+        release.countDown();
+
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                verify(contractService, times(2)).fillPDF(eq(contract), any()));
+        verify(templateEngine, times(2)).process(anyString(), any(IContext.class));
+    }
+
+    @Test
+    void testQueueRendering_rendersAgainWhenContractChanged() throws Exception {
+        Contract contract = getDummyContract();
+        when(contractRepository.findById(any())).thenReturn(Optional.of(contract));
+        when(templateEngine.process(anyString(), any(IContext.class))).thenReturn("<p>Contrat</p>");
+        when(contractService.fillPDF(any(), any())).thenReturn(false, true);
+
+        contractRenderingService.queueRendering(contract.getId());
+
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                verify(contractService, times(2)).fillPDF(eq(contract), any()));
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(contractRenderingService.getStats().getCompletedRenders()).isEqualTo(1));
+        verify(contractService, never()).markPDFFailed(any());
+    }
+
+    @Test
+    void testQueueRendering_marksFailedWhenRenderFails() throws Exception {
+        Contract contract = getDummyContract();
+        when(contractRepository.findById(any())).thenReturn(Optional.of(contract));
+        when(templateEngine.process(anyString(), any(IContext.class))).thenThrow(new IllegalStateException("Template invalide"));
+
+        contractRenderingService.queueRendering(contract.getId());
+
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() ->
+                verify(contractService, times(1)).markPDFFailed(contract.getId()));
+        verify(contractService, never()).fillPDF(any(), any());
+        assertThat(contractRenderingService.getStats().getFailedRenders()).isEqualTo(1);
+    }
+
+    @Test
+    void testQueueRendering_skipsDeletedContract() throws Exception {
+        when(contractRepository.findById(any())).thenReturn(Optional.empty());
+
+        contractRenderingService.queueRendering(1L);
+
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() ->
+                verify(contractRepository, times(1)).findById(1L));
+        verify(contractService, never()).fillPDF(any(), any());
+    }
+
+    @Test
+    void testRequeuePendingRenders() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        when(contractService.getAllIdsWithPendingPDFRequestedBefore(now.minusMinutes(5))).thenReturn(List.of(1L, 2L, 3L));
+        when(contractService.claimPendingPDF(any(), eq(now.minusMinutes(5)), eq(now))).thenReturn(true);
+        when(contractService.claimPendingPDF(eq(2L), any(), any())).thenReturn(false);
+        when(contractRepository.findById(any())).thenReturn(Optional.empty());
+
+        contractRenderingService.requeuePendingRenders();
+
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> {
+            verify(contractRepository, times(1)).findById(1L);
+            verify(contractRepository, times(1)).findById(3L);
+        });
+        verify(contractRepository, never()).findById(2L);
+    }
+
+    @Test
+    void testGetStats() {
+        ContractRenderingStatsDTO stats = contractRenderingService.getStats();
+
+        assertThat(stats.getQueueDepth()).isZero();
+        assertThat(stats.getCompletedRenders()).isZero();
+        assertThat(stats.getAverageLatencyMs()).isZero();
+    }
+
+    private Contract getDummyContract() {
+        Contract contract = new Contract();
+        contract.setId(1L);
+        contract.setManagerSignature("Joe Janson");
+        return contract;
+    }
+}
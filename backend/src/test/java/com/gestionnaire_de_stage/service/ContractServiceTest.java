@@ -1,7 +1,10 @@
 package com.gestionnaire_de_stage.service;
 
 import com.gestionnaire_de_stage.dto.ContractStarterDto;
+import com.gestionnaire_de_stage.dto.ContractSummaryDTO;
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
 import com.gestionnaire_de_stage.dto.StudentMonitorOfferDTO;
+import com.gestionnaire_de_stage.enums.PdfStatus;
 import com.gestionnaire_de_stage.enums.Status;
 import com.gestionnaire_de_stage.exception.*;
 import com.gestionnaire_de_stage.model.*;
@@ -11,9 +14,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.io.ByteArrayOutputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -22,7 +33,7 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class ContractServiceTest {
@@ -48,11 +59,17 @@ public class ContractServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
+    @Mock
+    private DocumentStore documentStore;
+
+    @Spy
+    private Clock clock = Clock.fixed(Instant.parse("2021-11-20T15:00:00Z"), ZoneOffset.UTC);
+
     @Test
     public void testGetAllByManagerSignatureNull() {
-        when(contractRepository.getAllByManagerSignatureNull()).thenReturn(getDummyContractList());
+        when(contractRepository.findAllSummariesByManagerSignatureNull()).thenReturn(getDummyContractList());
 
-        final List<Contract> actualContractList = contractService.getAllUnsignedContracts();
+        final List<ContractSummaryDTO> actualContractList = contractService.getAllUnsignedContracts();
 
         assertThat(actualContractList.size()).isEqualTo(getDummyContractList().size());
     }
@@ -68,6 +85,9 @@ public class ContractServiceTest {
 
         Contract actualContract = contractService.addManagerSignature(managerSignature, dummyContract.getId());
         assertThat(actualContract.getManager()).isEqualTo(dummyManager);
+        assertThat(dummyContract.getPdfStatus()).isEqualTo(PdfStatus.PENDING);
+        assertThat(dummyContract.getPdfRequestedAt()).isEqualTo(LocalDateTime.of(2021, 11, 20, 15, 0));
+        assertThat(dummyContract.getManagerSignDate()).isEqualTo(LocalDate.of(2021, 11, 20));
     }
 
     @Test
@@ -101,13 +121,13 @@ public class ContractServiceTest {
         Contract dummyFilledContract = getDummyFilledContract();
         when(managerService.getOneByID(any())).thenReturn(dummyManager);
         when(offerApplicationService.getOneById(any())).thenReturn(dummyOfferApplication);
-        when(contractRepository.save(any())).thenReturn(dummyFilledContract);
-        when(contractService.doesStudentAlreadyHaveAContract(any(), any())).thenReturn(false);
+        when(contractRepository.saveAndFlush(any())).thenReturn(dummyFilledContract);
         when(studentRepository.existsByIdAndSupervisorNull(any())).thenReturn(false);
 
         Contract contract = contractService.gsStartContract(getDummyContract(), new ContractStarterDto(dummyManager.getId(), dummyOfferApplication.getId()));
 
         assertThat(contract.getId()).isEqualTo(dummyFilledContract.getId());
+        verify(offerApplicationService).updateStatus(any());
     }
 
     @Test
@@ -116,10 +136,25 @@ public class ContractServiceTest {
         OfferApplication dummyOfferApplication = getDummyOfferApplication();
         when(managerService.getOneByID(any())).thenReturn(dummyManager);
         when(offerApplicationService.getOneById(any())).thenReturn(dummyOfferApplication);
-        when(contractService.doesStudentAlreadyHaveAContract(any(), any())).thenReturn(true);
+        when(contractRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", null, "PUBLIC.UK_CONTRACT_STUDENT_SESSION_INDEX_E ON PUBLIC.CONTRACT(STUDENT_ID, SESSION_ID)")));
 
         assertThrows(StudentAlreadyHaveAContractException.class,
                 () -> contractService.gsStartContract(getDummyContract(), new ContractStarterDto(dummyManager.getId(), dummyOfferApplication.getId())));
+        verify(offerApplicationService, never()).updateStatus(any());
+    }
+
+    @Test
+    public void testGsStartContract_withOtherViolation() throws Exception {
+        Manager dummyManager = getDummyManager();
+        OfferApplication dummyOfferApplication = getDummyOfferApplication();
+        when(managerService.getOneByID(any())).thenReturn(dummyManager);
+        when(offerApplicationService.getOneById(any())).thenReturn(dummyOfferApplication);
+        when(contractRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("NULL not allowed", null, null)));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> contractService.gsStartContract(getDummyContract(), new ContractStarterDto(dummyManager.getId(), dummyOfferApplication.getId())));
     }
 
     @Test
@@ -128,7 +163,6 @@ public class ContractServiceTest {
         OfferApplication dummyOfferApplication = getDummyOfferApplication();
         when(managerService.getOneByID(any())).thenReturn(dummyManager);
         when(offerApplicationService.getOneById(any())).thenReturn(dummyOfferApplication);
-        when(contractService.doesStudentAlreadyHaveAContract(any(), any())).thenReturn(false);
         when(studentRepository.existsByIdAndSupervisorNull(any())).thenReturn(true);
 
         assertThrows(StudentIsNotAssignedException.class,
@@ -147,14 +181,70 @@ public class ContractServiceTest {
 
 
     @Test
-    public void testFillPDF_withValidEntries() {
+    public void testFillPDF_withValidEntries() throws Exception {
         Contract dummyContract = getDummyFilledContract();
-        when(contractRepository.save(any())).thenReturn(dummyContract);
+        dummyContract.setVersion(2L);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.writeBytes(new byte[]{1, 2, 3});
+        when(documentStore.store(any())).thenReturn(new StoredDocumentDTO("039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81", 3L));
+        when(contractRepository.updateContractPDF(dummyContract.getId(), 2L, 3L,
+                "039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81", PdfStatus.READY)).thenReturn(1);
 
-        Contract actualContract = contractService.fillPDF(new Contract(), new ByteArrayOutputStream());
+        boolean filled = contractService.fillPDF(dummyContract, baos);
+
+        assertThat(filled).isTrue();
+        assertThat(dummyContract.getPdfStatus()).isEqualTo(PdfStatus.READY);
+        assertThat(dummyContract.getContractPDFSize()).isEqualTo(3L);
+        assertThat(dummyContract.getContractPDFHash()).isEqualTo("039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81");
+    }
+
+    @Test
+    public void testFillPDF_withChangedContract() throws Exception {
+        Contract dummyContract = getDummyFilledContract();
+        dummyContract.setPdfStatus(PdfStatus.PENDING);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.writeBytes(new byte[]{1, 2, 3});
+        when(documentStore.store(any())).thenReturn(new StoredDocumentDTO("039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81", 3L));
+        when(contractRepository.updateContractPDF(any(), anyLong(), any(), any(), any())).thenReturn(0);
+
+        boolean filled = contractService.fillPDF(dummyContract, baos);
+
+        assertThat(filled).isFalse();
+        assertThat(dummyContract.getPdfStatus()).isEqualTo(PdfStatus.PENDING);
+    }
+
+    @Test
+    public void testMarkPDFFailed() {
+        contractService.markPDFFailed(1L);
+
+        verify(contractRepository, times(1)).updatePdfStatus(1L, PdfStatus.FAILED);
+    }
+
+    @Test
+    public void testGetAllIdsWithPendingPDFRequestedBefore() {
+        LocalDateTime requestedBefore = LocalDateTime.of(2021, 11, 20, 15, 0);
+        when(contractRepository.findAllIdsByPdfStatusRequestedBefore(PdfStatus.PENDING, requestedBefore)).thenReturn(List.of(1L, 2L));
+
+        List<Long> ids = contractService.getAllIdsWithPendingPDFRequestedBefore(requestedBefore);
+
+        assertThat(ids).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void testGetAllIdsWithPendingPDFRequestedBefore_withNullDate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> contractService.getAllIdsWithPendingPDFRequestedBefore(null));
+    }
+
+    @Test
+    public void testClaimPendingPDF() {
+        LocalDateTime requestedBefore = LocalDateTime.of(2021, 11, 20, 15, 0);
+        LocalDateTime now = requestedBefore.plusMinutes(5);
+        when(contractRepository.claimPdfRequestedBefore(1L, PdfStatus.PENDING, requestedBefore, now)).thenReturn(1);
+        when(contractRepository.claimPdfRequestedBefore(2L, PdfStatus.PENDING, requestedBefore, now)).thenReturn(0);
 
-        assertThat(actualContract.getContractPDF()).isEqualTo(dummyContract.getContractPDF());
-        assertThat(actualContract.getManagerSignature()).isEqualTo(dummyContract.getManagerSignature());
+        assertThat(contractService.claimPendingPDF(1L, requestedBefore, now)).isTrue();
+        assertThat(contractService.claimPendingPDF(2L, requestedBefore, now)).isFalse();
     }
 
     @Test
@@ -167,14 +257,14 @@ public class ContractServiceTest {
 
     @Test
     public void testGetAllUnsignedContractForMonitor_withValidEntries() throws Exception {
-        List<Contract> dummyContractList = getDummyContractList();
+        List<ContractSummaryDTO> dummyContractList = getDummyContractList();
         long monitor_id = 1L;
         when(monitorService.isIdInvalid(any())).thenReturn(false);
-        when(contractRepository.getAllByOffer_CreatorIdAndMonitorSignatureNullAndManagerSignatureNotNullAndSession_YearGreaterThanEqual(any(), any()))
+        when(contractRepository.findAllSummariesToSignForMonitor(any(), any()))
                 .thenReturn(dummyContractList);
 
 
-        List<Contract> actualContractList = contractService.getAllUnsignedContractForMonitor(monitor_id);
+        List<ContractSummaryDTO> actualContractList = contractService.getAllUnsignedContractForMonitor(monitor_id);
 
         assertThat(actualContractList.get(1).getId()).isEqualTo(dummyContractList.get(1).getId());
     }
@@ -335,10 +425,10 @@ public class ContractServiceTest {
 
     @Test
     public void testGetAllSignedContracts_withExistentId() {
-        List<Contract> dummyContractList = getDummyContractList();
-        when(contractRepository.getAllByManager_IdAndManagerSignatureNotNullAndSession_YearGreaterThanEqual(any(), any())).thenReturn(dummyContractList);
+        List<ContractSummaryDTO> dummyContractList = getDummyContractList();
+        when(contractRepository.findAllSummariesSignedByManager(any(), any())).thenReturn(dummyContractList);
 
-        List<Contract> actualContractList = contractService.getAllSignedContractsByManager(1L);
+        List<ContractSummaryDTO> actualContractList = contractService.getAllSignedContractsByManager(1L);
 
         assertThat(actualContractList)
                 .isNotEmpty()
@@ -347,9 +437,9 @@ public class ContractServiceTest {
 
     @Test
     public void testGetAllSignedContracts_withNonExistentId() {
-        when(contractRepository.getAllByManager_IdAndManagerSignatureNotNullAndSession_YearGreaterThanEqual(any(), any())).thenReturn(Collections.emptyList());
+        when(contractRepository.findAllSummariesSignedByManager(any(), any())).thenReturn(Collections.emptyList());
 
-        List<Contract> allSignedContractsByManager = contractService.getAllSignedContractsByManager(1000L);
+        List<ContractSummaryDTO> allSignedContractsByManager = contractService.getAllSignedContractsByManager(1000L);
 
         assertThat(allSignedContractsByManager).isEmpty();
     }
@@ -362,10 +452,10 @@ public class ContractServiceTest {
 
     @Test
     public void testGetAllSignedContractsForMonitor_withExistentId() {
-        List<Contract> dummyContractList = getDummyContractList();
-        when(contractRepository.getAllByMonitor_IdAndManagerSignatureNotNullAndMonitorSignatureNotNullAndSession_YearGreaterThanEqual(any(), any())).thenReturn(dummyContractList);
+        List<ContractSummaryDTO> dummyContractList = getDummyContractList();
+        when(contractRepository.findAllSummariesSignedByMonitor(any(), any())).thenReturn(dummyContractList);
 
-        List<Contract> actualContractList = contractService.getAllSignedContractsByMonitor(1L);
+        List<ContractSummaryDTO> actualContractList = contractService.getAllSignedContractsByMonitor(1L);
 
         assertThat(actualContractList)
                 .isNotEmpty()
@@ -374,9 +464,9 @@ public class ContractServiceTest {
 
     @Test
     public void testGetAllSignedContractsForMonitor_withNonExistentId() {
-        when(contractRepository.getAllByMonitor_IdAndManagerSignatureNotNullAndMonitorSignatureNotNullAndSession_YearGreaterThanEqual(any(), any())).thenReturn(Collections.emptyList());
+        when(contractRepository.findAllSummariesSignedByMonitor(any(), any())).thenReturn(Collections.emptyList());
 
-        List<Contract> actualContractList = contractService.getAllSignedContractsByMonitor(1000L);
+        List<ContractSummaryDTO> actualContractList = contractService.getAllSignedContractsByMonitor(1000L);
 
         assertThat(actualContractList).isEmpty();
     }
@@ -533,19 +623,16 @@ public class ContractServiceTest {
         return dummyMonitor;
     }
 
-    private List<Contract> getDummyContractList() {
-        List<Contract> dummyContractList = new ArrayList<>();
-        Contract contract1 = new Contract();
+    private List<ContractSummaryDTO> getDummyContractList() {
+        List<ContractSummaryDTO> dummyContractList = new ArrayList<>();
+        ContractSummaryDTO contract1 = new ContractSummaryDTO();
         contract1.setId(1L);
-        contract1.setStudent(new Student());
         dummyContractList.add(contract1);
-        Contract contract2 = new Contract();
+        ContractSummaryDTO contract2 = new ContractSummaryDTO();
         contract2.setId(2L);
-        contract1.setStudent(new Student());
         dummyContractList.add(contract2);
-        Contract contract3 = new Contract();
+        ContractSummaryDTO contract3 = new ContractSummaryDTO();
         contract3.setId(3L);
-        contract1.setStudent(new Student());
         dummyContractList.add(contract3);
 
         return dummyContractList;
@@ -577,7 +664,8 @@ public class ContractServiceTest {
         return new Curriculum(
                 "fileName",
                 "content type",
-                "test".getBytes(),
+                "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08",
+                4L,
                 dummyStudent
         );
     }
@@ -599,7 +687,6 @@ public class ContractServiceTest {
         dummyContract.setManagerSignature("Joe Janson");
         dummyContract.setId(1L);
         dummyContract.setStudent(getDummyStudent());
-        dummyContract.setContractPDF(new byte[]{5, 1, 9, 2, 6});
         return dummyContract;
     }
 
@@ -0,0 +1,223 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.CurriculumSearchHitDTO;
+import com.gestionnaire_de_stage.dto.CurriculumSearchResultDTO;
+import com.gestionnaire_de_stage.dto.CurriculumSummaryDTO;
+import com.gestionnaire_de_stage.model.Curriculum;
+import com.gestionnaire_de_stage.repository.CurriculumRepository;
+import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CurriculumSearchServiceTest {
+
+    private CurriculumSearchService curriculumSearchService;
+
+    @Mock
+    private CurriculumRepository curriculumRepository;
+
+    @Mock
+    private OfferApplicationRepository offerApplicationRepository;
+
+    @Mock
+    private DocumentStore documentStore;
+
+    private final Map<String, byte[]> documents = new HashMap<>();
+
+    @BeforeEach
+    void init() throws Exception {
+        curriculumSearchService = new CurriculumSearchService(curriculumRepository, offerApplicationRepository, documentStore, 1, 10);
+        when(documentStore.open(anyString())).thenAnswer(invocation -> new ByteArrayInputStream(documents.get(invocation.<String>getArgument(0))));
+        when(curriculumRepository.findAllSummariesByIdIn(any())).thenAnswer(invocation ->
+                ((Collection<Long>) invocation.getArgument(0)).stream()
+                        .map(id -> new CurriculumSummaryDTO(id, "cv" + id + ".pdf", "application/pdf", null, 1L, "hash" + id,
+                                10 + id, "Jean", "Dupont", "jean@gmail.com"))
+                        .collect(Collectors.toList()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        curriculumSearchService.shutdown();
+    }
+
+    @Test
+    public void testSearch_rankedWithSnippets() throws Exception {
+        index(1L, pdf("Développeur web. Expérience en Java et en React <Redux>.",
+                "Projets personnels : une application de gestion de stages pour le cégep, un jeu de plateformes, en Java."));
+        index(2L, pdf("Technicien de laboratoire. Analyses chimiques.", "Connaissances de base en Java."));
+        index(3L, pdf("Comptable. Maîtrise d'Excel."));
+
+        CurriculumSearchResultDTO result = awaitSearch("java", 0, 20, 2);
+
+        assertThat(result.getCurriculums()).extracting(hit -> hit.getCurriculum().getId()).containsExactly(1L, 2L);
+        CurriculumSearchHitDTO first = result.getCurriculums().get(0);
+        assertThat(first.getCurriculum().getStudent().getFirstName()).isEqualTo("Jean");
+        assertThat(first.getSnippets()).hasSize(2);
+        assertThat(first.getSnippets().get(0)).startsWith("Développeur web. Expérience en <mark>Java</mark> et en React &lt;Redux&gt;.");
+        assertThat(first.getSnippets().get(1)).startsWith("… ").endsWith("en <mark>Java</mark>.");
+    }
+
+    @Test
+    public void testSearch_foldsAccentsAndPlurals() throws Exception {
+        index(1L, pdf("Expériences : développement d'applications mobiles"));
+
+        CurriculumSearchResultDTO result = awaitSearch("DEVELOPPEMENT application mobile", 0, 20, 1);
+
+        assertThat(result.getCurriculums().get(0).getSnippets()).containsExactly(
+                "Expériences : <mark>développement</mark> d&#39;<mark>applications</mark> <mark>mobiles</mark>");
+    }
+
+    @Test
+    public void testSearch_longTextCutAroundWords() throws Exception {
+        String filler = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor ";
+        index(1L, pdf(filler + filler + "Python " + filler + filler + filler + "Python " + filler));
+
+        List<String> snippets = awaitSearch("python", 0, 20, 1).getCurriculums().get(0).getSnippets();
+
+        assertThat(snippets).hasSize(2);
+        assertThat(snippets).allSatisfy(snippet -> {
+            assertThat(snippet).startsWith("… ").endsWith(" …").contains("<mark>Python</mark>");
+            assertThat(snippet.length()).isLessThan(160);
+        });
+    }
+
+    @Test
+    public void testSearchApplicantsOf() throws Exception {
+        index(1L, pdf("Java"));
+        index(2L, pdf("Java"));
+        when(offerApplicationRepository.findAllCurriculumIdsByOffer_CreatorEmail("monitor@gmail.com")).thenReturn(List.of(2L));
+        awaitSearch("java", 0, 20, 2);
+
+        CurriculumSearchResultDTO result = curriculumSearchService.searchApplicantsOf("monitor@gmail.com", "java", 0, 20);
+
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(result.getCurriculums()).extracting(hit -> hit.getCurriculum().getId()).containsExactly(2L);
+    }
+
+    @Test
+    public void testSearch_withPages() throws Exception {
+        for (long id = 1; id <= 5; id++)
+            index(id, pdf("Java"));
+
+        CurriculumSearchResultDTO result = awaitSearch("java", 1, 2, 5);
+
+        assertThat(result.getCurriculums()).extracting(hit -> hit.getCurriculum().getId()).containsExactly(3L, 4L);
+    }
+
+    @Test
+    public void testSearch_withInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> curriculumSearchService.search(null, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> curriculumSearchService.search("de la", 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> curriculumSearchService.search("java", -1, 20));
+        assertThrows(IllegalArgumentException.class, () -> curriculumSearchService.search("java", 0, 101));
+        assertThrows(IllegalArgumentException.class, () -> curriculumSearchService.searchApplicantsOf(null, "java", 0, 20));
+    }
+
+    @Test
+    public void testQueueExtraction_doesNotWaitForExtraction() throws Exception {
+        CountDownLatch opened = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        documents.put("hash1", pdf("Java"));
+        when(documentStore.open("hash1")).thenAnswer(invocation -> {
+            opened.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return new ByteArrayInputStream(documents.get("hash1"));
+        });
+
+        curriculumSearchService.queueExtraction(curriculum(1L));
+
+        assertThat(opened.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(curriculumSearchService.search("java", 0, 20).getTotal()).isZero();
+        release.countDown();
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(curriculumSearchService.search("java", 0, 20).getTotal()).isEqualTo(1));
+    }
+
+    @Test
+    public void testIndexMissing() throws Exception {
+        index(1L, pdf("Java"));
+        awaitSearch("java", 0, 20, 1);
+        documents.put("hash2", pdf("Java"));
+        documents.put("hash3", "%PDF-1.7 pas vraiment un PDF".getBytes(StandardCharsets.US_ASCII));
+        when(curriculumRepository.findAllIds()).thenReturn(List.of(2L, 3L));
+
+        curriculumSearchService.indexMissing();
+
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(curriculumSearchService.search("java", 0, 20).getCurriculums())
+                        .extracting(hit -> hit.getCurriculum().getId()).containsExactly(2L));
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                verify(documentStore, times(1)).open("hash3"));
+        curriculumSearchService.indexMissing();
+        verify(documentStore, times(1)).open("hash2");
+        verify(documentStore, times(1)).open("hash3");
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        index(1L, pdf("Java"));
+        awaitSearch("java", 0, 20, 1);
+
+        curriculumSearchService.remove(1L);
+
+        assertThat(curriculumSearchService.search("java", 0, 20).getTotal()).isZero();
+    }
+
+    private void index(Long id, byte[] pdf) {
+        documents.put("hash" + id, pdf);
+        curriculumSearchService.queueExtraction(curriculum(id));
+    }
+
+    // The text is extracted in the background, the search sees the curricula once they are all indexed
+    private CurriculumSearchResultDTO awaitSearch(String q, int page, int size, int total) {
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(curriculumSearchService.search(q, page, size).getTotal()).isEqualTo(total));
+        return curriculumSearchService.search(q, page, size);
+    }
+
+    private Curriculum curriculum(Long id) {
+        return curriculum(id, "hash" + id);
+    }
+
+    private Curriculum curriculum(Long id, String dataHash) {
+        Curriculum curriculum = new Curriculum("cv.pdf", "application/pdf", dataHash, 1L, null);
+        curriculum.setId(id);
+        return curriculum;
+    }
+
+    private byte[] pdf(String... paragraphs) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (Document document = new Document(new PdfDocument(new PdfWriter(outputStream)))) {
+            for (String paragraph : paragraphs)
+                document.add(new Paragraph(paragraph));
+        }
+        return outputStream.toByteArray();
+    }
+}
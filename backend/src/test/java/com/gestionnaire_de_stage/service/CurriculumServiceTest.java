@@ -1,5 +1,7 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.dto.CurriculumSummaryDTO;
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
 import com.gestionnaire_de_stage.dto.StudentCurriculumsDTO;
 import com.gestionnaire_de_stage.dto.ValidationCurriculum;
 import com.gestionnaire_de_stage.exception.CurriculumAlreadyTreatedException;
@@ -10,14 +12,17 @@ import com.gestionnaire_de_stage.model.Monitor;
 import com.gestionnaire_de_stage.model.Offer;
 import com.gestionnaire_de_stage.model.Student;
 import com.gestionnaire_de_stage.repository.CurriculumRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -30,7 +35,6 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class CurriculumServiceTest {
 
-    @InjectMocks
     private CurriculumService curriculumService;
 
     @Mock
@@ -42,16 +46,64 @@ public class CurriculumServiceTest {
     @Mock
     private OfferApplicationService offerApplicationService;
 
+    @Mock
+    private DocumentStore documentStore;
+
+    @Mock
+    private CurriculumSearchService curriculumSearchService;
+
+    @BeforeEach
+    void init() {
+        curriculumService = new CurriculumService(curriculumRepository, studentService, offerApplicationService,
+                documentStore, curriculumSearchService, DataSize.ofKilobytes(1));
+    }
+
     @Test
     public void testConvertMultipartFileToCurriculum_WithValidData() throws IOException, IdDoesNotExistException {
         Student student = new Student();
         student.setId(1L);
-        MockMultipartFile file = new MockMultipartFile("data", "filename.txt", "text/plain", "some xml".getBytes());
+        MockMultipartFile file = new MockMultipartFile("data", "filename.pdf", "application/octet-stream", "%PDF-1.7".getBytes());
         when(studentService.getOneByID(any())).thenReturn(student);
+        when(documentStore.store(any())).thenAnswer(invocation -> {
+            InputStream content = invocation.getArgument(0);
+            assertThat(StreamUtils.copyToByteArray(content)).isEqualTo("%PDF-1.7".getBytes());
+            return new StoredDocumentDTO("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08", 8L);
+        });
 
         Curriculum actualCurriculum = curriculumService.convertMultipartFileToCurriculum(file, student.getId());
 
         assertThat(actualCurriculum.getStudent()).isEqualTo(student);
+        assertThat(actualCurriculum.getType()).isEqualTo("application/pdf");
+        assertThat(actualCurriculum.getDataHash()).isEqualTo("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        assertThat(actualCurriculum.getDataSize()).isEqualTo(8L);
+    }
+
+    @Test
+    public void testConvertMultipartFileToCurriculum_withNonPdfFile() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("data", "filename.pdf", "application/pdf", "some xml".getBytes());
+        when(studentService.getOneByID(any())).thenReturn(new Student());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> curriculumService.convertMultipartFileToCurriculum(file, 1L));
+        verify(documentStore, never()).store(any());
+    }
+
+    @Test
+    public void testConvertMultipartFileToCurriculum_withTooLargeFile() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("data", "filename.pdf", "application/pdf", new byte[1025]);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> curriculumService.convertMultipartFileToCurriculum(file, 1L));
+        verify(documentStore, never()).store(any());
+    }
+
+    @Test
+    public void testConvertMultipartFileToCurriculum_withEmptyFile() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("data", "filename.pdf", "application/pdf", new byte[0]);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> curriculumService.convertMultipartFileToCurriculum(file, 1L));
+        verify(documentStore, never()).store(any());
     }
 
     @Test
@@ -89,6 +141,7 @@ public class CurriculumServiceTest {
         Curriculum actualCurriculum = curriculumService.create(dummyCurriculum);
 
         assertThat(actualCurriculum).isEqualTo(dummyCurriculum);
+        verify(curriculumSearchService, times(1)).queueExtraction(dummyCurriculum);
     }
 
     @Test
@@ -125,11 +178,11 @@ public class CurriculumServiceTest {
 
     @Test
     public void testFindAllByStudent_withValidStudent() {
-        List<Curriculum> curriculumList = getDummyCurriculumValidList();
+        List<CurriculumSummaryDTO> curriculumList = getDummyCurriculumValidList();
         Student student = getDummyStudent();
-        when(curriculumRepository.findAllByStudent(any())).thenReturn(curriculumList);
+        when(curriculumRepository.findAllSummariesByStudentId(any())).thenReturn(curriculumList);
 
-        List<Curriculum> actualList = curriculumService.findAllByStudent(student);
+        List<CurriculumSummaryDTO> actualList = curriculumService.findAllByStudent(student);
 
         assertThat(actualList).isEqualTo(curriculumList);
     }
@@ -143,14 +196,16 @@ public class CurriculumServiceTest {
     @Test
     public void testAllCurriculumsByStudentAsStudentCurriculumsDTO_withValidEntries() {
         Student student = getDummyStudent();
-        List<Curriculum> curriculumList = getDummyCurriculumList();
-        student.setPrincipalCurriculum(curriculumList.get(0));
-        when(curriculumRepository.findAllByStudent(any())).thenReturn(curriculumList);
+        List<CurriculumSummaryDTO> curriculumList = getDummyCurriculumList();
+        Curriculum principal = getDummyCurriculum();
+        principal.setId(curriculumList.get(1).getId());
+        student.setPrincipalCurriculum(principal);
+        when(curriculumRepository.findAllSummariesByStudentId(any())).thenReturn(curriculumList);
 
         StudentCurriculumsDTO actual = curriculumService.allCurriculumsByStudentAsStudentCurriculumsDTO(student);
 
         assertThat(actual.getCurriculumList()).isEqualTo(curriculumList);
-        assertThat(actual.getPrincipal()).isEqualTo(student.getPrincipalCurriculum());
+        assertThat(actual.getPrincipal()).isEqualTo(curriculumList.get(1));
     }
 
     @Test
@@ -162,8 +217,8 @@ public class CurriculumServiceTest {
     @Test
     public void testAllCurriculumsByStudentAsStudentCurriculumsDTO_withNoPrincipal() {
         Student student = getDummyStudent();
-        List<Curriculum> curriculumList = getDummyCurriculumList();
-        when(curriculumRepository.findAllByStudent(any())).thenReturn(curriculumList);
+        List<CurriculumSummaryDTO> curriculumList = getDummyCurriculumList();
+        when(curriculumRepository.findAllSummariesByStudentId(any())).thenReturn(curriculumList);
 
         StudentCurriculumsDTO actual = curriculumService.allCurriculumsByStudentAsStudentCurriculumsDTO(student);
 
@@ -303,11 +358,11 @@ public class CurriculumServiceTest {
     @Test
     public void testFindAllByStudentId() throws Exception {
         Student dummyStudent = getDummyStudent();
-        List<Curriculum> dummyCurriculumList = getDummyCurriculumList();
+        List<CurriculumSummaryDTO> dummyCurriculumList = getDummyCurriculumList();
         when(studentService.getOneByID(anyLong())).thenReturn(dummyStudent);
-        when(curriculumRepository.findAllByStudent(any())).thenReturn(dummyCurriculumList);
+        when(curriculumRepository.findAllSummariesByStudentId(any())).thenReturn(dummyCurriculumList);
 
-        List<Curriculum> actualCurriculums = curriculumService.findAllByStudentId(dummyStudent.getId());
+        List<CurriculumSummaryDTO> actualCurriculums = curriculumService.findAllByStudentId(dummyStudent.getId());
 
         assertThat(actualCurriculums).isEqualTo(dummyCurriculumList);
     }
@@ -320,6 +375,7 @@ public class CurriculumServiceTest {
         curriculumService.deleteOneById(1L);
 
         verify(curriculumRepository, times(1)).deleteById(any());
+        verify(curriculumSearchService, times(1)).remove(1L);
     }
 
     @Test
@@ -354,24 +410,28 @@ public class CurriculumServiceTest {
         return new Curriculum(
                 "fileName",
                 "content type",
-                "test".getBytes(),
+                "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08",
+                4L,
                 dummyStudent
         );
     }
 
-    private List<Curriculum> getDummyCurriculumList() {
-        Curriculum dummyCurriculum1 = getDummyCurriculum();
-        Curriculum dummyCurriculum2 = getDummyCurriculum();
-        Curriculum dummyCurriculum3 = getDummyCurriculum();
+    private CurriculumSummaryDTO getDummyCurriculumSummary(Long id, Boolean isValid) {
+        return new CurriculumSummaryDTO(id, "fileName", "content type", isValid, 4L, null,
+                1L, "Summer", "Winter", "cant@outlook.com");
+    }
 
-        return Arrays.asList(dummyCurriculum1, dummyCurriculum2, dummyCurriculum3);
+    private List<CurriculumSummaryDTO> getDummyCurriculumList() {
+        return Arrays.asList(
+                getDummyCurriculumSummary(1L, null),
+                getDummyCurriculumSummary(2L, null),
+                getDummyCurriculumSummary(3L, null));
     }
 
     private Curriculum getDummyCurriculumOffer() {
         Curriculum dummyCurriculum = new Curriculum();
 
         dummyCurriculum.setId(1L);
-        dummyCurriculum.setData("some xml".getBytes());
         dummyCurriculum.setName("fileeeename");
         dummyCurriculum.setStudent(getDummyStudent());
         return dummyCurriculum;
@@ -411,13 +471,10 @@ public class CurriculumServiceTest {
         return dummyMonitor;
     }
 
-    private List<Curriculum> getDummyCurriculumValidList() {
-        Curriculum dummyCurriculum1 = getDummyCurriculum();
-        Curriculum dummyCurriculum2 = getDummyCurriculum();
-        Curriculum dummyCurriculum3 = getDummyCurriculum();
-        dummyCurriculum1.setIsValid(true);
-        dummyCurriculum2.setIsValid(true);
-        dummyCurriculum3.setIsValid(true);
-        return Arrays.asList(dummyCurriculum1, dummyCurriculum2, dummyCurriculum3);
+    private List<CurriculumSummaryDTO> getDummyCurriculumValidList() {
+        return Arrays.asList(
+                getDummyCurriculumSummary(1L, true),
+                getDummyCurriculumSummary(2L, true),
+                getDummyCurriculumSummary(3L, true));
     }
 }
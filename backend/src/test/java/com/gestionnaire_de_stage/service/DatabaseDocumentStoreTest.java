@@ -0,0 +1,130 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
+import com.gestionnaire_de_stage.util.DocumentHash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DatabaseDocumentStoreTest {
+
+    private static final byte[] DUMMY_PDF = "%PDF-1.7 évaluation".getBytes(StandardCharsets.UTF_8);
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DatabaseDocumentStore documentStore;
+
+    @BeforeEach
+    void init() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(UUID.randomUUID().toString())
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE stored_document (document_key VARCHAR(64) PRIMARY KEY, " +
+                "content_size BIGINT NOT NULL, content BLOB NOT NULL)");
+        documentStore = new DatabaseDocumentStore(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testStore() throws Exception {
+        String expectedKey = DocumentHash.sha256(DUMMY_PDF);
+
+        StoredDocumentDTO stored = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+
+        assertThat(stored.getKey()).isEqualTo(expectedKey);
+        assertThat(stored.getSize()).isEqualTo(DUMMY_PDF.length);
+        assertThat(documentStore.exists(expectedKey)).isTrue();
+        assertThat(documentStore.size(expectedKey)).isEqualTo(DUMMY_PDF.length);
+        try (InputStream inputStream = documentStore.open(expectedKey)) {
+            assertThat(StreamUtils.copyToByteArray(inputStream)).isEqualTo(DUMMY_PDF);
+        }
+    }
+
+    @Test
+    public void testStore_withSameContent() throws Exception {
+        StoredDocumentDTO first = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+        StoredDocumentDTO second = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+
+        assertThat(second.getKey()).isEqualTo(first.getKey());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stored_document", Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    public void testStore_seenByAnotherInstance() throws Exception {
+        StoredDocumentDTO stored = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+        DatabaseDocumentStore otherInstance = new DatabaseDocumentStore(database);
+
+        try (InputStream inputStream = otherInstance.open(stored.getKey())) {
+            assertThat(StreamUtils.copyToByteArray(inputStream)).isEqualTo(DUMMY_PDF);
+        }
+    }
+
+    @Test
+    public void testStore_withNullContent() {
+        assertThrows(IllegalArgumentException.class,
+                () -> documentStore.store(null));
+    }
+
+    @Test
+    public void testTransferTo() throws Exception {
+        StoredDocumentDTO stored = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long transferred = documentStore.transferTo(stored.getKey(), 1, 3, Channels.newChannel(outputStream));
+
+        assertThat(transferred).isEqualTo(3);
+        assertThat(outputStream.toByteArray()).isEqualTo("PDF".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTransferTo_pastTheEnd() throws Exception {
+        StoredDocumentDTO stored = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long transferred = documentStore.transferTo(stored.getKey(), 0, 1000, Channels.newChannel(outputStream));
+
+        assertThat(transferred).isEqualTo(DUMMY_PDF.length);
+        assertThat(outputStream.toByteArray()).isEqualTo(DUMMY_PDF);
+    }
+
+    @Test
+    public void testExists_withUnknownKey() {
+        assertThat(documentStore.exists(DocumentHash.sha256(new byte[]{1}))).isFalse();
+    }
+
+    @Test
+    public void testSize_withUnknownKey() {
+        assertThrows(NoSuchFileException.class,
+                () -> documentStore.size(DocumentHash.sha256(new byte[]{1})));
+    }
+
+    @Test
+    public void testOpen_withInvalidKey() {
+        assertThrows(IllegalArgumentException.class,
+                () -> documentStore.open("../application.properties"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
+import com.gestionnaire_de_stage.enums.DocumentType;
+import com.gestionnaire_de_stage.util.DocumentHash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+public class DocumentMigrationServiceTest {
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DocumentStore documentStore;
+
+    private DocumentMigrationService documentMigrationService;
+
+    @BeforeEach
+    void init() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(UUID.randomUUID().toString())
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE contract (id BIGINT PRIMARY KEY, contractpdf BLOB, " +
+                "contractpdfsize BIGINT, contractpdfhash VARCHAR(64))");
+        jdbcTemplate.execute("CREATE TABLE curriculum (id BIGINT PRIMARY KEY, name VARCHAR(255), type VARCHAR(255), " +
+                "data_size BIGINT, data_hash VARCHAR(64))");
+        jdbcTemplate.execute("CREATE TABLE stored_document (document_key VARCHAR(64) PRIMARY KEY, " +
+                "content_size BIGINT NOT NULL, content BLOB NOT NULL)");
+        documentStore = new DatabaseDocumentStore(database);
+        documentMigrationService = new DocumentMigrationService(database, documentStore, 2, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testMigrateBatch() {
+        for (long id = 1; id <= 3; id++)
+            jdbcTemplate.update("INSERT INTO contract (id, contractpdf) VALUES (?, ?)", id, getDummyPDF(id));
+
+        assertThat(documentMigrationService.migrateBatch(DocumentType.CONTRACT, 0)).isEqualTo(2L);
+        assertThat(documentMigrationService.migrateBatch(DocumentType.CONTRACT, 2)).isEqualTo(3L);
+        assertThat(documentMigrationService.migrateBatch(DocumentType.CONTRACT, 3)).isEqualTo(3L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contract WHERE contractpdf IS NULL " +
+                "AND contractpdfhash IS NOT NULL", Long.class)).isEqualTo(3L);
+    }
+
+    @Test
+    public void testMigrateAll() {
+        jdbcTemplate.update("INSERT INTO contract (id, contractpdf) VALUES (1, ?)", (Object) getDummyPDF(1L));
+        jdbcTemplate.update("INSERT INTO contract (id, contractpdf) VALUES (2, ?)", (Object) getDummyPDF(1L));
+        jdbcTemplate.update("INSERT INTO contract (id, contractpdf) VALUES (3, ?)", (Object) getDummyPDF(3L));
+
+        documentMigrationService.migrateAll();
+
+        String key = DocumentHash.sha256(getDummyPDF(1L));
+        assertThat(jdbcTemplate.queryForObject("SELECT contractpdfhash FROM contract WHERE id = 2", String.class)).isEqualTo(key);
+        assertThat(documentStore.exists(key)).isTrue();
+        assertThat(documentStore.exists(DocumentHash.sha256(getDummyPDF(3L)))).isTrue();
+    }
+
+    @Test
+    public void testMigrateAll_withFailingBatch() throws Exception {
+        for (long id = 1; id <= 3; id++)
+            jdbcTemplate.update("INSERT INTO contract (id, contractpdf) VALUES (?, ?)", id, getDummyPDF(id));
+        DocumentStore failingStore = spy(documentStore);
+        doThrow(new IOException("disque plein")).doThrow(new IOException("disque plein")).doCallRealMethod()
+                .when(failingStore).store(any());
+        documentMigrationService = new DocumentMigrationService(database, failingStore, 2, true);
+
+        documentMigrationService.migrateAll();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM contract WHERE contractpdf IS NOT NULL ORDER BY id", Long.class))
+                .containsExactly(1L, 2L);
+        assertThat(jdbcTemplate.queryForObject("SELECT contractpdfhash FROM contract WHERE id = 3", String.class))
+                .isEqualTo(DocumentHash.sha256(getDummyPDF(3L)));
+    }
+
+    @Test
+    public void testMigrate() throws Exception {
+        jdbcTemplate.update("INSERT INTO contract (id, contractpdf) VALUES (1, ?)", (Object) getDummyPDF(1L));
+
+        StoredDocumentDTO stored = documentMigrationService.migrate(DocumentType.CONTRACT, 1L);
+
+        assertThat(stored.getKey()).isEqualTo(DocumentHash.sha256(getDummyPDF(1L)));
+        assertThat(stored.getSize()).isEqualTo(getDummyPDF(1L).length);
+        assertThat(jdbcTemplate.queryForObject("SELECT contractpdfsize FROM contract WHERE id = 1", Long.class))
+                .isEqualTo(stored.getSize());
+    }
+
+    @Test
+    public void testMigrate_withNullContent() throws Exception {
+        jdbcTemplate.update("INSERT INTO contract (id) VALUES (1)");
+
+        assertThat(documentMigrationService.migrate(DocumentType.CONTRACT, 1L)).isNull();
+    }
+
+    @Test
+    public void testHasLegacyContent() {
+        assertThat(documentMigrationService.hasLegacyContent(DocumentType.CONTRACT)).isTrue();
+        assertThat(documentMigrationService.hasLegacyContent(DocumentType.CURRICULUM)).isFalse();
+        assertThat(documentMigrationService.hasLegacyContent(DocumentType.EVAL_STAGIAIRE)).isFalse();
+    }
+
+    private byte[] getDummyPDF(Long id) {
+        return ("%PDF-1.7 contrat " + id).getBytes(StandardCharsets.UTF_8);
+    }
+}
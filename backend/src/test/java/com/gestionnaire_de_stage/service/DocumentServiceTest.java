@@ -0,0 +1,139 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.DocumentDTO;
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
+import com.gestionnaire_de_stage.enums.DocumentType;
+import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
+import com.gestionnaire_de_stage.util.DocumentHash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DocumentServiceTest {
+
+    private static final byte[] DUMMY_PDF = "%PDF-1.7 contrat".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path storeRoot;
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DocumentStore documentStore;
+
+    private DocumentService documentService;
+
+    @BeforeEach
+    void init() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(UUID.randomUUID().toString())
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE contract (id BIGINT PRIMARY KEY, contractpdf BLOB, " +
+                "contractpdfsize BIGINT, contractpdfhash VARCHAR(64))");
+        jdbcTemplate.execute("CREATE TABLE curriculum (id BIGINT PRIMARY KEY, name VARCHAR(255), type VARCHAR(255), " +
+                "data_size BIGINT, data_hash VARCHAR(64))");
+        jdbcTemplate.execute("CREATE TABLE stage (id BIGINT PRIMARY KEY, " +
+                "eval_milieu_stage BLOB, eval_milieu_stage_size BIGINT, eval_milieu_stage_hash VARCHAR(64), " +
+                "eval_stagiaire BLOB, eval_stagiaire_size BIGINT, eval_stagiaire_hash VARCHAR(64))");
+        documentStore = new LocalDocumentStore(storeRoot.toString());
+        documentService = new DocumentService(database, documentStore,
+                new DocumentMigrationService(database, documentStore, 50, true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testGetDocument_withStoredDocument() throws Exception {
+        StoredDocumentDTO stored = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+        jdbcTemplate.update("INSERT INTO contract (id, contractpdfsize, contractpdfhash) VALUES (1, ?, ?)",
+                stored.getSize(), stored.getKey());
+
+        DocumentDTO document = documentService.getDocument(DocumentType.CONTRACT, 1L);
+
+        assertThat(document.getSize()).isEqualTo(DUMMY_PDF.length);
+        assertThat(document.getHash()).isEqualTo(DocumentHash.sha256(DUMMY_PDF));
+        assertThat(document.getContentType()).isEqualTo("application/pdf");
+        assertThat(document.getFileName()).isEqualTo("contract_1.pdf");
+        try (InputStream inputStream = document.getContent().getInputStream()) {
+            assertThat(StreamUtils.copyToByteArray(inputStream)).isEqualTo(DUMMY_PDF);
+        }
+    }
+
+    @Test
+    public void testGetDocument_withLegacyContent() throws Exception {
+        jdbcTemplate.update("INSERT INTO stage (id, eval_stagiaire) VALUES (1, ?)", (Object) DUMMY_PDF);
+
+        DocumentDTO document = documentService.getDocument(DocumentType.EVAL_STAGIAIRE, 1L);
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT eval_stagiaire, eval_stagiaire_size, eval_stagiaire_hash FROM stage WHERE id = 1");
+        assertThat(document.getHash()).isEqualTo(DocumentHash.sha256(DUMMY_PDF));
+        assertThat(documentStore.exists(document.getHash())).isTrue();
+        assertThat(row.get("EVAL_STAGIAIRE")).isNull();
+        assertThat(row.get("EVAL_STAGIAIRE_SIZE")).isEqualTo((long) DUMMY_PDF.length);
+        assertThat(row.get("EVAL_STAGIAIRE_HASH")).isEqualTo(DocumentHash.sha256(DUMMY_PDF));
+    }
+
+    @Test
+    public void testGetDocument_withCurriculum() throws Exception {
+        StoredDocumentDTO stored = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+        jdbcTemplate.update("INSERT INTO curriculum (id, name, type, data_size, data_hash) VALUES (1, 'cv.docx', 'application/msword', ?, ?)",
+                stored.getSize(), stored.getKey());
+
+        DocumentDTO document = documentService.getDocument(DocumentType.CURRICULUM, 1L);
+
+        assertThat(document.getFileName()).isEqualTo("cv.docx");
+        assertThat(document.getContentType()).isEqualTo("application/msword");
+    }
+
+    @Test
+    public void testGetDocument_withNullContent() throws Exception {
+        jdbcTemplate.update("INSERT INTO contract (id) VALUES (1)");
+
+        DocumentDTO document = documentService.getDocument(DocumentType.CONTRACT, 1L);
+
+        assertThat(document).isNull();
+    }
+
+    @Test
+    public void testGetDocument_withMissingStoredDocument() throws Exception {
+        jdbcTemplate.update("INSERT INTO curriculum (id, name, data_hash) VALUES (1, 'cv.pdf', ?)", DocumentHash.sha256(DUMMY_PDF));
+
+        DocumentDTO document = documentService.getDocument(DocumentType.CURRICULUM, 1L);
+
+        assertThat(document).isNull();
+    }
+
+    @Test
+    public void testGetDocument_withNonExistentId() {
+        assertThrows(IdDoesNotExistException.class,
+                () -> documentService.getDocument(DocumentType.CONTRACT, 34L));
+    }
+
+    @Test
+    public void testGetDocument_withNullId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> documentService.getDocument(DocumentType.CONTRACT, null));
+    }
+}
@@ -0,0 +1,238 @@
+package com.gestionnaire_de_stage.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestionnaire_de_stage.dto.ResponseMessage;
+import com.gestionnaire_de_stage.exception.IdempotencyKeyReusedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdempotencyServiceTest {
+
+    private static class MovableClock extends Clock {
+        private volatile Instant instant = Instant.parse("2021-11-20T15:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private static final String URL = "jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1";
+
+    private IdempotencyService idempotencyService;
+
+    // Another instance on the same database
+    private IdempotencyService otherInstance;
+
+    private final MovableClock clock = new MovableClock();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void init() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS idempotency_key (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "scope VARCHAR(128) NOT NULL, idempotency_key VARCHAR(128) NOT NULL, fingerprint INT NOT NULL, " +
+                "expires_at TIMESTAMP NOT NULL, status INT, body BLOB, UNIQUE (scope, idempotency_key))");
+        jdbcTemplate.execute("DELETE FROM idempotency_key");
+        idempotencyService = new IdempotencyService(jdbcTemplate, new ObjectMapper(), clock, Duration.ofMinutes(10), Duration.ofSeconds(5));
+        otherInstance = new IdempotencyService(jdbcTemplate, new ObjectMapper(), clock, Duration.ofMinutes(10), Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void testExecute_replaysTheResponse() throws Exception {
+        ResponseEntity<?> first = idempotencyService.execute("apply", "key", 1, this::created);
+        ResponseEntity<?> second = idempotencyService.execute("apply", "key", 1, this::created);
+
+        assertThat(second).isSameAs(first);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExecute_withOtherKeyOrScope() throws Exception {
+        idempotencyService.execute("apply", "key", 1, this::created);
+        idempotencyService.execute("apply", "other", 1, this::created);
+        idempotencyService.execute("start", "key", 1, this::created);
+
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testExecute_withOtherRequest() throws Exception {
+        idempotencyService.execute("apply", "key", 1, this::created);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.execute("apply", "key", 2, this::created));
+    }
+
+    @Test
+    public void testExecute_afterTimeToLive() throws Exception {
+        idempotencyService.execute("apply", "key", 1, this::created);
+        clock.instant = clock.instant.plus(Duration.ofMinutes(10));
+
+        idempotencyService.execute("apply", "key", 2, this::created);
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testExecute_doesNotKeepFailures() throws Exception {
+        ResponseEntity<?> failed = idempotencyService.execute("apply", "key", 1, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.badRequest().build();
+        });
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("apply", "key", 1, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+
+        ResponseEntity<?> retried = idempotencyService.execute("apply", "key", 1, this::created);
+
+        assertThat(failed.getStatusCodeValue()).isEqualTo(400);
+        assertThat(retried.getStatusCodeValue()).isEqualTo(201);
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testExecute_coalescesConcurrentDuplicates() throws Exception {
+        int threads = 8;
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+            for (int i = 0; i < threads; i++)
+                responses.add(executor.submit(() -> idempotencyService.execute("apply", "key", 1, () -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return created();
+                })));
+            Thread.sleep(100);
+            release.countDown();
+
+            ResponseEntity<?> first = responses.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<ResponseEntity<?>> response : responses)
+                assertThat(response.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            assertThat(calls.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExecute_replaysTheResponseOfAnotherInstance() throws Exception {
+        idempotencyService.execute("apply", "key", 1, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(201).body(new ResponseMessage("Candidature envoyée"));
+        });
+
+        ResponseEntity<?> replayed = otherInstance.execute("apply", "key", 1, this::created);
+
+        assertThat(replayed.getStatusCodeValue()).isEqualTo(201);
+        assertThat(new String((byte[]) replayed.getBody(), StandardCharsets.UTF_8)).contains("Candidature envoyée");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExecute_withOtherRequestOnAnotherInstance() throws Exception {
+        idempotencyService.execute("apply", "key", 1, this::created);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> otherInstance.execute("apply", "key", 2, this::created));
+    }
+
+    @Test
+    public void testExecute_waitsForAnotherInstance() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<?>> first = executor.submit(() -> idempotencyService.execute("apply", "key", 1, () -> {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return created();
+            }));
+            running.await(5, TimeUnit.SECONDS);
+            Future<ResponseEntity<?>> duplicate = executor.submit(() -> otherInstance.execute("apply", "key", 1, this::created));
+            Thread.sleep(300);
+            assertThat(duplicate.isDone()).isFalse();
+
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getStatusCodeValue()).isEqualTo(201);
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).getStatusCodeValue()).isEqualTo(201);
+            assertThat(calls.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExecute_failureOnAnotherInstanceIsRetried() throws Exception {
+        idempotencyService.execute("apply", "key", 1, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.badRequest().build();
+        });
+
+        ResponseEntity<?> retried = otherInstance.execute("apply", "key", 1, this::created);
+
+        assertThat(retried.getStatusCodeValue()).isEqualTo(201);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testExecute_afterTimeToLiveOnAnotherInstance() throws Exception {
+        idempotencyService.execute("apply", "key", 1, this::created);
+        clock.instant = clock.instant.plus(Duration.ofMinutes(10));
+
+        otherInstance.execute("apply", "key", 2, this::created);
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testPurgeExpired() throws Exception {
+        idempotencyService.execute("apply", "key", 1, this::created);
+        clock.instant = clock.instant.plus(Duration.ofMinutes(10));
+
+        idempotencyService.purgeExpired();
+        clock.instant = clock.instant.minus(Duration.ofMinutes(5));
+        idempotencyService.execute("apply", "key", 2, this::created);
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    private ResponseEntity<?> created() {
+        calls.incrementAndGet();
+        return ResponseEntity.status(201).build();
+    }
+}
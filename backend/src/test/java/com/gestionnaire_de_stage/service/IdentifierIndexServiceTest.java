@@ -0,0 +1,133 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.enums.UserIdentifier;
+import com.gestionnaire_de_stage.repository.StudentRepository;
+import com.gestionnaire_de_stage.repository.SupervisorRepository;
+import com.gestionnaire_de_stage.repository.UserRepository;
+import com.gestionnaire_de_stage.util.IdentifierFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdentifierIndexServiceTest {
+
+    @InjectMocks
+    private IdentifierIndexService identifierIndexService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private SupervisorRepository supervisorRepository;
+
+    @Test
+    public void testExists_beforeRebuild() {
+        when(userRepository.existsByEmail("clip@gmail.com")).thenReturn(true);
+
+        boolean exists = identifierIndexService.exists(UserIdentifier.EMAIL, "clip@gmail.com");
+
+        assertThat(exists).isTrue();
+    }
+
+    @Test
+    public void testExists_afterRebuild() {
+        stubRepositories();
+        identifierIndexService.rebuild();
+
+        assertThat(identifierIndexService.exists(UserIdentifier.EMAIL, " Clip@Gmail.com ")).isTrue();
+        assertThat(identifierIndexService.exists(UserIdentifier.EMAIL, "keyh@gmail.com")).isTrue();
+        assertThat(identifierIndexService.exists(UserIdentifier.EMAIL, "stone@gmail.com")).isFalse();
+        assertThat(identifierIndexService.exists(UserIdentifier.STUDENT_MATRICULE, "1740934")).isTrue();
+        assertThat(identifierIndexService.exists(UserIdentifier.SUPERVISOR_MATRICULE, "1740934")).isFalse();
+        verify(userRepository, never()).existsByEmail(any());
+    }
+
+    @Test
+    public void testExists_withNullValue() {
+        assertThat(identifierIndexService.exists(UserIdentifier.EMAIL, null)).isFalse();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        stubRepositories();
+        identifierIndexService.rebuild();
+
+        identifierIndexService.add(UserIdentifier.EMAIL, "Stone@Gmail.com");
+        assertThat(identifierIndexService.exists(UserIdentifier.EMAIL, "stone@gmail.com")).isTrue();
+
+        identifierIndexService.remove(UserIdentifier.EMAIL, "stone@gmail.com");
+        assertThat(identifierIndexService.exists(UserIdentifier.EMAIL, "stone@gmail.com")).isFalse();
+    }
+
+    @Test
+    public void testReplace() {
+        stubRepositories();
+        identifierIndexService.rebuild();
+
+        identifierIndexService.replace(UserIdentifier.EMAIL, "clip@gmail.com", "tea@outlook.com");
+
+        assertThat(identifierIndexService.exists(UserIdentifier.EMAIL, "clip@gmail.com")).isFalse();
+        assertThat(identifierIndexService.exists(UserIdentifier.EMAIL, "tea@outlook.com")).isTrue();
+    }
+
+    @Test
+    public void testReplace_withSameEmailOtherCase() {
+        stubRepositories();
+        identifierIndexService.rebuild();
+
+        identifierIndexService.replace(UserIdentifier.EMAIL, "clip@gmail.com", "CLIP@gmail.com");
+
+        assertThat(identifierIndexService.exists(UserIdentifier.EMAIL, "clip@gmail.com")).isTrue();
+    }
+
+    @Test
+    public void testAdd_whileRebuilding() {
+        when(userRepository.findAllEmails()).thenAnswer(invocation -> {
+            identifierIndexService.add(UserIdentifier.EMAIL, "tea@outlook.com");
+            return List.of("clip@gmail.com");
+        });
+        when(studentRepository.findAllMatricules()).thenReturn(List.of());
+        when(supervisorRepository.findAllMatricules()).thenReturn(List.of());
+
+        identifierIndexService.rebuild();
+
+        assertThat(identifierIndexService.exists(UserIdentifier.EMAIL, "tea@outlook.com")).isTrue();
+        assertThat(identifierIndexService.exists(UserIdentifier.EMAIL, "clip@gmail.com")).isTrue();
+    }
+
+    @Test
+    public void testFilter_falsePositiveRate() {
+        List<String> emails = IntStream.range(0, 100_000).mapToObj(i -> "student" + i + "@cegep.qc.ca").collect(Collectors.toList());
+        IdentifierFilter filter = IdentifierFilter.of(emails);
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .mapToObj(i -> "monitor" + i + "@cegep.qc.ca")
+                .filter(filter::mightContain)
+                .count();
+
+        assertThat(emails).allMatch(filter::contains);
+        assertThat(falsePositives).isLessThan(2_000);
+        assertThat(IntStream.range(0, 100_000).mapToObj(i -> "monitor" + i + "@cegep.qc.ca").noneMatch(filter::contains)).isTrue();
+    }
+
+    private void stubRepositories() {
+        // The email of the student and the one of the supervisor
+        when(userRepository.findAllEmails()).thenReturn(List.of("clip@gmail.com", "keyh@gmail.com"));
+        when(studentRepository.findAllMatricules()).thenReturn(List.of("1740934"));
+        when(supervisorRepository.findAllMatricules()).thenReturn(List.of("04736"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.gestionnaire_de_stage.service;
+
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stands in for the SMTP server in tests: every call to send is one connection, the messages are kept
+ * in memory and the server can be taken down or made to reject some recipients like JavaMailSenderImpl reports it.
+ */
+public class InMemoryMailSender implements JavaMailSender {
+
+    private final List<SimpleMailMessage> sent = Collections.synchronizedList(new ArrayList<>());
+
+    private final Set<String> rejectedRecipients = Collections.synchronizedSet(new HashSet<>());
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private volatile boolean down;
+
+    @Override
+    public void send(SimpleMailMessage... messages) {
+        connections.incrementAndGet();
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        for (SimpleMailMessage message : messages) {
+            if (down)
+                failedMessages.put(message, new IllegalStateException("Connection refused"));
+            else if (message.getTo() != null && Arrays.stream(message.getTo()).anyMatch(rejectedRecipients::contains))
+                failedMessages.put(message, new IllegalArgumentException("550 Mailbox unavailable"));
+            else
+                sent.add(message);
+        }
+        if (!failedMessages.isEmpty())
+            throw new MailSendException(down ? "Mail server connection failed" : "Failed messages", null, failedMessages);
+    }
+
+    @Override
+    public void send(SimpleMailMessage message) {
+        send(new SimpleMailMessage[]{message});
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return new MimeMessage(Session.getInstance(new Properties()));
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void send(MimeMessage mimeMessage) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void send(MimeMessage... mimeMessages) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void send(MimeMessagePreparator mimeMessagePreparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void send(MimeMessagePreparator... mimeMessagePreparators) {
+        throw new UnsupportedOperationException();
+    }
+
+    public List<SimpleMailMessage> getSent() {
+        return sent;
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public void reject(String recipient) {
+        rejectedRecipients.add(recipient);
+    }
+
+    public void setDown(boolean down) {
+        this.down = down;
+    }
+}
@@ -0,0 +1,176 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.ScheduledInterviewDTO;
+import com.gestionnaire_de_stage.enums.Status;
+import com.gestionnaire_de_stage.model.OfferApplication;
+import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.*;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InterviewSchedulerServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2021, 11, 20, 10, 0);
+
+    private static class MovableClock extends Clock {
+        private Instant instant = NOW.atZone(ZoneId.systemDefault()).toInstant();
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private InterviewSchedulerService interviewSchedulerService;
+
+    @Mock
+    private OfferApplicationRepository offerApplicationRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ScheduledFuture<Object> scheduledFuture;
+
+    private final MovableClock clock = new MovableClock();
+
+    @BeforeEach
+    void init() {
+        interviewSchedulerService = new InterviewSchedulerService(offerApplicationRepository, transactionManager, clock, 2, Duration.ofSeconds(30)) {
+            @Override
+            TaskScheduler newTaskScheduler() {
+                return taskScheduler;
+            }
+        };
+    }
+
+    @Test
+    public void testReload_armsAtEarliestInterview() {
+        when(offerApplicationRepository.findAllScheduledInterviews(Status.EN_ATTENTE_ENTREVUE, Year.of(2021))).thenReturn(List.of(
+                new ScheduledInterviewDTO(1L, NOW.plusHours(2)),
+                new ScheduledInterviewDTO(2L, NOW.plusMinutes(30))));
+
+        interviewSchedulerService.reload();
+
+        assertThat(interviewSchedulerService.getScheduledCount()).isEqualTo(2);
+        verify(taskScheduler, times(1)).schedule(any(), eq(instantOf(NOW.plusMinutes(30))));
+    }
+
+    @Test
+    public void testSchedule_rearmsOnlyForEarlierInterview() {
+        doReturn(scheduledFuture).when(taskScheduler).schedule(any(), any(Instant.class));
+
+        interviewSchedulerService.schedule(1L, NOW.plusHours(2));
+        interviewSchedulerService.schedule(2L, NOW.plusHours(3));
+        interviewSchedulerService.schedule(3L, NOW.plusHours(1));
+
+        verify(taskScheduler, times(1)).schedule(any(), eq(instantOf(NOW.plusHours(2))));
+        verify(taskScheduler, times(1)).schedule(any(), eq(instantOf(NOW.plusHours(1))));
+        verify(scheduledFuture, times(1)).cancel(false);
+    }
+
+    @Test
+    public void testSchedule_withNullParams() {
+        assertThrows(IllegalArgumentException.class,
+                () -> interviewSchedulerService.schedule(null, NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> interviewSchedulerService.schedule(1L, null));
+    }
+
+    @Test
+    public void testRunDue_passesDueInterviewsInBatches() {
+        OfferApplication first = getDummyOfferApp(1L);
+        OfferApplication second = getDummyOfferApp(2L);
+        OfferApplication third = getDummyOfferApp(3L);
+        when(offerApplicationRepository.findAllByIdInAndStatusAndInterviewDateLessThanEqual(any(), eq(Status.EN_ATTENTE_ENTREVUE), eq(NOW.plusHours(1))))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        interviewSchedulerService.schedule(1L, NOW.plusMinutes(10));
+        interviewSchedulerService.schedule(2L, NOW.plusMinutes(20));
+        interviewSchedulerService.schedule(3L, NOW.plusMinutes(30));
+        interviewSchedulerService.schedule(4L, NOW.plusHours(2));
+        clock.instant = instantOf(NOW.plusHours(1));
+
+        interviewSchedulerService.runDue();
+
+        verify(offerApplicationRepository, times(1)).findAllByIdInAndStatusAndInterviewDateLessThanEqual(eq(List.of(1L, 2L)), any(), any());
+        verify(offerApplicationRepository, times(1)).findAllByIdInAndStatusAndInterviewDateLessThanEqual(eq(List.of(3L)), any(), any());
+        assertThat(List.of(first, second, third)).allMatch(offerApplication -> offerApplication.getStatus() == Status.EN_ATTENTE_REPONSE);
+        assertThat(interviewSchedulerService.getScheduledCount()).isEqualTo(1);
+        verify(taskScheduler, times(1)).schedule(any(), eq(instantOf(NOW.plusHours(2))));
+    }
+
+    @Test
+    public void testRunDue_withNothingDue() {
+        interviewSchedulerService.schedule(1L, NOW.plusMinutes(10));
+
+        interviewSchedulerService.runDue();
+
+        verifyNoInteractions(offerApplicationRepository);
+        assertThat(interviewSchedulerService.getScheduledCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRunDue_withFailingBatch() {
+        when(offerApplicationRepository.findAllByIdInAndStatusAndInterviewDateLessThanEqual(any(), any(), any()))
+                .thenThrow(IllegalStateException.class);
+        interviewSchedulerService.schedule(1L, NOW.minusMinutes(1));
+
+        interviewSchedulerService.runDue();
+
+        verify(transactionManager, times(1)).rollback(any());
+        assertThat(interviewSchedulerService.getScheduledCount()).isEqualTo(1);
+        verify(taskScheduler, times(1)).schedule(any(), eq(instantOf(NOW.plusSeconds(30))));
+    }
+
+    @Test
+    public void testReload_keepsInterviewsScheduledMeanwhile() {
+        when(offerApplicationRepository.findAllScheduledInterviews(Status.EN_ATTENTE_ENTREVUE, Year.of(2021))).thenAnswer(invocation -> {
+            interviewSchedulerService.schedule(2L, NOW.plusMinutes(30));
+            return List.of(new ScheduledInterviewDTO(1L, NOW.plusHours(2)));
+        });
+
+        interviewSchedulerService.reload();
+
+        assertThat(interviewSchedulerService.getScheduledCount()).isEqualTo(2);
+        verify(taskScheduler, atLeastOnce()).schedule(any(), eq(instantOf(NOW.plusMinutes(30))));
+    }
+
+    private Instant instantOf(LocalDateTime date) {
+        return date.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private OfferApplication getDummyOfferApp(Long id) {
+        OfferApplication offerApplication = new OfferApplication();
+        offerApplication.setId(id);
+        offerApplication.setStatus(Status.EN_ATTENTE_ENTREVUE);
+        return offerApplication;
+    }
+}
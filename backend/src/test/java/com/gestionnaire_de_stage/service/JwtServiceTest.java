@@ -0,0 +1,110 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.AuthenticatedUserDTO;
+import com.gestionnaire_de_stage.enums.TypeUser;
+import com.gestionnaire_de_stage.exception.InvalidTokenException;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtServiceTest {
+
+    private static final String SECRET = "une-cle-de-signature-de-test-assez-longue";
+
+    private static class MovableClock extends Clock {
+        private volatile Instant instant = Instant.parse("2021-11-20T15:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private final MovableClock clock = new MovableClock();
+
+    private final JwtService jwtService = new JwtService(clock, SECRET, Duration.ofHours(8), Duration.ofMinutes(1));
+
+    @Test
+    public void testIssueAndParse() throws Exception {
+        String token = jwtService.issue(6L, TypeUser.STUDENT, "tea@outlook.com");
+
+        AuthenticatedUserDTO user = jwtService.parse(token);
+
+        assertThat(user.getId()).isEqualTo(6L);
+        assertThat(user.getRole()).isEqualTo(TypeUser.STUDENT);
+        assertThat(user.getEmail()).isEqualTo("tea@outlook.com");
+    }
+
+    @Test
+    public void testIssue_withNullEntries() {
+        assertThrows(IllegalArgumentException.class, () -> jwtService.issue(null, TypeUser.MANAGER, "oussama@cegep.qc.ca"));
+        assertThrows(IllegalArgumentException.class, () -> jwtService.issue(1L, null, "oussama@cegep.qc.ca"));
+        assertThrows(IllegalArgumentException.class, () -> jwtService.issue(1L, TypeUser.MANAGER, null));
+    }
+
+    @Test
+    public void testParse_expired() {
+        String token = jwtService.issue(6L, TypeUser.STUDENT, "oussama@cegep.qc.ca");
+        clock.instant = clock.instant.plus(Duration.ofHours(8)).plusSeconds(1);
+
+        assertThrows(InvalidTokenException.class, () -> jwtService.parse(token));
+    }
+
+    @Test
+    public void testParse_withOtherSecret() {
+        String token = new JwtService(clock, SECRET + "-autre", Duration.ofHours(8), Duration.ofMinutes(1)).issue(1L, TypeUser.MANAGER, "oussama@cegep.qc.ca");
+
+        assertThrows(InvalidTokenException.class, () -> jwtService.parse(token));
+    }
+
+    @Test
+    public void testParse_tampered() {
+        String token = jwtService.issue(6L, TypeUser.STUDENT, "oussama@cegep.qc.ca");
+        String[] parts = token.split("\\.");
+        String forged = jwtService.issue(1L, TypeUser.MANAGER, "oussama@cegep.qc.ca").split("\\.")[1];
+
+        assertThrows(InvalidTokenException.class, () -> jwtService.parse(parts[0] + "." + forged + "." + parts[2]));
+        assertThrows(InvalidTokenException.class, () -> jwtService.parse("pas un jeton"));
+        assertThrows(InvalidTokenException.class, () -> jwtService.parse(null));
+    }
+
+    @Test
+    public void testParseStreamTicket() throws Exception {
+        String ticket = jwtService.issueStreamTicket(new AuthenticatedUserDTO(6L, TypeUser.STUDENT, "tea@outlook.com"));
+
+        assertThat(jwtService.parseStreamTicket(ticket)).isEqualTo(new AuthenticatedUserDTO(6L, TypeUser.STUDENT, "tea@outlook.com"));
+        assertThrows(InvalidTokenException.class, () -> jwtService.parse(ticket));
+        assertThrows(InvalidTokenException.class, () -> jwtService.parseStreamTicket(jwtService.issue(6L, TypeUser.STUDENT, "tea@outlook.com")));
+    }
+
+    @Test
+    public void testParseStreamTicket_expired() {
+        String ticket = jwtService.issueStreamTicket(new AuthenticatedUserDTO(6L, TypeUser.STUDENT, "tea@outlook.com"));
+        clock.instant = clock.instant.plus(Duration.ofMinutes(1)).plusSeconds(1);
+
+        assertThrows(InvalidTokenException.class, () -> jwtService.parseStreamTicket(ticket));
+    }
+
+    @Test
+    public void testConstructor_withShortSecret() {
+        assertThrows(IllegalArgumentException.class, () -> new JwtService(clock, "trop-courte", Duration.ofHours(8), Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void testConstructor_withoutSecret() {
+        assertThrows(IllegalArgumentException.class, () -> new JwtService(clock, "", Duration.ofHours(8), Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,101 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
+import com.gestionnaire_de_stage.util.DocumentHash;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LocalDocumentStoreTest {
+
+    private static final byte[] DUMMY_PDF = "%PDF-1.7 évaluation".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    private LocalDocumentStore documentStore;
+
+    @BeforeEach
+    void init() {
+        documentStore = new LocalDocumentStore(root.toString());
+    }
+
+    @Test
+    public void testStore() throws Exception {
+        String expectedKey = DocumentHash.sha256(DUMMY_PDF);
+
+        StoredDocumentDTO stored = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+
+        assertThat(stored.getKey()).isEqualTo(expectedKey);
+        assertThat(stored.getSize()).isEqualTo(DUMMY_PDF.length);
+        assertThat(root.resolve(expectedKey.substring(0, 2)).resolve(expectedKey.substring(2, 4)).resolve(expectedKey)).exists();
+        assertThat(documentStore.exists(expectedKey)).isTrue();
+        assertThat(documentStore.size(expectedKey)).isEqualTo(DUMMY_PDF.length);
+        try (InputStream inputStream = documentStore.open(expectedKey)) {
+            assertThat(StreamUtils.copyToByteArray(inputStream)).isEqualTo(DUMMY_PDF);
+        }
+    }
+
+    @Test
+    public void testStore_withSameContent() throws Exception {
+        StoredDocumentDTO first = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+        StoredDocumentDTO second = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+
+        assertThat(second.getKey()).isEqualTo(first.getKey());
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testStore_withNullContent() {
+        assertThrows(IllegalArgumentException.class,
+                () -> documentStore.store(null));
+    }
+
+    @Test
+    public void testTransferTo() throws Exception {
+        StoredDocumentDTO stored = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long transferred = documentStore.transferTo(stored.getKey(), 1, 3, Channels.newChannel(outputStream));
+
+        assertThat(transferred).isEqualTo(3);
+        assertThat(outputStream.toByteArray()).isEqualTo("PDF".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTransferTo_pastTheEnd() throws Exception {
+        StoredDocumentDTO stored = documentStore.store(new ByteArrayInputStream(DUMMY_PDF));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long transferred = documentStore.transferTo(stored.getKey(), 0, 1000, Channels.newChannel(outputStream));
+
+        assertThat(transferred).isEqualTo(DUMMY_PDF.length);
+        assertThat(outputStream.toByteArray()).isEqualTo(DUMMY_PDF);
+    }
+
+    @Test
+    public void testExists_withUnknownKey() {
+        assertThat(documentStore.exists(DocumentHash.sha256(new byte[]{1}))).isFalse();
+    }
+
+    @Test
+    public void testOpen_withInvalidKey() {
+        assertThrows(IllegalArgumentException.class,
+                () -> documentStore.open("../application.properties"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.MailQueueStatsDTO;
+import com.gestionnaire_de_stage.model.OutgoingMail;
+import com.gestionnaire_de_stage.repository.OutgoingMailRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MailQueueServiceTest {
+
+    private static final Instant NOW = Instant.parse("2021-11-20T15:00:00Z");
+
+    private static final LocalDateTime LOCAL_NOW = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+
+    private MailQueueService mailQueueService;
+
+    @Mock
+    private OutgoingMailRepository outgoingMailRepository;
+
+    private final InMemoryMailSender mailSender = new InMemoryMailSender();
+
+    @BeforeEach
+    void init() {
+        mailQueueService = new MailQueueService(outgoingMailRepository, mailSender, Clock.fixed(NOW, ZoneOffset.UTC),
+                "jisos.eq5@gmail.com", 2, 10, 4, Duration.ofSeconds(30), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void close() {
+        mailQueueService.shutdown();
+    }
+
+    @Test
+    public void testEnqueue() {
+        when(outgoingMailRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        OutgoingMail mail = mailQueueService.enqueue("cant@outlook.com", "Mot de passe oublié", "Un lien");
+
+        assertThat(mail.getNextAttemptAt()).isEqualTo(LOCAL_NOW);
+        assertThat(mail.getAttempts()).isZero();
+        assertThat(mailSender.getSent()).isEmpty();
+    }
+
+    @Test
+    public void testEnqueue_withNullRecipient() {
+        assertThrows(IllegalArgumentException.class,
+                () -> mailQueueService.enqueue(null, "Mot de passe oublié", "Un lien"));
+    }
+
+    @Test
+    public void testSendBatch_sharesConnections() {
+        List<OutgoingMail> mails = getDummyMails(10, 0);
+        when(outgoingMailRepository.findAllByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(eq(4), eq(LOCAL_NOW), any()))
+                .thenReturn(mails);
+
+        int fetched = mailQueueService.sendBatch();
+
+        assertThat(fetched).isEqualTo(10);
+        assertThat(mailSender.getConnections()).isEqualTo(2);
+        assertThat(mailSender.getSent().stream().map(SimpleMailMessage::getFrom)).containsOnly("jisos.eq5@gmail.com");
+        assertThat(recipients(mailSender.getSent())).containsExactlyInAnyOrderElementsOf(
+                mails.stream().map(OutgoingMail::getRecipient).collect(Collectors.toList()));
+        verify(outgoingMailRepository).deleteAllByIdInBatch(argThat(ids -> ids != null && ((List<Long>) ids).size() == 10));
+        verify(outgoingMailRepository, never()).markFailed(any(), any(), any());
+    }
+
+    @Test
+    public void testSendBatch_retriesRejectedRecipient() {
+        List<OutgoingMail> mails = getDummyMails(4, 0);
+        mailSender.reject(mails.get(1).getRecipient());
+        when(outgoingMailRepository.findAllByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(anyInt(), any(), any()))
+                .thenReturn(mails);
+
+        mailQueueService.sendBatch();
+
+        ArgumentCaptor<List<Long>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(outgoingMailRepository).deleteAllByIdInBatch(deleted.capture());
+        assertThat(deleted.getValue()).containsExactly(1L, 3L, 4L);
+        verify(outgoingMailRepository).markFailed(eq(2L), eq(LOCAL_NOW.plusSeconds(30)), contains("550"));
+    }
+
+    @Test
+    public void testSendBatch_backsOffWhileServerIsDown() {
+        mailSender.setDown(true);
+        List<OutgoingMail> mails = new ArrayList<>(getDummyMails(1, 1));
+        mails.addAll(getDummyMails(1, 3));
+        when(outgoingMailRepository.findAllByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(anyInt(), any(), any()))
+                .thenReturn(mails);
+
+        mailQueueService.sendBatch();
+
+        verify(outgoingMailRepository).markFailed(eq(mails.get(0).getId()), eq(LOCAL_NOW.plusSeconds(60)), contains("Connection refused"));
+        verify(outgoingMailRepository).markFailed(eq(mails.get(1).getId()), eq(LOCAL_NOW.plusMinutes(1)), any());
+        verify(outgoingMailRepository, never()).deleteAllByIdInBatch(any());
+        assertThat(mailSender.getSent()).isEmpty();
+    }
+
+    @Test
+    public void testSendPending_drainsFullBatches() {
+        when(outgoingMailRepository.findAllByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(anyInt(), any(), any()))
+                .thenReturn(getDummyMails(10, 0), getDummyMails(3, 0));
+
+        mailQueueService.sendPending();
+
+        assertThat(mailSender.getSent()).hasSize(13);
+        verify(outgoingMailRepository, times(2)).findAllByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(anyInt(), any(), any());
+    }
+
+    @Test
+    public void testGetStats() {
+        mailSender.reject("student1@cegep.qc.ca");
+        when(outgoingMailRepository.findAllByAttemptsLessThanAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(anyInt(), any(), any()))
+                .thenReturn(getDummyMails(3, 0));
+        when(outgoingMailRepository.countByAttemptsLessThan(4)).thenReturn(1L);
+        when(outgoingMailRepository.countByAttemptsGreaterThanEqual(4)).thenReturn(2L);
+        mailQueueService.sendBatch();
+
+        MailQueueStatsDTO stats = mailQueueService.getStats();
+
+        assertThat(stats.getPendingMails()).isEqualTo(1);
+        assertThat(stats.getAbandonedMails()).isEqualTo(2);
+        assertThat(stats.getSentMails()).isEqualTo(2);
+        assertThat(stats.getFailedAttempts()).isEqualTo(1);
+        assertThat(stats.getConnections()).isEqualTo(2);
+    }
+
+    private List<String> recipients(List<SimpleMailMessage> messages) {
+        return messages.stream().map(message -> message.getTo()[0]).collect(Collectors.toList());
+    }
+
+    private List<OutgoingMail> getDummyMails(int count, int attempts) {
+        List<OutgoingMail> mails = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            OutgoingMail mail = new OutgoingMail("student" + i + "@cegep.qc.ca", "Mot de passe oublié", "Un lien " + i, LOCAL_NOW);
+            mail.setId((long) i + attempts * 100L);
+            mail.setAttempts(attempts);
+            mails.add(mail);
+        }
+        return mails;
+    }
+}
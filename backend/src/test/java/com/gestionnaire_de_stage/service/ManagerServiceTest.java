@@ -1,6 +1,5 @@
 package com.gestionnaire_de_stage.service;
 
-import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.model.Manager;
 import com.gestionnaire_de_stage.repository.ManagerRepository;
@@ -65,42 +64,6 @@ public class ManagerServiceTest {
         assertThat(actualManagerList.get(0).getFirstName()).isEqualTo("Oussama");
     }
 
-    @Test
-    public void testGetOneByEmailAndPassword_withValidEntries() throws EmailAndPasswordDoesNotExistException {
-        Manager dummyManager = getDummyManager();
-        when(managerRepository.existsByEmailAndPassword(any(), any())).thenReturn(true);
-        when(managerRepository.findManagerByEmailAndPassword(any(), any())).thenReturn(dummyManager);
-
-        Manager actualManager = managerService.getOneByEmailAndPassword(dummyManager.getEmail(), dummyManager.getPassword());
-
-        assertThat(actualManager.getFirstName()).isEqualTo(dummyManager.getFirstName());
-    }
-
-    @Test
-    public void testGetOneByEmailAndPassword_withNullEmail() {
-        Manager dummyManager = getDummyManager();
-
-        assertThrows(IllegalArgumentException.class,
-                () -> managerService.getOneByEmailAndPassword(null, dummyManager.getPassword()));
-    }
-
-    @Test
-    public void testGetOneByEmailAndPassword_withNullPassword() {
-        Manager dummyManager = getDummyManager();
-
-        assertThrows(IllegalArgumentException.class,
-                () -> managerService.getOneByEmailAndPassword(dummyManager.getEmail(), null));
-    }
-
-    @Test
-    public void testGetOneByEmailAndPassword_doesntExistEmailAndPassword() {
-        Manager dummyManager = getDummyManager();
-        when(managerRepository.existsByEmailAndPassword(any(), any())).thenReturn(false);
-
-        assertThrows(EmailAndPasswordDoesNotExistException.class,
-                () -> managerService.getOneByEmailAndPassword(dummyManager.getEmail(), dummyManager.getPassword()));
-    }
-
     @Test
     public void testCheckEmailValidity() {
         String email = "oussamakably@gmail.com";
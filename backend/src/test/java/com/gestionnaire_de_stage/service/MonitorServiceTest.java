@@ -1,19 +1,22 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.enums.UserIdentifier;
 import com.gestionnaire_de_stage.exception.DoesNotExistException;
-import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.exception.MonitorAlreadyExistsException;
 import com.gestionnaire_de_stage.model.Monitor;
 import com.gestionnaire_de_stage.repository.MonitorRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -28,10 +31,13 @@ public class MonitorServiceTest {
     @Mock
     private MonitorRepository monitorRepository;
 
+    @Mock
+    private IdentifierIndexService identifierIndexService;
+
     @Test
     public void testCreate_withValidMonitor() throws Exception {
         Monitor dummyMonitor = getDummyMonitor();
-        when(monitorRepository.save(any())).thenReturn(dummyMonitor);
+        when(monitorRepository.saveAndFlush(any())).thenReturn(dummyMonitor);
         when(monitorRepository.existsByEmail(any())).thenReturn(false);
 
         Monitor actualMonitor = monitorService.create(dummyMonitor);
@@ -53,6 +59,16 @@ public class MonitorServiceTest {
                 () -> monitorService.create(getDummyMonitor()));
     }
 
+    @Test
+    public void testCreate_emailOfAnotherRole() {
+        when(monitorRepository.existsByEmail(any())).thenReturn(false);
+        when(monitorRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("Duplicate",
+                new ConstraintViolationException("Duplicate", null, "users.uk_users_email")));
+
+        assertThrows(MonitorAlreadyExistsException.class,
+                () -> monitorService.create(getDummyMonitor()));
+    }
+
     @Test
     public void testGetByID_withValidID() throws Exception {
         Long validID = 1L;
@@ -134,42 +150,6 @@ public class MonitorServiceTest {
                 () -> monitorService.deleteByID(invalidID));
     }
 
-    @Test
-    public void testGetOneByEmailAndPassword_withValidEntries() throws EmailAndPasswordDoesNotExistException {
-        Monitor dummyMonitor = getDummyMonitor();
-        when(monitorRepository.existsByEmailAndPassword(dummyMonitor.getEmail(), dummyMonitor.getPassword())).thenReturn(true);
-        when(monitorRepository.findMonitorByEmailAndPassword(dummyMonitor.getEmail(), dummyMonitor.getPassword())).thenReturn(dummyMonitor);
-
-        Monitor actualMonitor = monitorService.getOneByEmailAndPassword(dummyMonitor.getEmail(), dummyMonitor.getPassword());
-
-        assertThat(actualMonitor).isEqualTo(dummyMonitor);
-    }
-
-    @Test
-    public void testGetOneByEmailAndPassword_withNullEmail() {
-        Monitor dummyMonitor = getDummyMonitor();
-
-        assertThrows(IllegalArgumentException.class,
-                () -> monitorService.getOneByEmailAndPassword(null, dummyMonitor.getPassword()));
-    }
-
-    @Test
-    public void testGetOneByEmailAndPassword_withNullPassword() {
-        Monitor dummyMonitor = getDummyMonitor();
-
-        assertThrows(IllegalArgumentException.class,
-                () -> monitorService.getOneByEmailAndPassword(dummyMonitor.getEmail(), null));
-    }
-
-    @Test
-    public void testGetOneByEmailAndPassword_doesntExistEmailAndPassword() {
-        Monitor dummyMonitor = getDummyMonitor();
-        when(monitorRepository.existsByEmailAndPassword(any(), any())).thenReturn(false);
-
-        assertThrows(EmailAndPasswordDoesNotExistException.class,
-                () -> monitorService.getOneByEmailAndPassword(dummyMonitor.getEmail(), dummyMonitor.getPassword()));
-    }
-
     @Test
     public void testGetOneByEmail_withValidEmail() throws DoesNotExistException {
         Monitor monitor = getDummyMonitor();
@@ -196,6 +176,41 @@ public class MonitorServiceTest {
                 "L'email n'existe pas");
     }
 
+    @Test
+    public void testIsEmailInvalid_answeredByIndex() {
+        when(identifierIndexService.exists(UserIdentifier.EMAIL, "toto@gmail.com")).thenReturn(true);
+
+        boolean emailInvalid = monitorService.isEmailInvalid("toto@gmail.com");
+
+        assertThat(emailInvalid).isFalse();
+        verifyNoInteractions(monitorRepository);
+    }
+
+    @Test
+    public void testUpdate_replacesEmailInIndex() throws Exception {
+        Monitor previousMonitor = getDummyMonitor();
+        Monitor dummyMonitor = getDummyMonitor();
+        dummyMonitor.setEmail("new@gmail.com");
+        when(monitorRepository.existsById(any())).thenReturn(true);
+        when(monitorRepository.findById(any())).thenReturn(Optional.of(previousMonitor));
+        when(monitorRepository.save(any())).thenReturn(dummyMonitor);
+
+        monitorService.update(dummyMonitor);
+
+        verify(identifierIndexService).replace(UserIdentifier.EMAIL, previousMonitor.getEmail(), "new@gmail.com");
+    }
+
+    @Test
+    public void testDelete_removesEmailFromIndex() throws Exception {
+        Monitor dummyMonitor = getDummyMonitor();
+        when(monitorRepository.existsById(any())).thenReturn(true);
+        when(monitorRepository.findById(any())).thenReturn(Optional.of(dummyMonitor));
+
+        monitorService.deleteByID(dummyMonitor.getId());
+
+        verify(identifierIndexService).remove(UserIdentifier.EMAIL, dummyMonitor.getEmail());
+    }
+
     @Test
     public void testIsIdInvalid_whenFalse() {
         when(monitorRepository.existsById(any())).thenReturn(true);
@@ -0,0 +1,220 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.NotificationDTO;
+import com.gestionnaire_de_stage.model.Curriculum;
+import com.gestionnaire_de_stage.model.Notification;
+import com.gestionnaire_de_stage.model.Student;
+import com.gestionnaire_de_stage.repository.NotificationRepository;
+import com.gestionnaire_de_stage.repository.StudentRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.*;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NotificationClusterTest {
+
+    private static final MovableClock CLOCK = new MovableClock();
+
+    static class MovableClock extends Clock {
+        private volatile Instant instant = Instant.parse("2021-11-20T15:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    static class RecordingStreamService extends NotificationStreamService {
+        private final Map<Long, List<Long>> sent = new ConcurrentHashMap<>();
+
+        RecordingStreamService(NotificationRepository notificationRepository, Clock clock, Duration settle) {
+            super(notificationRepository, clock, 60000L, settle, 2000L, Duration.ofSeconds(15));
+        }
+
+        @Override
+        SseEmitter newEmitter(long timeout) {
+            return new SseEmitter(timeout) {
+                @Override
+                public void send(SseEventBuilder builder) {
+                    for (ResponseBodyEmitter.DataWithMediaType data : builder.build())
+                        if (data.getData() instanceof NotificationDTO) {
+                            NotificationDTO notification = (NotificationDTO) data.getData();
+                            sent.computeIfAbsent(notification.getUserId(), id -> new CopyOnWriteArrayList<>()).add(notification.getId());
+                        }
+                }
+            };
+        }
+
+        List<Long> sentTo(Long userId) {
+            return sent.getOrDefault(userId, List.of());
+        }
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Notification.class)
+    @EnableJpaRepositories(basePackageClasses = NotificationRepository.class)
+    @Import({NotificationService.class, NotificationCounterService.class})
+    static class NodeConfiguration {
+        @Bean
+        public Clock clock() {
+            return CLOCK;
+        }
+
+        @Bean
+        public NotificationStreamService notificationStreamService(NotificationRepository notificationRepository,
+                                                                   @Value("${notification.stream.settle}") Duration settle) {
+            return new RecordingStreamService(notificationRepository, CLOCK, settle);
+        }
+    }
+
+    private static ConfigurableApplicationContext first;
+
+    private static ConfigurableApplicationContext second;
+
+    private static final AtomicInteger students = new AtomicInteger();
+
+    private Student student;
+
+    @BeforeAll
+    static void start() {
+        first = startNode();
+        second = startNode();
+    }
+
+    @AfterAll
+    static void close() {
+        first.close();
+        second.close();
+    }
+
+    @BeforeEach
+    void init() {
+        // The nodes are shared by the tests, each one gets its own user
+        student = first.getBean(StudentRepository.class).save(getDummyStudent(students.incrementAndGet()));
+    }
+
+    @Test
+    public void testNotificationIsPushedByTheNodeOfTheConnection() {
+        RecordingStreamService stream = (RecordingStreamService) second.getBean(NotificationStreamService.class);
+        stream.subscribe(student.getId(), null);
+        stream.pollNewNotifications();
+
+        first.getBean(NotificationService.class).notifyOfCurriculumValidation(getDummyCurriculum());
+        assertThat(stream.sentTo(student.getId())).isEmpty();
+
+        stream.pollNewNotifications();
+        CLOCK.instant = CLOCK.instant.plusSeconds(5);
+        stream.pollNewNotifications();
+
+        assertThat(stream.sentTo(student.getId())).hasSize(1);
+    }
+
+    @Test
+    public void testLocalNotificationIsNotPushedTwice() {
+        RecordingStreamService stream = (RecordingStreamService) first.getBean(NotificationStreamService.class);
+        stream.subscribe(student.getId(), null);
+        stream.pollNewNotifications();
+
+        first.getBean(NotificationService.class).notifyOfCurriculumValidation(getDummyCurriculum());
+        stream.pollNewNotifications();
+
+        assertThat(stream.sentTo(student.getId())).hasSize(1);
+    }
+
+    @Test
+    public void testLateCommitIsStillPushed() {
+        RecordingStreamService stream = (RecordingStreamService) second.getBean(NotificationStreamService.class);
+        stream.subscribe(student.getId(), null);
+        stream.pollNewNotifications();
+        NotificationRepository notificationRepository = first.getBean(NotificationRepository.class);
+        Notification late = notificationRepository.save(new Notification(student, "late"));
+        notificationRepository.save(new Notification(student, "early"));
+        notificationRepository.deleteById(late.getId());
+
+        stream.pollNewNotifications();
+        CLOCK.instant = CLOCK.instant.plusSeconds(10);
+        first.getBean(JdbcTemplate.class).update("INSERT INTO notification (id, targeted_user_id, seen, message, created_date) " +
+                "VALUES (?, ?, FALSE, 'late', CURRENT_TIMESTAMP)", late.getId(), student.getId());
+        stream.pollNewNotifications();
+
+        assertThat(stream.sentTo(student.getId())).hasSize(2);
+    }
+
+    @Test
+    public void testUnreadCountOfAnotherNodeExpires() {
+        NotificationCounterService counter = second.getBean(NotificationCounterService.class);
+        assertThat(counter.getUnreadCount(student.getId())).isZero();
+
+        first.getBean(NotificationService.class).notifyOfCurriculumValidation(getDummyCurriculum());
+        CLOCK.instant = CLOCK.instant.plusSeconds(30);
+
+        assertThat(counter.getUnreadCount(student.getId())).isEqualTo(1L);
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(NodeConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.sql.init.mode=never",
+                        "--spring.main.banner-mode=off",
+                        "--notification.stream.settle=30s",
+                        "--notification.counter.ttl=30s");
+    }
+
+    private Curriculum getDummyCurriculum() {
+        Curriculum curriculum = new Curriculum();
+        curriculum.setName("cv.pdf");
+        curriculum.setStudent(student);
+        return curriculum;
+    }
+
+    private Student getDummyStudent(int number) {
+        Student dummyStudent = new Student();
+        dummyStudent.setLastName("Winter");
+        dummyStudent.setFirstName("Summer");
+        dummyStudent.setEmail("cant" + number + "@outlook.com");
+        dummyStudent.setPassword("cantPass");
+        dummyStudent.setDepartment("info");
+        dummyStudent.setMatricule(String.valueOf(4673940 + number));
+        return dummyStudent;
+    }
+}
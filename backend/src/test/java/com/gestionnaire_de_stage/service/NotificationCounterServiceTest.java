@@ -0,0 +1,145 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationCounterServiceTest {
+
+    private static class MovableClock extends Clock {
+        private Instant instant = Instant.parse("2021-11-20T15:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private NotificationCounterService notificationCounterService;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    private final MovableClock clock = new MovableClock();
+
+    @BeforeEach
+    void init() {
+        notificationCounterService = new NotificationCounterService(notificationRepository, clock, Duration.ofSeconds(30));
+    }
+
+    @Test
+    public void testGetUnreadCount_countsOnce() {
+        when(notificationRepository.countBySeenIsFalseAndTargetedUser_Id(1L)).thenReturn(3L);
+
+        notificationCounterService.getUnreadCount(1L);
+        long actual = notificationCounterService.getUnreadCount(1L);
+
+        assertThat(actual).isEqualTo(3L);
+        verify(notificationRepository, times(1)).countBySeenIsFalseAndTargetedUser_Id(1L);
+    }
+
+    @Test
+    public void testGetUnreadCount_countsAgainOnceExpired() {
+        when(notificationRepository.countBySeenIsFalseAndTargetedUser_Id(1L)).thenReturn(3L, 5L);
+        notificationCounterService.getUnreadCount(1L);
+        notificationCounterService.increment(1L);
+
+        clock.instant = clock.instant.plusSeconds(30);
+        long actual = notificationCounterService.getUnreadCount(1L);
+
+        assertThat(actual).isEqualTo(5L);
+        verify(notificationRepository, times(2)).countBySeenIsFalseAndTargetedUser_Id(1L);
+    }
+
+    @Test
+    public void testGetUnreadCount_withNullUserId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationCounterService.getUnreadCount(null));
+    }
+
+    @Test
+    public void testIncrementDecrementReset() {
+        when(notificationRepository.countBySeenIsFalseAndTargetedUser_Id(1L)).thenReturn(3L);
+        notificationCounterService.getUnreadCount(1L);
+
+        notificationCounterService.increment(1L);
+        notificationCounterService.increment(1L);
+        assertThat(notificationCounterService.getUnreadCount(1L)).isEqualTo(5L);
+        notificationCounterService.decrement(1L);
+        assertThat(notificationCounterService.getUnreadCount(1L)).isEqualTo(4L);
+        notificationCounterService.reset(1L);
+        notificationCounterService.decrement(1L);
+        assertThat(notificationCounterService.getUnreadCount(1L)).isZero();
+        verify(notificationRepository, times(1)).countBySeenIsFalseAndTargetedUser_Id(1L);
+    }
+
+    @Test
+    public void testIncrement_uncountedUserIsCountedOnRead() {
+        notificationCounterService.increment(1L);
+        when(notificationRepository.countBySeenIsFalseAndTargetedUser_Id(1L)).thenReturn(1L);
+
+        assertThat(notificationCounterService.getUnreadCount(1L)).isEqualTo(1L);
+    }
+
+    @Test
+    public void testIncrement_waitsForCommit() {
+        when(notificationRepository.countBySeenIsFalseAndTargetedUser_Id(1L)).thenReturn(3L);
+        notificationCounterService.getUnreadCount(1L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            notificationCounterService.increment(1L);
+
+            assertThat(notificationCounterService.getUnreadCount(1L)).isEqualTo(3L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(notificationCounterService.getUnreadCount(1L)).isEqualTo(4L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testEvictAll() {
+        when(notificationRepository.countBySeenIsFalseAndTargetedUser_Id(1L)).thenReturn(3L, 4L);
+        notificationCounterService.getUnreadCount(1L);
+
+        notificationCounterService.evictAll();
+
+        assertThat(notificationCounterService.getUnreadCount(1L)).isEqualTo(4L);
+    }
+
+    @Test
+    public void testPurgeExpired() {
+        when(notificationRepository.countBySeenIsFalseAndTargetedUser_Id(1L)).thenReturn(3L);
+        notificationCounterService.getUnreadCount(1L);
+
+        clock.instant = clock.instant.plusSeconds(30);
+        notificationCounterService.purgeExpired();
+        notificationCounterService.increment(1L);
+        clock.instant = clock.instant.minusSeconds(30);
+
+        assertThat(notificationCounterService.getUnreadCount(1L)).isEqualTo(3L);
+        verify(notificationRepository, times(2)).countBySeenIsFalseAndTargetedUser_Id(1L);
+    }
+}
@@ -1,5 +1,6 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.dto.NotificationDTO;
 import com.gestionnaire_de_stage.enums.Status;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.model.*;
@@ -9,9 +10,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,25 +28,13 @@ public class NotificationServiceTest {
     private NotificationService notificationService;
 
     @Mock
-    private CurriculumService curriculumService;
-
-    @Mock
-    private ManagerService managerService;
-
-    @Mock
-    private StudentService studentService;
-
-    @Mock
-    private OfferService offerService;
-
-    @Mock
-    private OfferApplicationService offerApplicationService;
+    private NotificationRepository notificationRepository;
 
     @Mock
-    private ContractService contractService;
+    private NotificationStreamService notificationStreamService;
 
     @Mock
-    private NotificationRepository notificationRepository;
+    private NotificationCounterService notificationCounterService;
 
     @Test
     void testGetAllByUserId() {
@@ -69,13 +58,27 @@ public class NotificationServiceTest {
         Notification notification = getDummyNotification();
         notification.setId(1L);
         notification.setSeen(true);
-        when(notificationRepository.existsById(any())).thenReturn(true);
-        when(notificationRepository.getById(any())).thenReturn(getDummyNotification());
+        when(notificationRepository.findById(any())).thenReturn(Optional.of(getDummyNotification()));
         when(notificationRepository.save(any())).thenReturn(notification);
 
         Notification actual = notificationService.updateSeen(notification.getId());
 
         assertThat(actual).isEqualTo(notification);
+        verify(notificationCounterService, times(1)).decrement(getDummyStudent().getId());
+    }
+
+    @Test
+    void testUpdateSeen_alreadySeen() throws IdDoesNotExistException {
+        Notification notification = getDummyNotification();
+        notification.setId(1L);
+        notification.setSeen(true);
+        when(notificationRepository.findById(any())).thenReturn(Optional.of(notification));
+
+        Notification actual = notificationService.updateSeen(notification.getId());
+
+        assertThat(actual).isEqualTo(notification);
+        verify(notificationRepository, never()).save(any());
+        verifyNoInteractions(notificationCounterService);
     }
 
     @Test
@@ -88,57 +91,89 @@ public class NotificationServiceTest {
     void testUpdateSeen_throwsIdDoesNotExist() {
         Notification notification = getDummyNotification();
         notification.setId(1L);
-        when(notificationRepository.existsById(any())).thenReturn(false);
+        when(notificationRepository.findById(any())).thenReturn(Optional.empty());
 
         assertThrows(IdDoesNotExistException.class, () ->
                 notificationService.updateSeen(notification.getId()));
     }
 
     @Test
-    void testNotifyOfCurriculumValidation() throws IdDoesNotExistException {
-        Curriculum curriculum = getDummyCurriculum();
-        curriculum.setIsValid(true);
-        when(curriculumService.getOneById(any())).thenReturn(getDummyCurriculum());
+    void testUpdateAllSeen() {
+        when(notificationRepository.markAllSeenByTargetedUserId(any())).thenReturn(3);
 
-        notificationService.notifyOfCurriculumValidation(curriculum);
+        int actual = notificationService.updateAllSeen(getDummyStudent().getId());
 
-        verify(notificationRepository, times(1)).save(any());
+        assertThat(actual).isEqualTo(3);
+        verify(notificationCounterService, times(1)).reset(getDummyStudent().getId());
     }
 
     @Test
-    void testNotifyOfCurriculumValidation_throwsIdDoesNotExist() throws IdDoesNotExistException {
-        Curriculum curriculum = getDummyCurriculum();
-        curriculum.setIsValid(true);
-        when(curriculumService.getOneById(any())).thenThrow(IdDoesNotExistException.class);
+    void testUpdateAllSeen_withNullParam() {
+        assertThrows(IllegalArgumentException.class, () ->
+                notificationService.updateAllSeen(null));
+    }
 
-        assertThrows(IdDoesNotExistException.class, () ->
-                notificationService.notifyOfCurriculumValidation(curriculum));
+    @Test
+    void testGetUnreadCount() {
+        when(notificationCounterService.getUnreadCount(any())).thenReturn(4L);
+
+        long actual = notificationService.getUnreadCount(getDummyStudent().getId());
+
+        assertThat(actual).isEqualTo(4L);
     }
 
     @Test
-    void testNotifyOfCurriculumValidation_throwsIllegalArg() throws IdDoesNotExistException {
-        Curriculum curriculum = getDummyCurriculum();
-        curriculum.setIsValid(true);
-        when(curriculumService.getOneById(any())).thenThrow(IllegalArgumentException.class);
+    void testGetHistoryByUserId_firstPage() {
+        when(notificationRepository.findHistoryByTargetedUserId(any(), any())).thenReturn(List.of(getDummyNotificationDTO()));
+
+        List<NotificationDTO> actual = notificationService.getHistoryByUserId(getDummyStudent().getId(), null, null, 20);
+
+        assertThat(actual).hasSize(1);
+        verify(notificationRepository, times(1)).findHistoryByTargetedUserId(getDummyStudent().getId(), PageRequest.of(0, 20));
+    }
+
+    @Test
+    void testGetHistoryByUserId_nextPage() {
+        LocalDateTime beforeDate = LocalDateTime.now();
+        when(notificationRepository.findHistoryByTargetedUserIdBefore(any(), any(), any(), any())).thenReturn(List.of(getDummyNotificationDTO()));
+
+        List<NotificationDTO> actual = notificationService.getHistoryByUserId(getDummyStudent().getId(), beforeDate, 9L, 20);
 
+        assertThat(actual).hasSize(1);
+        verify(notificationRepository, times(1)).findHistoryByTargetedUserIdBefore(getDummyStudent().getId(), beforeDate, 9L, PageRequest.of(0, 20));
+    }
+
+    @Test
+    void testGetHistoryByUserId_withIncompleteCursor() {
         assertThrows(IllegalArgumentException.class, () ->
-                notificationService.notifyOfCurriculumValidation(curriculum));
+                notificationService.getHistoryByUserId(getDummyStudent().getId(), LocalDateTime.now(), null, 20));
     }
 
     @Test
-    void testNotifyOfCurriculumValidation_withNullParam() {
+    void testGetHistoryByUserId_withInvalidSize() {
         assertThrows(IllegalArgumentException.class, () ->
-                notificationService.notifyOfCurriculumValidation(null));
+                notificationService.getHistoryByUserId(getDummyStudent().getId(), null, null, 0));
+        assertThrows(IllegalArgumentException.class, () ->
+                notificationService.getHistoryByUserId(getDummyStudent().getId(), null, null, 101));
     }
 
     @Test
-    void testNotifyOfCurriculumValidation_doesNothingWhenValidNoChange() throws IdDoesNotExistException {
+    void testNotifyOfCurriculumValidation() {
         Curriculum curriculum = getDummyCurriculum();
-        when(curriculumService.getOneById(any())).thenReturn(curriculum);
+        curriculum.setIsValid(true);
 
         notificationService.notifyOfCurriculumValidation(curriculum);
 
-        verify(notificationRepository, times(0)).save(any());
+        verify(notificationRepository, times(1)).save(any());
+        verify(notificationStreamService, times(1)).publish(argThat(notification ->
+                notification.getUserId().equals(curriculum.getStudent().getId())));
+        verify(notificationCounterService, times(1)).increment(curriculum.getStudent().getId());
+    }
+
+    @Test
+    void testNotifyOfCurriculumValidation_withNullParam() {
+        assertThrows(IllegalArgumentException.class, () ->
+                notificationService.notifyOfCurriculumValidation(null));
     }
 
     @Test
@@ -159,11 +194,13 @@ public class NotificationServiceTest {
     @Test
     void testNotifyOfNewOffer() {
         Offer offer = getDummyOffer();
-        when(managerService.getAll()).thenReturn(getDummyManagerList());
 
         notificationService.notifyOfNewOffer(offer);
 
-        verify(notificationRepository, times(3)).save(any());
+        verify(notificationRepository, times(1)).notifyAllManagers(eq("Une nouvelle offre est en attente de validation."), any());
+        verify(notificationStreamService, times(1)).publishBroadcast(eq("Une nouvelle offre est en attente de validation."), any());
+        verify(notificationCounterService, times(1)).evictAll();
+        verify(notificationRepository, times(0)).save(any());
     }
 
     @Test
@@ -176,12 +213,11 @@ public class NotificationServiceTest {
     void testNotifyOfOfferValidation() {
         Offer offer = getDummyOffer();
         offer.setValid(true);
-        when(offerService.findOfferById(any())).thenReturn(Optional.of(getDummyOffer()));
-        when(studentService.getAll()).thenReturn(getDummyStudentList());
 
         notificationService.notifyOfOfferValidation(offer);
 
-        verify(notificationRepository, times(4)).save(any());
+        verify(notificationRepository, times(1)).save(any());
+        verify(notificationRepository, times(1)).notifyAllStudents(eq("Une nouvelle offre de stage a été publiée."), any());
     }
 
     @Test
@@ -190,48 +226,25 @@ public class NotificationServiceTest {
                 notificationService.notifyOfOfferValidation(null));
     }
 
-    @Test
-    void testNotifyOfOfferValidation_cannotFindOffer() {
-        Offer offer = getDummyOffer();
-        offer.setValid(true);
-        when(offerService.findOfferById(any())).thenReturn(Optional.empty());
-
-        notificationService.notifyOfOfferValidation(offer);
-
-        verify(notificationRepository, times(0)).save(any());
-    }
-
-    @Test
-    void testNotifyOfOfferValidation_doesNothingWhenValidNoChange() {
-        Offer offer = getDummyOffer();
-        when(offerService.findOfferById(any())).thenReturn(Optional.of(getDummyOffer()));
-
-        notificationService.notifyOfOfferValidation(offer);
-
-        verify(notificationRepository, times(0)).save(any());
-    }
-
     @Test
     void testNotifyOfOfferValidation_withOfferInvalidInvokeOnce() {
         Offer offer = getDummyOffer();
         offer.setValid(false);
-        when(offerService.findOfferById(any())).thenReturn(Optional.of(getDummyOffer()));
 
         notificationService.notifyOfOfferValidation(offer);
 
         verify(notificationRepository, times(1)).save(any());
+        verify(notificationRepository, times(0)).notifyAllStudents(any(), any());
     }
 
     @Test
-    void testNotifyOfOfferAppStatusSetToStageTrouve() throws IdDoesNotExistException {
+    void testNotifyOfOfferAppStatusSetToStageTrouve() {
         OfferApplication offerApplication = getDummyOfferApplication();
         offerApplication.setStatus(Status.STAGE_TROUVE);
-        when(offerApplicationService.getOneById(any())).thenReturn(getDummyOfferApplication());
-        when(managerService.getAll()).thenReturn(getDummyManagerList());
 
         notificationService.notifyOfOfferAppStatusSetToStageTrouve(offerApplication);
 
-        verify(notificationRepository, times(3)).save(any());
+        verify(notificationRepository, times(1)).notifyAllManagers(eq("Un étudiant est prêt pour débuter la signature de contrat."), any());
     }
 
     @Test
@@ -241,85 +254,43 @@ public class NotificationServiceTest {
     }
 
     @Test
-    void testNotifyOfOfferAppStatusSetToStageTrouve_doesNothingWhenStatusNoChange() throws IdDoesNotExistException {
-        OfferApplication offerApplication = getDummyOfferApplication();
-        offerApplication.setStatus(Status.STAGE_REFUSE);
-        when(offerApplicationService.getOneById(any())).thenReturn(getDummyOfferApplication());
-
-        notificationService.notifyOfOfferAppStatusSetToStageTrouve(offerApplication);
-
-        verify(notificationRepository, times(0)).save(any());
-    }
-
-    @Test
-    void testNotifyOfOfferAppStatusSetToStageTrouve_doesNothingWhenStatusNotStageTrouve() throws IdDoesNotExistException {
-        OfferApplication offerApplication = getDummyOfferApplication();
-        when(offerApplicationService.getOneById(any())).thenReturn(getDummyOfferApplication());
-
-        notificationService.notifyOfOfferAppStatusSetToStageTrouve(offerApplication);
-
-        verify(notificationRepository, times(0)).save(any());
-    }
+    void testNotifyOfManagerSignature() {
+        Contract contract = getDummyContract();
+        contract.setManagerSignature("Signature Test");
 
-    @Test
-    void testNotifyOfOfferAppStatusSetToStageTrouve_cannotFindOfferApp() throws IdDoesNotExistException {
-        when(offerApplicationService.getOneById(any())).thenThrow(IdDoesNotExistException.class);
+        notificationService.notifyOfManagerSignature(contract);
 
-        assertThrows(IdDoesNotExistException.class, () ->
-                notificationService.notifyOfOfferAppStatusSetToStageTrouve(getDummyOfferApp()));
+        verify(notificationRepository, times(1)).save(argThat(notification ->
+                notification.getTargetedUser() == contract.getMonitor()));
     }
 
     @Test
-    void testNotifyOfContractSignature_signedByManager() throws IdDoesNotExistException {
-        Contract contract = getDummyContract();
-        contract.setManagerSignature("Signature Test");
-        when(contractService.getOneById(any())).thenReturn(getDummyContract());
-
-        notificationService.notifyOfContractSignature(contract);
-
-        verify(notificationRepository, times(1)).save(any());
+    void testNotifyOfManagerSignature_withNullParam() {
+        assertThrows(IllegalArgumentException.class, () ->
+                notificationService.notifyOfManagerSignature(null));
     }
 
     @Test
-    void testNotifyOfContractSignature_signedByMonitor() throws IdDoesNotExistException {
+    void testNotifyOfMonitorSignature() {
         Contract contract = getDummyContract();
         contract.setMonitorSignature("Signature Test");
-        when(contractService.getOneById(any())).thenReturn(getDummyContract());
 
-        notificationService.notifyOfContractSignature(contract);
+        notificationService.notifyOfMonitorSignature(contract);
 
-        verify(notificationRepository, times(1)).save(any());
+        verify(notificationRepository, times(1)).save(argThat(notification ->
+                notification.getTargetedUser() == contract.getStudent()));
     }
 
     @Test
-    void testNotifyOfContractSignature_withNullParams() {
+    void testNotifyOfMonitorSignature_withNullParam() {
         assertThrows(IllegalArgumentException.class, () ->
-                notificationService.notifyOfContractSignature(null));
-    }
-
-    @Test
-    void testNotifyOfContractSignature_cannotFindContract() throws IdDoesNotExistException {
-        when(contractService.getOneById(any())).thenThrow(IdDoesNotExistException.class);
-
-        assertThrows(IdDoesNotExistException.class, () ->
-                notificationService.notifyOfContractSignature(getDummyContract()));
-    }
-
-    @Test
-    void testNotifyOfContractSignature_noChangeDoesNothing() throws IdDoesNotExistException {
-        Contract contract = getDummyContract();
-        when(contractService.getOneById(any())).thenReturn(contract);
-
-        notificationService.notifyOfContractSignature(contract);
-
-        verify(notificationRepository, times(0)).save(any());
+                notificationService.notifyOfMonitorSignature(null));
     }
 
     @Test
-    void testNotifyOfOfferAppInterviewSet() throws IdDoesNotExistException {
+    void testNotifyOfOfferAppInterviewSet() {
         OfferApplication offerApplication = getDummyOfferApplication();
         offerApplication.setInterviewDate(LocalDateTime.now());
-        when(offerApplicationService.getOneById(any())).thenReturn(getDummyOfferApplication());
 
         notificationService.notifyOfOfferAppInterviewSet(offerApplication);
 
@@ -333,21 +304,25 @@ public class NotificationServiceTest {
     }
 
     @Test
-    void testNotifyOfOfferAppInterviewSet_doesNothingWhenNoChange() throws IdDoesNotExistException {
-        OfferApplication offerApplication = getDummyOfferApplication();
-        when(offerApplicationService.getOneById(any())).thenReturn(offerApplication);
+    void testNotifyOfOfferAppInterviewPassed() {
+        OfferApplication offerApplication = getDummyOfferApp();
 
-        notificationService.notifyOfOfferAppInterviewSet(offerApplication);
+        notificationService.notifyOfOfferAppInterviewPassed(offerApplication);
 
-        verify(notificationRepository, times(0)).save(any());
+        verify(notificationRepository, times(1)).save(argThat(notification ->
+                notification.getTargetedUser() == offerApplication.getCurriculum().getStudent()));
     }
 
     @Test
-    void testNotifyOfOfferAppInterviewSet_cannotFindOfferApp() throws IdDoesNotExistException {
-        when(offerApplicationService.getOneById(any())).thenThrow(IdDoesNotExistException.class);
+    void testNotifyOfOfferAppInterviewPassed_withNullParam() {
+        assertThrows(IllegalArgumentException.class, () ->
+                notificationService.notifyOfOfferAppInterviewPassed(null));
+    }
 
-        assertThrows(IdDoesNotExistException.class, () ->
-                notificationService.notifyOfOfferAppInterviewSet(getDummyOfferApp()));
+    @Test
+    void testNotifyOfOfferAppInterviewSet_withoutInterviewDate() {
+        assertThrows(IllegalArgumentException.class, () ->
+                notificationService.notifyOfOfferAppInterviewSet(getDummyOfferApplication()));
     }
 
     private List<Notification> getDummyNotificationList() {
@@ -357,6 +332,10 @@ public class NotificationServiceTest {
                 getDummyNotification());
     }
 
+    private NotificationDTO getDummyNotificationDTO() {
+        return new NotificationDTO(9L, getDummyStudent().getId(), "a test message", false, LocalDateTime.now());
+    }
+
     private Notification getDummyNotification() {
         return new Notification(
                 getDummyStudent(),
@@ -383,18 +362,6 @@ public class NotificationServiceTest {
         return offerApplicationDTO;
     }
 
-    private List<Student> getDummyStudentList() {
-        List<Student> dummyStudentList = new ArrayList<>();
-        Long idIterator = 1L;
-        for (int i = 0; i < 3; i++) {
-            Student dummyStudent = getDummyStudent();
-            dummyStudent.setId(idIterator);
-            dummyStudentList.add(dummyStudent);
-            idIterator++;
-        }
-        return dummyStudentList;
-    }
-
     private Student getDummyStudent() {
         Student dummyStudent = new Student();
         dummyStudent.setId(1L);
@@ -414,31 +381,12 @@ public class NotificationServiceTest {
         return new Curriculum(
                 "fileName",
                 "content type",
-                "test".getBytes(),
+                "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08",
+                4L,
                 dummyStudent
         );
     }
 
-    private Manager getDummyManager() {
-        Manager dummyManager = new Manager();
-        dummyManager.setPassword("Test1234");
-        dummyManager.setEmail("oussamakably@gmail.com");
-        dummyManager.setFirstName("Oussama");
-        dummyManager.setLastName("Kably");
-        dummyManager.setPhone("5143643320");
-        return dummyManager;
-    }
-
-    private List<Manager> getDummyManagerList() {
-        List<Manager> dummyManagerList = new ArrayList<>();
-        for (long id = 0; id < 3; id++) {
-            Manager dummyManager = getDummyManager();
-            dummyManager.setId(id);
-            dummyManagerList.add(dummyManager);
-        }
-        return dummyManagerList;
-    }
-
     private Offer getDummyOffer() {
         Offer dummyOffer = new Offer();
         dummyOffer.setDepartment("Un departement");
@@ -0,0 +1,210 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.NotificationDTO;
+import com.gestionnaire_de_stage.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationStreamServiceTest {
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken)
+                throw new IOException("Broken pipe");
+            StringBuilder event = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build())
+                event.append(data.getData() instanceof NotificationDTO ? ((NotificationDTO) data.getData()).getMessage() : data.getData());
+            events.add(event.toString());
+        }
+    }
+
+    private NotificationStreamService notificationStreamService;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private Clock clock;
+
+    private Instant now = Instant.parse("2021-11-20T15:00:00Z");
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        lenient().when(clock.instant()).thenAnswer(invocation -> now);
+        notificationStreamService = new NotificationStreamService(notificationRepository, clock, 60000L, Duration.ofSeconds(30),
+                2000L, Duration.ofSeconds(15)) {
+            @Override
+            SseEmitter newEmitter(long timeout) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @Test
+    public void testSubscribe_replaysFromLastEventId() {
+        when(notificationRepository.findAllSummariesByTargetedUserIdAndIdGreaterThan(1L, 4L))
+                .thenReturn(List.of(getDummyNotification(5L, 1L), getDummyNotification(6L, 1L)));
+
+        notificationStreamService.subscribe(1L, 4L);
+
+        assertThat(emitters.get(0).events).hasSize(2);
+        assertThat(emitters.get(0).events.get(0)).contains("id:5").contains("event:notification");
+        assertThat(notificationStreamService.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSubscribe_withoutLastEventIdDoesNotQuery() {
+        notificationStreamService.subscribe(1L, null);
+
+        verifyNoInteractions(notificationRepository);
+        assertThat(emitters.get(0).events).isEmpty();
+    }
+
+    @Test
+    public void testSubscribe_withNullUserId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationStreamService.subscribe(null, null));
+    }
+
+    @Test
+    public void testPublish_pushesToUserConnections() {
+        notificationStreamService.subscribe(1L, null);
+        notificationStreamService.subscribe(1L, null);
+        notificationStreamService.subscribe(2L, null);
+
+        notificationStreamService.publish(getDummyNotification(7L, 1L));
+
+        assertThat(emitters.get(0).events).hasSize(1);
+        assertThat(emitters.get(1).events).hasSize(1);
+        assertThat(emitters.get(2).events).isEmpty();
+    }
+
+    @Test
+    public void testPublish_waitsForCommit() {
+        notificationStreamService.subscribe(1L, null);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            notificationStreamService.publish(getDummyNotification(7L, 1L));
+
+            assertThat(emitters.get(0).events).isEmpty();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(emitters.get(0).events).hasSize(1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testPublish_withNullNotification() {
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationStreamService.publish(null));
+    }
+
+    @Test
+    public void testPublishBroadcast_withoutConnectionsDoesNotQuery() {
+        notificationStreamService.publishBroadcast("Une nouvelle offre de stage a été publiée.", LocalDateTime.now());
+
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    public void testPublishBroadcast_readsBackConnectedUsers() {
+        LocalDateTime createdDate = LocalDateTime.now();
+        notificationStreamService.subscribe(1L, null);
+        notificationStreamService.subscribe(2L, null);
+        when(notificationRepository.findAllSummariesOfBroadcast(any(), any(), any()))
+                .thenReturn(List.of(getDummyNotification(8L, 2L)));
+
+        notificationStreamService.publishBroadcast("Une nouvelle offre de stage a été publiée.", createdDate);
+
+        verify(notificationRepository, times(1)).findAllSummariesOfBroadcast(
+                eq("Une nouvelle offre de stage a été publiée."), eq(createdDate),
+                argThat(ids -> ids.containsAll(List.of(1L, 2L))));
+        assertThat(emitters.get(0).events).isEmpty();
+        assertThat(emitters.get(1).events).hasSize(1);
+    }
+
+    @Test
+    public void testPollNewNotifications_withoutConnectionsDoesNotQuery() {
+        notificationStreamService.pollNewNotifications();
+
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    public void testPollNewNotifications_backsOffWhileNothingIsSaved() {
+        when(notificationRepository.findMaxId()).thenReturn(5L);
+        notificationStreamService.subscribe(1L, null);
+
+        notificationStreamService.pollNewNotifications();
+        notificationStreamService.pollNewNotifications();
+        now = now.plusSeconds(1);
+        notificationStreamService.pollNewNotifications();
+        now = now.plusSeconds(1);
+        notificationStreamService.pollNewNotifications();
+        now = now.plusSeconds(3);
+        notificationStreamService.pollNewNotifications();
+
+        verify(notificationRepository, times(3)).findMaxId();
+    }
+
+    @Test
+    public void testPollNewNotifications_pollsAgainOnNewConnection() {
+        when(notificationRepository.findMaxId()).thenReturn(5L);
+        notificationStreamService.subscribe(1L, null);
+        notificationStreamService.pollNewNotifications();
+        notificationStreamService.pollNewNotifications();
+
+        notificationStreamService.subscribe(2L, null);
+        notificationStreamService.pollNewNotifications();
+
+        verify(notificationRepository, times(3)).findMaxId();
+        verify(notificationRepository, times(3)).findAllSummariesByTargetedUserIdInAndIdGreaterThan(any(), eq(5L));
+    }
+
+    @Test
+    public void testSendHeartbeats_dropsBrokenConnections() {
+        notificationStreamService.subscribe(1L, null);
+        notificationStreamService.subscribe(1L, null);
+        emitters.get(1).broken = true;
+
+        notificationStreamService.sendHeartbeats();
+
+        assertThat(emitters.get(0).events).hasSize(1);
+        assertThat(emitters.get(0).events.get(0)).startsWith(":heartbeat");
+        assertThat(notificationStreamService.getConnectionCount()).isEqualTo(1);
+    }
+
+    private NotificationDTO getDummyNotification(Long id, Long userId) {
+        return new NotificationDTO(id, userId, "a test message", false, LocalDateTime.now());
+    }
+}
@@ -1,9 +1,11 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.dto.UpdateRankDTO;
 import com.gestionnaire_de_stage.dto.UpdateStatusDTO;
 import com.gestionnaire_de_stage.enums.Status;
 import com.gestionnaire_de_stage.exception.DateNotValidException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
+import com.gestionnaire_de_stage.exception.NotOwnerException;
 import com.gestionnaire_de_stage.exception.StudentAlreadyAppliedToOfferException;
 import com.gestionnaire_de_stage.exception.StudentHasNoCurriculumException;
 import com.gestionnaire_de_stage.model.*;
@@ -13,7 +15,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
 import java.time.Year;
@@ -24,7 +28,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class OfferApplicationServiceTest {
@@ -47,12 +51,15 @@ class OfferApplicationServiceTest {
     @Mock
     private SupervisorRepository supervisorRepository;
 
+    @Mock
+    private InterviewSchedulerService interviewSchedulerService;
+
     @Test
     void testCreate() throws Exception {
         OfferApplication dummyOfferApplication = getDummyOfferApp();
         Student dummyStudent = getDummyStudent();
         Offer dummyOffer = getDummyOffer();
-        when(offerApplicationRepository.save(any())).thenReturn(dummyOfferApplication);
+        when(offerApplicationRepository.saveAndFlush(any())).thenReturn(dummyOfferApplication);
         when(studentService.getOneByID(any())).thenReturn(dummyStudent);
         when(offerService.findOfferById(any())).thenReturn(Optional.of(dummyOffer));
 
@@ -118,7 +125,8 @@ class OfferApplicationServiceTest {
         Student dummyStudent = getDummyStudent();
         when(studentService.getOneByID(any())).thenReturn(dummyStudent);
         when(offerService.findOfferById(any())).thenReturn(Optional.of(dummyOffer));
-        when(offerApplicationRepository.existsByOfferAndCurriculum(any(), any())).thenReturn(true);
+        when(offerApplicationRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Duplicate entry", null, "offer_application.uk_offer_application_offer_curriculum")));
 
         assertThrows(StudentAlreadyAppliedToOfferException.class,
                 () -> offerApplicationService.create(dummyOffer.getId(), dummyStudent.getId()));
@@ -231,6 +239,66 @@ class OfferApplicationServiceTest {
         assertThat(isAccepted).contains("Statut changé, stage refusé");
     }
 
+    @Test
+    public void testUpdateStudentRank() throws Exception {
+        OfferApplication dummyOfferApplication = getDummyOfferApp();
+        dummyOfferApplication.setCurriculum(getDummyCurriculum());
+        when(offerApplicationRepository.existsById(any())).thenReturn(true);
+        when(offerApplicationRepository.getById(any())).thenReturn(dummyOfferApplication);
+        when(offerApplicationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        OfferApplication actual = offerApplicationService.updateStudentRank(new UpdateRankDTO(dummyOfferApplication.getId(), 2), 1L);
+
+        assertThat(actual.getStudentRank()).isEqualTo(2);
+        assertThat(actual.getMonitorRank()).isNull();
+    }
+
+    @Test
+    public void testUpdateStudentRank_ofAnotherStudent() {
+        OfferApplication dummyOfferApplication = getDummyOfferApp();
+        dummyOfferApplication.setCurriculum(getDummyCurriculum());
+        when(offerApplicationRepository.existsById(any())).thenReturn(true);
+        when(offerApplicationRepository.getById(any())).thenReturn(dummyOfferApplication);
+
+        assertThrows(NotOwnerException.class,
+                () -> offerApplicationService.updateStudentRank(new UpdateRankDTO(dummyOfferApplication.getId(), 2), 2L));
+        verify(offerApplicationRepository, never()).save(any());
+    }
+
+    @Test
+    public void testUpdateMonitorRank() throws Exception {
+        OfferApplication dummyOfferApplication = getDummyOfferApp();
+        dummyOfferApplication.getOffer().setCreator(getDummyMonitor());
+        dummyOfferApplication.setMonitorRank(3);
+        when(offerApplicationRepository.existsById(any())).thenReturn(true);
+        when(offerApplicationRepository.getById(any())).thenReturn(dummyOfferApplication);
+        when(offerApplicationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        OfferApplication actual = offerApplicationService.updateMonitorRank(new UpdateRankDTO(dummyOfferApplication.getId(), null), 2L);
+
+        assertThat(actual.getMonitorRank()).isNull();
+    }
+
+    @Test
+    public void testUpdateMonitorRank_ofAnotherMonitor() {
+        OfferApplication dummyOfferApplication = getDummyOfferApp();
+        dummyOfferApplication.getOffer().setCreator(getDummyMonitor());
+        when(offerApplicationRepository.existsById(any())).thenReturn(true);
+        when(offerApplicationRepository.getById(any())).thenReturn(dummyOfferApplication);
+
+        assertThrows(NotOwnerException.class,
+                () -> offerApplicationService.updateMonitorRank(new UpdateRankDTO(dummyOfferApplication.getId(), 1), 3L));
+        verify(offerApplicationRepository, never()).save(any());
+    }
+
+    @Test
+    public void testUpdateRank_withInvalidRank() {
+        assertThrows(IllegalArgumentException.class,
+                () -> offerApplicationService.updateStudentRank(new UpdateRankDTO(1L, 0), 1L));
+        assertThrows(IllegalArgumentException.class,
+                () -> offerApplicationService.updateMonitorRank(new UpdateRankDTO(null, 1), 1L));
+    }
+
     @Test
     void testGetAllByOfferStudentApplied() throws IdDoesNotExistException {
         List<OfferApplication> offerApplicationList = getDummyOfferAppList();
@@ -263,9 +331,12 @@ class OfferApplicationServiceTest {
         offerApplication.setInterviewDate(LocalDateTime.now());
         when(offerApplicationRepository.save(any())).thenReturn(offerApplication);
 
-        OfferApplication actual = offerApplicationService.setInterviewDate(offerApplication.getId(), LocalDateTime.now().plusDays(1));
+        LocalDateTime interviewDate = LocalDateTime.now().plusDays(1);
+
+        OfferApplication actual = offerApplicationService.setInterviewDate(offerApplication.getId(), interviewDate);
 
         assertThat(actual).isEqualTo(offerApplication);
+        verify(interviewSchedulerService, times(1)).schedule(offerApplication.getId(), interviewDate);
     }
 
     @Test
@@ -351,45 +422,6 @@ class OfferApplicationServiceTest {
                 () -> offerApplicationService.getAllBySupervisorId(supervisorId));
     }
 
-    @Test
-    void testUpdateAllOffersStatus_withValidEntries() {
-        when(offerApplicationRepository.updateAllOfferApplicationThatWereInAInterviewStatusToStatus(any(), any(), any())).thenReturn(3);
-
-        final int updatedOfferApplications = offerApplicationService.updateAllOfferApplicationThatWereInAInterviewStatusFromStatusToOther(Status.EN_ATTENTE_ENTREVUE, Status.EN_ATTENTE_REPONSE);
-
-        assertThat(updatedOfferApplications).isEqualTo(3);
-    }
-
-    @Test
-    void testUpdateAllOffersStatus_withAllNullEntries() {
-        assertThrows(IllegalArgumentException.class,
-                () -> offerApplicationService.updateAllOfferApplicationThatWereInAInterviewStatusFromStatusToOther(null, null),
-                "Les deux status ne peuvent pas être vide");
-    }
-
-    @Test
-    void testUpdateAllOfferStatus_withNullOldStatus() {
-        assertThrows(IllegalArgumentException.class,
-                () -> offerApplicationService.updateAllOfferApplicationThatWereInAInterviewStatusFromStatusToOther(null, Status.EN_ATTENTE_REPONSE),
-                "Le deux status ne peut pas être vide");
-    }
-
-    @Test
-    void testUpdateAllOfferStatus_withNullNewStatus() {
-        assertThrows(IllegalArgumentException.class,
-                () -> offerApplicationService.updateAllOfferApplicationThatWereInAInterviewStatusFromStatusToOther(Status.EN_ATTENTE_ENTREVUE, null),
-                "Le deux status ne peut pas être vide"
-        );
-    }
-
-    @Test
-    void testUpdateAllOfferStatus_withSameStatus() {
-        assertThrows(IllegalArgumentException.class,
-                () -> offerApplicationService.updateAllOfferApplicationThatWereInAInterviewStatusFromStatusToOther(Status.EN_ATTENTE_ENTREVUE, Status.EN_ATTENTE_ENTREVUE),
-                "Les deux status ne peuvent pas être identique"
-        );
-    }
-
     @Test
     void testIsCurriculumInUse() {
         when(offerApplicationRepository.existsByCurriculum(any())).thenReturn(true);
@@ -447,6 +479,13 @@ class OfferApplicationServiceTest {
         return offerApplicationDTO;
     }
 
+    private Monitor getDummyMonitor() {
+        Monitor dummyMonitor = new Monitor();
+        dummyMonitor.setId(2L);
+        dummyMonitor.setEmail("monitor@cegep.qc.ca");
+        return dummyMonitor;
+    }
+
     private Manager getDummyManager() {
         Manager dummyManager = new Manager();
         dummyManager.setId(1L);
@@ -0,0 +1,162 @@
+package com.gestionnaire_de_stage.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestionnaire_de_stage.model.Offer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OfferCatalogServiceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2021, 11);
+
+    private static class MovableClock extends Clock {
+        private Instant instant = MONTH.atDay(20).atStartOfDay(ZoneId.systemDefault()).toInstant();
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private OfferCatalogService offerCatalogService;
+
+    @Mock
+    private OfferService offerService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final MovableClock clock = new MovableClock();
+
+    @BeforeEach
+    void init() {
+        offerCatalogService = new OfferCatalogService(offerService, objectMapper, clock, Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void testGetValidOffersJson() throws Exception {
+        when(offerService.getValidOffers(MONTH)).thenReturn(getDummyOffers());
+
+        byte[] json = offerCatalogService.getValidOffersJson();
+
+        assertThat(json).isEqualTo(objectMapper.writeValueAsBytes(getDummyOffers()));
+    }
+
+    @Test
+    public void testGetValidOffersJson_isCached() {
+        when(offerService.getValidOffers(MONTH)).thenReturn(getDummyOffers());
+
+        byte[] first = offerCatalogService.getValidOffersJson();
+        byte[] second = offerCatalogService.getValidOffersJson();
+
+        assertThat(second).isSameAs(first);
+        verify(offerService, times(1)).getValidOffers(MONTH);
+    }
+
+    @Test
+    public void testGetValidOffersJson_afterEvictAll() {
+        when(offerService.getValidOffers(MONTH)).thenReturn(getDummyOffers());
+
+        offerCatalogService.getValidOffersJson();
+        offerCatalogService.evictAll();
+        offerCatalogService.getValidOffersJson();
+
+        verify(offerService, times(2)).getValidOffers(MONTH);
+    }
+
+    @Test
+    public void testGetValidOffersJson_afterExpiration() {
+        when(offerService.getValidOffers(MONTH)).thenReturn(getDummyOffers());
+
+        offerCatalogService.getValidOffersJson();
+        clock.instant = clock.instant.plus(Duration.ofMinutes(5));
+        offerCatalogService.getValidOffersJson();
+
+        verify(offerService, times(2)).getValidOffers(MONTH);
+    }
+
+    @Test
+    public void testGetValidOffersJson_perMonth() {
+        when(offerService.getValidOffers(any())).thenReturn(getDummyOffers());
+
+        offerCatalogService.getValidOffersJson();
+        clock.instant = MONTH.plusMonths(1).atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        offerCatalogService.getValidOffersJson();
+
+        verify(offerService, times(1)).getValidOffers(MONTH);
+        verify(offerService, times(1)).getValidOffers(MONTH.plusMonths(1));
+    }
+
+    @Test
+    public void testGetValidOffersJson_failureIsNotCached() {
+        when(offerService.getValidOffers(MONTH))
+                .thenThrow(new IllegalStateException("Base de données indisponible"))
+                .thenReturn(getDummyOffers());
+
+        assertThrows(IllegalStateException.class, () -> offerCatalogService.getValidOffersJson());
+        assertThat(offerCatalogService.getValidOffersJson()).isNotEmpty();
+    }
+
+    @Test
+    public void testGetValidOffersJson_coalescesConcurrentMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(offerService.getValidOffers(MONTH)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return getDummyOffers();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            results.add(executor.submit(offerCatalogService::getValidOffersJson));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++)
+                results.add(executor.submit(offerCatalogService::getValidOffersJson));
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<byte[]> result : results)
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(results.get(0).get());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(offerService, times(1)).getValidOffers(MONTH);
+    }
+
+    private List<Offer> getDummyOffers() {
+        List<Offer> offers = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Offer offer = new Offer();
+            offer.setId(id);
+            offer.setTitle("Offre " + id);
+            offer.setValid(true);
+            offer.setCreated(new Date(0));
+            offers.add(offer);
+        }
+        return offers;
+    }
+}
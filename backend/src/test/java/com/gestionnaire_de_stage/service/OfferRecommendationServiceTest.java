@@ -0,0 +1,272 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.AppliedOfferDTO;
+import com.gestionnaire_de_stage.dto.OfferRecommendationDTO;
+import com.gestionnaire_de_stage.dto.StudentProfileDTO;
+import com.gestionnaire_de_stage.enums.TypeSession;
+import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.Session;
+import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
+import com.gestionnaire_de_stage.repository.OfferRepository;
+import com.gestionnaire_de_stage.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@Slf4j(topic = "OfferRecommendationServiceTest")
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class OfferRecommendationServiceTest {
+
+    private static final Session WINTER = new Session(1L, TypeSession.HIVER, Year.of(2022));
+
+    private static final Session SUMMER = new Session(2L, TypeSession.ETE, Year.of(2022));
+
+    private OfferRecommendationService offerRecommendationService;
+
+    @Mock
+    private OfferService offerService;
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private OfferApplicationRepository offerApplicationRepository;
+
+    @Mock
+    private CurriculumSearchService curriculumSearchService;
+
+    private final Map<Long, Offer> offers = new LinkedHashMap<>();
+
+    private final Map<Long, StudentProfileDTO> students = new LinkedHashMap<>();
+
+    private final List<AppliedOfferDTO> applications = new ArrayList<>();
+
+    private final Map<Long, String> curriculums = new HashMap<>();
+
+    private final Clock clock = Clock.fixed(LocalDate.of(2021, 11, 20).atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+
+    @BeforeEach
+    void init() {
+        offerRecommendationService = newService(2);
+        when(offerService.getValidOffers(any(YearMonth.class))).thenAnswer(invocation -> offers.values().stream()
+                .filter(offer -> Boolean.TRUE.equals(offer.getValid()))
+                .collect(Collectors.toList()));
+        when(offerService.isInWindow(any(), any())).thenReturn(true);
+        when(offerRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Offer> found = new ArrayList<>();
+            ((Iterable<Long>) invocation.getArgument(0)).forEach(id -> found.add(offers.get(id)));
+            return found;
+        });
+        when(studentRepository.existsById(anyLong())).thenAnswer(invocation -> students.containsKey(invocation.<Long>getArgument(0)));
+        when(studentRepository.findAllProfiles()).thenAnswer(invocation -> new ArrayList<>(students.values()));
+        when(studentRepository.findProfileById(anyLong())).thenAnswer(invocation -> students.get(invocation.<Long>getArgument(0)));
+        when(offerApplicationRepository.findAllAppliedOffers()).thenAnswer(invocation -> new ArrayList<>(applications));
+        when(offerApplicationRepository.findAllAppliedOffersByStudentId(anyLong())).thenAnswer(invocation -> applications.stream()
+                .filter(application -> application.getStudentId().equals(invocation.getArgument(0)))
+                .collect(Collectors.toList()));
+        when(curriculumSearchService.getText(anyLong())).thenAnswer(invocation -> curriculums.get(invocation.<Long>getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        offerRecommendationService.shutdown();
+    }
+
+    @Test
+    public void testRecommendations_rankedBySignals() throws Exception {
+        addOffer(1L, "Développeur Java", "Application web avec Spring et une base de données", "Informatique", WINTER);
+        addOffer(2L, "Soutien informatique", "Installation de postes de travail", "Informatique", WINTER);
+        addOffer(3L, "Programmeur Java", "Automatisation du laboratoire avec Spring", "Chimie", WINTER);
+        addStudent(1L, "Informatique", "Compétences : Java, Spring, bases de données");
+
+        offerRecommendationService.refresh();
+        List<OfferRecommendationDTO> recommendations = awaitRecommendations(1L, 3);
+
+        assertThat(idsOf(recommendations)).containsExactly(1L, 2L, 3L);
+        assertThat(recommendations.get(0).isDepartmentMatch()).isTrue();
+        assertThat(recommendations.get(0).getCurriculumSimilarity()).isGreaterThan(recommendations.get(2).getCurriculumSimilarity());
+        assertThat(recommendations.get(1).getCurriculumSimilarity()).isZero();
+        assertThat(recommendations.get(2).isDepartmentMatch()).isFalse();
+        assertThat(recommendations.get(0).getScore()).isGreaterThan(recommendations.get(1).getScore());
+    }
+
+    @Test
+    public void testRecommendations_withApplications() throws Exception {
+        addOffer(1L, "Programmeur", "Application web", "Informatique", WINTER);
+        addOffer(2L, "Programmeur", "Application web", "Informatique", SUMMER);
+        addOffer(3L, "Programmeur", "Application web", "Informatique", WINTER);
+        addOffer(4L, "Programmeur", "Application web", "Informatique", WINTER);
+        offers.get(4L).setValid(false);
+        addStudent(1L, "Informatique", null);
+        addStudent(2L, "Informatique", null);
+        // Offer 4 left the catalog, it still links the students who applied to it
+        applications.add(new AppliedOfferDTO(1L, 4L, WINTER.getId()));
+        applications.add(new AppliedOfferDTO(2L, 4L, WINTER.getId()));
+        applications.add(new AppliedOfferDTO(2L, 3L, WINTER.getId()));
+
+        offerRecommendationService.refresh();
+        List<OfferRecommendationDTO> recommendations = awaitRecommendations(1L, 3);
+
+        assertThat(idsOf(recommendations)).containsExactly(3L, 1L, 2L);
+        assertThat(recommendations.get(0).getCoApplication()).isEqualTo(1.0);
+        assertThat(recommendations.get(1).isSessionFit()).isTrue();
+        assertThat(recommendations.get(2).isSessionFit()).isFalse();
+        assertThat(idsOf(offerRecommendationService.getRecommendations(2L))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void testRecommendations_limitedAndWithoutRefusedOffers() throws Exception {
+        for (long id = 1; id <= 25; id++)
+            addOffer(id, "Programmeur", "Application web", "Informatique", WINTER);
+        addStudent(1L, "Informatique", null);
+
+        offerRecommendationService.refresh();
+        awaitRecommendations(1L, 20);
+        offers.get(1L).setValid(false);
+
+        assertThat(idsOf(offerRecommendationService.getRecommendations(1L))).hasSize(19).doesNotContain(1L);
+    }
+
+    @Test
+    public void testRescoreOffer() throws Exception {
+        // The new offer is scored with the words of the catalog of the last run
+        addOffer(1L, "Comptable", "Tenue de livres, macros en Java", "Comptabilité", WINTER);
+        addStudent(1L, "Informatique", "Java");
+        offerRecommendationService.refresh();
+        awaitRecommendations(1L, 1);
+
+        Offer offer = addOffer(2L, "Développeur Java", "Application web", "Informatique", WINTER);
+        offerRecommendationService.rescoreOffer(offer);
+        List<OfferRecommendationDTO> recommendations = awaitRecommendations(1L, 2);
+
+        assertThat(idsOf(recommendations)).containsExactly(2L, 1L);
+        assertThat(recommendations.get(0).getCurriculumSimilarity()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testRescoreStudent() throws Exception {
+        addOffer(1L, "Développeur Java", "Application web", "Informatique", WINTER);
+        addOffer(2L, "Technicien", "Analyses chimiques", "Chimie", WINTER);
+        addStudent(1L, "Informatique", null);
+        offerRecommendationService.refresh();
+        assertThat(idsOf(awaitRecommendations(1L, 2))).containsExactly(1L, 2L);
+
+        addStudent(1L, "Chimie", "Analyses chimiques en laboratoire");
+        applications.add(new AppliedOfferDTO(1L, 2L, WINTER.getId()));
+        offerRecommendationService.rescoreStudent(1L);
+
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(idsOf(offerRecommendationService.getRecommendations(1L))).containsExactly(1L));
+        assertThat(offerRecommendationService.getRecommendations(1L).get(0).isDepartmentMatch()).isFalse();
+    }
+
+    @Test
+    public void testRefresh_withCurriculumExtractedLater() throws Exception {
+        addOffer(1L, "Développeur Java", "Application web", "Informatique", WINTER);
+        students.put(1L, new StudentProfileDTO(1L, "Informatique", 1L));
+        offerRecommendationService.refresh();
+        assertThat(awaitRecommendations(1L, 1).get(0).getCurriculumSimilarity()).isZero();
+
+        curriculums.put(1L, "Java");
+        offerRecommendationService.refresh();
+
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(offerRecommendationService.getRecommendations(1L).get(0).getCurriculumSimilarity()).isGreaterThan(0));
+    }
+
+    @Test
+    public void testGetRecommendations_withInvalidStudent() {
+        assertThrows(IllegalArgumentException.class, () -> offerRecommendationService.getRecommendations(null));
+        assertThrows(IdDoesNotExistException.class, () -> offerRecommendationService.getRecommendations(1L));
+    }
+
+    @Test
+    public void benchmarkRecommendAll() throws Exception {
+        int offerCount = 500, studentCount = 3_000;
+        String[] titles = {"Développeur Java", "Programmeur web", "Technicien réseau", "Analyste de données",
+                "Soutien informatique", "Technicienne de laboratoire", "Comptable", "Intégrateur web"};
+        String[] skills = {"Java", "Spring", "React", "réseaux", "Linux", "chimie analytique", "comptabilité", "Excel",
+                "SQL", "Python", "soutien technique", "HTML"};
+        String[] departments = {"Informatique", "Chimie", "Comptabilité", "Génie électrique"};
+        Random random = new Random(42);
+        for (long id = 1; id <= offerCount; id++)
+            addOffer(id, titles[random.nextInt(titles.length)], "Stage avec " + skills[random.nextInt(skills.length)] + " et "
+                    + skills[random.nextInt(skills.length)], departments[random.nextInt(departments.length)], random.nextBoolean() ? WINTER : SUMMER);
+        for (long id = 1; id <= studentCount; id++) {
+            StringBuilder curriculum = new StringBuilder("Compétences :");
+            for (int i = 0; i < 6; i++)
+                curriculum.append(' ').append(skills[random.nextInt(skills.length)]);
+            addStudent(id, departments[random.nextInt(departments.length)], curriculum.toString());
+            for (int i = 0; i < 3; i++)
+                applications.add(new AppliedOfferDTO(id, 1L + random.nextInt(offerCount), WINTER.getId()));
+        }
+
+        for (int parallelism : new int[]{1, Runtime.getRuntime().availableProcessors()}) {
+            offerRecommendationService.shutdown();
+            offerRecommendationService = newService(parallelism);
+            long start = System.nanoTime();
+            offerRecommendationService.refresh();
+            awaitRecommendations((long) studentCount, 20);
+            log.info("Recommended {} offers to {} students with {} threads in {} ms",
+                    offerCount, studentCount, parallelism, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private OfferRecommendationService newService(int parallelism) {
+        return new OfferRecommendationService(offerService, offerRepository, studentRepository, offerApplicationRepository,
+                curriculumSearchService, clock, 20, Duration.ofHours(1), parallelism);
+    }
+
+    private List<OfferRecommendationDTO> awaitRecommendations(Long studentId, int count) throws Exception {
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(offerRecommendationService.getRecommendations(studentId)).hasSize(count));
+        return offerRecommendationService.getRecommendations(studentId);
+    }
+
+    private Offer addOffer(Long id, String title, String description, String department, Session session) {
+        Offer offer = new Offer();
+        offer.setId(id);
+        offer.setTitle(title);
+        offer.setDescription(description);
+        offer.setDepartment(department);
+        offer.setAddress("1111 rue Lapierre");
+        offer.setSalary(20);
+        offer.setValid(true);
+        offer.setSession(session);
+        offers.put(id, offer);
+        return offer;
+    }
+
+    private void addStudent(Long id, String department, String curriculum) {
+        students.put(id, new StudentProfileDTO(id, department, curriculum == null ? null : 100 + id));
+        if (curriculum != null)
+            curriculums.put(100 + id, curriculum);
+    }
+
+    private List<Long> idsOf(List<OfferRecommendationDTO> recommendations) {
+        return recommendations.stream().map(recommendation -> recommendation.getOffer().getId()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,315 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.OfferSearchDTO;
+import com.gestionnaire_de_stage.dto.OfferSearchResultDTO;
+import com.gestionnaire_de_stage.enums.TypeSession;
+import com.gestionnaire_de_stage.model.Offer;
+import com.gestionnaire_de_stage.model.Session;
+import com.gestionnaire_de_stage.repository.OfferRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@Slf4j(topic = "OfferSearchServiceTest")
+@ExtendWith(MockitoExtension.class)
+public class OfferSearchServiceTest {
+
+    private static final Session WINTER = new Session(1L, TypeSession.HIVER, Year.of(2022));
+
+    private static final Session SUMMER = new Session(2L, TypeSession.ETE, Year.of(2022));
+
+    private OfferSearchService offerSearchService;
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private OfferService offerService;
+
+    private final Map<Long, Offer> offers = new HashMap<>();
+
+    private final Clock clock = Clock.fixed(LocalDate.of(2021, 11, 20).atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+
+    @BeforeEach
+    void init() {
+        offerSearchService = new OfferSearchService(offerRepository, offerService, clock);
+        lenient().when(offerService.isInWindow(any(), any())).thenReturn(true);
+        lenient().when(offerRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Offer> found = new ArrayList<>();
+            ((Iterable<Long>) invocation.getArgument(0)).forEach(id -> found.add(offers.get(id)));
+            return found;
+        });
+        lenient().when(offerRepository.findAllByValidIsTrueAndSession_YearGreaterThanEqual(Year.of(2021)))
+                .thenAnswer(invocation -> new ArrayList<>(offers.values()));
+    }
+
+    @Test
+    public void testSearch_foldsAccentsAndPlurals() {
+        addOffer(1L, "Développeur Java", "Stage en développement d'applications", "Informatique", 20, WINTER);
+        addOffer(2L, "Technicien de laboratoire", "Analyses chimiques", "Chimie", 18, WINTER);
+        offerSearchService.rebuild();
+
+        assertThat(idsOf(offerSearchService.search(criteria("DEVELOPPEURS java")))).containsExactly(1L);
+        assertThat(idsOf(offerSearchService.search(criteria("stages")))).containsExactly(1L);
+        assertThat(idsOf(offerSearchService.search(criteria("analyse chimique")))).containsExactly(2L);
+        assertThat(idsOf(offerSearchService.search(criteria("java chimie")))).isEmpty();
+    }
+
+    @Test
+    public void testSearch_ranksTitleFirst() {
+        addOffer(1L, "Stage en comptabilité", "Travail avec une équipe qui utilise Java", "Comptabilité", 20, WINTER);
+        addOffer(2L, "Programmeur Java", "Maintenance d'une application", "Informatique", 20, WINTER);
+        addOffer(3L, "Réseautique", "Installation de serveurs", "Informatique", 20, WINTER);
+        offerSearchService.rebuild();
+
+        OfferSearchResultDTO result = offerSearchService.search(criteria("java"));
+
+        assertThat(idsOf(result)).containsExactly(2L, 1L);
+        assertThat(result.getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    public void testSearch_withoutQuery() {
+        addOffer(2L, "Programmeur Java", "Maintenance", "Informatique", 20, WINTER);
+        addOffer(1L, "Réseautique", "Installation de serveurs", "Informatique", 20, WINTER);
+        offerSearchService.rebuild();
+
+        assertThat(idsOf(offerSearchService.search(criteria(null)))).containsExactly(1L, 2L);
+        assertThat(idsOf(offerSearchService.search(criteria("  de  ")))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void testSearch_facetsIgnoreTheirOwnFilter() {
+        addOffer(1L, "Programmeur Java", "Application web", "Informatique", 16, WINTER);
+        addOffer(2L, "Programmeur C#", "Application web", "Informatique", 22, SUMMER);
+        addOffer(3L, "Technicien", "Laboratoire", "Chimie", 30, WINTER);
+        offerSearchService.rebuild();
+        OfferSearchDTO criteria = criteria(null);
+        criteria.setDepartment("informatique");
+
+        OfferSearchResultDTO result = offerSearchService.search(criteria);
+
+        assertThat(idsOf(result)).containsExactly(1L, 2L);
+        assertThat(result.getDepartments()).containsExactly(Map.entry("Chimie", 1L), Map.entry("Informatique", 2L));
+        assertThat(result.getSessions()).containsExactly(Map.entry(1L, 1L), Map.entry(2L, 1L));
+        assertThat(result.getSalaryRanges()).containsExactly(
+                Map.entry("0-15", 0L), Map.entry("15-20", 1L), Map.entry("20-25", 1L), Map.entry("25+", 0L));
+    }
+
+    @Test
+    public void testSearch_facetCountsTheSpellingsOfADepartmentTogether() {
+        addOffer(1L, "Programmeur Java", "Application web", "informatique", 20, WINTER);
+        addOffer(2L, "Programmeur C#", "Application web", "Informatique", 20, WINTER);
+        addOffer(3L, "Réseautique", "Serveurs", "Informatique", 20, WINTER);
+        addOffer(4L, "Technicien", "Laboratoire", "Chimie", 20, WINTER);
+        offerSearchService.rebuild();
+        OfferSearchDTO criteria = criteria(null);
+        criteria.setDepartment("Informatique");
+
+        OfferSearchResultDTO result = offerSearchService.search(criteria);
+
+        assertThat(idsOf(result)).containsExactly(1L, 2L, 3L);
+        assertThat(result.getDepartments()).containsExactly(Map.entry("Chimie", 1L), Map.entry("Informatique", 3L));
+    }
+
+    @Test
+    public void testSearch_withFilters() {
+        addOffer(1L, "Programmeur Java", "Application web", "Informatique", 16, WINTER);
+        addOffer(2L, "Programmeur C#", "Application web", "Informatique", 22, SUMMER);
+        addOffer(3L, "Programmeur Python", "Application web", "Informatique", 25, SUMMER);
+        offers.get(3L).setDateDebut(LocalDate.of(2022, 5, 1));
+        offers.get(3L).setDateFin(LocalDate.of(2022, 8, 1));
+        offerSearchService.rebuild();
+
+        OfferSearchDTO bySession = criteria("programmeur");
+        bySession.setSessionId(SUMMER.getId());
+        OfferSearchDTO bySalary = criteria("programmeur");
+        bySalary.setMinSalary(20.0);
+        bySalary.setMaxSalary(24.0);
+        OfferSearchDTO byDates = criteria("programmeur");
+        byDates.setStartsAfter(LocalDate.of(2022, 4, 1));
+        byDates.setEndsBefore(LocalDate.of(2022, 8, 31));
+
+        assertThat(idsOf(offerSearchService.search(bySession))).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(idsOf(offerSearchService.search(bySalary))).containsExactly(2L);
+        assertThat(idsOf(offerSearchService.search(byDates))).containsExactly(3L);
+    }
+
+    @Test
+    public void testSearch_outsideWindow() {
+        addOffer(1L, "Programmeur Java", "Application web", "Informatique", 16, WINTER);
+        addOffer(2L, "Programmeur C#", "Application web", "Informatique", 22, SUMMER);
+        offerSearchService.rebuild();
+        when(offerService.isInWindow(any(), any())).thenAnswer(invocation -> invocation.getArgument(0, Session.class).getId().equals(SUMMER.getId()));
+
+        assertThat(idsOf(offerSearchService.search(criteria("programmeur")))).containsExactly(2L);
+    }
+
+    @Test
+    public void testSearch_withPages() {
+        for (long id = 1; id <= 5; id++)
+            addOffer(id, "Programmeur " + id, "Application web", "Informatique", 20, WINTER);
+        offerSearchService.rebuild();
+        OfferSearchDTO criteria = criteria("programmeur");
+        criteria.setPage(1);
+        criteria.setSize(2);
+
+        OfferSearchResultDTO result = offerSearchService.search(criteria);
+
+        assertThat(idsOf(result)).containsExactly(3L, 4L);
+        assertThat(result.getTotal()).isEqualTo(5);
+    }
+
+    @Test
+    public void testSearch_withInvalidPage() {
+        OfferSearchDTO negativePage = criteria(null);
+        negativePage.setPage(-1);
+        OfferSearchDTO tooLarge = criteria(null);
+        tooLarge.setSize(101);
+
+        assertThrows(IllegalArgumentException.class, () -> offerSearchService.search(null));
+        assertThrows(IllegalArgumentException.class, () -> offerSearchService.search(negativePage));
+        assertThrows(IllegalArgumentException.class, () -> offerSearchService.search(tooLarge));
+    }
+
+    @Test
+    public void testIndex_incrementally() {
+        offerSearchService.rebuild();
+        Offer offer = addOffer(1L, "Programmeur Java", "Application web", "Informatique", 20, WINTER);
+        offer.setValid(null);
+
+        offerSearchService.index(offer);
+        assertThat(offerSearchService.search(criteria("java")).getTotal()).isZero();
+
+        offer.setValid(true);
+        offerSearchService.index(offer);
+        assertThat(idsOf(offerSearchService.search(criteria("java")))).containsExactly(1L);
+
+        offer.setTitle("Programmeur Kotlin");
+        offerSearchService.index(offer);
+        assertThat(offerSearchService.search(criteria("java")).getTotal()).isZero();
+        assertThat(idsOf(offerSearchService.search(criteria("kotlin")))).containsExactly(1L);
+
+        offerSearchService.remove(1L);
+        assertThat(offerSearchService.search(criteria("kotlin")).getTotal()).isZero();
+    }
+
+    @Test
+    public void testRebuild_keepsChangesMadeDuringIt() {
+        addOffer(1L, "Programmeur Java", "Application web", "Informatique", 20, WINTER);
+        when(offerRepository.findAllByValidIsTrueAndSession_YearGreaterThanEqual(Year.of(2021))).thenAnswer(invocation -> {
+            List<Offer> read = new ArrayList<>(offers.values());
+            offerSearchService.index(addOffer(2L, "Programmeur Kotlin", "Application mobile", "Informatique", 20, WINTER));
+            offerSearchService.remove(1L);
+            return read;
+        });
+
+        offerSearchService.rebuild();
+
+        assertThat(idsOf(offerSearchService.search(criteria("programmeur")))).containsExactly(2L);
+    }
+
+    @Test
+    public void testCatchUp_indexesOffersChangedElsewhere() {
+        addOffer(1L, "Programmeur Java", "Application web", "Informatique", 20, WINTER);
+        offerSearchService.rebuild();
+        Offer invalidated = new Offer();
+        invalidated.setId(1L);
+        invalidated.setValid(false);
+        when(offerRepository.findAllByModifiedGreaterThanEqual(LocalDateTime.now(clock).minusMinutes(1)))
+                .thenReturn(List.of(invalidated, addOffer(2L, "Programmeur Kotlin", "Application mobile", "Informatique", 20, WINTER)));
+
+        offerSearchService.catchUp();
+
+        assertThat(idsOf(offerSearchService.search(criteria("programmeur")))).containsExactly(2L);
+    }
+
+    @Test
+    public void testCatchUp_beforeRebuild() {
+        offerSearchService.catchUp();
+
+        verifyNoInteractions(offerRepository);
+    }
+
+    @Test
+    public void testUpdateSession() {
+        addOffer(1L, "Programmeur Java", "Application web", "Informatique", 20, WINTER);
+        offerSearchService.rebuild();
+
+        offerSearchService.updateSession(new Session(WINTER.getId(), TypeSession.ETE, Year.of(2023)));
+        OfferSearchDTO criteria = criteria(null);
+        criteria.setSessionId(WINTER.getId());
+        offerSearchService.search(criteria);
+
+        verify(offerService).isInWindow(argThat(session -> session.getYear().equals(Year.of(2023))), any());
+    }
+
+    @Test
+    public void benchmarkSearch() {
+        int offerCount = 30_000, queries = 1_000;
+        String[] titles = {"Développeur Java", "Programmeur web", "Technicien réseau", "Analyste de données",
+                "Soutien informatique", "Technicienne de laboratoire", "Comptable", "Intégrateur web"};
+        String[] departments = {"Informatique", "Chimie", "Comptabilité", "Génie électrique"};
+        Random random = new Random(42);
+        for (long id = 1; id <= offerCount; id++)
+            addOffer(id, titles[random.nextInt(titles.length)] + " " + id,
+                    "Stage de " + (10 + random.nextInt(6)) + " semaines dans une équipe de " + titles[random.nextInt(titles.length)],
+                    departments[random.nextInt(departments.length)], 14 + random.nextInt(15), random.nextBoolean() ? WINTER : SUMMER);
+        // The window check runs once per candidate, a mock would measure Mockito rather than the search
+        offerSearchService = new OfferSearchService(offerRepository, new OfferService(offerRepository, null, null, null, clock), clock);
+        offerSearchService.rebuild();
+        OfferSearchDTO criteria = criteria("developpeur java");
+        criteria.setDepartment("informatique");
+        criteria.setMinSalary(18.0);
+
+        for (int i = 0; i < queries; i++)
+            offerSearchService.search(criteria);
+
+        long start = System.nanoTime();
+        OfferSearchResultDTO result = null;
+        for (int i = 0; i < queries; i++)
+            result = offerSearchService.search(criteria);
+        long elapsed = System.nanoTime() - start;
+
+        log.info("Offer search over {} offers: {} ms per query with facets, {} matches",
+                offerCount, String.format("%.2f", elapsed / queries / 1e6), result.getTotal());
+        assertThat(result.getOffers()).hasSize(20);
+    }
+
+    private Offer addOffer(Long id, String title, String description, String department, double salary, Session session) {
+        Offer offer = new Offer();
+        offer.setId(id);
+        offer.setTitle(title);
+        offer.setDescription(description);
+        offer.setDepartment(department);
+        offer.setAddress("1111 rue Lapierre");
+        offer.setSalary(salary);
+        offer.setValid(true);
+        offer.setSession(session);
+        offers.put(id, offer);
+        return offer;
+    }
+
+    private OfferSearchDTO criteria(String q) {
+        OfferSearchDTO criteria = new OfferSearchDTO();
+        criteria.setQ(q);
+        return criteria;
+    }
+
+    private List<Long> idsOf(OfferSearchResultDTO result) {
+        return result.getOffers().stream().map(Offer::getId).collect(Collectors.toList());
+    }
+}
@@ -2,14 +2,12 @@ package com.gestionnaire_de_stage.service;
 
 import com.gestionnaire_de_stage.dto.OfferDTO;
 import com.gestionnaire_de_stage.dto.ValidationOffer;
-import com.gestionnaire_de_stage.enums.Status;
 import com.gestionnaire_de_stage.enums.TypeSession;
 import com.gestionnaire_de_stage.exception.DoesNotExistException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.exception.OfferAlreadyExistsException;
 import com.gestionnaire_de_stage.exception.OfferAlreadyTreatedException;
 import com.gestionnaire_de_stage.model.*;
-import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
 import com.gestionnaire_de_stage.repository.OfferRepository;
 import com.gestionnaire_de_stage.repository.StudentRepository;
 import org.junit.jupiter.api.Test;
@@ -17,6 +15,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.Clock;
 import java.time.LocalDate;
@@ -30,7 +30,9 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,9 +50,6 @@ public class OfferServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
-    @Mock
-    private OfferApplicationRepository offerApplicationRepository;
-
     @Mock
     private SessionService sessionService;
 
@@ -122,8 +121,10 @@ public class OfferServiceTest {
         when(offerRepository.findOne(any())).thenReturn(Optional.empty());
         when(monitorService.getOneByEmail(any())).thenReturn(getDummyMonitor());
         when(sessionService.getOneBySessionId(any())).thenReturn(dummyOffer.getSession());
+        fixClockAt(LocalDate.of(2021, 11, 20));
         Offer actualOffer = offerService.create(getDummyOfferDto());
 
+        verify(offerRepository).save(argThat(offer -> LocalDate.of(2021, 11, 20).atStartOfDay().equals(offer.getModified())));
         assertThat(actualOffer).isNotNull();
         assertThat(actualOffer.getId())
                 .isNotNull()
@@ -169,9 +170,11 @@ public class OfferServiceTest {
         when(offerRepository.existsByIdAndValidNotNull(any())).thenReturn(false);
         when(offerRepository.getById(any())).thenReturn(dummyOffer);
         when(offerRepository.save(any())).thenReturn(dummyOffer);
+        fixClockAt(LocalDate.of(2021, 11, 20));
 
         Offer actualOffer = offerService.validation(new ValidationOffer(dummyOffer.getId(), true));
 
+        assertThat(dummyOffer.getModified()).isEqualTo(LocalDate.of(2021, 11, 20).atStartOfDay());
         assertThat(actualOffer)
                 .isNotNull()
                 .isEqualTo(dummyOffer);
@@ -197,24 +200,63 @@ public class OfferServiceTest {
     }
 
     @Test
-    public void testGetOffersNotAppliedYet_withNoOffer() throws IdDoesNotExistException {
-        Long studentId = 1L;
-        fixedClock = Clock.fixed(LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
-        doReturn(fixedClock.instant()).when(clock).instant();
-        doReturn(fixedClock.getZone()).when(clock).getZone();
-        when(offerRepository.findAllByValidIsTrueAndSession_YearGreaterThanEqual(any())).thenReturn(Collections.emptyList());
-        when(offerApplicationRepository.getAllByCurriculum_StudentId(any())).thenReturn(getDummyOfferAppList());
+    public void testGetOffersNotAppliedYet_inWinter() throws IdDoesNotExistException {
+        List<Offer> dummyOffers = getDummyArrayOffer();
+        fixClockAt(LocalDate.of(2021, 1, 15));
+        when(studentRepository.existsById(any())).thenReturn(true);
+        when(offerRepository.findAllValidNotAppliedByStudent(1L, Year.of(2021), List.of(TypeSession.values()), null, PageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(dummyOffers));
+
+        List<Offer> actualOffers = offerService.getOffersNotYetApplied(1L, null, 0, 20);
+
+        assertThat(actualOffers).isEqualTo(dummyOffers);
+    }
+
+    @Test
+    public void testGetOffersNotAppliedYet_inSummer() throws IdDoesNotExistException {
+        fixClockAt(LocalDate.of(2021, 6, 15));
+        when(studentRepository.existsById(any())).thenReturn(true);
+        when(offerRepository.findAllValidNotAppliedByStudent(1L, Year.of(2021), List.of(TypeSession.ETE), 2L, PageRequest.of(1, 10)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        List<Offer> actualOffers = offerService.getOffersNotYetApplied(1L, 2L, 1, 10);
+
+        assertThat(actualOffers).isEmpty();
+    }
+
+    @Test
+    public void testGetOffersNotAppliedYet_inFall() throws IdDoesNotExistException {
+        List<Offer> dummyOffers = getDummyArrayOffer();
+        fixClockAt(LocalDate.of(2021, 10, 15));
         when(studentRepository.existsById(any())).thenReturn(true);
+        when(offerRepository.findAllValidNotAppliedByStudent(1L, Year.of(2022), List.of(TypeSession.values()), null, PageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(dummyOffers));
 
-        List<Offer> actualOfferDtoList = offerService.getOffersNotYetApplied(studentId);
+        List<Offer> actualOffers = offerService.getOffersNotYetApplied(1L, null, 0, 20);
 
-        assertThat(actualOfferDtoList).isEmpty();
+        assertThat(actualOffers).isEqualTo(dummyOffers);
     }
 
     @Test
     public void testGetOffersNotAppliedYet_withNoIdStudent() {
         assertThrows(IdDoesNotExistException.class,
-                () -> offerService.getOffersNotYetApplied(213123L));
+                () -> offerService.getOffersNotYetApplied(213123L, null, 0, 20));
+    }
+
+    @Test
+    public void testGetOffersNotAppliedYet_withNullIdStudent() {
+        assertThrows(IllegalArgumentException.class,
+                () -> offerService.getOffersNotYetApplied(null, null, 0, 20));
+    }
+
+    @Test
+    public void testGetOffersNotAppliedYet_withInvalidPage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> offerService.getOffersNotYetApplied(1L, null, -1, 20));
+        assertThrows(IllegalArgumentException.class,
+                () -> offerService.getOffersNotYetApplied(1L, null, 0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> offerService.getOffersNotYetApplied(1L, null, 0, 101));
     }
 
     @Test
@@ -344,33 +386,10 @@ public class OfferServiceTest {
         return dummyOfferDTO;
     }
 
-    private List<OfferApplication> getDummyOfferAppList() {
-        List<OfferApplication> offerApplicationList = new ArrayList<>();
-        OfferApplication dummyOfferApplication = new OfferApplication();
-        dummyOfferApplication.setOffer(getDummyOffer());
-        Curriculum curriculum = new Curriculum();
-        curriculum.setId(1L);
-        Student student = getDummyStudent();
-        curriculum.setStudent(getDummyStudent());
-        student.setPrincipalCurriculum(curriculum);
-        dummyOfferApplication.setCurriculum(curriculum);
-        dummyOfferApplication.setId(1L);
-        dummyOfferApplication.setStatus(Status.CV_ENVOYE);
-        offerApplicationList.add(dummyOfferApplication);
-
-        return offerApplicationList;
-    }
-
-    private Student getDummyStudent() {
-        Student dummyStudent = new Student();
-        dummyStudent.setId(1L);
-        dummyStudent.setLastName("Candle");
-        dummyStudent.setFirstName("Tea");
-        dummyStudent.setEmail("cant@outlook.com");
-        dummyStudent.setPassword("cantPass");
-        dummyStudent.setDepartment("info");
-        dummyStudent.setMatricule("4673943");
-        return dummyStudent;
+    private void fixClockAt(LocalDate date) {
+        fixedClock = Clock.fixed(date.atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        doReturn(fixedClock.instant()).when(clock).instant();
+        doReturn(fixedClock.getZone()).when(clock).getZone();
     }
 
     private List<Offer> getDummyArrayOffer() {
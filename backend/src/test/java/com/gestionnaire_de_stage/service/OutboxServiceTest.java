@@ -0,0 +1,179 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.OutboxStatsDTO;
+import com.gestionnaire_de_stage.enums.OutboxEventType;
+import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
+import com.gestionnaire_de_stage.model.*;
+import com.gestionnaire_de_stage.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxServiceTest {
+
+    private OutboxService outboxService;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private CurriculumService curriculumService;
+
+    @Mock
+    private OfferService offerService;
+
+    @Mock
+    private OfferApplicationService offerApplicationService;
+
+    @Mock
+    private ContractService contractService;
+
+    @Mock
+    private LeaseService leaseService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void init() {
+        outboxService = new OutboxService(outboxEventRepository, notificationService, curriculumService, offerService,
+                offerApplicationService, contractService, leaseService, transactionManager, 2, 10, Duration.ofSeconds(30));
+    }
+
+    @Test
+    public void testDispatchBatch() throws Exception {
+        OutboxEvent curriculumEvent = getDummyEvent(1L, OutboxEventType.CURRICULUM_VALIDATED);
+        OutboxEvent offerEvent = getDummyEvent(2L, OutboxEventType.OFFER_VALIDATED);
+        Curriculum curriculum = new Curriculum();
+        Offer offer = new Offer();
+        when(outboxEventRepository.findAllByAttemptsLessThanOrderByIdAsc(eq(10), any()))
+                .thenReturn(List.of(curriculumEvent, offerEvent));
+        when(curriculumService.getOneById(any())).thenReturn(curriculum);
+        when(offerService.findOfferById(any())).thenReturn(Optional.of(offer));
+
+        int dispatched = outboxService.dispatchBatch();
+
+        assertThat(dispatched).isEqualTo(2);
+        verify(notificationService, times(1)).notifyOfCurriculumValidation(curriculum);
+        verify(notificationService, times(1)).notifyOfOfferValidation(offer);
+        verify(outboxEventRepository, times(1)).deleteById(1L);
+        verify(outboxEventRepository, times(1)).deleteById(2L);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    public void testDispatchBatch_withFailingEvent() throws Exception {
+        OutboxEvent event = getDummyEvent(1L, OutboxEventType.CONTRACT_SIGNED_BY_MANAGER);
+        when(outboxEventRepository.findAllByAttemptsLessThanOrderByIdAsc(eq(10), any())).thenReturn(List.of(event));
+        when(contractService.getOneById(any())).thenReturn(new Contract());
+        doThrow(IllegalStateException.class).when(notificationService).notifyOfManagerSignature(any());
+
+        int dispatched = outboxService.dispatchBatch();
+
+        assertThat(dispatched).isZero();
+        verify(outboxEventRepository, never()).deleteById(any());
+        verify(outboxEventRepository, times(1)).incrementAttempts(1L);
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    public void testDispatchPending_drainsFullBatches() {
+        when(outboxEventRepository.findAllByAttemptsLessThanOrderByIdAsc(eq(10), any()))
+                .thenReturn(List.of(getDummyEvent(1L, OutboxEventType.OFFER_CREATED), getDummyEvent(2L, OutboxEventType.OFFER_CREATED)))
+                .thenReturn(List.of(getDummyEvent(3L, OutboxEventType.OFFER_CREATED)));
+        when(offerService.findOfferById(any())).thenReturn(Optional.of(new Offer()));
+        when(leaseService.tryAcquire("OutboxService.dispatchPending", Duration.ofSeconds(30))).thenReturn(true);
+
+        outboxService.dispatchPending();
+
+        verify(outboxEventRepository, times(2)).findAllByAttemptsLessThanOrderByIdAsc(eq(10), any());
+        verify(notificationService, times(3)).notifyOfNewOffer(any());
+        verify(leaseService, times(1)).tryAcquire(any(), any());
+    }
+
+    @Test
+    public void testDispatchPending_stopsWhenLeaseIsLost() {
+        when(outboxEventRepository.findAllByAttemptsLessThanOrderByIdAsc(eq(10), any()))
+                .thenReturn(List.of(getDummyEvent(1L, OutboxEventType.OFFER_CREATED), getDummyEvent(2L, OutboxEventType.OFFER_CREATED)));
+        when(offerService.findOfferById(any())).thenReturn(Optional.of(new Offer()));
+        when(leaseService.tryAcquire(any(), any())).thenReturn(false);
+
+        outboxService.dispatchPending();
+
+        verify(outboxEventRepository, times(1)).findAllByAttemptsLessThanOrderByIdAsc(eq(10), any());
+    }
+
+    @Test
+    public void testGetStats() {
+        when(outboxEventRepository.countByAttemptsLessThan(10)).thenReturn(3L);
+        when(outboxEventRepository.countByAttemptsGreaterThanEqual(10)).thenReturn(1L);
+
+        OutboxStatsDTO stats = outboxService.getStats();
+
+        assertThat(stats.getPendingEvents()).isEqualTo(3L);
+        assertThat(stats.getAbandonedEvents()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testDispatch_withOfferApplicationEvents() throws Exception {
+        OfferApplication offerApplication = new OfferApplication();
+        when(offerApplicationService.getOneById(any())).thenReturn(offerApplication);
+
+        outboxService.dispatch(getDummyEvent(1L, OutboxEventType.OFFER_APPLICATION_CREATED));
+        outboxService.dispatch(getDummyEvent(2L, OutboxEventType.OFFER_APPLICATION_STAGE_TROUVE));
+        outboxService.dispatch(getDummyEvent(3L, OutboxEventType.OFFER_APPLICATION_INTERVIEW_SET));
+        outboxService.dispatch(getDummyEvent(4L, OutboxEventType.OFFER_APPLICATION_INTERVIEW_PASSED));
+
+        verify(notificationService, times(1)).notifyOfNewApplicant(offerApplication);
+        verify(notificationService, times(1)).notifyOfOfferAppStatusSetToStageTrouve(offerApplication);
+        verify(notificationService, times(1)).notifyOfOfferAppInterviewSet(offerApplication);
+        verify(notificationService, times(1)).notifyOfOfferAppInterviewPassed(offerApplication);
+    }
+
+    @Test
+    public void testDispatch_withMonitorSignature() throws Exception {
+        Contract contract = new Contract();
+        when(contractService.getOneById(any())).thenReturn(contract);
+
+        outboxService.dispatch(getDummyEvent(1L, OutboxEventType.CONTRACT_SIGNED_BY_MONITOR));
+
+        verify(notificationService, times(1)).notifyOfMonitorSignature(contract);
+    }
+
+    @Test
+    public void testDispatch_withDeletedAggregate() throws Exception {
+        when(contractService.getOneById(any())).thenThrow(IdDoesNotExistException.class);
+
+        outboxService.dispatch(getDummyEvent(1L, OutboxEventType.CONTRACT_SIGNED_BY_MONITOR));
+
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    public void testDispatch_withNullEvent() {
+        assertThrows(IllegalArgumentException.class,
+                () -> outboxService.dispatch(null));
+    }
+
+    private OutboxEvent getDummyEvent(Long id, OutboxEventType type) {
+        OutboxEvent event = new OutboxEvent(type, 10L + id);
+        event.setId(id);
+        return event;
+    }
+}
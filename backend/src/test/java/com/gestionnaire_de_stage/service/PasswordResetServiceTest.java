@@ -6,24 +6,30 @@ import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.exception.UnusableTokenException;
 import com.gestionnaire_de_stage.model.*;
 import com.gestionnaire_de_stage.repository.PasswordResetTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class PasswordResetServiceTest {
 
-    @InjectMocks
+    private static final Instant NOW = Instant.parse("2021-11-20T15:00:00Z");
+
     private PasswordResetService passwordResetService;
 
     @Mock
@@ -36,7 +42,15 @@ public class PasswordResetServiceTest {
     @Mock
     private StudentService studentService;
     @Mock
-    private JavaMailSender javaMailSender;
+    private MailQueueService mailQueueService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void init() {
+        passwordResetService = new PasswordResetService(passwordResetTokenRepository, monitorService, supervisorService, studentService,
+                mailQueueService, transactionManager, Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofHours(1), 2);
+    }
 
     @Test
     public void testForgotPassword_monitor_withValidEmail() throws DoesNotExistException {
@@ -44,10 +58,10 @@ public class PasswordResetServiceTest {
         PasswordResetToken dummyPasswordResetToken = getDummyPasswordResetToken(dummyMonitor);
         when(monitorService.getOneByEmail(any())).thenReturn(dummyMonitor);
         when(passwordResetTokenRepository.save(any())).thenReturn(dummyPasswordResetToken);
-        doNothing().when(javaMailSender).send(any(SimpleMailMessage.class));
 
         PasswordResetToken actual = passwordResetService.forgotPasswordMonitor(dummyMonitor.getEmail());
 
+        verify(mailQueueService).enqueue(eq(dummyMonitor.getEmail()), any(), contains(dummyPasswordResetToken.getToken()));
         assertThat(actual.getId()).isGreaterThanOrEqualTo(1L);
         assertThat(actual.getUser()).isEqualTo(dummyMonitor);
         assertThat(actual.getToken()).isNotNull();
@@ -59,7 +73,6 @@ public class PasswordResetServiceTest {
         PasswordResetToken dummyPasswordResetToken = getDummyPasswordResetToken(dummySupervisor);
         when(supervisorService.getOneByEmail(any())).thenReturn(dummySupervisor);
         when(passwordResetTokenRepository.save(any())).thenReturn(dummyPasswordResetToken);
-        doNothing().when(javaMailSender).send(any(SimpleMailMessage.class));
 
         PasswordResetToken actual = passwordResetService.forgotPasswordSupervisor(dummySupervisor.getEmail());
 
@@ -74,7 +87,6 @@ public class PasswordResetServiceTest {
         PasswordResetToken dummyPasswordResetToken = getDummyPasswordResetToken(dummyStudent);
         when(studentService.getOneByEmail(any())).thenReturn(dummyStudent);
         when(passwordResetTokenRepository.save(any())).thenReturn(dummyPasswordResetToken);
-        doNothing().when(javaMailSender).send(any(SimpleMailMessage.class));
 
         PasswordResetToken actual = passwordResetService.forgotPasswordStudent(dummyStudent.getEmail());
 
@@ -86,10 +98,8 @@ public class PasswordResetServiceTest {
     @Test
     public void testResetPassword_monitor_valid() throws IdDoesNotExistException, DoesNotExistException, UnusableTokenException {
         Monitor dummyMonitor = getDummyMonitor();
-        PasswordResetToken dummyPasswordResetToken = getDummyPasswordResetToken(dummyMonitor);
-        when(passwordResetTokenRepository.existsByToken(any())).thenReturn(true);
-        when(passwordResetTokenRepository.getByToken(any())).thenReturn(dummyPasswordResetToken);
-        when(passwordResetTokenRepository.save(any())).thenReturn(dummyPasswordResetToken);
+        when(passwordResetTokenRepository.consume("DIBWA213Nw_dW31Ad3DAO9WD213", Date.from(NOW.minus(Duration.ofHours(1))))).thenReturn(1);
+        when(passwordResetTokenRepository.findUserByToken(any())).thenReturn(dummyMonitor);
         when(monitorService.update(any())).thenReturn(dummyMonitor);
 
         Monitor actual = (Monitor) passwordResetService.resetPassword(new PasswordResetTokenDto("DIBWA213Nw_dW31Ad3DAO9WD213", "testPassword"));
@@ -100,10 +110,8 @@ public class PasswordResetServiceTest {
     @Test
     public void testResetPassword_supervisor_valid() throws IdDoesNotExistException, DoesNotExistException, UnusableTokenException {
         Supervisor dummySupervisor = getDummySupervisor();
-        PasswordResetToken dummyPasswordResetToken = getDummyPasswordResetToken(dummySupervisor);
-        when(passwordResetTokenRepository.existsByToken(any())).thenReturn(true);
-        when(passwordResetTokenRepository.getByToken(any())).thenReturn(dummyPasswordResetToken);
-        when(passwordResetTokenRepository.save(any())).thenReturn(dummyPasswordResetToken);
+        when(passwordResetTokenRepository.consume("DIBWA213Nw_dW31Ad3DAO9WD213", Date.from(NOW.minus(Duration.ofHours(1))))).thenReturn(1);
+        when(passwordResetTokenRepository.findUserByToken(any())).thenReturn(dummySupervisor);
         when(supervisorService.update(any())).thenReturn(dummySupervisor);
 
         Supervisor actual = (Supervisor) passwordResetService.resetPassword(new PasswordResetTokenDto("DIBWA213Nw_dW31Ad3DAO9WD213", "testPassword"));
@@ -114,10 +122,8 @@ public class PasswordResetServiceTest {
     @Test
     public void testResetPassword_student_valid() throws IdDoesNotExistException, DoesNotExistException, UnusableTokenException {
         Student dummyStudent = getDummyStudent();
-        PasswordResetToken dummyPasswordResetToken = getDummyPasswordResetToken(dummyStudent);
-        when(passwordResetTokenRepository.existsByToken(any())).thenReturn(true);
-        when(passwordResetTokenRepository.getByToken(any())).thenReturn(dummyPasswordResetToken);
-        when(passwordResetTokenRepository.save(any())).thenReturn(dummyPasswordResetToken);
+        when(passwordResetTokenRepository.consume("DIBWA213Nw_dW31Ad3DAO9WD213", Date.from(NOW.minus(Duration.ofHours(1))))).thenReturn(1);
+        when(passwordResetTokenRepository.findUserByToken(any())).thenReturn(dummyStudent);
         when(studentService.update(any())).thenReturn(dummyStudent);
 
         Student actual = (Student) passwordResetService.resetPassword(new PasswordResetTokenDto("DIBWA213Nw_dW31Ad3DAO9WD213", "testPassword"));
@@ -127,6 +133,7 @@ public class PasswordResetServiceTest {
 
     @Test
     public void testResetPassword_whenTokenDoesNotExist() {
+        when(passwordResetTokenRepository.consume(any(), any())).thenReturn(0);
         when(passwordResetTokenRepository.existsByToken(any())).thenReturn(false);
 
         assertThrows(DoesNotExistException.class,
@@ -136,14 +143,36 @@ public class PasswordResetServiceTest {
 
     @Test
     public void testResetPassword_whenTokenUnusable() {
+        when(passwordResetTokenRepository.consume(any(), any())).thenReturn(0);
         when(passwordResetTokenRepository.existsByToken(any())).thenReturn(true);
-        when(passwordResetTokenRepository.existsByTokenAndUnusableTrue(any())).thenReturn(true);
 
         assertThrows(UnusableTokenException.class,
                 () -> passwordResetService.resetPassword(new PasswordResetTokenDto("DIBWA213Nw_dW31Ad3DAO9WD213", "testPassword")),
                 "Le token n'est plus utilisable");
     }
 
+    @Test
+    public void testResetPassword_withNullPassword() {
+        assertThrows(IllegalArgumentException.class,
+                () -> passwordResetService.resetPassword(new PasswordResetTokenDto("DIBWA213Nw_dW31Ad3DAO9WD213", null)));
+        verify(passwordResetTokenRepository, never()).consume(any(), any());
+    }
+
+    @Test
+    public void testPurgeTokens() {
+        Date expired = Date.from(NOW.minus(Duration.ofHours(1)));
+        when(passwordResetTokenRepository.findAllIdsCreatedUntil(eq(expired), any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(passwordResetTokenRepository.findAllUnusableIds(any()))
+                .thenReturn(List.of());
+
+        int purged = passwordResetService.purgeTokens();
+
+        assertThat(purged).isEqualTo(3);
+        verify(passwordResetTokenRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(passwordResetTokenRepository).deleteAllByIdInBatch(List.of(3L));
+    }
+
     private PasswordResetToken getDummyPasswordResetToken(User user) {
         PasswordResetToken dummyPasswordResetToken = new PasswordResetToken();
         dummyPasswordResetToken.setId(1L);
@@ -0,0 +1,106 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.PasswordResetTokenDto;
+import com.gestionnaire_de_stage.exception.UnusableTokenException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The reset commits its own transaction, the test does not wrap it in one
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PasswordResetService.class, MonitorService.class, IdentifierIndexService.class, PasswordResetTransactionTest.ClockConfiguration.class})
+public class PasswordResetTransactionTest {
+
+    private static final String TOKEN = "DIBWA213Nw_dW31Ad3DAO9WD213";
+
+    @TestConfiguration
+    static class ClockConfiguration {
+        @Bean
+        public Clock clock() {
+            return Clock.systemUTC();
+        }
+    }
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private StudentService studentService;
+
+    @MockBean
+    private SupervisorService supervisorService;
+
+    @MockBean
+    private MailQueueService mailQueueService;
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate.update("INSERT INTO users (id, role, email, first_name, last_name, password) " +
+                "VALUES (1, 'MONITOR', 'monitor@desjardins.com', 'Prénom', 'Nom', 'Password1')");
+        jdbcTemplate.update("INSERT INTO monitor (id, department) VALUES (1, 'Informatique')");
+        jdbcTemplate.update("INSERT INTO password_reset_token (id, token, user_id, unusable, created) VALUES (1, ?, 1, false, ?)",
+                TOKEN, Timestamp.from(Instant.now()));
+    }
+
+    @AfterEach
+    void clean() {
+        jdbcTemplate.update("DELETE FROM password_reset_token");
+        jdbcTemplate.update("DELETE FROM monitor");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    public void testResetPassword_withRejectedPasswordKeepsToken() throws Exception {
+        assertThrows(RuntimeException.class,
+                () -> passwordResetService.resetPassword(new PasswordResetTokenDto(TOKEN, "court")));
+
+        assertThat(isUnusable()).isFalse();
+        assertThat(password()).isEqualTo("Password1");
+
+        passwordResetService.resetPassword(new PasswordResetTokenDto(TOKEN, "NouveauPassword1"));
+
+        assertThat(isUnusable()).isTrue();
+        assertThat(password()).isEqualTo("NouveauPassword1");
+    }
+
+    @Test
+    public void testResetPassword_twice() throws Exception {
+        passwordResetService.resetPassword(new PasswordResetTokenDto(TOKEN, "NouveauPassword1"));
+
+        assertThrows(UnusableTokenException.class,
+                () -> passwordResetService.resetPassword(new PasswordResetTokenDto(TOKEN, "AutrePassword1")));
+        assertThat(password()).isEqualTo("NouveauPassword1");
+    }
+
+    private boolean isUnusable() {
+        return jdbcTemplate.queryForObject("SELECT unusable FROM password_reset_token WHERE token = ?", Boolean.class, TOKEN);
+    }
+
+    private String password() {
+        return jdbcTemplate.queryForObject("SELECT password FROM users WHERE id = 1", String.class);
+    }
+}
@@ -0,0 +1,99 @@
+package com.gestionnaire_de_stage.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PdfRenderingEngineTest {
+
+    private PdfRenderingEngine pdfRenderingEngine;
+
+    @Mock
+    private TemplateEngine templateEngine;
+
+    @BeforeEach
+    void init() {
+        pdfRenderingEngine = new PdfRenderingEngine(templateEngine, true);
+    }
+
+    @Test
+    public void testProcessTemplate() {
+        when(templateEngine.process(eq("evalStagiaire"), any(IContext.class))).thenReturn("<p>Évaluation</p>");
+
+        String html = pdfRenderingEngine.processTemplate("evalStagiaire", Map.of("formInfo", "info"));
+
+        ArgumentCaptor<IContext> captor = ArgumentCaptor.forClass(IContext.class);
+        verify(templateEngine).process(eq("evalStagiaire"), captor.capture());
+        assertThat(html).isEqualTo("<p>Évaluation</p>");
+        assertThat(captor.getValue().getVariable("formInfo")).isEqualTo("info");
+    }
+
+    @Test
+    public void testProcessTemplate_withNullTemplate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> pdfRenderingEngine.processTemplate(null, Map.of()));
+    }
+
+    @Test
+    public void testConvertToPdf() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        pdfRenderingEngine.convertToPdf("<h1 style='font-family:\"Univers\",sans-serif'>Contrat</h1>", baos);
+
+        assertThat(new String(baos.toByteArray(), 0, 5, StandardCharsets.US_ASCII)).isEqualTo("%PDF-");
+    }
+
+    @Test
+    public void testConvertToPdf_withNullHtml() {
+        assertThrows(IllegalArgumentException.class,
+                () -> pdfRenderingEngine.convertToPdf(null, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void testConvertToPdf_concurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    pdfRenderingEngine.convertToPdf("<p><b>Contrat " + index + "</b> <i>signé</i></p>", baos);
+                    return baos.toByteArray();
+                }));
+            }
+
+            for (Future<byte[]> future : futures)
+                assertThat(new String(future.get(), 0, 5, StandardCharsets.US_ASCII)).isEqualTo("%PDF-");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWarmUp() {
+        pdfRenderingEngine.warmUp();
+    }
+}
@@ -0,0 +1,256 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.dto.PlacementCandidateDTO;
+import com.gestionnaire_de_stage.dto.PlacementDTO;
+import com.gestionnaire_de_stage.dto.PlacementPlanDTO;
+import com.gestionnaire_de_stage.enums.Status;
+import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
+import com.gestionnaire_de_stage.model.OfferApplication;
+import com.gestionnaire_de_stage.repository.OfferApplicationRepository;
+import com.gestionnaire_de_stage.repository.SessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Slf4j(topic = "PlacementServiceTest")
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class PlacementServiceTest {
+
+    private static final Long SESSION_ID = 1L;
+
+    private PlacementService placementService;
+
+    @Mock
+    private OfferApplicationRepository offerApplicationRepository;
+
+    @Mock
+    private SessionRepository sessionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<PlacementCandidateDTO> candidates = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        placementService = new PlacementService(offerApplicationRepository, sessionRepository, transactionManager);
+        when(sessionRepository.existsById(SESSION_ID)).thenReturn(true);
+        when(offerApplicationRepository.findAllPlacementCandidates(eq(SESSION_ID), any())).thenReturn(candidates);
+    }
+
+    @Test
+    public void testPropose_withPreferencesAndPlaces() throws Exception {
+        candidate(1L, 1L, 10L, 1, Status.EN_ATTENTE_REPONSE, 1, 3);
+        candidate(2L, 1L, 20L, 2, Status.EN_ATTENTE_REPONSE, 2, null);
+        candidate(3L, 2L, 10L, 1, Status.STAGE_TROUVE, 1, 1);
+        candidate(4L, 2L, 20L, 2, Status.EN_ATTENTE_REPONSE, 2, null);
+        candidate(5L, 3L, 10L, 1, Status.EN_ATTENTE_REPONSE, 1, 2);
+
+        PlacementPlanDTO plan = placementService.propose(SESSION_ID);
+
+        // Offer 10 prefers student 2, student 1 gets their second choice and student 3 nothing
+        assertThat(statuses(plan)).containsExactly(
+                Map.entry(1L, Status.STAGE_REFUSE),
+                Map.entry(2L, Status.STAGE_TROUVE),
+                Map.entry(3L, Status.STAGE_TROUVE),
+                Map.entry(4L, Status.STAGE_REFUSE),
+                Map.entry(5L, Status.STAGE_REFUSE));
+        assertThat(plan.getPlacedStudents()).isEqualTo(2);
+        assertThat(plan.getUnplacedStudents()).isEqualTo(1);
+        assertThat(plan.getPlacements().get(2).getCurrentStatus()).isEqualTo(Status.STAGE_TROUVE);
+    }
+
+    @Test
+    public void testPropose_withoutPreferences() throws Exception {
+        candidate(1L, 1L, 10L, null, Status.EN_ATTENTE_REPONSE, null, null);
+        candidate(2L, 2L, 20L, null, Status.EN_ATTENTE_REPONSE, null, null);
+        candidate(3L, 2L, 10L, null, Status.EN_ATTENTE_REPONSE, null, null);
+        candidate(4L, 1L, 20L, null, Status.EN_ATTENTE_REPONSE, null, null);
+
+        PlacementPlanDTO plan = placementService.propose(SESSION_ID);
+
+        // The first application of a student is their choice, the first applicant is the choice of the monitor
+        assertThat(statuses(plan)).containsExactly(
+                Map.entry(1L, Status.STAGE_TROUVE),
+                Map.entry(2L, Status.STAGE_TROUVE),
+                Map.entry(3L, Status.STAGE_REFUSE),
+                Map.entry(4L, Status.STAGE_REFUSE));
+    }
+
+    @Test
+    public void testPropose_withContractInSignature() throws Exception {
+        candidate(1L, 1L, 10L, 1, Status.EN_SIGNATURE, null, null);
+        candidate(2L, 1L, 20L, 1, Status.STAGE_TROUVE, null, null);
+        candidate(3L, 2L, 10L, 1, Status.EN_ATTENTE_REPONSE, null, 1);
+
+        PlacementPlanDTO plan = placementService.propose(SESSION_ID);
+
+        assertThat(statuses(plan)).containsExactly(Map.entry(3L, Status.STAGE_REFUSE));
+        assertThat(plan.getUnplacedStudents()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPropose_withInvalidSession() {
+        assertThrows(IllegalArgumentException.class, () -> placementService.propose(null));
+        assertThrows(IdDoesNotExistException.class, () -> placementService.propose(2L));
+    }
+
+    @Test
+    public void testPropose_isStable() throws Exception {
+        Random random = new Random(7);
+        long id = 1;
+        for (long student = 1; student <= 300; student++) {
+            Set<Long> offers = new HashSet<>();
+            while (offers.size() < 4)
+                offers.add(1L + random.nextInt(80));
+            for (Long offer : offers)
+                candidate(id++, student, offer, 1 + (int) (offer % 3), Status.EN_ATTENTE_REPONSE,
+                        random.nextInt(5) == 0 ? null : 1 + random.nextInt(4), random.nextInt(3) == 0 ? null : 1 + random.nextInt(10));
+        }
+
+        PlacementPlanDTO plan = placementService.propose(SESSION_ID);
+
+        assertNoBlockingPair(plan);
+    }
+
+    @Test
+    public void benchmarkPropose() throws Exception {
+        Random random = new Random(42);
+        int studentCount = 5_000, offerCount = 1_000;
+        long id = 1;
+        for (long student = 1; student <= studentCount; student++) {
+            Set<Long> offers = new HashSet<>();
+            while (offers.size() < 8)
+                offers.add(1L + random.nextInt(offerCount));
+            for (Long offer : offers)
+                candidate(id++, student, offer, 1 + random.nextInt(4), Status.EN_ATTENTE_REPONSE,
+                        1 + random.nextInt(8), 1 + random.nextInt(50));
+        }
+
+        long start = System.nanoTime();
+        PlacementPlanDTO plan = placementService.propose(SESSION_ID);
+        log.info("Placed {} of {} students over {} applications in {} ms", plan.getPlacedStudents(), studentCount,
+                candidates.size(), (System.nanoTime() - start) / 1_000_000);
+
+        assertThat(plan.getPlacements()).hasSize(candidates.size());
+    }
+
+    @Test
+    public void testApply() {
+        OfferApplication found = offerApplication(1L, Status.EN_ATTENTE_REPONSE);
+        OfferApplication refused = offerApplication(2L, Status.EN_ATTENTE_REPONSE);
+        OfferApplication unchanged = offerApplication(3L, Status.STAGE_TROUVE);
+        when(offerApplicationRepository.findAllByIdInAndSession_Id(any(), eq(SESSION_ID))).thenReturn(List.of(found, refused, unchanged));
+        PlacementPlanDTO plan = new PlacementPlanDTO(SESSION_ID, List.of(
+                new PlacementDTO(1L, 1L, 10L, Status.EN_ATTENTE_REPONSE, Status.STAGE_TROUVE),
+                new PlacementDTO(2L, 1L, 20L, Status.EN_ATTENTE_REPONSE, Status.STAGE_REFUSE),
+                new PlacementDTO(3L, 2L, 20L, Status.STAGE_TROUVE, Status.STAGE_TROUVE)), 2, 0);
+
+        int updated = placementService.apply(SESSION_ID, plan);
+
+        ArgumentCaptor<List<OfferApplication>> saved = ArgumentCaptor.forClass(List.class);
+        verify(offerApplicationRepository).saveAll(saved.capture());
+        assertThat(updated).isEqualTo(2);
+        assertThat(saved.getValue()).containsExactly(found, refused);
+        assertThat(found.getStatus()).isEqualTo(Status.STAGE_TROUVE);
+        assertThat(refused.getStatus()).isEqualTo(Status.STAGE_REFUSE);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testApply_withChangedApplication() {
+        OfferApplication offerApplication = offerApplication(1L, Status.STAGE_REFUSE);
+        when(offerApplicationRepository.findAllByIdInAndSession_Id(any(), eq(SESSION_ID))).thenReturn(List.of(offerApplication));
+        PlacementPlanDTO plan = new PlacementPlanDTO(SESSION_ID, List.of(
+                new PlacementDTO(1L, 1L, 10L, Status.EN_ATTENTE_REPONSE, Status.STAGE_TROUVE),
+                new PlacementDTO(2L, 2L, 10L, Status.EN_ATTENTE_REPONSE, Status.STAGE_REFUSE)), 1, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> placementService.apply(SESSION_ID, plan));
+        verify(offerApplicationRepository, never()).saveAll(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    public void testApply_withInvalidPlan() {
+        PlacementPlanDTO twoInternships = new PlacementPlanDTO(SESSION_ID, List.of(
+                new PlacementDTO(1L, 1L, 10L, Status.EN_ATTENTE_REPONSE, Status.STAGE_TROUVE),
+                new PlacementDTO(2L, 1L, 20L, Status.EN_ATTENTE_REPONSE, Status.STAGE_TROUVE)), 1, 0);
+        PlacementPlanDTO signature = new PlacementPlanDTO(SESSION_ID, List.of(
+                new PlacementDTO(1L, 1L, 10L, Status.STAGE_TROUVE, Status.EN_SIGNATURE)), 1, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> placementService.apply(SESSION_ID, null));
+        assertThrows(IllegalArgumentException.class, () -> placementService.apply(2L, twoInternships));
+        assertThrows(IllegalArgumentException.class, () -> placementService.apply(SESSION_ID, twoInternships));
+        assertThrows(IllegalArgumentException.class, () -> placementService.apply(SESSION_ID, signature));
+        verify(offerApplicationRepository, never()).findAllByIdInAndSession_Id(any(), anyLong());
+    }
+
+    private void candidate(Long id, Long studentId, Long offerId, Integer capacity, Status status, Integer studentRank, Integer monitorRank) {
+        candidates.add(new PlacementCandidateDTO(id, studentId, offerId, capacity, status, studentRank, monitorRank));
+    }
+
+    private Map<Long, Status> statuses(PlacementPlanDTO plan) {
+        return plan.getPlacements().stream()
+                .collect(Collectors.toMap(PlacementDTO::getOfferApplicationId, PlacementDTO::getStatus, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    // No student and offer prefer each other to what the plan gives them
+    private void assertNoBlockingPair(PlacementPlanDTO plan) {
+        Map<Long, PlacementCandidateDTO> byId = candidates.stream()
+                .collect(Collectors.toMap(PlacementCandidateDTO::getOfferApplicationId, candidate -> candidate));
+        Map<Long, PlacementCandidateDTO> placedStudents = new HashMap<>();
+        Map<Long, List<PlacementCandidateDTO>> placedOffers = new HashMap<>();
+        plan.getPlacements().stream()
+                .filter(placement -> placement.getStatus() == Status.STAGE_TROUVE)
+                .map(placement -> byId.get(placement.getOfferApplicationId()))
+                .forEach(candidate -> {
+                    assertThat(placedStudents.put(candidate.getStudentId(), candidate)).isNull();
+                    placedOffers.computeIfAbsent(candidate.getOfferId(), offer -> new ArrayList<>()).add(candidate);
+                });
+        placedOffers.forEach((offer, placed) -> assertThat(placed.size()).isLessThanOrEqualTo(placed.get(0).getCapacity()));
+
+        for (PlacementCandidateDTO candidate : candidates) {
+            PlacementCandidateDTO current = placedStudents.get(candidate.getStudentId());
+            if (current == candidate)
+                continue;
+            boolean studentPrefers = current == null || studentKey(candidate) < studentKey(current);
+            List<PlacementCandidateDTO> placed = placedOffers.getOrDefault(candidate.getOfferId(), List.of());
+            boolean offerPrefers = placed.size() < candidate.getCapacity()
+                    || placed.stream().anyMatch(other -> offerKey(candidate) < offerKey(other));
+            assertThat(studentPrefers && offerPrefers).as("Paire bloquante %d", candidate.getOfferApplicationId()).isFalse();
+        }
+    }
+
+    private long studentKey(PlacementCandidateDTO candidate) {
+        return (candidate.getStudentRank() == null ? (long) Integer.MAX_VALUE : candidate.getStudentRank()) << 32 | candidate.getOfferApplicationId();
+    }
+
+    private long offerKey(PlacementCandidateDTO candidate) {
+        return (candidate.getMonitorRank() == null ? (long) Integer.MAX_VALUE : candidate.getMonitorRank()) << 32 | candidate.getOfferApplicationId();
+    }
+
+    private OfferApplication offerApplication(Long id, Status status) {
+        OfferApplication offerApplication = new OfferApplication();
+        offerApplication.setId(id);
+        offerApplication.setStatus(status);
+        return offerApplication;
+    }
+}
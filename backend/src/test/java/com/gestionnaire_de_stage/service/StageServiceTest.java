@@ -1,5 +1,7 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.dto.StageSummaryDTO;
+import com.gestionnaire_de_stage.dto.StoredDocumentDTO;
 import com.gestionnaire_de_stage.exception.EvaluationAlreadyFilledException;
 import com.gestionnaire_de_stage.exception.StageDoesNotExistException;
 import com.gestionnaire_de_stage.model.Contract;
@@ -30,11 +32,14 @@ public class StageServiceTest {
     @Mock
     private StageRepository stageRepository;
 
+    @Mock
+    private DocumentStore documentStore;
+
     @Test
     public void testCreate_withValidEntries() throws Exception {
         Stage dummyStage = getDummyStage();
-        when(stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageNotNull(any())).thenReturn(false);
-        when(stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageNull(any())).thenReturn(false);
+        when(stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageHashNotNull(any())).thenReturn(false);
+        when(stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageHashNull(any())).thenReturn(false);
         when(stageRepository.save(any())).thenReturn(dummyStage);
 
         Stage actualStage = stageService.create(dummyStage, getDummyStudent().getMatricule());
@@ -51,7 +56,7 @@ public class StageServiceTest {
 
     @Test
     public void testCreate_withInvalidStage() {
-        when(stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageNotNull(any())).thenReturn(true);
+        when(stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageHashNotNull(any())).thenReturn(true);
 
         assertThrows(EvaluationAlreadyFilledException.class,
                 () -> stageService.create(getDummyStage(), getDummyStudent().getMatricule()));
@@ -60,8 +65,8 @@ public class StageServiceTest {
     @Test
     public void testCreate_withExistingStagewithoutEval() throws Exception {
         Stage dummyStage = getDummyStage();
-        when(stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageNotNull(any())).thenReturn(false);
-        when(stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageNull(any())).thenReturn(true);
+        when(stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageHashNotNull(any())).thenReturn(false);
+        when(stageRepository.existsByContract_StudentMatriculeAndEvalMilieuStageHashNull(any())).thenReturn(true);
         when(stageRepository.getStageByContractStudentMatricule(any())).thenReturn(dummyStage);
         when(stageRepository.save(any())).thenReturn(dummyStage);
 
@@ -75,11 +80,14 @@ public class StageServiceTest {
     public void testAddEvalMilieuStage_withValidEntries() throws Exception {
         Stage dummyStage = getDummyStage();
         when(stageRepository.existsById(any())).thenReturn(true);
-        when(stageRepository.save(any())).thenReturn(dummyStage);
+        when(documentStore.store(any())).thenReturn(new StoredDocumentDTO("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08", 4L));
+        when(stageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         Stage actualStage = stageService.addEvalMilieuStage(dummyStage, new ByteArrayOutputStream());
 
         assertThat(actualStage.getId()).isGreaterThan(0);
+        assertThat(actualStage.getEvalMilieuStageHash()).isEqualTo("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        assertThat(actualStage.getEvalMilieuStageSize()).isEqualTo(4L);
     }
 
     @Test
@@ -101,7 +109,7 @@ public class StageServiceTest {
         Stage dummyStage = getDummyStage();
         String dummyEmail = "like@email.com";
         when(stageRepository.existsByContract_StudentEmail(any())).thenReturn(true);
-        when(stageRepository.existsByContract_StudentEmailAndEvalStagiaireNotNull(any())).thenReturn(false);
+        when(stageRepository.existsByContract_StudentEmailAndEvalStagiaireHashNotNull(any())).thenReturn(false);
         when(stageRepository.getByContract_StudentEmail(any())).thenReturn(dummyStage);
 
         Stage actualStage = stageService.getStageByStudentEmail(dummyEmail);
@@ -128,7 +136,7 @@ public class StageServiceTest {
     public void testGetStageByStudentEmail_withEvaluationAlreadyFilled() {
         String dummyEmail = "like@email.com";
         when(stageRepository.existsByContract_StudentEmail(any())).thenReturn(true);
-        when(stageRepository.existsByContract_StudentEmailAndEvalStagiaireNotNull(any())).thenReturn(true);
+        when(stageRepository.existsByContract_StudentEmailAndEvalStagiaireHashNotNull(any())).thenReturn(true);
 
         assertThrows(EvaluationAlreadyFilledException.class,
                 () -> stageService.getStageByStudentEmail(dummyEmail));
@@ -138,11 +146,14 @@ public class StageServiceTest {
     public void testAddEvalStagiaire_withValidEntries() throws Exception {
         Stage dummyStage = getDummyStage();
         when(stageRepository.existsById(any())).thenReturn(true);
-        when(stageRepository.save(any())).thenReturn(dummyStage);
+        when(documentStore.store(any())).thenReturn(new StoredDocumentDTO("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08", 4L));
+        when(stageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         Stage actualStage = stageService.addEvalStagiaire(dummyStage, new ByteArrayOutputStream());
 
         assertThat(actualStage.getId()).isGreaterThan(0);
+        assertThat(actualStage.getEvalStagiaireHash()).isEqualTo("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        assertThat(actualStage.getEvalStagiaireSize()).isEqualTo(4L);
     }
 
     @Test
@@ -163,7 +174,7 @@ public class StageServiceTest {
     @Test
     public void testGetAllWithNoEvalMilieu() {
         List<Stage> stageList = getDummyStageList();
-        when(stageRepository.getAllByEvalMilieuStageIsNull()).thenReturn(stageList);
+        when(stageRepository.getAllByEvalMilieuStageHashIsNull()).thenReturn(stageList);
 
         List<Stage> actualStageList = stageService.getAllWithNoEvalMilieu();
 
@@ -173,7 +184,7 @@ public class StageServiceTest {
     @Test
     public void testGetAllWithNoEvalStagiaire() {
         List<Stage> stageList = getDummyStageList();
-        when(stageRepository.getAllByEvalStagiaireIsNull()).thenReturn(stageList);
+        when(stageRepository.getAllByEvalStagiaireHashIsNull()).thenReturn(stageList);
 
         List<Stage> actualStageList = stageService.getAllWithNoEvalStagiaire();
 
@@ -189,19 +200,19 @@ public class StageServiceTest {
 
     @Test
     public void testGetAllStageForMonitor_withExistentId(){
-        List<Stage> stageList = getDummyStageList();
-        when(stageRepository.getAllByEvalStagiaireNotNullAndContract_Monitor_Id(any())).thenReturn(stageList);
+        List<StageSummaryDTO> stageList = getDummyStageSummaryList();
+        when(stageRepository.findAllSummariesWithEvalStagiaireByMonitorId(any())).thenReturn(stageList);
 
-        List<Stage> actualStageList = stageService.getAllEvaluationsForMonitor(1L);
+        List<StageSummaryDTO> actualStageList = stageService.getAllEvaluationsForMonitor(1L);
 
         assertThat(actualStageList).isEqualTo(stageList);
     }
 
     @Test
     public void testGetAllStageForMonitor_withNonExistentId(){
-        when(stageRepository.getAllByEvalStagiaireNotNullAndContract_Monitor_Id(any())).thenReturn(Collections.emptyList());
+        when(stageRepository.findAllSummariesWithEvalStagiaireByMonitorId(any())).thenReturn(Collections.emptyList());
 
-        List<Stage> actualStageList = stageService.getAllEvaluationsForMonitor(1L);
+        List<StageSummaryDTO> actualStageList = stageService.getAllEvaluationsForMonitor(1L);
 
         assertThat(actualStageList).isEmpty();
     }
@@ -215,23 +226,31 @@ public class StageServiceTest {
 
     @Test
     public void testGetAllStageForSupervisor_withExistentId(){
-        List<Stage> stageList = getDummyStageList();
-        when(stageRepository.getAllByEvalMilieuStageNotNullAndContract_Student_Supervisor_Id(any())).thenReturn(stageList);
+        List<StageSummaryDTO> stageList = getDummyStageSummaryList();
+        when(stageRepository.findAllSummariesWithEvalMilieuStageBySupervisorId(any())).thenReturn(stageList);
 
-        List<Stage> actualStageList = stageService.getAllEvaluationsForSupervisor(1L);
+        List<StageSummaryDTO> actualStageList = stageService.getAllEvaluationsForSupervisor(1L);
 
         assertThat(actualStageList).isEqualTo(stageList);
     }
 
     @Test
     public void testGetAllStageForSupervisor_withNonExistentId(){
-        when(stageRepository.getAllByEvalMilieuStageNotNullAndContract_Student_Supervisor_Id(any())).thenReturn(Collections.emptyList());
+        when(stageRepository.findAllSummariesWithEvalMilieuStageBySupervisorId(any())).thenReturn(Collections.emptyList());
 
-        List<Stage> actualStageList = stageService.getAllEvaluationsForSupervisor(1L);
+        List<StageSummaryDTO> actualStageList = stageService.getAllEvaluationsForSupervisor(1L);
 
         assertThat(actualStageList).isEmpty();
     }
 
+    private List<StageSummaryDTO> getDummyStageSummaryList() {
+        StageSummaryDTO stage1 = new StageSummaryDTO();
+        stage1.setId(1L);
+        StageSummaryDTO stage2 = new StageSummaryDTO();
+        stage2.setId(2L);
+        return List.of(stage1, stage2);
+    }
+
     private List<Stage> getDummyStageList() {
         Stage stage1 = getDummyStage();
         Stage stage2 = getDummyStage();
@@ -1,16 +1,19 @@
 package com.gestionnaire_de_stage.service;
 
+import com.gestionnaire_de_stage.enums.UserIdentifier;
 import com.gestionnaire_de_stage.exception.*;
 import com.gestionnaire_de_stage.model.Curriculum;
 import com.gestionnaire_de_stage.model.Student;
 import com.gestionnaire_de_stage.model.Supervisor;
 import com.gestionnaire_de_stage.repository.CurriculumRepository;
 import com.gestionnaire_de_stage.repository.StudentRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -31,17 +34,29 @@ public class StudentServiceTest {
     CurriculumRepository curriculumRepository;
     @Mock
     CurriculumService curriculumService;
+    @Mock
+    IdentifierIndexService identifierIndexService;
 
     @Test
     public void testCreate_withValidStudent() throws Exception {
         Student dummyStudent = getDummyStudent();
-        when(studentRepository.existsByEmail(any())).thenReturn(false);
-        when(studentRepository.existsByMatricule(any())).thenReturn(false);
-        when(studentRepository.save(any())).thenReturn(dummyStudent);
+        when(studentRepository.saveAndFlush(any())).thenReturn(dummyStudent);
 
         Student actualStudent = studentService.create(dummyStudent);
 
         assertThat(actualStudent.getFirstName()).isEqualTo(dummyStudent.getFirstName());
+        verify(identifierIndexService).add(UserIdentifier.EMAIL, dummyStudent.getEmail());
+        verify(identifierIndexService).add(UserIdentifier.STUDENT_MATRICULE, dummyStudent.getMatricule());
+    }
+
+    @Test
+    public void testIsMatriculeValid_answeredByIndex() {
+        when(identifierIndexService.exists(UserIdentifier.STUDENT_MATRICULE, "1740934")).thenReturn(true);
+
+        boolean matriculeValid = studentService.isMatriculeValid("1740934");
+
+        assertThat(matriculeValid).isTrue();
+        verifyNoInteractions(studentRepository);
     }
 
 
@@ -53,6 +68,7 @@ public class StudentServiceTest {
 
     @Test
     public void testCreate_alreadyExistsStudent() {
+        when(studentRepository.saveAndFlush(any())).thenThrow(DataIntegrityViolationException.class);
         when(studentRepository.existsByEmail(any())).thenReturn(true);
 
         assertThrows(StudentAlreadyExistsException.class,
@@ -61,12 +77,31 @@ public class StudentServiceTest {
 
     @Test
     public void testCreate_alreadyExistsMatricule() {
+        when(studentRepository.saveAndFlush(any())).thenThrow(DataIntegrityViolationException.class);
         when(studentRepository.existsByMatricule(any())).thenReturn(true);
 
         assertThrows(StudentAlreadyExistsException.class,
                 () -> studentService.create(getDummyStudent()));
     }
 
+    @Test
+    public void testCreate_emailOfAnotherRole() {
+        when(studentRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("Duplicate",
+                new ConstraintViolationException("Duplicate", null, "PUBLIC.UK_USERS_EMAIL_INDEX_4")));
+
+        StudentAlreadyExistsException exception = assertThrows(StudentAlreadyExistsException.class,
+                () -> studentService.create(getDummyStudent()));
+        assertThat(exception.getMessage()).isEqualTo("Ce courriel est déjà utilisé par un autre compte");
+    }
+
+    @Test
+    public void testCreate_withOtherViolation() {
+        when(studentRepository.saveAndFlush(any())).thenThrow(DataIntegrityViolationException.class);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> studentService.create(getDummyStudent()));
+    }
+
     @Test
     public void testGetByID_withValidID() throws Exception {
         Long validID = 1L;
@@ -160,42 +195,6 @@ public class StudentServiceTest {
                 () -> studentService.deleteByID(id));
     }
 
-    @Test
-    public void testStudentByEmailAndPassword_withValidEntries() throws EmailAndPasswordDoesNotExistException {
-        Student dummyStudent = getDummyStudent();
-        when(studentRepository.existsByEmailAndPassword(any(), any())).thenReturn(true);
-        when(studentRepository.findStudentByEmailAndPassword(any(), any())).thenReturn(dummyStudent);
-
-        Student actualStudent = studentService.getOneByEmailAndPassword(dummyStudent.getEmail(), dummyStudent.getPassword());
-
-        assertThat(actualStudent.getFirstName()).isEqualTo(dummyStudent.getFirstName());
-    }
-
-    @Test
-    public void testStudentByEmailAndPassword_withNullEmail() {
-        Student dummyStudent = getDummyStudent();
-
-        assertThrows(IllegalArgumentException.class,
-                () -> studentService.getOneByEmailAndPassword(null, dummyStudent.getPassword()));
-    }
-
-    @Test
-    public void testStudentByEmailAndPassword_withNullPassword() {
-        Student dummyStudent = getDummyStudent();
-
-        assertThrows(IllegalArgumentException.class,
-                () -> studentService.getOneByEmailAndPassword(dummyStudent.getEmail(), null));
-    }
-
-    @Test
-    public void testStudentByEmailAndPassword_doesntExistEmailAndPassword() {
-        Student dummyStudent = getDummyStudent();
-        when(studentRepository.existsByEmailAndPassword(any(), any())).thenReturn(false);
-
-        assertThrows(EmailAndPasswordDoesNotExistException.class,
-                () -> studentService.getOneByEmailAndPassword(dummyStudent.getEmail(), dummyStudent.getPassword()));
-    }
-
 
     @Test
     public void testGetAllStudents() {
@@ -367,7 +366,7 @@ public class StudentServiceTest {
         Curriculum curriculum = new Curriculum();
         curriculum.setId(1L);
         curriculum.setIsValid(true);
-        curriculum.setData("test".getBytes());
+        curriculum.setDataHash("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
         curriculum.setName("filename");
         curriculum.setName("pdffff");
         return curriculum;
@@ -1,8 +1,8 @@
 package com.gestionnaire_de_stage.service;
 
 import com.gestionnaire_de_stage.enums.Status;
+import com.gestionnaire_de_stage.enums.UserIdentifier;
 import com.gestionnaire_de_stage.exception.DoesNotExistException;
-import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
 import com.gestionnaire_de_stage.exception.IdDoesNotExistException;
 import com.gestionnaire_de_stage.exception.SupervisorAlreadyExistsException;
 import com.gestionnaire_de_stage.model.Curriculum;
@@ -36,12 +36,25 @@ public class SupervisorServiceTest {
     @Mock
     private OfferApplicationService offerApplicationService;
 
+    @Mock
+    private IdentifierIndexService identifierIndexService;
+
+    @Test
+    public void testIsEmailInvalid_answeredByIndex() {
+        when(identifierIndexService.exists(UserIdentifier.EMAIL, "keyh@gmail.com")).thenReturn(false);
+
+        boolean emailInvalid = supervisorService.isEmailInvalid("keyh@gmail.com");
+
+        assertThat(emailInvalid).isTrue();
+        verifyNoInteractions(supervisorRepository);
+    }
+
     @Test
     public void testCreate_withValidSupervisor() throws SupervisorAlreadyExistsException {
         Supervisor dummySupervisor = getDummySupervisor();
         when(supervisorRepository.existsByEmail(any())).thenReturn(false);
         when(supervisorRepository.existsByMatricule(any())).thenReturn(false);
-        when(supervisorRepository.save(any())).thenReturn(dummySupervisor);
+        when(supervisorRepository.saveAndFlush(any())).thenReturn(dummySupervisor);
 
         Supervisor actualSupervisor = supervisorService.create(dummySupervisor);
 
@@ -146,42 +159,6 @@ public class SupervisorServiceTest {
                 () -> supervisorService.deleteByID(id));
     }
 
-    @Test
-    public void testSupervisorByEmailAndPassword_withValidEntries() throws EmailAndPasswordDoesNotExistException {
-        Supervisor dummySupervisor = getDummySupervisor();
-        when(supervisorRepository.existsByEmailAndPassword(dummySupervisor.getEmail(), dummySupervisor.getPassword())).thenReturn(true);
-        when(supervisorRepository.findSupervisorByEmailAndPassword(dummySupervisor.getEmail(), dummySupervisor.getPassword())).thenReturn(dummySupervisor);
-
-        Supervisor actualSupervisor = supervisorService.getOneByEmailAndPassword(dummySupervisor.getEmail(), dummySupervisor.getPassword());
-
-        assertThat(actualSupervisor.getMatricule()).isEqualTo(dummySupervisor.getMatricule());
-    }
-
-    @Test
-    public void testSupervisorByEmailAndPassword_withNullEmail() {
-        Supervisor dummySupervisor = getDummySupervisor();
-
-        assertThrows(IllegalArgumentException.class,
-                () -> supervisorService.getOneByEmailAndPassword(null, dummySupervisor.getPassword()));
-    }
-
-    @Test
-    public void testSupervisorByEmailAndPassword_withNullPassword() {
-        Supervisor dummySupervisor = getDummySupervisor();
-
-        assertThrows(IllegalArgumentException.class,
-                () -> supervisorService.getOneByEmailAndPassword(dummySupervisor.getEmail(), null));
-    }
-
-    @Test
-    public void testSupervisorByEmailAndPassword_doesntExistEmailAndPassword() {
-        Supervisor dummySupervisor = getDummySupervisor();
-        when(supervisorRepository.existsByEmailAndPassword(any(), any())).thenReturn(false);
-
-        assertThrows(EmailAndPasswordDoesNotExistException.class,
-                () -> supervisorService.getOneByEmailAndPassword(dummySupervisor.getEmail(), dummySupervisor.getPassword()));
-    }
-
     @Test
     public void testGetStudentsStatus_withValidEntries() throws Exception {
         Supervisor dummySupervisor = getDummySupervisor();
@@ -0,0 +1,121 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.enums.TypeUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UserDirectoryMigrationServiceTest {
+
+    private static final String IDENTITY = "id BIGINT PRIMARY KEY, email VARCHAR(255) UNIQUE, first_name VARCHAR(255), " +
+            "last_name VARCHAR(255), password VARCHAR(255), phone VARCHAR(255)";
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDirectoryMigrationService userDirectoryMigrationService;
+
+    // The users table as the schema update creates it, next to the role tables of the former mapping
+    @BeforeEach
+    void init() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(UUID.randomUUID().toString())
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE users (role VARCHAR(16) NOT NULL, id BIGINT PRIMARY KEY, email VARCHAR(255), " +
+                "first_name VARCHAR(255), last_name VARCHAR(255), password VARCHAR(255), phone VARCHAR(255), " +
+                "CONSTRAINT uk_users_email UNIQUE (email))");
+        jdbcTemplate.execute("CREATE TABLE student (" + IDENTITY + ", matricule VARCHAR(7) UNIQUE, department VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE monitor (" + IDENTITY + ", department VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE supervisor (id BIGINT PRIMARY KEY, matricule VARCHAR(5), department VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE manager (" + IDENTITY + ")");
+        userDirectoryMigrationService = new UserDirectoryMigrationService(database, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testMigrate_keepsIds() {
+        jdbcTemplate.update("INSERT INTO student VALUES (6, 'tea@outlook.com', 'Tea', 'Candle', 'cantPass', '5145555555', '1234567', 'Informatique')");
+        jdbcTemplate.update("INSERT INTO student VALUES (9, 'cant@outlook.com', 'Cant', 'Candle', 'cantPass', null, '7654321', 'Informatique')");
+
+        assertThat(userDirectoryMigrationService.migrate(TypeUser.STUDENT)).isEqualTo(2);
+
+        Map<String, Object> user = jdbcTemplate.queryForMap("SELECT * FROM users WHERE id = 6");
+        assertThat(user).containsEntry("ROLE", "STUDENT").containsEntry("EMAIL", "tea@outlook.com")
+                .containsEntry("FIRST_NAME", "Tea").containsEntry("PHONE", "5145555555");
+        assertThat(jdbcTemplate.queryForObject("SELECT matricule FROM student WHERE id = 6", String.class)).isEqualTo("1234567");
+        assertThat(userDirectoryMigrationService.hasLegacyColumns("student")).isFalse();
+        assertThat(userDirectoryMigrationService.migrate(TypeUser.STUDENT)).isZero();
+    }
+
+    @Test
+    public void testMigrateAll() {
+        jdbcTemplate.update("INSERT INTO manager VALUES (1, 'admin@jisos.com', 'Richard', 'Gautier', 'adminadmin', null)");
+        jdbcTemplate.update("INSERT INTO monitor VALUES (7, 'monitor@desjardins.com', 'Jean', 'Tremblay', 'Test1234', null, 'Informatique')");
+        jdbcTemplate.update("INSERT INTO student VALUES (8, 'tea@outlook.com', 'Tea', 'Candle', 'cantPass', null, '1234567', 'Informatique')");
+
+        userDirectoryMigrationService.migrateAll();
+
+        assertThat(jdbcTemplate.queryForList("SELECT role FROM users ORDER BY id", String.class))
+                .containsExactly("MANAGER", "MONITOR", "STUDENT");
+        assertThat(userDirectoryMigrationService.hasLegacyColumns("manager")).isFalse();
+        assertThat(userDirectoryMigrationService.hasLegacyColumns("monitor")).isFalse();
+        assertThat(userDirectoryMigrationService.hasLegacyColumns("student")).isFalse();
+    }
+
+    @Test
+    public void testMigrate_withEmailOfAnotherRole() {
+        jdbcTemplate.update("INSERT INTO manager VALUES (1, 'admin@jisos.com', 'Richard', 'Gautier', 'adminadmin', null)");
+        jdbcTemplate.update("INSERT INTO monitor VALUES (7, 'admin@jisos.com', 'Jean', 'Tremblay', 'Test1234', null, 'Informatique')");
+        jdbcTemplate.update("INSERT INTO monitor VALUES (8, 'monitor@desjardins.com', 'Marie', 'Roy', 'Test1234', null, 'Informatique')");
+
+        userDirectoryMigrationService.migrateAll();
+
+        assertThat(jdbcTemplate.queryForList("SELECT email FROM users ORDER BY id", String.class))
+                .containsExactly("admin@jisos.com", "admin+7@jisos.com", "monitor@desjardins.com");
+        assertThat(jdbcTemplate.queryForObject("SELECT first_name FROM users WHERE id = 7", String.class)).isEqualTo("Jean");
+        assertThat(userDirectoryMigrationService.hasLegacyColumns("monitor")).isFalse();
+    }
+
+    @Test
+    public void testMigrate_withRenamedEmailTaken() {
+        jdbcTemplate.update("INSERT INTO manager VALUES (1, 'admin@jisos.com', 'Richard', 'Gautier', 'adminadmin', null)");
+        jdbcTemplate.update("INSERT INTO manager VALUES (2, 'admin+7@jisos.com', 'Paul', 'Gautier', 'adminadmin', null)");
+        jdbcTemplate.update("INSERT INTO monitor VALUES (7, 'admin@jisos.com', 'Jean', 'Tremblay', 'Test1234', null, 'Informatique')");
+
+        assertThrows(IllegalStateException.class,
+                () -> userDirectoryMigrationService.migrateAll());
+        assertThat(userDirectoryMigrationService.hasLegacyColumns("monitor")).isTrue();
+    }
+
+    @Test
+    public void testRename() {
+        assertThat(UserDirectoryMigrationService.rename("admin@jisos.com", 7L)).isEqualTo("admin+7@jisos.com");
+        assertThat(UserDirectoryMigrationService.rename("admin", 7L)).isEqualTo("admin+7");
+    }
+
+    @Test
+    public void testMigrateAll_disabled() {
+        jdbcTemplate.update("INSERT INTO manager VALUES (1, 'admin@jisos.com', 'Richard', 'Gautier', 'adminadmin', null)");
+
+        new UserDirectoryMigrationService(database, false).migrateAll();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class)).isZero();
+    }
+}
@@ -0,0 +1,63 @@
+package com.gestionnaire_de_stage.service;
+
+import com.gestionnaire_de_stage.enums.TypeUser;
+import com.gestionnaire_de_stage.exception.EmailAndPasswordDoesNotExistException;
+import com.gestionnaire_de_stage.model.Supervisor;
+import com.gestionnaire_de_stage.model.User;
+import com.gestionnaire_de_stage.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserServiceTest {
+
+    @InjectMocks
+    private UserService userService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    public void testGetOneByEmailAndPassword_withValidEntries() throws Exception {
+        Supervisor dummySupervisor = getDummySupervisor();
+        when(userRepository.findByEmailAndPassword(dummySupervisor.getEmail(), dummySupervisor.getPassword())).thenReturn(dummySupervisor);
+
+        User actualUser = userService.getOneByEmailAndPassword(dummySupervisor.getEmail(), dummySupervisor.getPassword());
+
+        assertThat(actualUser).isEqualTo(dummySupervisor);
+        assertThat(actualUser.getRole()).isEqualTo(TypeUser.SUPERVISOR);
+    }
+
+    @Test
+    public void testGetOneByEmailAndPassword_withNullEntries() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getOneByEmailAndPassword(null, "Test1234"));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getOneByEmailAndPassword("super@cegep.qc.ca", null));
+    }
+
+    @Test
+    public void testGetOneByEmailAndPassword_doesntExistEmailAndPassword() {
+        when(userRepository.findByEmailAndPassword(any(), any())).thenReturn(null);
+
+        assertThrows(EmailAndPasswordDoesNotExistException.class,
+                () -> userService.getOneByEmailAndPassword("super@cegep.qc.ca", "Test1234"));
+    }
+
+    private Supervisor getDummySupervisor() {
+        Supervisor dummySupervisor = new Supervisor();
+        dummySupervisor.setId(1L);
+        dummySupervisor.setEmail("super@cegep.qc.ca");
+        dummySupervisor.setPassword("Test1234");
+        dummySupervisor.setMatricule("02943");
+        return dummySupervisor;
+    }
+}
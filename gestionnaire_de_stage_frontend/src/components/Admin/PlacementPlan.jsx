@@ -0,0 +1,81 @@
+import React, {useEffect, useState} from "react";
+import {getCurrentAndFutureSession} from "../../services/session-service";
+import {applyPlacement, proposePlacement} from "../../services/offerAppService";
+import {Table, TableHeader, TableRow} from "../SharedComponents/Table/Table";
+import MessageNothingToShow from "../SharedComponents/MessageNothingToShow/MessageNothingToShow";
+import {ContainerBox} from "../SharedComponents/ContainerBox";
+
+export default function PlacementPlan() {
+    const [sessions, setSessions] = useState([]);
+    const [sessionId, setSessionId] = useState(null);
+    const [plan, setPlan] = useState(null);
+
+    useEffect(() => {
+        getCurrentAndFutureSession()
+            .then(sessions => {
+                setSessions(sessions || [])
+                if (sessions && sessions.length > 0)
+                    setSessionId(sessions[0].id)
+            })
+            .catch(e => {
+                setSessions([]);
+                console.error(e);
+            })
+    }, [])
+
+    const propose = () => proposePlacement(sessionId).then(setPlan)
+
+    const apply = () => applyPlacement(sessionId, plan).then(ok => ok && propose())
+
+    if (sessions.length === 0)
+        return <MessageNothingToShow message="Aucune session pour le moment..."/>
+
+    // Only the applications whose status changes are listed
+    const changes = plan ? plan.placements.filter(placement => placement.status !== placement.currentStatus) : [];
+
+    return (
+        <ContainerBox>
+            <div className="d-flex justify-content-center align-items-center gap-2 mb-3">
+                <select className="form-select w-auto" onChange={e => {
+                    setSessionId(parseInt(e.target.value))
+                    setPlan(null)
+                }}>
+                    {sessions.map(session =>
+                        <option key={session.id} value={session.id}>{session.typeSession + session.year}</option>)}
+                </select>
+                <button className="btn btn-primary" onClick={propose}>Proposer un placement</button>
+            </div>
+            {plan &&
+                <>
+                    <p className="text-center">
+                        {plan.placedStudents} étudiant(s) placé(s), {plan.unplacedStudents} sans stage
+                    </p>
+                    {changes.length === 0 ?
+                        <MessageNothingToShow message="Les candidatures sont déjà à jour"/> :
+                        <>
+                            <Table>
+                                <TableHeader>
+                                    <th>Candidature</th>
+                                    <th>Étudiant</th>
+                                    <th>Offre</th>
+                                    <th>Statut actuel</th>
+                                    <th>Statut proposé</th>
+                                </TableHeader>
+                                {changes.map(placement =>
+                                    <TableRow key={placement.offerApplicationId}>
+                                        <td>{placement.offerApplicationId}</td>
+                                        <td>{placement.studentId}</td>
+                                        <td>{placement.offerId}</td>
+                                        <td>{placement.currentStatus}</td>
+                                        <td>{placement.status}</td>
+                                    </TableRow>
+                                )}
+                            </Table>
+                            <div className="text-center">
+                                <button className="btn btn-success" onClick={apply}>Appliquer le placement</button>
+                            </div>
+                        </>}
+                </>}
+        </ContainerBox>
+    )
+}
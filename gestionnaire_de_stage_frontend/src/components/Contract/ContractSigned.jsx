@@ -1,11 +1,13 @@
 import PdfDocumentViewer from "../SharedComponents/PdfDocumentViewer/PdfDocumentViewer";
 import {useEffect, useState} from "react";
-import {toPdfBlob} from "../../utility";
+import {getContractPDF} from "../../services/contrat-service";
 
 export default function ContractSigned({contract, showContract = false}) {
     const [pdf, setPdf] = useState(null);
 
-    useEffect(() => setPdf(toPdfBlob(contract.contractPDF)), [contract.contractPDF]);
+    useEffect(() => {
+        getContractPDF(contract.id).then(pdf => setPdf(pdf));
+    }, [contract.id]);
 
     const studentFullName = student => `${student.firstName} ${student.lastName}`;
 
@@ -1,9 +1,14 @@
 import PdfDocumentViewer from "../SharedComponents/PdfDocumentViewer/PdfDocumentViewer";
 import {useEffect, useState} from "react";
 import {BsPenFill} from "react-icons/all";
-import {managerSignContract, monitorSignContract, studentSignContract} from "../../services/contrat-service";
+import {
+    getContractPDF,
+    managerSignContract,
+    monitorSignContract,
+    studentSignContract
+} from "../../services/contrat-service";
 import {UserType} from "../../enums/UserTypes";
-import {swalErr, toPdfBlob} from "../../utility";
+import {swalErr} from "../../utility";
 import MessageNothingToShow from "../SharedComponents/MessageNothingToShow/MessageNothingToShow";
 import {useForm} from "react-hook-form";
 
@@ -17,8 +22,8 @@ export default function ContratSignature({userType, contract, removeContract}) {
     const [pdf, setPdf] = useState(null);
 
     useEffect(() => {
-        setPdf(toPdfBlob(contract.contractPDF));
-    }, [contract.contractPDF]);
+        getContractPDF(contract.id).then(pdf => setPdf(pdf));
+    }, [contract.id]);
 
     const studentFullName = student => `${student.firstName} ${student.lastName}`;
     const startContract = (data, e) => {
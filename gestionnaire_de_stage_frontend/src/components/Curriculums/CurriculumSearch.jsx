@@ -0,0 +1,53 @@
+import React, {useState} from "react";
+import {getCurriculumDocument, searchCurriculums} from "../../services/curriculum-service";
+import {downloadFile} from "../../utility";
+import {FiDownload} from "react-icons/all";
+import {Table, TableHeader, TableRow} from "../SharedComponents/Table/Table";
+
+export default function CurriculumSearch({monitorEmail}) {
+    const [query, setQuery] = useState("");
+    const [result, setResult] = useState(null);
+
+    const search = e => {
+        e.preventDefault()
+        if (!query.trim())
+            return
+        searchCurriculums(query, monitorEmail)
+            .then(result => setResult(result))
+            .catch(e => console.error(e))
+    }
+
+    return <>
+        <form className="input-group mb-3" onSubmit={search}>
+            <input className="form-control" type="search" placeholder="Rechercher une compétence dans les curriculums"
+                   value={query} onChange={e => setQuery(e.target.value)}/>
+            <button className="btn btn-outline-primary" type="submit">Rechercher</button>
+        </form>
+        {result && (result.curriculums.length === 0
+            ? <p>Aucun curriculum ne correspond à la recherche</p>
+            : <Table>
+                <TableHeader>
+                    <th>Étudiant</th>
+                    <th>Curriculum</th>
+                    <th>Extraits</th>
+                    <th>Télécharger</th>
+                </TableHeader>
+                {result.curriculums.map(hit =>
+                    <TableRow key={hit.curriculum.id}>
+                        <td>{hit.curriculum.student.firstName} {hit.curriculum.student.lastName}</td>
+                        <td>{hit.curriculum.name}</td>
+                        {/* The snippets are escaped by the server, only the <mark> around the words found is markup */}
+                        <td>{hit.snippets.map((snippet, index) =>
+                            <p key={index} className="mb-1" dangerouslySetInnerHTML={{__html: snippet}}/>)}</td>
+                        <td>
+                            <button className="btn btn-outline-primary"
+                                    onClick={() => getCurriculumDocument(hit.curriculum.id).then(file => file && downloadFile(file,
+                                        `${hit.curriculum.student.firstName}_${hit.curriculum.student.lastName}_${hit.curriculum.id}.pdf`))}>
+                                <FiDownload/>
+                            </button>
+                        </td>
+                    </TableRow>
+                )}
+            </Table>)}
+    </>
+}
@@ -2,12 +2,13 @@ import React, {useEffect, useState} from "react";
 import {
     deleteCurriculumById,
     getAllCurriculumsByStudentWithPrincipal,
+    getCurriculumDocument,
     setPrincipalCurriculum
 } from "../../services/curriculum-service";
 import {useAuth} from "../../hooks/use-auth";
 import {Table, TableHeader, TableRow} from "../SharedComponents/Table/Table";
 import {AiOutlineCloseCircle, BsTrash, GoStar, MdOutlinePendingActions} from "react-icons/all";
-import {downloadFile, toPdfBlob} from "../../utility";
+import {downloadFile} from "../../utility";
 import MessageNothingToShow from "../SharedComponents/MessageNothingToShow/MessageNothingToShow";
 import Swal from "sweetalert2";
 
@@ -106,7 +107,7 @@ export default function CurriculumsStudent() {
                     <TableRow key={index}>
                         <td>{getIcon(cv)}</td>
                         <td className={cv.isValid === false ? "text-danger" : ""}>
-                            <button className="link-button" onClick={() => downloadFile(toPdfBlob(cv.data), cv.name)}>
+                            <button className="link-button" onClick={() => getCurriculumDocument(cv.id).then(file => file && downloadFile(file, cv.name))}>
                                 {cv.name}
                             </button>
                         </td>
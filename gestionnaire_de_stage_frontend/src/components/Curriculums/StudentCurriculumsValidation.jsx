@@ -1,6 +1,10 @@
 import React, {useEffect, useState} from "react";
-import {getAllCurriculumsByStudent, validateCurriculum} from "../../services/curriculum-service";
-import {downloadFile, toPdfBlob} from "../../utility";
+import {
+    getAllCurriculumsByStudent,
+    getCurriculumDocument,
+    validateCurriculum
+} from "../../services/curriculum-service";
+import {downloadFile} from "../../utility";
 import {Table, TableHeader, TableRow} from "../SharedComponents/Table/Table";
 import MessageNothingToShow from "../SharedComponents/MessageNothingToShow/MessageNothingToShow";
 import {useLocation} from "react-router-dom";
@@ -62,7 +66,7 @@ export default function StudentCurriculumValidation() {
                         <td>{cv.name}</td>
                         <td>
                             <div
-                                onClick={() => downloadFile(toPdfBlob(cv.data), `${cv.student.firstName}_${cv.student.lastName}_${cv.id}.pdf`)}>
+                                onClick={() => getCurriculumDocument(cv.id).then(file => file && downloadFile(file, `${cv.student.firstName}_${cv.student.lastName}_${cv.id}.pdf`))}>
                                 <FiDownload color={"black"} title={"Téléchargez le cv"} size={27}/>
                             </div>
                         </td>
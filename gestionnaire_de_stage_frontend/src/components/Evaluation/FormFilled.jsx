@@ -1,12 +1,13 @@
-import {toPdfBlob} from "../../utility";
 import PdfDocumentViewer from "../SharedComponents/PdfDocumentViewer/PdfDocumentViewer";
 import {useEffect, useState} from "react";
 
 
-export default function FormFilled({form, student, responsible, message}) {
+export default function FormFilled({loadForm, student, responsible, message}) {
     const [pdf, setPdf] = useState(null);
 
-    useEffect(() => setPdf(toPdfBlob(form)), [form]);
+    useEffect(() => {
+        loadForm().then(pdf => setPdf(pdf));
+    }, [loadForm]);
 
     const userFullName = user => `${user.firstName} ${user.lastName}`;
 
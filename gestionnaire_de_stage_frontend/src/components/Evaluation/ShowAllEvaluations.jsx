@@ -1,5 +1,10 @@
 import {useEffect, useState} from "react";
-import {getAllStageByMonitor, getAllStageBySupervisor} from "../../services/stage-service";
+import {
+    getAllStageByMonitor,
+    getAllStageBySupervisor,
+    getEvalMilieuStagePDF,
+    getEvalStagiairePDF
+} from "../../services/stage-service";
 import {UserType} from "../../enums/UserTypes";
 import {useAuth} from "../../hooks/use-auth";
 import FormFilled from "./FormFilled";
@@ -19,16 +24,16 @@ export default function ShowAllEvaluations({userType}) {
 
     const getResponsible = evaluation => {
         if (userType === UserType.SUPERVISOR[0])
-            return evaluation?.contract?.student?.supervisor;
+            return evaluation?.supervisor;
         else if (userType === UserType.MONITOR[0])
-            return evaluation?.contract.monitor;
+            return evaluation?.monitor;
     }
 
-    const getForm = evaluation => {
+    const getFormLoader = evaluation => {
         if (userType === UserType.SUPERVISOR[0])
-            return evaluation.evalMilieuStage;
+            return () => getEvalMilieuStagePDF(evaluation.id);
         else if (userType === UserType.MONITOR[0])
-            return evaluation.evalStagiaire;
+            return () => getEvalStagiairePDF(evaluation.id);
     }
 
     const getMessage = (userType) => {
@@ -51,9 +56,9 @@ export default function ShowAllEvaluations({userType}) {
     return <ContainerBox>
         <div className='d-flex align-items-center flex-column justify-content-center'>
             {evaluations.map((evaluation, index) => <div key={index}>
-                <FormFilled message={getMessageForPdf(userType)} form={getForm(evaluation)}
+                <FormFilled message={getMessageForPdf(userType)} loadForm={getFormLoader(evaluation)}
                             responsible={getResponsible(evaluation)}
-                            student={evaluation.contract.student}
+                            student={evaluation.student}
                 />
                 {evaluations.length > 1 && <hr className='my-3'/>}
             </div>)}
@@ -1,9 +1,10 @@
 import {Link, useLocation} from "react-router-dom";
-import React from "react";
+import React, {useEffect, useState} from "react";
 import {useAuth} from "../../hooks/use-auth";
 import PropTypes from "prop-types";
 import {BiLogIn, BiLogOut, GiHamburgerMenu} from "react-icons/all";
 import style from "./Navbar.module.css";
+import {getUnreadNotificationCount, subscribeToNotifications} from "../../services/user-service";
 
 export default function Navbar() {
     let location = useLocation();
@@ -54,13 +55,36 @@ function GetNavItems() {
     return <>
         <NavItemList>
             <Link to={{pathname: "/dashboard", state: {from: location}}}>Compte
-                ({auth.user.firstName})</Link>
+                ({auth.user.firstName})<UnreadBadge userId={auth.user.id}/></Link>
         </NavItemList>
         <NavItemSpecificForUser/>
 
     </>;
 }
 
+function UnreadBadge(props) {
+    const {userId} = props;
+    const location = useLocation();
+    const [count, setCount] = useState(0);
+
+    useEffect(() => {
+        getUnreadNotificationCount(userId).then(count => setCount(count));
+    }, [userId, location]);
+
+    useEffect(() => {
+        const eventSource = subscribeToNotifications(userId, () => setCount(count => count + 1));
+        return () => eventSource?.close();
+    }, [userId]);
+
+    if (!count)
+        return null;
+    return <span className="badge rounded-pill bg-danger ms-1" title="Notifications non vues">{count}</span>
+}
+
+UnreadBadge.propTypes = {
+    userId: PropTypes.number
+};
+
 function NavItemSpecificForUser() {
     let location = useLocation();
     let auth = useAuth();
@@ -96,6 +120,7 @@ function NavItemSpecificForUser() {
                 <Link to={{pathname: "/dashboard/students/applied", state: {from: location}}}>Associer
                     Superviseur</Link>
                 <Link to={{pathname: "/dashboard/curriculum/review", state: {from: location}}}>Valider Curriculum</Link>
+                <Link to={{pathname: "/dashboard/students/placement", state: {from: location}}}>Placement</Link>
             </Dropdown>
             <Dropdown title="Contrats">
                 <Link to={{pathname: "/dashboard/contrats/to_sign", state: {from: location}}}>Contrats à signer</Link>
@@ -1,8 +1,9 @@
 import React, {useEffect, useState} from 'react';
 import {getAllApplicants} from '../../services/offerAppService';
+import {getCurriculumDocument} from "../../services/curriculum-service";
 import {useAuth} from "../../hooks/use-auth";
 import {ContainerBox} from "../SharedComponents/ContainerBox";
-import {downloadFile, toPdfBlob, uniqBy} from "../../utility";
+import {downloadFile, uniqBy} from "../../utility";
 import {
     AiOutlineCheckCircle,
     BiTimeFive,
@@ -15,6 +16,8 @@ import OfferView from "../Offers/OfferView";
 import MessageNothingToShow from "../SharedComponents/MessageNothingToShow/MessageNothingToShow";
 import {Table, TableHeader, TableRow} from "../SharedComponents/Table/Table";
 import {timeFormatMessage} from "../Admin/StudentManagement/StudentStatusView";
+import RankInput from "./RankInput";
+import {isRankable} from "./OfferApplicationsStudentSetStatusFinal";
 
 export default function OfferApplicationsMonitorListOfApplications() {
     let auth = useAuth();
@@ -72,6 +75,7 @@ export default function OfferApplicationsMonitorListOfApplications() {
                                 <th>Email</th>
                                 <th>Téléphone</th>
                                 <th>Statut</th>
+                                <th>Préférence</th>
                                 <th>Cv</th>
                             </TableHeader>
                             {offerApplications.filter(offerApp => offerApp.offer.id === offer.id).map(offerApp => {
@@ -85,10 +89,11 @@ export default function OfferApplicationsMonitorListOfApplications() {
                                         <td>{student.email}</td>
                                         <td>{student.phone}</td>
                                         <td>{setStatus(offerApp)}</td>
+                                        <td>{isRankable(offerApp) && <RankInput offerApplication={offerApp} side="monitor"/>}</td>
                                         <td>
                                             <button className="link-button"
-                                                    onClick={() => downloadFile(toPdfBlob(curriculum.data),
-                                                        `${firstName}_${lastName}_${curriculum.id}.pdf`)}>
+                                                    onClick={() => getCurriculumDocument(curriculum.id).then(file => file && downloadFile(file,
+                                                        `${firstName}_${lastName}_${curriculum.id}.pdf`))}>
                                                 <FiDownload color={"black"} title={"Téléchargez le cv"} size={27}/>
                                             </button>
                                         </td>
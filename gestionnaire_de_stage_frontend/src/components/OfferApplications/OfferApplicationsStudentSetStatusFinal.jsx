@@ -4,6 +4,10 @@ import {getStudentApplicationsOffer, setApplicationsFinalStatus} from "../../ser
 import {Table, TableHeader, TableRow} from "../SharedComponents/Table/Table";
 import MessageNothingToShow from "../SharedComponents/MessageNothingToShow/MessageNothingToShow";
 import {AiOutlineProfile} from "react-icons/all";
+import RankInput from "./RankInput";
+
+// The applications the placement of the manager chooses from
+export const isRankable = offerApp => offerApp.status === "EN_ATTENTE_REPONSE" || offerApp.status === "STAGE_TROUVE";
 
 export default function OfferApplicationsStudentSetStatusFinal() {
 
@@ -95,6 +99,7 @@ export default function OfferApplicationsStudentSetStatusFinal() {
                 <th>#</th>
                 <th>Offre</th>
                 <th>Status</th>
+                <th>Préférence</th>
                 <th><AiOutlineProfile size={25}/></th>
             </TableHeader>
             {offerApplications.map(offerApplication => (
@@ -102,6 +107,7 @@ export default function OfferApplicationsStudentSetStatusFinal() {
                     <td>{offerApplication.id}</td>
                     <td>{offerApplication.offer.title}</td>
                     <td>{setStatus(offerApplication)}</td>
+                    <td>{isRankable(offerApplication) && <RankInput offerApplication={offerApplication} side="student"/>}</td>
                     <td>{setStatusMessage(offerApplication)}</td>
                 </TableRow>
             ))}
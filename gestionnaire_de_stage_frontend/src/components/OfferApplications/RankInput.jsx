@@ -0,0 +1,20 @@
+import React, {useState} from 'react';
+import {setApplicationRank} from "../../services/offerAppService";
+
+// Preference of the student or the monitor for the placement, 1 for the first choice
+export default function RankInput({offerApplication, side}) {
+    const initial = side === "student" ? offerApplication.studentRank : offerApplication.monitorRank;
+    const [rank, setRank] = useState(initial ?? "");
+    const [saved, setSaved] = useState(initial ?? "");
+
+    const save = () => {
+        if (`${rank}` === `${saved}`)
+            return;
+        setApplicationRank(offerApplication.id, rank === "" ? null : parseInt(rank), side)
+            .then(ok => ok ? setSaved(rank) : setRank(saved))
+    }
+
+    return <input type="number" min="1" className="form-control form-control-sm" style={{width: "5em"}}
+                  title="Préférence, 1 pour le premier choix" value={rank}
+                  onChange={e => setRank(e.target.value)} onBlur={save}/>
+}
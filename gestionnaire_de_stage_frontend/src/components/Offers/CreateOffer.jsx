@@ -39,13 +39,14 @@ export default function CreateOffer() {
             dateFin,
             horaireTravail,
             nbHeureSemaine,
-            idSession
+            idSession,
+            capacity
         } = data
 
         if (!creator_email)
             creator_email = auth.user.email;
 
-        let offer = new OfferDTO(title, department, description, address, salary, creator_email, nbSemaine, dateDebut, dateFin, horaireTravail, nbHeureSemaine, parseInt(idSession));
+        let offer = new OfferDTO(title, department, description, address, salary, creator_email, nbSemaine, dateDebut, dateFin, horaireTravail, nbHeureSemaine, parseInt(idSession), capacity ? parseInt(capacity) : null);
         createOffer(offer).then((b) => {
             if (b === null)
                 return
@@ -215,6 +216,16 @@ export default function CreateOffer() {
                                     required: "Ce champ est obligatoire!"
                                 }}/>
                 </Column>
+                <Column col={{lg: 6}}>
+                    <FieldInput label="Nombre de places"
+                                name="capacity"
+                                error={errors.capacity}
+                                type="number"
+                                register={register}
+                                validation={{
+                                    min: {value: 1, message: "Le nombre de places doit être positif"}
+                                }}/>
+                </Column>
             </FormGroup>
             <div className="form-group text-center">
                 <button className="btn btn-primary mt-3" type="submit">Ajouter</button>
@@ -1,5 +1,5 @@
 import React, {useEffect, useState} from "react";
-import {getAllOffersValid} from '../../services/offer-service'
+import {getAllOffersValid, searchOffers} from '../../services/offer-service'
 import OfferView from './OfferView';
 import {getCurrentAndFutureSession} from "../../services/session-service";
 import {ContainerBox} from "../SharedComponents/ContainerBox";
@@ -13,9 +13,15 @@ export default function OffersListValid() {
     const [offers, setOffers] = useState([])
     const [sessions, setSessions] = useState([]);
     const [visibleOffers, setVisibleOffers] = useState([]);
+    const [sessionId, setSessionId] = useState(null);
+    const [query, setQuery] = useState("");
+    const [department, setDepartment] = useState("");
+    const [departments, setDepartments] = useState({});
 
-    const setMyVisible = (idSession) =>
+    const setMyVisible = (idSession) => {
+        setSessionId(idSession)
         setVisibleOffers(offers.filter(offer => offer.session.id === parseInt(idSession)))
+    }
 
     useEffect(() => {
         getAllOffersValid()
@@ -32,6 +38,7 @@ export default function OffersListValid() {
         getCurrentAndFutureSession()
             .then(sessions => {
                 setSessions(sessions)
+                setSessionId(sessions[0].id)
                 setVisibleOffers(offers.filter(offer => offer.session.id === parseInt(sessions[0].id)))
             })
             .catch(e => {
@@ -40,6 +47,20 @@ export default function OffersListValid() {
             })
     }, [offers])
 
+    useEffect(() => {
+        if (!sessionId)
+            return
+        searchOffers({q: query, department: department, sessionId: sessionId})
+            .then(result => {
+                setDepartments(result.departments)
+                if (query || department)
+                    setVisibleOffers(result.offers)
+                else
+                    setVisibleOffers(offers.filter(offer => offer.session.id === parseInt(sessionId)))
+            })
+            .catch(e => console.error(e))
+    }, [query, department, sessionId, offers])
+
     if (offers.length === 0)
         return <>
             <MessageNothingToShow message="Aucune offre valide à afficher"/>
@@ -59,6 +80,24 @@ export default function OffersListValid() {
                             <label htmlFor="session">Session</label>
                         </div>
                     </Column>
+                    <Column>
+                        <div className="form-floating">
+                            <input id="search" className="form-control" type="search" value={query}
+                                   onChange={e => setQuery(e.target.value)}/>
+                            <label htmlFor="search">Rechercher</label>
+                        </div>
+                    </Column>
+                    <Column>
+                        <div className="form-floating">
+                            <select id="department" className="form-select" value={department}
+                                    onChange={e => setDepartment(e.target.value)}>
+                                <option value="">Tous</option>
+                                {Object.entries(departments).map(([name, count]) =>
+                                    <option key={name} value={name}>{`${name} (${count})`}</option>)}
+                            </select>
+                            <label htmlFor="department">Département</label>
+                        </div>
+                    </Column>
                 </FormGroup>
                 <div className="row">
                     {visibleOffers.map((offer, index) =>
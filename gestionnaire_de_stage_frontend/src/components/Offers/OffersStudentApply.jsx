@@ -1,5 +1,5 @@
 import React, {useEffect, useState} from 'react';
-import {getAllOffersNotYetApplied} from '../../services/offer-service';
+import {getAllOffersNotYetApplied, getRecommendedOffers} from '../../services/offer-service';
 import {useAuth} from "../../hooks/use-auth";
 import {getCurrentAndFutureSession} from "../../services/session-service";
 import {applyToOffer} from "../../services/offerAppService";
@@ -10,49 +10,86 @@ import OfferView from "./OfferView";
 import {ContainerBox} from "../SharedComponents/ContainerBox";
 import {Column} from "../SharedComponents/Column";
 
+const PAGE_SIZE = 20;
+
 export default function OffersStudentApply() {
     let auth = useAuth();
-    const [offers, setOffers] = useState([])
     const [sessions, setSessions] = useState([]);
-    const [visibleOffers, setVisibleOffers] = useState([]);
-
-    const setMyVisible = (idSession) =>
-        setVisibleOffers(offers.filter(offer => offer.session.id === parseInt(idSession)))
+    const [sessionId, setSessionId] = useState(null);
+    const [offers, setOffers] = useState([]);
+    const [page, setPage] = useState(0);
+    const [lastPage, setLastPage] = useState(true);
+    const [recommendations, setRecommendations] = useState([]);
 
     useEffect(() => {
-        getAllOffersNotYetApplied(auth.user.id)
-            .then(offers => {
-                setOffers(offers)
+        getCurrentAndFutureSession()
+            .then(sessions => {
+                setSessions(sessions)
+                if (sessions.length > 0)
+                    setSessionId(sessions[0].id)
             })
             .catch(e => {
-                setOffers([])
+                setSessions([]);
                 console.error(e);
-            });
-    }, [auth.user.id]);
+            })
+    }, [])
 
+    useEffect(() => {
+        getRecommendedOffers(auth.user.id)
+            .then(recommendations => setRecommendations(recommendations || []))
+            .catch(e => {
+                setRecommendations([])
+                console.error(e);
+            })
+    }, [auth.user.id])
 
     useEffect(() => {
-        getCurrentAndFutureSession()
-            .then(sessions => {
-                setSessions(sessions)
-                setVisibleOffers(offers.filter(offer => offer.session.id === parseInt(sessions[0].id)))
+        if (sessionId === null)
+            return;
+        getAllOffersNotYetApplied(auth.user.id, sessionId, page, PAGE_SIZE)
+            .then(pageOffers => {
+                setOffers(offers => page === 0 ? pageOffers : [...offers, ...pageOffers])
+                setLastPage(pageOffers.length < PAGE_SIZE)
             })
             .catch(e => {
-                setSessions([]);
+                setOffers([])
                 console.error(e);
-            })
-    }, [offers])
+            });
+    }, [auth.user.id, sessionId, page]);
+
+    const changeSession = idSession => {
+        setPage(0)
+        setSessionId(parseInt(idSession))
+    }
 
-    if (offers.length === 0) {
+    const moreButton = lastPage ? "" :
+        <button className={"btn btn-link"} onClick={() => setPage(page + 1)}>Voir plus d'offres</button>;
+
+    if (sessions.length === 0) {
         return <MessageNothingToShow message="Pour l'instant, aucune offre n'est disponible"/>
     }
 
+    const recommended = recommendations
+        .filter(recommendation => recommendation.offer.session && recommendation.offer.session.id === sessionId)
+        .slice(0, 4);
+
     return (
         <ContainerBox>
+            {recommended.length > 0 &&
+                <>
+                    <h4 className="text-center">Recommandées pour vous</h4>
+                    <div className="row">
+                        {recommended.map(recommendation =>
+                            <Column col={{lg: 6}} key={recommendation.offer.id}>
+                                <OfferApplication offer={recommendation.offer}/>
+                            </Column>
+                        )}
+                    </div>
+                </>}
             <FormGroup>
                 <Column>
                     <div className="form-floating">
-                        <select id="session" className="form-select" onChange={e => setMyVisible(e.target.value)}>
+                        <select id="session" className="form-select" onChange={e => changeSession(e.target.value)}>
                             {sessions.map(session =>
                                 <option key={session.id}
                                         value={session.id}>{session.typeSession + session.year}</option>)}
@@ -61,13 +98,16 @@ export default function OffersStudentApply() {
                     </div>
                 </Column>
             </FormGroup>
-            <div className="row">
-                {visibleOffers.map((offer, index) =>
-                    <Column col={{lg: 6}} key={index}>
-                        <OfferApplication offer={offer}/>
-                    </Column>
-                )}
-            </div>
+            {offers.length === 0 ?
+                <MessageNothingToShow message="Pour l'instant, aucune offre n'est disponible"/> :
+                <div className="row">
+                    {offers.map(offer =>
+                        <Column col={{lg: 6}} key={offer.id}>
+                            <OfferApplication offer={offer}/>
+                        </Column>
+                    )}
+                </div>}
+            {moreButton}
         </ContainerBox>
     );
 }
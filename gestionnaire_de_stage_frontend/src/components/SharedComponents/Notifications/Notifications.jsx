@@ -1,5 +1,11 @@
 import React, {useEffect, useState} from "react";
-import {getNotificationsByUser, updateSeen} from "../../../services/user-service";
+import {
+    getNotificationHistoryByUser,
+    getNotificationsByUser,
+    subscribeToNotifications,
+    updateAllSeen,
+    updateSeen
+} from "../../../services/user-service";
 import {BsClockHistory, MdOutlineNotificationsActive, MdOutlineNotificationsNone} from "react-icons/all";
 import {useAuth} from "../../../hooks/use-auth";
 import {Column} from "../Column";
@@ -9,12 +15,20 @@ const Notifications = () => {
 
     const userId = useAuth().user.id;
     const [notifications, setNotifications] = useState([]);
+    const [historyCursor, setHistoryCursor] = useState(null);
+    const [historyEnd, setHistoryEnd] = useState(false);
+    const historyPageSize = 20;
 
     useEffect(() => {
         getNotificationsByUser(userId).then(
             notifications => {
                 setNotifications(notifications.sort((a, b) => b.createdDate - a.createdDate));
             })
+        const eventSource = subscribeToNotifications(userId, notification =>
+            setNotifications(notifList => notifList.some(item => item.id === notification.id)
+                ? notifList
+                : [notification, ...notifList]));
+        return () => eventSource?.close();
     }, [userId]);
 
     const setSeen = (notification) => {
@@ -25,6 +39,22 @@ const Notifications = () => {
             })));
     }
 
+    const setAllSeen = () => {
+        updateAllSeen(userId).then(ok => {
+            if (ok)
+                setNotifications(notifList => notifList.map(item => ({...item, seen: true})));
+        });
+    }
+
+    const loadHistory = () => {
+        getNotificationHistoryByUser(userId, historyCursor, historyPageSize).then(page => {
+            setNotifications(notifList => [...notifList, ...page.filter(notification =>
+                !notifList.some(item => item.id === notification.id))]);
+            setHistoryCursor(page[page.length - 1]);
+            setHistoryEnd(page.length < historyPageSize);
+        });
+    }
+
     const timeFormatMessage = (date) => {
         let timeNow = new Date();
         let dateTimeFormat = new Date(date);
@@ -42,10 +72,18 @@ const Notifications = () => {
         }
     };
 
+    const historyButton = historyEnd ? "" :
+        <button className={"btn btn-link"} onClick={loadHistory}>Voir les notifications précédentes</button>;
+
     if (notifications?.length === 0)
-        return <p className={"text-muted"}> Aucune notifications</p>
+        return <>
+            <p className={"text-muted"}> Aucune notifications</p>
+            {historyButton}
+        </>
 
     return <>
+        {notifications.some(notification => !notification.seen) ?
+            <button className={"btn btn-link"} onClick={setAllSeen}>Tout marquer comme vu</button> : ""}
         {notifications.map(notification => (
             <div className="row my-2 d-flex justify-content-center align-content-center" key={notification.id}>
                 <Column col={{md: 1}}>
@@ -69,6 +107,7 @@ const Notifications = () => {
                 </Column>
             </div>
         ))}
+        {historyButton}
     </>
 
 
@@ -12,9 +12,11 @@ import CreateSession from "../Sessions/CreateSession";
 import ContractsSigned from '../Contract/ContractsSigned';
 import {Title} from "../SharedComponents/Title";
 import StudentsCurriculumsOverview from "../Admin/StudentManagement/StudentsCurriculumsOverview";
+import CurriculumSearch from "../Curriculums/CurriculumSearch";
 import StudentCurriculumValidation from "../Curriculums/StudentCurriculumsValidation";
 import {BtnBack} from "../SharedComponents/BtnBack";
 import Profile from "../SharedComponents/Profile/Profile";
+import PlacementPlan from "../Admin/PlacementPlan";
 
 export default function ManagerView() {
     const {path} = useRouteMatch();
@@ -47,6 +49,7 @@ export default function ManagerView() {
                 </Route>
                 <Route exact path={`${path}/curriculum/review`}>
                     <Title>Validation des curriculums</Title>
+                    <CurriculumSearch/>
                     <StudentsCurriculumsOverview/>
                 </Route>
             </Route>
@@ -54,6 +57,10 @@ export default function ManagerView() {
                 <Title>Attribuer des superviseurs aux étudiants</Title>
                 <LinkSupervisorToStudent/>
             </Route>
+            <Route path={`${path}/students/placement`}>
+                <Title>Placement des étudiants</Title>
+                <PlacementPlan/>
+            </Route>
             <Route path={`${path}/students/start`}>
                 <Title>Liste des applications prêtes à être signer</Title>
                 <StartContract/>
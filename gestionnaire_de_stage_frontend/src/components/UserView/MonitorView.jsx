@@ -11,6 +11,7 @@ import ContractsSigned from "../Contract/ContractsSigned";
 import {Title} from "../SharedComponents/Title";
 import Profile from "../SharedComponents/Profile/Profile";
 import ShowAllEvaluations from "../Evaluation/ShowAllEvaluations";
+import CurriculumSearch from "../Curriculums/CurriculumSearch";
 
 export default function MonitorView() {
     let {path} = useRouteMatch();
@@ -26,6 +27,7 @@ export default function MonitorView() {
         </Route>
         <Route exact path={`${path}/applications`}>
             <Title>Appliquants</Title>
+            <CurriculumSearch monitorEmail={auth.user.email}/>
             <OfferApplicationsMonitorListOfApplications/>
         </Route>
         <Route exact path={`${path}/voir/futures_stagiaires`}>
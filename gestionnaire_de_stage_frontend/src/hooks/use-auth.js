@@ -1,8 +1,8 @@
 import React, {createContext, useContext, useEffect, useState} from 'react';
 import {Redirect} from "react-router-dom";
 import {ManagerModel, MonitorModel, Student, Supervisor} from "../models/User";
-import {methods, requestInit, urlBackend} from "../services/serviceUtils";
-import {swalErr, toast} from "../utility";
+import {methods, requestInit, urlBackend, watchUnauthorized} from "../services/serviceUtils";
+import {swalErr, toast, toastErr} from "../utility";
 import {UserType} from "../enums/UserTypes";
 
 const authContext = createContext({});
@@ -125,11 +125,13 @@ function useProvideAuth() {
     }
 
     const signIn = async (userType, email, password) => {
-        return await fetch(`${urlBackend}/${userType}/${email}/${password}`, requestInit(methods.GET)).then(
+        const type = Object.keys(UserType).find(key => UserType[key][0] === userType);
+        return await fetch(`${urlBackend}/auth/login`, requestInit(methods.POST, {email, password, type})).then(
             response => {
                 return response.json().then(
-                    body => {
+                    ({token, user: body, message}) => {
                         if (response.status === 200) {
+                            sessionStorage.setItem('token', token);
                             if (userType === UserType.MONITOR[0]) {
                                 setUser(Object.setPrototypeOf(body, MonitorModel.prototype))
                             } else if (userType === UserType.STUDENT[0]) {
@@ -143,7 +145,7 @@ function useProvideAuth() {
                             return true
                         }
                         if (response.status === 400) {
-                            swalErr.fire({text: body.message})
+                            swalErr.fire({text: message})
                         }
                         return false
                     }
@@ -155,7 +157,16 @@ function useProvideAuth() {
         setUser(false);
         sessionStorage.removeItem("user");
         sessionStorage.removeItem("type");
+        sessionStorage.removeItem("token");
     };
+
+    useEffect(() => watchUnauthorized(() => {
+        if (!sessionStorage.getItem('token'))
+            return;
+        signOut();
+        toastErr.fire({title: "Votre session a expiré, veuillez vous reconnecter"}).then()
+        // eslint-disable-next-line react-hooks/exhaustive-deps
+    }), []);
     const isMonitor = () => {
         return user instanceof MonitorModel;
     }
@@ -11,6 +11,7 @@ export default class OfferDTO {
     horaireTravail;
     nbHeureSemaine
     idSession
+    capacity
 
 
     constructor($title,
@@ -24,7 +25,8 @@ export default class OfferDTO {
                 $dateFin,
                 $horaireTravail,
                 $nbHeureSemaine,
-                $idSession
+                $idSession,
+                $capacity
     ) {
         this.title = $title;
         this.department = $department;
@@ -38,5 +40,6 @@ export default class OfferDTO {
         this.horaireTravail = $horaireTravail;
         this.nbHeureSemaine = $nbHeureSemaine;
         this.idSession = $idSession;
+        this.capacity = $capacity;
     }
 }
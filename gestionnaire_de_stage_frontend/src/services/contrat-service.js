@@ -1,4 +1,4 @@
-import {methods, requestInit, urlBackend} from "./serviceUtils";
+import {fetchDocument, idempotentRequestInit, methods, requestInit, urlBackend} from "./serviceUtils";
 import {swalErr, toast, toastErr} from "../utility";
 import Swal from "sweetalert2";
 import {UserType} from "../enums/UserTypes";
@@ -78,7 +78,8 @@ export async function getAllOfferAppReadyToSign(idManager) {
 }
 
 export async function startSignerFetch(idOfferApplication, idManager) {
-    return await fetch(`${urlBackend}/contracts/start`, requestInit(methods.POST, {
+    const url = `${urlBackend}/contracts/start`;
+    return await fetch(url, idempotentRequestInit(methods.POST, url, {
         idOfferApplication: idOfferApplication,
         idManager: idManager
     })).then(
@@ -114,6 +115,10 @@ export async function getSignedContractForStudent(idStudent) {
     );
 }
 
+export async function getContractPDF(contractId) {
+    return await fetchDocument(`${url}/pdf/${contractId}`);
+}
+
 export async function getOneOrMoreContracts(id, userType) {
     return await fetch(`${urlBackend}/contracts/${userType}/signed/${id}`, requestInit(methods.GET));
 }
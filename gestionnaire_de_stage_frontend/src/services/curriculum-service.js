@@ -1,4 +1,4 @@
-import {methods, requestInit, urlBackend} from "./serviceUtils";
+import {authorizationHeader, fetchDocument, methods, requestInit, urlBackend} from "./serviceUtils";
 import {swalErr, toast, toastErr} from "../utility";
 
 export async function uploadFile(file, id) {
@@ -8,12 +8,13 @@ export async function uploadFile(file, id) {
     await fetch(`${urlBackend}/curriculum/upload?id=${id}`, {
         mode: 'cors',
         method: "POST",
+        headers: authorizationHeader(),
         body: formData
     }).then(response => {
         if (response.status === 201) {
             toast.fire({title: `${file[0].name} a été téléversé avec succès!`}).then();
             return
-        } else if (response.status === 400) {
+        } else if (response.status === 400 || response.status === 413) {
             toastErr.fire({title: `Ce fichier n'a pas pu être téléversé...`}).then();
         }
         response.json().then(data =>
@@ -51,6 +52,10 @@ export async function getAllCurriculumsByStudent(studentID) {
     );
 }
 
+export async function getCurriculumDocument(curriculumID) {
+    return await fetchDocument(`${urlBackend}/curriculum/document/${curriculumID}`);
+}
+
 export async function setPrincipalCurriculum(studentID, curriculumID) {
     return await fetch(`${urlBackend}/student/set_principal/${studentID}/${curriculumID}`,
         requestInit(methods.GET)).then(
@@ -103,3 +108,20 @@ export async function validateCurriculum(id, valid) {
 
 
 
+
+export async function searchCurriculums(q, monitorEmail, page = 0, size = 20) {
+    const scope = monitorEmail ? `/monitor/${monitorEmail}` : "";
+    const params = new URLSearchParams({q, page, size});
+    return await fetch(`${urlBackend}/curriculum/search${scope}?${params}`,
+        requestInit(methods.GET)).then(
+        response =>
+            response.json().then(
+                body => {
+                    if (response.status === 200)
+                        return body
+                    else if (response.status === 400)
+                        swalErr.fire({text: body.message})
+                    return {curriculums: [], total: 0}
+                }), err => console.error(err)
+    );
+}
@@ -21,8 +21,23 @@ export async function createOffer(offer) {
         }, err => console.error(err))
 }
 
-export async function getAllOffersNotYetApplied(studentId) {
-    return await fetch(`${urlBackend}/offers/${studentId}`, requestInit(methods.GET)).then(
+export async function getAllOffersNotYetApplied(studentId, sessionId, page = 0, size = 20) {
+    const session = sessionId ? `&sessionId=${sessionId}` : "";
+    return await fetch(`${urlBackend}/offers/${studentId}?page=${page}&size=${size}${session}`, requestInit(methods.GET)).then(
+        response => {
+            return response.json().then(
+                body => {
+                    if (response.status === 200)
+                        return body;
+                    console.error(response)
+                    return []
+                })
+        }, err => console.error(err)
+    );
+}
+
+export async function getRecommendedOffers(studentId) {
+    return await fetch(`${urlBackend}/offers/recommendations/${studentId}`, requestInit(methods.GET)).then(
         response => {
             return response.json().then(
                 body => {
@@ -63,6 +78,27 @@ export async function getAllOffersValid() {
     );
 }
 
+export async function searchOffers({q, department, sessionId, page = 0, size = 20}) {
+    const params = new URLSearchParams({page, size});
+    if (q)
+        params.append("q", q);
+    if (department)
+        params.append("department", department);
+    if (sessionId)
+        params.append("sessionId", sessionId);
+    return await fetch(`${urlBackend}/offers/search?${params}`, requestInit(methods.GET)).then(
+        response => {
+            return response.json().then(
+                body => {
+                    if (response.status === 200)
+                        return body
+                    console.error(response)
+                    return {offers: [], total: 0, departments: {}, sessions: {}, salaryRanges: {}}
+                })
+        }, err => console.error(err)
+    );
+}
+
 export async function validateOffer(offerId, isValid) {
     return await fetch(`${urlBackend}/offers/validate`, requestInit(methods.POST, {
         id: offerId,
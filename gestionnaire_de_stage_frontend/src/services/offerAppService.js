@@ -1,4 +1,4 @@
-import {methods, requestInit, urlBackend} from "./serviceUtils";
+import {idempotentRequestInit, methods, requestInit, urlBackend} from "./serviceUtils";
 import {swalErr, toast, toastErr} from "../utility";
 import OfferApp from "../models/OfferApp";
 
@@ -6,7 +6,8 @@ export async function applyToOffer(offerApp) {
     if (!_isApplicationValid(offerApp))
         return;
 
-    return await fetch(`${urlBackend}/applications/apply`, requestInit(methods.POST, offerApp)).then(
+    const url = `${urlBackend}/applications/apply`;
+    return await fetch(url, idempotentRequestInit(methods.POST, url, offerApp)).then(
         response =>
             response.json().then(
                 body => {
@@ -96,3 +97,45 @@ function _isApplicationValid(offerApp) {
         offerApp.idStudent;
 }
 
+
+export async function setApplicationRank(idOfferApp, rank, side) {
+    return await fetch(`${urlBackend}/applications/${side}/update_rank`, requestInit(methods.POST, {
+        idOfferApplied: idOfferApp,
+        rank: rank
+    })).then(
+        response =>
+            response.json().then((body) => {
+                if (response.status === 200)
+                    toast.fire({title: "Préférence enregistrée"})
+                else if (response.status === 400)
+                    toastErr.fire({title: body.message})
+                return response.ok;
+            }), err => console.error(err)
+    );
+}
+
+export async function proposePlacement(sessionId) {
+    return await fetch(`${urlBackend}/applications/placement/${sessionId}`, requestInit(methods.GET)).then(
+        response =>
+            response.json().then((body) => {
+                if (response.status === 200)
+                    return body;
+                else if (response.status === 400)
+                    toastErr.fire({title: body.message})
+                return null;
+            }), err => console.error(err)
+    );
+}
+
+export async function applyPlacement(sessionId, plan) {
+    return await fetch(`${urlBackend}/applications/placement/${sessionId}`, requestInit(methods.POST, plan)).then(
+        response =>
+            response.json().then((body) => {
+                if (response.status === 200)
+                    toast.fire({title: body.message})
+                else if (response.status === 400)
+                    swalErr.fire({text: body.message})
+                return response.ok;
+            }), err => console.error(err)
+    );
+}
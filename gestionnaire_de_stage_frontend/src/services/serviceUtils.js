@@ -5,6 +5,24 @@ export const methods = {
     PUT: 'PUT',
     DELETE: 'DELETE'
 }
+export const authorizationHeader = () => {
+    const token = sessionStorage.getItem('token')
+    return token ? {'Authorization': 'Bearer ' + token} : {}
+}
+
+// A 401 on a request sent with a token means the session expired, the listener signs the user out
+export const watchUnauthorized = (onUnauthorized) => {
+    const originalFetch = window.fetch
+    window.fetch = (input, init) => originalFetch(input, init).then(response => {
+        if (response.status === 401 && init && init.headers && init.headers['Authorization'])
+            onUnauthorized()
+        return response
+    })
+    return () => {
+        window.fetch = originalFetch
+    }
+}
+
 export const requestInit = (method, body, isString) => {
     let value = {
         method: method,
@@ -13,7 +31,8 @@ export const requestInit = (method, body, isString) => {
         credentials: 'same-origin',
         headers: {
             'Content-Type': 'application/json',
-            'Accept': 'application/json'
+            'Accept': 'application/json',
+            ...authorizationHeader()
         }
     }
 
@@ -26,3 +45,30 @@ export const requestInit = (method, body, isString) => {
     return value
 }
 
+// The key is derived from the request, so resubmitting the same form replays the first response
+export const idempotentRequestInit = (method, url, body) => {
+    let value = requestInit(method, body)
+    value.headers['Idempotency-Key'] = hashRequest(method + ' ' + url + ' ' + (value.body || ''))
+    return value
+}
+
+const hashRequest = (text) => {
+    let h1 = 0xdeadbeef, h2 = 0x41c6ce57
+    for (let i = 0; i < text.length; i++) {
+        const ch = text.charCodeAt(i)
+        h1 = Math.imul(h1 ^ ch, 2654435761)
+        h2 = Math.imul(h2 ^ ch, 1597334677)
+    }
+    h1 = Math.imul(h1 ^ (h1 >>> 16), 2246822507) ^ Math.imul(h2 ^ (h2 >>> 13), 3266489909)
+    h2 = Math.imul(h2 ^ (h2 >>> 16), 2246822507) ^ Math.imul(h1 ^ (h1 >>> 13), 3266489909)
+    return (h2 >>> 0).toString(16).padStart(8, '0') + (h1 >>> 0).toString(16).padStart(8, '0')
+}
+
+
+export const fetchDocument = (url) =>
+    fetch(url, {method: methods.GET, mode: 'cors', cache: 'no-cache', headers: authorizationHeader()}).then(
+        response => response.ok ? response.blob() : null,
+        err => {
+            console.error(err);
+            return null;
+        });
@@ -1,4 +1,4 @@
-import {methods, requestInit, urlBackend} from "./serviceUtils";
+import {fetchDocument, idempotentRequestInit, methods, requestInit, urlBackend} from "./serviceUtils";
 
 export async function supervisorCreateForm(stage) {
     return createForm('supervisor', stage);
@@ -11,7 +11,8 @@ export async function monitorCreateForm(stage) {
 
 
 export async function createForm(userType, stage) {
-    return await fetch(`${urlBackend}/stages/${userType}/fill_form`, requestInit(methods.POST, stage));
+    const url = `${urlBackend}/stages/${userType}/fill_form`;
+    return await fetch(url, idempotentRequestInit(methods.POST, url, stage));
 }
 
 
@@ -23,6 +24,14 @@ export async function getAllStageByMonitor(idMonitor) {
     return getAllStage('monitor', idMonitor)
 }
 
+export async function getEvalMilieuStagePDF(idStage) {
+    return fetchDocument(`${urlBackend}/stages/eval_milieu_stage/${idStage}`);
+}
+
+export async function getEvalStagiairePDF(idStage) {
+    return fetchDocument(`${urlBackend}/stages/eval_stagiaire/${idStage}`);
+}
+
 function getAllStage(userType, idMonitor) {
     return fetch(`${urlBackend}/stages/${userType}/${idMonitor}`, requestInit(methods.GET)).then(res => res.json());
 }
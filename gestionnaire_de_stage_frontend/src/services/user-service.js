@@ -6,6 +6,56 @@ export async function getNotificationsByUser(userId) {
     return await response.json();
 }
 
+export async function getNotificationHistoryByUser(userId, before, size = 20) {
+    const cursor = before ? `&beforeDate=${before.createdDate}&beforeId=${before.id}` : "";
+    const response = await fetch(`${urlBackend}/notification/history/${userId}?size=${size}${cursor}`, requestInit(methods.GET));
+    return await response.json();
+}
+
+export async function getUnreadNotificationCount(userId) {
+    const response = await fetch(`${urlBackend}/notification/unread_count/${userId}`, requestInit(methods.GET));
+    return await response.json();
+}
+
+// An EventSource cannot send the Authorization header, it opens the stream with a short-lived ticket in the URL
+export function subscribeToNotifications(userId, onNotification) {
+    if (typeof EventSource === "undefined")
+        return null;
+    let eventSource = null;
+    let lastEventId = null;
+    let closed = false;
+    const connect = () => fetch(`${urlBackend}/notification/stream_ticket`, requestInit(methods.POST))
+        .then(response => response.ok ? response.json() : Promise.reject(response.status))
+        .then(body => {
+            if (closed)
+                return;
+            const resume = lastEventId ? `&lastEventId=${lastEventId}` : "";
+            eventSource = new EventSource(`${urlBackend}/notification/stream/${userId}?access_token=${encodeURIComponent(body.ticket)}${resume}`);
+            eventSource.addEventListener("notification", event => {
+                lastEventId = event.lastEventId || lastEventId;
+                onNotification(JSON.parse(event.data));
+            });
+            // The ticket has expired when the EventSource reconnects by itself, a new one is requested
+            eventSource.onerror = () => {
+                eventSource.close();
+                reconnect();
+            };
+        })
+        .catch(status => {
+            if (status !== 401)
+                reconnect();
+        });
+    const reconnect = () => {
+        if (!closed)
+            setTimeout(connect, 5000);
+    };
+    connect();
+    return {close: () => {
+        closed = true;
+        eventSource?.close();
+    }};
+}
+
 export async function updateSeen(notificationId) {
     return await fetch(`${urlBackend}/notification/set_seen/${notificationId}`, requestInit(methods.GET)).then(response => {
         return response.json().then(body => {
@@ -18,6 +68,18 @@ export async function updateSeen(notificationId) {
     })
 }
 
+export async function updateAllSeen(userId) {
+    return await fetch(`${urlBackend}/notification/set_all_seen/${userId}`, requestInit(methods.PUT)).then(response => {
+        return response.json().then(body => {
+            if (response.status === 200)
+                toast.fire({title: body.message});
+            else if (response.status === 400)
+                toastErr.fire({title: body.message,});
+            return response.ok
+        })
+    })
+}
+
 export async function getSupervisors() {
     const response = await fetch(`${urlBackend}/supervisor`, requestInit(methods.GET));
     return await response.json();
@@ -27,19 +27,6 @@ export const toastErr = Swal.mixin({
     timer: 3000,
 });
 
-export const toPdfBlob = (pdfFile) => {
-    if (!pdfFile)
-        return null;
-
-    const decodedChars = atob(pdfFile);
-    const numBytes = new Array(decodedChars.length);
-    for (let i = 0; i < numBytes.length; i++)
-        numBytes[i] = decodedChars.charCodeAt(i);
-
-    // noinspection JSCheckFunctionSignatures
-    return new Blob([new Uint8Array(numBytes), {type: 'application/pdf'}]);
-}
-
 /**
  * @param {Blob} blob
  * @param {string} fileName